@@ -0,0 +1,118 @@
+import benchmarks.OperacoesBanco;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+// Implementação da ponte de benchmark para um XuBank com uma população sintética
+public class AlvoBanco implements OperacoesBanco {
+    static final String SENHA = "Senha@123";
+
+    private XuBank banco;
+    private String[] cpfs;
+    private ForkJoinPool pool;
+    private final WritableByteChannel descarte = Channels.newChannel(OutputStream.nullOutputStream());
+
+    @Override
+    public void preparar(int clientes) throws Exception {
+        banco = silencioso(XuBank::new);
+        cpfs = new String[clientes];
+
+        silencioso(() -> {
+            for (int i = 0; i < clientes; i++) {
+                cpfs[i] = CpfsSinteticos.gerar(i);
+                banco.CadastrarCliente("Cliente Benchmark", cpfs[i], SENHA, 1000.0 + (i % 10_000));
+                Cliente cliente = banco.buscarClientePorCpf(cpfs[i]);
+                if (cliente == null) {
+                    continue;
+                }
+                Conta conta = criarConta(1 + (i % 4), cliente);
+                cliente.AdicionarConta(conta);
+                conta.DepositarCentavos(10_000 + (i % 1_000_000));
+            }
+            return null;
+        });
+    }
+
+    private static Conta criarConta(int tipo, Cliente cliente) throws SecurityException {
+        switch (tipo) {
+            case 1: return new ContaCorrente(cliente);
+            case 2: return new ContaPoupanca(cliente);
+            case 3: return new ContaRendaFixa(cliente);
+            default: return new ContaInvestimento(cliente);
+        }
+    }
+
+    @Override
+    public Object buscarClientePorCpf(int indice) {
+        return banco.buscarClientePorCpf(cpfs[indice % cpfs.length]);
+    }
+
+    @Override
+    public boolean autenticarCliente(int indice) {
+        return banco.autenticarCliente(cpfs[indice % cpfs.length], SENHA);
+    }
+
+    @Override
+    public String relatorioCustodia() {
+        return banco.RelatorioCustodia();
+    }
+
+    @Override
+    public String clientesExtremos() {
+        return banco.ClientesExtremos();
+    }
+
+    @Override
+    public int maioresSaldos(int quantidade) {
+        return banco.maioresSaldos(quantidade).size();
+    }
+
+    @Override
+    public String relatorioSaldoMedio() {
+        return banco.gerarRelatorioSaldoMedio();
+    }
+
+    // Codificação UTF-8 incluída; os bytes vão para um canal que descarta tudo
+    @Override
+    public long exportarContas(boolean jsonLinhas) throws Exception {
+        return banco.exportarContas(descarte, jsonLinhas ? FormatoExportacao.JSON_LINHAS : FormatoExportacao.CSV);
+    }
+
+    @Override
+    public void recuarAtualizacoes(int meses) {
+        LocalDate data = LocalDate.now().minusMonths(meses);
+        for (String cpf : cpfs) {
+            Cliente cliente = banco.buscarClientePorCpf(cpf);
+            if (cliente != null) {
+                cliente.paraCadaConta(conta -> conta.dataUltimaAtualizacao = data);
+            }
+        }
+    }
+
+    @Override
+    public Object processarRendimentoMensal(int paralelismo) throws Exception {
+        if (pool == null || pool.getParallelism() != paralelismo) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(paralelismo);
+        }
+        return banco.processarRendimentoMensal(pool);
+    }
+
+    // CadastrarCliente escreve no console; durante a preparação isso só atrapalha
+    static <T> T silencioso(Callable<T> acao) throws Exception {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return acao.call();
+        } finally {
+            System.setOut(original);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import benchmarks.OperacoesConta;
+
+import java.time.LocalDate;
+
+// Implementação da ponte de benchmark para uma conta de um cliente cadastrado no XuBank
+public class AlvoConta implements OperacoesConta {
+    private static final long ANO_MILLIS = 365L * 24 * 60 * 60 * 1000;
+    private static final long MES_MILLIS = 30L * 24 * 60 * 60 * 1000;
+
+    private Conta conta;
+    private HistoricoMovimentos historico;
+    private long saldoInicial;
+    private long piso;
+    private long teto;
+
+    @Override
+    public void preparar(int tipoConta, long saldoInicialCentavos) throws Exception {
+        XuBank banco = AlvoBanco.silencioso(XuBank::new);
+        String cpf = CpfsSinteticos.gerar(tipoConta);
+        AlvoBanco.silencioso(() -> banco.CadastrarCliente("Cliente Benchmark", cpf, AlvoBanco.SENHA, 5000.0));
+        Cliente cliente = banco.buscarClientePorCpf(cpf);
+
+        switch (tipoConta) {
+            case 1: conta = new ContaCorrente(cliente); break;
+            case 2: conta = new ContaPoupanca(cliente); break;
+            case 3: conta = new ContaRendaFixa(cliente); break;
+            case 4: conta = new ContaInvestimento(cliente); break;
+            default: throw new IllegalArgumentException("Tipo de conta inválido: " + tipoConta);
+        }
+        cliente.AdicionarConta(conta);
+
+        this.saldoInicial = saldoInicialCentavos;
+        this.piso = saldoInicialCentavos / 2;
+        this.teto = saldoInicialCentavos * 2;
+        conta.setSaldoCentavos(saldoInicialCentavos, TipoMovimento.AJUSTE);
+    }
+
+    @Override
+    public boolean depositar(long centavos) throws Exception {
+        boolean resultado = conta.DepositarCentavos(centavos);
+        manterSaldo();
+        return resultado;
+    }
+
+    @Override
+    public boolean sacar(long centavos) throws Exception {
+        boolean resultado = conta.SacarCentavos(centavos);
+        manterSaldo();
+        return resultado;
+    }
+
+    @Override
+    public boolean depositarReais(double valor) throws Exception {
+        boolean resultado = conta.Depositar(valor);
+        manterSaldo();
+        return resultado;
+    }
+
+    @Override
+    public boolean sacarReais(double valor) throws Exception {
+        boolean resultado = conta.Sacar(valor);
+        manterSaldo();
+        return resultado;
+    }
+
+    @Override
+    public boolean depositarSincronizado(long centavos) throws Exception {
+        synchronized (conta) {
+            return depositar(centavos);
+        }
+    }
+
+    @Override
+    public boolean sacarSincronizado(long centavos) throws Exception {
+        synchronized (conta) {
+            return sacar(centavos);
+        }
+    }
+
+    @Override
+    public boolean depositarComTaxaChequeEspecial(long centavos) throws Exception {
+        conta.alterarSaldo(-centavos, TipoMovimento.AJUSTE); // coloca a conta no cheque especial antes do depósito
+        return conta.DepositarCentavos(centavos);
+    }
+
+    @Override
+    public double calcularRendimento() throws Exception {
+        double rendimento = conta.CalcularRendimento();
+        manterSaldo();
+        return rendimento;
+    }
+
+    @Override
+    public void atualizarRendimento(int meses) throws Exception {
+        conta.setSaldoCentavos(saldoInicial, TipoMovimento.AJUSTE);
+        conta.dataUltimaAtualizacao = LocalDate.now().minusMonths(meses);
+        conta.AtualizarRendimento();
+    }
+
+    @Override
+    public long preencherHistorico(int movimentos) {
+        historico = new HistoricoMovimentos(movimentos);
+        long agora = System.currentTimeMillis();
+        long passo = Math.max(ANO_MILLIS / movimentos, 1);
+        for (int i = 0; i < movimentos; i++) {
+            historico.registrar(agora - ANO_MILLIS + i * passo, TipoMovimento.DEPOSITO, 150_00);
+        }
+        return historico.getBytesOcupados();
+    }
+
+    @Override
+    public int listarMovimentosUltimoMes() {
+        long agora = System.currentTimeMillis();
+        return historico.listar(agora - MES_MILLIS, agora).size();
+    }
+
+    @Override
+    public void configurarFonteRendimento(String fonte) {
+        Conta.configurarTaxasMercado(new TaxasMercado(FonteRendimento.fromString(fonte)));
+    }
+
+    @Override
+    public long contarMovimentosUltimoMes() {
+        long agora = System.currentTimeMillis();
+        return historico.contar(agora - MES_MILLIS, agora);
+    }
+
+    // Rendimentos e taxas fazem o saldo derivar; mantém a conta numa faixa estável
+    private void manterSaldo() throws SecurityException {
+        long saldo = conta.getSaldoCentavos();
+        if (saldo < piso || saldo > teto) {
+            conta.setSaldoCentavos(saldoInicial, TipoMovimento.AJUSTE);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import benchmarks.OperacoesHttp;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Implementação da ponte de benchmark: a API HTTP num banco com uma conta corrente por
+// cliente, chamada em loopback pelo HttpClient do JDK. As requisições são montadas na
+// preparação, para que a medição fique no servidor e no transporte.
+public class AlvoHttp implements OperacoesHttp {
+    private XuBank banco;
+    private HttpApi api;
+    private HttpClient cliente;
+    private HttpRequest[] depositos;
+    private HttpRequest[] consultas;
+
+    @Override
+    public void iniciar(String executor, int threads, int clientes) throws Exception {
+        banco = AlvoBanco.silencioso(XuBank::new);
+        api = new HttpApi(banco, new InetSocketAddress("127.0.0.1", 0), HttpApi.criarExecutor(executor, threads));
+        api.iniciar();
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        depositos = new HttpRequest[clientes];
+        consultas = new HttpRequest[clientes];
+        String base = "http://127.0.0.1:" + api.getPorta();
+        AlvoBanco.silencioso(() -> {
+            for (int i = 0; i < clientes; i++) {
+                String cpf = CpfsSinteticos.gerar(i);
+                banco.CadastrarCliente("Cliente Benchmark", cpf, AlvoBanco.SENHA, 1000.0);
+                Cliente titular = banco.buscarClientePorCpf(cpf);
+                Conta conta = new ContaCorrente(titular);
+                titular.AdicionarConta(conta);
+
+                String autorizacao = "Basic " + Base64.getEncoder()
+                        .encodeToString((cpf + ":" + AlvoBanco.SENHA).getBytes(StandardCharsets.UTF_8));
+                depositos[i] = HttpRequest.newBuilder(URI.create(base + "/contas/" + conta.getNumero() + "/depositos"))
+                        .header("Authorization", autorizacao)
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"valor\": 1.00}")).build();
+                consultas[i] = HttpRequest.newBuilder(URI.create(base + "/contas"))
+                        .header("Authorization", autorizacao).GET().build();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int depositar(int indice) throws Exception {
+        return cliente.send(depositos[indice % depositos.length], HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Override
+    public int consultarContas(int indice) throws Exception {
+        return cliente.send(consultas[indice % consultas.length], HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Override
+    public void parar() {
+        api.parar(0);
+        banco.encerrar();
+    }
+}
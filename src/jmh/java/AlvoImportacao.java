@@ -0,0 +1,51 @@
+import benchmarks.OperacoesImportacao;
+
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+
+// Implementação da ponte de benchmark: o mesmo arquivo de clientes (sem contas, para não
+// esgotar o alocador de números entre invocações) carregado num banco novo a cada chamada
+public class AlvoImportacao implements OperacoesImportacao {
+    private String csv;
+    private String[] cpfs;
+    private ForkJoinPool pool;
+
+    @Override
+    public void preparar(int clientes) {
+        StringBuilder sb = new StringBuilder(clientes * 48);
+        sb.append("cpf,nome,senha,renda_mensal,contas\n");
+        cpfs = new String[clientes];
+        for (int i = 0; i < clientes; i++) {
+            cpfs[i] = CpfsSinteticos.gerar(i);
+            sb.append(cpfs[i]).append(",Cliente Benchmark,").append(AlvoBanco.SENHA).append(',')
+                    .append(1000 + (i % 10_000)).append(",\n");
+        }
+        csv = sb.toString();
+    }
+
+    @Override
+    public long importarLote(int paralelismo) throws Exception {
+        if (pool == null || pool.getParallelism() != paralelismo) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(paralelismo);
+        }
+        XuBank banco = new XuBank();
+        return banco.importarClientes(new StringReader(csv), new StringBuilder(), pool).getAceitos();
+    }
+
+    @Override
+    public long cadastrarUmAUm() throws Exception {
+        return AlvoBanco.silencioso(() -> {
+            XuBank banco = new XuBank();
+            long cadastrados = 0;
+            for (String cpf : cpfs) {
+                if (banco.CadastrarCliente("Cliente Benchmark", cpf, AlvoBanco.SENHA, 1000.0)) {
+                    cadastrados++;
+                }
+            }
+            return cadastrados;
+        });
+    }
+}
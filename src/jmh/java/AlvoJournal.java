@@ -0,0 +1,52 @@
+import benchmarks.OperacoesJournal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+// Implementação da ponte de benchmark para um XuBank gravando num journal temporário
+public class AlvoJournal implements OperacoesJournal {
+    private XuBank banco;
+    private Path diretorio;
+    private Conta[] contas;
+
+    @Override
+    public void preparar(String durabilidade, long latenciaMicros, int quantidade) throws Exception {
+        diretorio = Files.createTempDirectory("xubank-journal-bench");
+        banco = AlvoBanco.silencioso(() -> XuBank.recuperar(diretorio,
+                DurabilidadeJournal.fromString(durabilidade), latenciaMicros));
+        contas = new Conta[quantidade];
+
+        AlvoBanco.silencioso(() -> {
+            for (int i = 0; i < quantidade; i++) {
+                String cpf = CpfsSinteticos.gerar(i);
+                banco.CadastrarCliente("Cliente Benchmark", cpf, AlvoBanco.SENHA, 5000.0);
+                Cliente cliente = banco.buscarClientePorCpf(cpf);
+                contas[i] = new ContaPoupanca(cliente);
+                cliente.AdicionarConta(contas[i]);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean depositar(int indice) throws Exception {
+        return contas[indice % contas.length].DepositarCentavos(1_00);
+    }
+
+    @Override
+    public long lotesGravados() {
+        return banco.getJournal().getLotesGravados();
+    }
+
+    @Override
+    public void encerrar() throws Exception {
+        banco.encerrar();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(diretorio);
+    }
+}
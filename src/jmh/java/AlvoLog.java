@@ -0,0 +1,78 @@
+import benchmarks.OperacoesLog;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+// Implementação da ponte de benchmark: um writer próprio num diretório temporário, fora do security.log
+public class AlvoLog implements OperacoesLog {
+    private static final int REGISTROS = 1024;
+
+    private final LogRecord[] registros = new LogRecord[REGISTROS];
+    private final LogTextFormat formatoTexto = new LogTextFormat();
+    private final LogBinaryFormat formatoBinario = new LogBinaryFormat();
+    private final StringBuilder texto = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer bytes = ByteBuffer.allocate(1024);
+    private LogFormat formato;
+    private Path diretorio;
+    private AsyncLogWriter writer;
+
+    @Override
+    public void preparar(String nomeFormato) throws Exception {
+        formato = LogFormat.fromString(nomeFormato);
+        long agora = System.currentTimeMillis();
+        for (int i = 0; i < REGISTROS; i++) {
+            registros[i] = new LogRecord(agora + i, false, "SAQUE_REALIZADO", "Saque realizado",
+                    100_000 + i * 7919, 1_00L + i * 37L, null);
+        }
+        formatoBinario.iniciarSegmento();
+
+        diretorio = Files.createTempDirectory("xubank-log-bench");
+        String arquivo = diretorio.resolve(formato == LogFormat.BINARIO ? "security.bin" : "security.log").toString();
+        writer = new AsyncLogWriter(arquivo, 8192, 512, LogOverflowPolicy.BLOQUEAR, formato,
+                new LogRotation(64L * 1024 * 1024, 0, 2));
+    }
+
+    @Override
+    public int formatar(int indice) {
+        LogRecord registro = registros[indice & (REGISTROS - 1)];
+        if (formato == LogFormat.BINARIO) {
+            int antes = formatoBinario.getTamanho();
+            formatoBinario.codificar(registro);
+            int produzidos = formatoBinario.getTamanho() - antes;
+            if (formatoBinario.getTamanho() > 32 * 1024) {
+                formatoBinario.limpar();
+            }
+            return produzidos;
+        }
+
+        texto.setLength(0);
+        formatoTexto.anexar(texto, registro);
+        bytes.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(texto), bytes, true);
+        return bytes.position();
+    }
+
+    @Override
+    public void publicar(int indice) {
+        writer.publicar(LogRecord.seguranca("SAQUE_REALIZADO", "Saque realizado",
+                100_000 + (indice & 0xFFFF), 1_00L + (indice & 0xFFF)));
+    }
+
+    @Override
+    public void encerrar() throws Exception {
+        writer.encerrar(30_000);
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(diretorio);
+    }
+}
@@ -0,0 +1,19 @@
+import benchmarks.OperacoesMetricas;
+
+// Implementação da ponte de benchmark: um histograma isolado, fora dos registrados no JMX
+public class AlvoMetricas implements OperacoesMetricas {
+    private final LatencyHistogram histograma = new LatencyHistogram("benchmark");
+
+    @Override
+    public void registrarLatencia(long nanos) {
+        histograma.registrar(nanos);
+    }
+
+    // Custo fixo de um ponto de medição: duas leituras de relógio e um registro
+    @Override
+    public long medirOperacaoVazia() {
+        long inicio = Metrics.inicio();
+        Metrics.registrar(histograma, inicio);
+        return inicio;
+    }
+}
@@ -0,0 +1,65 @@
+import benchmarks.OperacoesSnapshot;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+// Implementação da ponte de benchmark: gera uma população sintética, grava o snapshot
+// dela e mede a carga. Os números de conta começam acima da faixa do alocador para
+// permitir populações maiores que as 900 mil contas de seis dígitos.
+public class AlvoSnapshot implements OperacoesSnapshot {
+    private static final int PRIMEIRO_NUMERO = 1_000_000;
+
+    private Path diretorio;
+    private Path snapshot;
+    private XuBank origem;
+    private XuBank carregado;
+
+    @Override
+    public void preparar(int clientes, int contasPorCliente) throws Exception {
+        diretorio = Files.createTempDirectory("xubank-snapshot-bench");
+        origem = AlvoBanco.silencioso(XuBank::new);
+
+        byte[] salt = PasswordUtils.generateSalt();
+        byte[] hash = PasswordUtils.hashPassword(AlvoBanco.SENHA, salt);
+        LocalDate hoje = LocalDate.now();
+        int numero = PRIMEIRO_NUMERO;
+        for (int i = 0; i < clientes; i++) {
+            Cliente cliente = Cliente.restaurar(9_000_000_000L + i, "Cliente Benchmark " + (i % 1000),
+                    salt, hash, 1000.0 + (i % 10_000));
+            for (int j = 0; j < contasPorCliente; j++) {
+                int tipo = 1 + (i + j) % 4;
+                cliente.restaurarConta(Conta.restaurar(tipo, cliente, numero++, 10_000 + (i % 1_000_000), hoje));
+            }
+            origem.restaurarCliente(cliente);
+        }
+        snapshot = SnapshotBanco.gravar(origem, 1, diretorio);
+    }
+
+    @Override
+    public long carregar(int threads) throws Exception {
+        carregado = null; // libera a carga anterior antes de reconstruir
+        XuBank banco = AlvoBanco.silencioso(XuBank::new);
+        SnapshotBanco.carregar(snapshot, banco, threads);
+        carregado = banco;
+        return banco.getNumeroClientes();
+    }
+
+    @Override
+    public long gravar() throws Exception {
+        return Files.size(SnapshotBanco.gravar(origem, 2, diretorio));
+    }
+
+    @Override
+    public void encerrar() throws Exception {
+        carregado = null;
+        origem = null;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(diretorio);
+    }
+}
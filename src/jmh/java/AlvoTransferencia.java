@@ -0,0 +1,51 @@
+import benchmarks.OperacoesTransferencia;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Implementação da ponte de benchmark: contas correntes de clientes distintos, com
+// saldo alto o bastante para que as transferências aleatórias nunca sejam negadas
+public class AlvoTransferencia implements OperacoesTransferencia {
+    private XuBank banco;
+    private int[] numeros;
+
+    @Override
+    public void preparar(int contas) throws Exception {
+        banco = AlvoBanco.silencioso(XuBank::new);
+        numeros = new int[contas];
+
+        AlvoBanco.silencioso(() -> {
+            for (int i = 0; i < contas; i++) {
+                String cpf = CpfsSinteticos.gerar(i);
+                banco.CadastrarCliente("Cliente Benchmark", cpf, AlvoBanco.SENHA, 5000.0);
+                Cliente cliente = banco.buscarClientePorCpf(cpf);
+                ContaCorrente conta = new ContaCorrente(cliente);
+                cliente.AdicionarConta(conta);
+                conta.DepositarCentavos(1_000_000_00L);
+                numeros[i] = conta.getNumero();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean transferir(int indiceOrigem, int indiceDestino, long centavos) throws Exception {
+        return banco.transferir(numeros[indiceOrigem], numeros[indiceDestino], centavos);
+    }
+
+    @Override
+    public int transferirLote(int[] indicesOrigem, int[] indicesDestino, long centavos) throws Exception {
+        List<Transferencia> lote = new ArrayList<>(indicesOrigem.length);
+        for (int i = 0; i < indicesOrigem.length; i++) {
+            lote.add(new Transferencia(numeros[indicesOrigem[i]], numeros[indicesDestino[i]], centavos));
+        }
+
+        int realizadas = 0;
+        for (boolean realizada : banco.transferirLote(lote)) {
+            if (realizada) {
+                realizadas++;
+            }
+        }
+        return realizadas;
+    }
+}
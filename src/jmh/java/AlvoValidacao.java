@@ -0,0 +1,37 @@
+import benchmarks.OperacoesValidacao;
+
+// Implementação da ponte de benchmark: registros de cadastro como chegam de um arquivo
+// de migração (CPF com pontuação, nome com acento, senha válida)
+public class AlvoValidacao implements OperacoesValidacao {
+    private static final String[] NOMES = {"Maria Souza", "João Silva", "Ana Lima", "Cláudio Antônio Pereira"};
+
+    private String[] cpfs;
+    private String[] nomes;
+    private String[] senhas;
+
+    @Override
+    public void preparar(int registros) {
+        cpfs = new String[registros];
+        nomes = new String[registros];
+        senhas = new String[registros];
+        for (int i = 0; i < registros; i++) {
+            String cpf = CpfsSinteticos.gerar(i);
+            cpfs[i] = cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+            nomes[i] = NOMES[i % NOMES.length];
+            senhas[i] = "Senha@" + (100 + i % 900);
+        }
+    }
+
+    @Override
+    public boolean validarCadastro(int indice) {
+        return ValidationUtils.validarCPF(cpfs[indice])
+                && ValidationUtils.validarNome(nomes[indice])
+                && ValidationUtils.validarSenha(senhas[indice])
+                && ValidationUtils.sanitizarString(nomes[indice]) == nomes[indice];
+    }
+
+    @Override
+    public long normalizarCpf(int indice) {
+        return ValidationUtils.normalizarCpf(cpfs[indice]);
+    }
+}
@@ -0,0 +1,35 @@
+// Gera CPFs válidos e determinísticos a partir de um índice (usado em benchmarks e simulações)
+public final class CpfsSinteticos {
+    private CpfsSinteticos() {
+    }
+
+    public static String gerar(long indice) {
+        // Os 9 primeiros dígitos vêm do índice; deslocamento evita sequências repetidas (ex.: 000000000)
+        long base = (indice * 7919 + 100000001L) % 1_000_000_000L;
+        int[] digitos = new int[11];
+        for (int i = 8; i >= 0; i--) {
+            digitos[i] = (int) (base % 10);
+            base /= 10;
+        }
+
+        int soma = 0;
+        for (int i = 0; i < 9; i++) {
+            soma += digitos[i] * (10 - i);
+        }
+        int resto = soma % 11;
+        digitos[9] = resto < 2 ? 0 : 11 - resto;
+
+        soma = 0;
+        for (int i = 0; i < 10; i++) {
+            soma += digitos[i] * (11 - i);
+        }
+        resto = soma % 11;
+        digitos[10] = resto < 2 ? 0 : 11 - resto;
+
+        char[] cpf = new char[11];
+        for (int i = 0; i < 11; i++) {
+            cpf[i] = (char) ('0' + digitos[i]);
+        }
+        return new String(cpf);
+    }
+}
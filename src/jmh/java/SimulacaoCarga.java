@@ -0,0 +1,348 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+// Simulação de carga determinística sobre as classes reais do domínio, para planejamento
+// de capacidade e comparação entre versões com a mesma carga:
+//   java -cp target/benchmarks.jar SimulacaoCarga --clientes 100000 --threads 4 --operacoes 2000000
+//        --semente 42 --mix deposito=35,saque=30,cheque=5,login=20,rendimento=9,relatorio=1 [--csv]
+//
+// A população (clientes com CPF válido e um mix de contas corrente, poupança, renda fixa e
+// investimento, com saldos e datas de rendimento atrasadas) e a sequência de operações de
+// cada thread saem só da semente. Cada thread opera sobre um subconjunto próprio de
+// clientes, então com a mesma semente e o mesmo número de threads cada conta recebe a
+// mesma sequência de movimentos e, com as taxas de mercado derivadas da semente, termina
+// com os mesmos saldos. Um aquecimento com outra sequência precede a medição.
+public final class SimulacaoCarga {
+    private static final String SENHA = "Senha@123";
+
+    enum Operacao {
+        DEPOSITO("deposito"), SAQUE("saque"), CHEQUE("cheque"), LOGIN("login"),
+        RENDIMENTO("rendimento"), RELATORIO("relatorio");
+
+        final String nome;
+
+        Operacao(String nome) {
+            this.nome = nome;
+        }
+
+        static Operacao fromString(String nome) {
+            for (Operacao operacao : values()) {
+                if (operacao.nome.equals(nome)) {
+                    return operacao;
+                }
+            }
+            throw new IllegalArgumentException("Operação desconhecida: " + nome);
+        }
+    }
+
+    private final long semente;
+    private final int threads;
+    private final int[] pesos = {35, 30, 5, 20, 9, 1};
+    private final LatencyHistogram[] latencias = new LatencyHistogram[Operacao.values().length];
+    private final long[][] recusadas;
+
+    private XuBank banco;
+    private String[] cpfs;
+    private Conta[][] contas;
+    private Conta[] correntes;
+    private long totalContas;
+    private long duracao;
+
+    private SimulacaoCarga(long semente, int threads) {
+        this.semente = semente;
+        this.threads = threads;
+        this.recusadas = new long[threads][Operacao.values().length];
+        for (Operacao operacao : Operacao.values()) {
+            latencias[operacao.ordinal()] = new LatencyHistogram("simulacao." + operacao.nome);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientes = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long operacoes = 1_000_000;
+        long semente = 42;
+        String mix = null;
+        boolean csv = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--clientes": clientes = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--operacoes": operacoes = Long.parseLong(args[++i]); break;
+                case "--semente": semente = Long.parseLong(args[++i]); break;
+                case "--mix": mix = args[++i]; break;
+                case "--csv": csv = true; break;
+                default: throw new IllegalArgumentException("Argumento desconhecido: " + args[i]);
+            }
+        }
+        SimulacaoCarga simulacao = simular(clientes, threads, operacoes, semente, mix);
+        System.out.println(csv ? simulacao.relatorioCsv(simulacao.duracao)
+                : simulacao.relatorio(operacoes, simulacao.duracao));
+        simulacao.encerrar();
+        SecurityLogger.shutdown();
+    }
+
+    // Popula o banco e executa aquecimento e medição, sem imprimir nada
+    static SimulacaoCarga simular(int clientes, int threads, long operacoes, long semente, String mix) throws Exception {
+        if (clientes < threads || threads < 1 || operacoes < 1) {
+            throw new IllegalArgumentException("É preciso ao menos um cliente por thread e uma operação");
+        }
+
+        // Números de conta e, sem fonte escolhida por implantação, a série de taxas de
+        // mercado também saem da semente
+        Conta.configurarAlocador(new AlocadorNumeroPermutado(semente));
+        if (System.getProperty("xubank.rendimento.fonte") == null) {
+            Conta.configurarTaxasMercado(new TaxasMercado(FonteRendimento.deterministica(semente)));
+        }
+        SimulacaoCarga simulacao = new SimulacaoCarga(semente, threads);
+        if (mix != null) {
+            simulacao.configurarMix(mix);
+        }
+        AlvoBanco.silencioso(() -> {
+            simulacao.popular(clientes);
+            SplittableRandom raiz = new SplittableRandom(semente);
+            SplittableRandom aquecimento = raiz.split();
+            simulacao.executar(aquecimento, Math.min(operacoes, 200_000));
+            simulacao.zerar();
+            simulacao.duracao = simulacao.executar(raiz.split(), operacoes);
+            return null;
+        });
+        return simulacao;
+    }
+
+    // "deposito=35,saque=30,...": operações omitidas ficam com peso zero
+    private void configurarMix(String mix) {
+        Arrays.fill(pesos, 0);
+        for (String item : mix.split(",")) {
+            String[] partes = item.split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Mix inválido: " + item);
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo: " + item);
+            }
+            pesos[Operacao.fromString(partes[0].trim()).ordinal()] = peso;
+        }
+        if (Arrays.stream(pesos).sum() == 0) {
+            throw new IllegalArgumentException("Mix sem operações");
+        }
+    }
+
+    // Toda conta corrente é aberta; poupança em 60% dos clientes, renda fixa em 25% e
+    // investimento em 15%. As contas rendem desde 1 a 12 meses atrás, para que
+    // AtualizarRendimento tenha meses a creditar.
+    private void popular(int clientes) throws SecurityException {
+        banco = new XuBank();
+        cpfs = new String[clientes];
+        contas = new Conta[clientes][];
+        correntes = new Conta[clientes];
+        SplittableRandom random = new SplittableRandom(semente ^ 0x5EED);
+        LocalDate hoje = LocalDate.now();
+        AlocadorNumeroConta alocador = Conta.getAlocador();
+
+        List<Cliente> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < clientes; i++) {
+            cpfs[i] = CpfsSinteticos.gerar(i);
+            double renda = 1500 + random.nextInt(18_500);
+            Cliente cliente = Cliente.importar(ValidationUtils.normalizarCpf(cpfs[i]), "Cliente Simulado", SENHA, renda);
+
+            List<Conta> abertas = new ArrayList<>(4);
+            for (int tipo = 1; tipo <= 4; tipo++) {
+                int chance = tipo == 1 ? 100 : tipo == 2 ? 60 : tipo == 3 ? 25 : 15;
+                if (random.nextInt(100) >= chance) {
+                    continue;
+                }
+                long saldo = tipo == 1 ? random.nextLong(5_000_00) : 1_000_00 + random.nextLong(50_000_00);
+                Conta conta = Conta.restaurar(tipo, cliente, alocador.alocar(), saldo,
+                        hoje.minusMonths(1 + random.nextInt(12)));
+                cliente.restaurarConta(conta);
+                abertas.add(conta);
+            }
+            contas[i] = abertas.toArray(new Conta[0]);
+            correntes[i] = contas[i][0];
+            totalContas += contas[i].length;
+
+            lote.add(cliente);
+            if (lote.size() == 10_000 || i == clientes - 1) {
+                banco.publicarImportados(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    private void zerar() {
+        for (LatencyHistogram latencia : latencias) {
+            latencia.zerar();
+        }
+        for (long[] porThread : recusadas) {
+            Arrays.fill(porThread, 0);
+        }
+    }
+
+    // Divide as operações entre as threads, cada uma com um ramo próprio do gerador
+    private long executar(SplittableRandom gerador, long operacoes) throws Exception {
+        List<Thread> trabalhadores = new ArrayList<>(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        Throwable[] falhas = new Throwable[threads];
+        for (int t = 0; t < threads; t++) {
+            int indice = t;
+            SplittableRandom random = gerador.split();
+            long quantidade = operacoes / threads + (t < operacoes % threads ? 1 : 0);
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                    operar(indice, random, quantidade);
+                } catch (Throwable e) {
+                    falhas[indice] = e;
+                }
+            }, "simulacao-" + t);
+            trabalhadores.add(thread);
+            thread.start();
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread thread : trabalhadores) {
+            thread.join();
+        }
+        long duracao = System.nanoTime() - inicio;
+        for (Throwable falha : falhas) {
+            if (falha != null) {
+                throw new IllegalStateException("Falha na simulação", falha);
+            }
+        }
+        return duracao;
+    }
+
+    private void operar(int thread, SplittableRandom random, long quantidade) throws SecurityException {
+        int totalPesos = Arrays.stream(pesos).sum();
+        int clientesDaThread = (cpfs.length - thread + threads - 1) / threads;
+        long[] recusadasDaThread = recusadas[thread];
+        for (long n = 0; n < quantidade; n++) {
+            Operacao operacao = sortear(random.nextInt(totalPesos));
+            int cliente = thread + threads * random.nextInt(clientesDaThread);
+            Conta[] contasCliente = contas[cliente];
+            Conta conta = contasCliente[random.nextInt(contasCliente.length)];
+
+            long inicio = System.nanoTime();
+            boolean aceita = true;
+            switch (operacao) {
+                case DEPOSITO:
+                    aceita = conta.DepositarCentavos(10_00 + random.nextLong(2_000_00));
+                    break;
+                case SAQUE:
+                    aceita = conta.SacarCentavos(10_00 + random.nextLong(1_000_00));
+                    break;
+                case CHEQUE:
+                    // Saque além do saldo da conta corrente, dentro ou fora do limite
+                    Conta corrente = correntes[cliente];
+                    aceita = corrente.SacarCentavos(Math.max(0, corrente.getSaldoCentavos()) + 1_00
+                            + random.nextLong(5_000_00));
+                    break;
+                case LOGIN:
+                    // Uma em cada dez tentativas com a senha errada
+                    aceita = banco.autenticarCliente(cpfs[cliente], random.nextInt(10) == 0 ? "Errada@123" : SENHA);
+                    break;
+                case RENDIMENTO:
+                    conta.AtualizarRendimento();
+                    break;
+                case RELATORIO:
+                    switch (random.nextInt(4)) {
+                        case 0: banco.RelatorioCustodia(); break;
+                        case 1: banco.ClientesExtremos(); break;
+                        case 2: banco.RankingSaldos(10); break;
+                        default: banco.gerarRelatorioSaldoMedio();
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Operação sem implementação: " + operacao);
+            }
+            latencias[operacao.ordinal()].registrar(System.nanoTime() - inicio);
+            if (!aceita) {
+                recusadasDaThread[operacao.ordinal()]++;
+            }
+        }
+    }
+
+    private Operacao sortear(int valor) {
+        for (Operacao operacao : Operacao.values()) {
+            valor -= pesos[operacao.ordinal()];
+            if (valor < 0) {
+                return operacao;
+            }
+        }
+        throw new IllegalStateException("Sorteio fora dos pesos");
+    }
+
+    private long recusadas(Operacao operacao) {
+        long total = 0;
+        for (long[] porThread : recusadas) {
+            total += porThread[operacao.ordinal()];
+        }
+        return total;
+    }
+
+    // Saldo de cada conta e recusas por operação: com a mesma semente e as mesmas threads
+    // duas execuções devem produzir o mesmo texto
+    String estadoFinal() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < contas.length; i++) {
+            for (Conta conta : contas[i]) {
+                sb.append(cpfs[i]).append(' ').append(conta.getNumero()).append(' ')
+                        .append(conta.getSaldoCentavos()).append('\n');
+            }
+        }
+        for (Operacao operacao : Operacao.values()) {
+            sb.append(operacao.nome).append(' ').append(latencias[operacao.ordinal()].getContagem()).append(' ')
+                    .append(recusadas(operacao)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    void encerrar() {
+        banco.encerrar();
+    }
+
+    private String relatorio(long operacoes, long duracao) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Simulação de Carga ---\n");
+        sb.append(String.format(Locale.ROOT, "Semente: %d - Clientes: %d (%d contas) - Threads: %d - Operações: %d\n",
+                semente, cpfs.length, totalContas, threads, operacoes));
+        sb.append(String.format(Locale.ROOT, "Duração: %.3f s - Vazão: %.0f ops/s\n",
+                duracao / 1e9, operacoes * 1e9 / duracao));
+        sb.append(String.format(Locale.ROOT, "%-11s %10s %12s %10s %10s %10s %10s %10s\n",
+                "operacao", "n", "ops/s", "p50(us)", "p99(us)", "p999(us)", "max(us)", "recusadas"));
+        for (Operacao operacao : Operacao.values()) {
+            LatencyHistogram h = latencias[operacao.ordinal()];
+            if (h.getContagem() == 0) {
+                continue;
+            }
+            sb.append(String.format(Locale.ROOT, "%-11s %10d %12.0f %10.1f %10.1f %10.1f %10.1f %10d\n",
+                    operacao.nome, h.getContagem(), h.getContagem() * 1e9 / duracao, h.getP50Nanos() / 1000.0,
+                    h.getP99Nanos() / 1000.0, h.getP999Nanos() / 1000.0, h.getMaximoNanos() / 1000.0,
+                    recusadas(operacao)));
+        }
+        sb.append("Custódia final: ").append(Dinheiro.formatar(Arrays.stream(banco.getTotaisCustodia().getSaldosPorTipo()).sum()))
+                .append('\n');
+        sb.append("--------------------------");
+        return sb.toString();
+    }
+
+    private String relatorioCsv(long duracao) {
+        StringBuilder sb = new StringBuilder("operacao,n,ops_s,p50_us,p99_us,p999_us,max_us,recusadas\n");
+        for (Operacao operacao : Operacao.values()) {
+            LatencyHistogram h = latencias[operacao.ordinal()];
+            sb.append(String.format(Locale.ROOT, "%s,%d,%.0f,%.1f,%.1f,%.1f,%.1f,%d\n", operacao.nome,
+                    h.getContagem(), h.getContagem() * 1e9 / duracao, h.getP50Nanos() / 1000.0,
+                    h.getP99Nanos() / 1000.0, h.getP999Nanos() / 1000.0, h.getMaximoNanos() / 1000.0,
+                    recusadas(operacao)));
+        }
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+// Instancia as implementações de ponte, que vivem no pacote padrão
+public final class Alvos {
+    private Alvos() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T criar(String nomeClasse, Class<T> tipo) {
+        try {
+            return tipo.cast(Class.forName(nomeClasse).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível criar " + nomeClasse, e);
+        }
+    }
+
+    public static OperacoesConta conta() {
+        return criar("AlvoConta", OperacoesConta.class);
+    }
+
+    public static OperacoesBanco banco() {
+        return criar("AlvoBanco", OperacoesBanco.class);
+    }
+
+    public static OperacoesJournal journal() {
+        return criar("AlvoJournal", OperacoesJournal.class);
+    }
+
+    public static OperacoesSnapshot snapshot() {
+        return criar("AlvoSnapshot", OperacoesSnapshot.class);
+    }
+
+    public static OperacoesTransferencia transferencia() {
+        return criar("AlvoTransferencia", OperacoesTransferencia.class);
+    }
+
+    public static OperacoesImportacao importacao() {
+        return criar("AlvoImportacao", OperacoesImportacao.class);
+    }
+
+    public static OperacoesValidacao validacao() {
+        return criar("AlvoValidacao", OperacoesValidacao.class);
+    }
+
+    public static OperacoesMetricas metricas() {
+        return criar("AlvoMetricas", OperacoesMetricas.class);
+    }
+
+    public static OperacoesHttp http() {
+        return criar("AlvoHttp", OperacoesHttp.class);
+    }
+
+    public static OperacoesLog log() {
+        return criar("AlvoLog", OperacoesLog.class);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Busca por CPF, autenticação e relatórios em populações de tamanhos diferentes.
+// Populações maiores (ex.: 10M) podem ser pedidas com -p clientes=10000000.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class BancoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Populacao {
+        @Param({"1000", "100000", "1000000"})
+        public int clientes;
+
+        OperacoesBanco banco;
+
+        @Setup
+        public void preparar() throws Exception {
+            banco = Alvos.banco();
+            banco.preparar(clientes);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom random = new SplittableRandom(42);
+
+        int proximo(int limite) {
+            return random.nextInt(limite);
+        }
+    }
+
+    @Benchmark
+    public Object buscarClientePorCpf(Populacao populacao, Cursor cursor) {
+        return populacao.banco.buscarClientePorCpf(cursor.proximo(populacao.clientes));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object buscarClientePorCpfContendido(Populacao populacao, Cursor cursor) {
+        return populacao.banco.buscarClientePorCpf(cursor.proximo(populacao.clientes));
+    }
+
+    @Benchmark
+    public boolean autenticarCliente(Populacao populacao, Cursor cursor) {
+        return populacao.banco.autenticarCliente(cursor.proximo(populacao.clientes));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean autenticarClienteContendido(Populacao populacao, Cursor cursor) {
+        return populacao.banco.autenticarCliente(cursor.proximo(populacao.clientes));
+    }
+
+    @Benchmark
+    public String relatorioCustodia(Populacao populacao) {
+        return populacao.banco.relatorioCustodia();
+    }
+
+    @Benchmark
+    public String clientesExtremos(Populacao populacao) {
+        return populacao.banco.clientesExtremos();
+    }
+
+    @Benchmark
+    public int maioresSaldos100(Populacao populacao) {
+        return populacao.banco.maioresSaldos(100);
+    }
+
+    @Benchmark
+    public String relatorioSaldoMedio(Populacao populacao) {
+        return populacao.banco.relatorioSaldoMedio();
+    }
+}
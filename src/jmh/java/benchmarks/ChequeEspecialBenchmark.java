@@ -0,0 +1,36 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Depósito em ContaCorrente no cheque especial: cobra 3% + R$ 10,00 antes de creditar
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class ChequeEspecialBenchmark {
+    private OperacoesConta conta;
+
+    @Setup
+    public void preparar() throws Exception {
+        conta = Alvos.conta();
+        conta.preparar(1, 0);
+    }
+
+    @Benchmark
+    public boolean depositarComTaxa() throws Exception {
+        return conta.depositarComTaxaChequeEspecial(500_00);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Depositar/Sacar/CalcularRendimento nos quatro tipos de conta. Cada thread tem a
+// própria conta (sem disputa); as variantes "Contendido" compartilham uma conta.
+// As variantes "Reais" entram pela API em double, a mesma de antes dos centavos.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class ContaBenchmark {
+
+    @State(Scope.Thread)
+    public static class ContaPropria {
+        @Param({"1", "2", "3", "4"})
+        public int tipoConta;
+
+        OperacoesConta conta;
+
+        @Setup
+        public void preparar() throws Exception {
+            conta = Alvos.conta();
+            conta.preparar(tipoConta, 1_000_000_00L);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ContaCompartilhada {
+        @Param({"1", "2", "3", "4"})
+        public int tipoConta;
+
+        OperacoesConta conta;
+
+        @Setup
+        public void preparar() throws Exception {
+            conta = Alvos.conta();
+            conta.preparar(tipoConta, 1_000_000_00L);
+        }
+    }
+
+    @Benchmark
+    public boolean depositar(ContaPropria estado) throws Exception {
+        return estado.conta.depositar(150_00);
+    }
+
+    @Benchmark
+    public boolean sacar(ContaPropria estado) throws Exception {
+        return estado.conta.sacar(150_00);
+    }
+
+    @Benchmark
+    public boolean depositarReais(ContaPropria estado) throws Exception {
+        return estado.conta.depositarReais(150.0);
+    }
+
+    @Benchmark
+    public boolean sacarReais(ContaPropria estado) throws Exception {
+        return estado.conta.sacarReais(150.0);
+    }
+
+    @Benchmark
+    public double calcularRendimento(ContaPropria estado) throws Exception {
+        return estado.conta.calcularRendimento();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean depositarContendido(ContaCompartilhada estado) throws Exception {
+        return estado.conta.depositar(150_00);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean sacarContendido(ContaCompartilhada estado) throws Exception {
+        return estado.conta.sacar(150_00);
+    }
+}
@@ -0,0 +1,25 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Ponto de entrada do benchmarks.jar: grava os resultados em JSON por padrão
+// (jmh-result.json) para comparar versões entre releases.
+public final class ExecutarBenchmarks {
+    private ExecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> argumentos = new ArrayList<>(Arrays.asList(args));
+        if (!argumentos.contains("-rf")) {
+            argumentos.add("-rf");
+            argumentos.add("json");
+        }
+        if (!argumentos.contains("-rff")) {
+            argumentos.add("-rff");
+            argumentos.add("jmh-result.json");
+        }
+        org.openjdk.jmh.Main.main(argumentos.toArray(new String[0]));
+    }
+}
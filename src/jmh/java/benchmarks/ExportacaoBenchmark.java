@@ -0,0 +1,62 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Exportação de contas em streaming. O contador "linhas" sai em linhas por segundo;
+// com -prof gc dá para conferir que a alocação por linha não cresce com a população.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class ExportacaoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Populacao {
+        @Param({"10000", "500000"})
+        public int clientes;
+
+        OperacoesBanco banco;
+
+        @Setup
+        public void preparar() throws Exception {
+            banco = Alvos.banco();
+            banco.preparar(clientes);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Linhas {
+        public long linhas;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            linhas = 0;
+        }
+    }
+
+    @Benchmark
+    public void exportarCsv(Populacao populacao, Linhas linhas) throws Exception {
+        linhas.linhas += populacao.banco.exportarContas(false);
+    }
+
+    @Benchmark
+    public void exportarJsonLinhas(Populacao populacao, Linhas linhas) throws Exception {
+        linhas.linhas += populacao.banco.exportarContas(true);
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Fechamento mensal de rendimento com paralelismo crescente, para medir a escalabilidade
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class FechamentoMensalBenchmark {
+    @Param({"100000"})
+    public int clientes;
+
+    @Param({"1", "2", "4", "8"})
+    public int paralelismo;
+
+    private OperacoesBanco banco;
+
+    @Setup
+    public void preparar() throws Exception {
+        banco = Alvos.banco();
+        banco.preparar(clientes);
+    }
+
+    // Cada execução encontra todas as contas com um mês pendente
+    @Setup(Level.Invocation)
+    public void recuarAtualizacoes() {
+        banco.recuarAtualizacoes(1);
+    }
+
+    @Benchmark
+    public Object processarRendimentoMensal() throws Exception {
+        return banco.processarRendimentoMensal(paralelismo);
+    }
+}
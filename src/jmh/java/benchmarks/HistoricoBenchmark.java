@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Extrato do último mês sobre um histórico de um ano. "contar" mede só as duas buscas
+// binárias; "listar" inclui a leitura sequencial e a criação dos Movimento. A ocupação
+// de memória por movimento é impressa na preparação.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class HistoricoBenchmark {
+    @Param({"1000", "65536", "1048576"})
+    public int movimentos;
+
+    private OperacoesConta conta;
+
+    @Setup
+    public void preparar() throws Exception {
+        conta = Alvos.conta();
+        conta.preparar(1, 1_000_000_00L);
+        long bytes = conta.preencherHistorico(movimentos);
+        System.out.printf("%nHistórico: %d movimentos, %d bytes (%.2f por movimento)%n",
+                movimentos, bytes, (double) bytes / movimentos);
+    }
+
+    @Benchmark
+    public long contarUltimoMes() {
+        return conta.contarMovimentosUltimoMes();
+    }
+
+    @Benchmark
+    public int listarUltimoMes() {
+        return conta.listarMovimentosUltimoMes();
+    }
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Teste de carga local da API HTTP: 16 clientes HTTP concorrentes em loopback, cada um
+// com o seu cliente do banco. O resultado sai em requisições por segundo; "virtual"
+// recai no executor fixo em JVMs sem threads virtuais.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class HttpBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Servidor {
+        @Param({"fixo", "cache", "virtual"})
+        public String executor;
+
+        @Param({"8"})
+        public int threads;
+
+        OperacoesHttp http;
+        final AtomicInteger proximoCliente = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void iniciar() throws Exception {
+            http = Alvos.http();
+            http.iniciar(executor, threads, 1024);
+        }
+
+        @TearDown(Level.Trial)
+        public void parar() {
+            http.parar();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chamador {
+        int cliente;
+
+        @Setup(Level.Trial)
+        public void escolher(Servidor servidor) {
+            cliente = servidor.proximoCliente.getAndIncrement();
+        }
+    }
+
+    @Benchmark
+    public int depositar(Servidor servidor, Chamador chamador) throws Exception {
+        return servidor.http.depositar(chamador.cliente);
+    }
+
+    @Benchmark
+    public int consultarContas(Servidor servidor, Chamador chamador) throws Exception {
+        return servidor.http.consultarContas(chamador.cliente);
+    }
+}
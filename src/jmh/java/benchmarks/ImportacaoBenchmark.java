@@ -0,0 +1,65 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Importação em lote contra o cadastro um a um, num banco vazio a cada chamada.
+// O contador "clientes" sai em clientes cadastrados por segundo.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class ImportacaoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Arquivo {
+        @Param({"100000"})
+        public int clientes;
+
+        @Param({"1", "4"})
+        public int paralelismo;
+
+        OperacoesImportacao importacao;
+
+        @Setup
+        public void preparar() throws Exception {
+            importacao = Alvos.importacao();
+            importacao.preparar(clientes);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Cadastrados {
+        public long clientes;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            clientes = 0;
+        }
+    }
+
+    @Benchmark
+    public void importarLote(Arquivo arquivo, Cadastrados cadastrados) throws Exception {
+        cadastrados.clientes += arquivo.importacao.importarLote(arquivo.paralelismo);
+    }
+
+    @Benchmark
+    public void cadastrarUmAUm(Arquivo arquivo, Cadastrados cadastrados) throws Exception {
+        cadastrados.clientes += arquivo.importacao.cadastrarUmAUm();
+    }
+}
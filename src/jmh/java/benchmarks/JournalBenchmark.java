@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Depósitos confirmados por segundo com o journal em cada durabilidade. Com 16 threads
+// o group commit divide um fsync entre várias operações; com uma thread cada depósito
+// paga o próprio fsync (ou a janela de latência inteira, na durabilidade AGRUPADA).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class JournalBenchmark {
+    @Param({"NENHUMA", "AGRUPADA", "IMEDIATA"})
+    public String durabilidade;
+
+    @Param({"200", "2000"})
+    public long latenciaMicros;
+
+    private OperacoesJournal journal;
+
+    @Setup
+    public void preparar() throws Exception {
+        journal = Alvos.journal();
+        journal.preparar(durabilidade, latenciaMicros, 1024);
+    }
+
+    @TearDown
+    public void encerrar() throws Exception {
+        journal.encerrar();
+    }
+
+    @State(Scope.Thread)
+    public static class Posicao {
+        int indice;
+    }
+
+    @Benchmark
+    public boolean depositar(Posicao posicao) throws Exception {
+        return journal.depositar(posicao.indice++);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean depositarConcorrente(Posicao posicao) throws Exception {
+        return journal.depositar(posicao.indice += 7);
+    }
+}
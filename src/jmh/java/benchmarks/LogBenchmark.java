@@ -0,0 +1,54 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Log de segurança em texto e binário: o custo de formatar um evento de saque (sem disco) e a
+// vazão sustentada do writer, com fila cheia, gravação em disco e rotação com gzip.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class LogBenchmark {
+    @Param({"texto", "binario"})
+    public String formato;
+
+    private OperacoesLog log;
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        log = Alvos.log();
+        log.preparar(formato);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws Exception {
+        log.encerrar();
+    }
+
+    @Benchmark
+    public int formatar() {
+        return log.formatar(indice++);
+    }
+
+    @Benchmark
+    public void publicar() {
+        log.publicar(indice++);
+    }
+}
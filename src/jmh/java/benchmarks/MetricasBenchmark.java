@@ -0,0 +1,87 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Custo das métricas: depósito com e sem medição (-Dxubank.metricas=false no fork),
+// um ponto de medição vazio e o registro no histograma com e sem disputa entre threads.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class MetricasBenchmark {
+
+    @State(Scope.Thread)
+    public static class ContaPropria {
+        @Param({"2"})
+        public int tipoConta;
+
+        OperacoesConta conta;
+
+        @Setup
+        public void preparar() throws Exception {
+            conta = Alvos.conta();
+            conta.preparar(tipoConta, 1_000_000_00L);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Histograma {
+        OperacoesMetricas metricas;
+
+        @Setup
+        public void preparar() {
+            metricas = Alvos.metricas();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Latencias {
+        private final SplittableRandom random = new SplittableRandom(19);
+
+        long proxima() {
+            return 200 + random.nextInt(50_000);
+        }
+    }
+
+    @Benchmark
+    public boolean depositarComMetricas(ContaPropria conta) throws Exception {
+        return conta.conta.depositar(1_00);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dxubank.log.overflow=DESCARTAR", "-Dxubank.metricas=false"})
+    public boolean depositarSemMetricas(ContaPropria conta) throws Exception {
+        return conta.conta.depositar(1_00);
+    }
+
+    @Benchmark
+    public long pontoDeMedicao(Histograma histograma) {
+        return histograma.metricas.medirOperacaoVazia();
+    }
+
+    @Benchmark
+    public void registrarLatencia(Histograma histograma, Latencias latencias) {
+        histograma.metricas.registrarLatencia(latencias.proxima());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void registrarLatenciaContendido(Histograma histograma, Latencias latencias) {
+        histograma.metricas.registrarLatencia(latencias.proxima());
+    }
+}
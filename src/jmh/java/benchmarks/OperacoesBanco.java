@@ -0,0 +1,24 @@
+package benchmarks;
+
+public interface OperacoesBanco {
+    void preparar(int clientes) throws Exception;
+
+    Object buscarClientePorCpf(int indice);
+
+    boolean autenticarCliente(int indice);
+
+    String relatorioCustodia();
+
+    String clientesExtremos();
+
+    int maioresSaldos(int quantidade);
+
+    String relatorioSaldoMedio();
+
+    long exportarContas(boolean jsonLinhas) throws Exception;
+
+    // Volta a data de atualização de todas as contas, para o fechamento ter meses a creditar
+    void recuarAtualizacoes(int meses);
+
+    Object processarRendimentoMensal(int paralelismo) throws Exception;
+}
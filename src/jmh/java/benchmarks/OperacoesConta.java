@@ -0,0 +1,38 @@
+package benchmarks;
+
+// Ponte para as classes de domínio, que estão no pacote padrão e por isso não
+// podem ser importadas daqui. As implementações ficam no pacote padrão.
+public interface OperacoesConta {
+    void preparar(int tipoConta, long saldoInicialCentavos) throws Exception;
+
+    boolean depositar(long centavos) throws Exception;
+
+    boolean sacar(long centavos) throws Exception;
+
+    // Entrada antiga em reais (double), que valida e converte para centavos
+    boolean depositarReais(double valor) throws Exception;
+
+    boolean sacarReais(double valor) throws Exception;
+
+    // Mesmas operações serializadas pelo monitor da conta: referência para o CAS
+    boolean depositarSincronizado(long centavos) throws Exception;
+
+    boolean sacarSincronizado(long centavos) throws Exception;
+
+    boolean depositarComTaxaChequeEspecial(long centavos) throws Exception;
+
+    double calcularRendimento() throws Exception;
+
+    void atualizarRendimento(int meses) throws Exception;
+
+    // Nova série de taxas de mercado sorteada de "segura", "thread" ou "semente:<n>"
+    // (ver FonteRendimento); vale para todas as contas
+    void configurarFonteRendimento(String fonte);
+
+    // Histórico com movimentos espalhados pelo último ano; devolve os bytes ocupados
+    long preencherHistorico(int movimentos);
+
+    int listarMovimentosUltimoMes();
+
+    long contarMovimentosUltimoMes();
+}
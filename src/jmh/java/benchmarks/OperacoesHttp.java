@@ -0,0 +1,11 @@
+package benchmarks;
+
+public interface OperacoesHttp {
+    void iniciar(String executor, int threads, int clientes) throws Exception;
+
+    int depositar(int indice) throws Exception;
+
+    int consultarContas(int indice) throws Exception;
+
+    void parar();
+}
@@ -0,0 +1,9 @@
+package benchmarks;
+
+public interface OperacoesImportacao {
+    void preparar(int clientes) throws Exception;
+
+    long importarLote(int paralelismo) throws Exception;
+
+    long cadastrarUmAUm() throws Exception;
+}
@@ -0,0 +1,11 @@
+package benchmarks;
+
+public interface OperacoesJournal {
+    void preparar(String durabilidade, long latenciaMicros, int contas) throws Exception;
+
+    boolean depositar(int indice) throws Exception;
+
+    long lotesGravados();
+
+    void encerrar() throws Exception;
+}
@@ -0,0 +1,14 @@
+package benchmarks;
+
+public interface OperacoesLog {
+    // "texto" ou "binario", gravando num diretório temporário com rotação por tamanho
+    void preparar(String formato) throws Exception;
+
+    // Formata um evento de saque no buffer do formato, sem gravar; devolve os bytes produzidos
+    int formatar(int indice);
+
+    // Publica um evento de saque no writer, que espera quando a fila enche
+    void publicar(int indice);
+
+    void encerrar() throws Exception;
+}
@@ -0,0 +1,7 @@
+package benchmarks;
+
+public interface OperacoesMetricas {
+    void registrarLatencia(long nanos);
+
+    long medirOperacaoVazia();
+}
@@ -0,0 +1,11 @@
+package benchmarks;
+
+public interface OperacoesSnapshot {
+    void preparar(int clientes, int contasPorCliente) throws Exception;
+
+    long carregar(int threads) throws Exception;
+
+    long gravar() throws Exception;
+
+    void encerrar() throws Exception;
+}
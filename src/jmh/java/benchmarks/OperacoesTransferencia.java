@@ -0,0 +1,9 @@
+package benchmarks;
+
+public interface OperacoesTransferencia {
+    void preparar(int contas) throws Exception;
+
+    boolean transferir(int indiceOrigem, int indiceDestino, long centavos) throws Exception;
+
+    int transferirLote(int[] indicesOrigem, int[] indicesDestino, long centavos) throws Exception;
+}
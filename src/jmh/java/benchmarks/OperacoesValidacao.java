@@ -0,0 +1,9 @@
+package benchmarks;
+
+public interface OperacoesValidacao {
+    void preparar(int registros);
+
+    boolean validarCadastro(int indice);
+
+    long normalizarCpf(int indice);
+}
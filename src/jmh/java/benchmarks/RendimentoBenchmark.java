@@ -0,0 +1,43 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// AtualizarRendimento para uma conta parada há N meses
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class RendimentoBenchmark {
+    @Param({"2", "3", "4"})
+    public int tipoConta;
+
+    @Param({"1", "12", "120"})
+    public int meses;
+
+    private OperacoesConta conta;
+
+    @Setup
+    public void preparar() throws Exception {
+        conta = Alvos.conta();
+        conta.preparar(tipoConta, 50_000_00L);
+    }
+
+    @Benchmark
+    public void atualizarRendimento() throws Exception {
+        conta.atualizarRendimento(meses);
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Depósito seguido de saque numa conta corrente compartilhada, com 1 a 8 threads.
+// As variantes "cas" usam o caminho normal (compare-and-set no saldo); as
+// "sincronizado" serializam as mesmas operações no monitor da conta.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class SaldoConcorrenteBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ContaCompartilhada {
+        OperacoesConta conta;
+
+        @Setup
+        public void preparar() throws Exception {
+            conta = Alvos.conta();
+            conta.preparar(1, 1_000_000_00L);
+        }
+    }
+
+    private static boolean cas(ContaCompartilhada estado) throws Exception {
+        return estado.conta.depositar(150_00) & estado.conta.sacar(150_00);
+    }
+
+    private static boolean sincronizado(ContaCompartilhada estado) throws Exception {
+        return estado.conta.depositarSincronizado(150_00) & estado.conta.sacarSincronizado(150_00);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean cas1(ContaCompartilhada estado) throws Exception {
+        return cas(estado);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean cas2(ContaCompartilhada estado) throws Exception {
+        return cas(estado);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean cas4(ContaCompartilhada estado) throws Exception {
+        return cas(estado);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean cas8(ContaCompartilhada estado) throws Exception {
+        return cas(estado);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean sincronizado1(ContaCompartilhada estado) throws Exception {
+        return sincronizado(estado);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean sincronizado2(ContaCompartilhada estado) throws Exception {
+        return sincronizado(estado);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean sincronizado4(ContaCompartilhada estado) throws Exception {
+        return sincronizado(estado);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean sincronizado8(ContaCompartilhada estado) throws Exception {
+        return sincronizado(estado);
+    }
+}
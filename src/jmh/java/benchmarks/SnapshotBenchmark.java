@@ -0,0 +1,59 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Partida a frio a partir do snapshot: tempo para mapear e reconstruir todos os clientes
+// e contas, com número crescente de threads. Para 10 milhões de contas:
+//   -p clientes=5000000 -jvmArgsAppend -Xmx24g
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Dxubank.log.overflow=DESCARTAR", "-Xmx3g"})
+public class SnapshotBenchmark {
+    @Param({"500000"})
+    public int clientes;
+
+    @Param({"2"})
+    public int contasPorCliente;
+
+    @Param({"1", "4", "8"})
+    public int threads;
+
+    private OperacoesSnapshot snapshot;
+
+    @Setup
+    public void preparar() throws Exception {
+        snapshot = Alvos.snapshot();
+        snapshot.preparar(clientes, contasPorCliente);
+    }
+
+    @TearDown
+    public void encerrar() throws Exception {
+        snapshot.encerrar();
+    }
+
+    @Benchmark
+    public long carregar() throws Exception {
+        return snapshot.carregar(threads);
+    }
+
+    @Benchmark
+    public long gravar() throws Exception {
+        return snapshot.gravar();
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// CalcularRendimento com a série de taxas de mercado de cada fonte, uma conta por thread: a
+// taxa do mês é sorteada uma vez por produto e depois só consultada, em qualquer fonte.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class TaxasMercadoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Fonte {
+        @Param({"segura", "thread", "semente:42"})
+        public String fonte;
+
+        @Setup
+        public void configurar() {
+            Alvos.conta().configurarFonteRendimento(fonte);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ContaPropria {
+        @Param({"3", "4"})
+        public int tipoConta;
+
+        OperacoesConta conta;
+
+        @Setup
+        public void preparar(Fonte fonte) throws Exception {
+            conta = Alvos.conta();
+            conta.preparar(tipoConta, 50_000_00L);
+        }
+    }
+
+    @Benchmark
+    public double calcularRendimento(ContaPropria conta) throws Exception {
+        return conta.conta.calcularRendimento();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double calcularRendimentoConcorrente(ContaPropria conta) throws Exception {
+        return conta.conta.calcularRendimento();
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Transferências entre pares aleatórios de contas, com 4 threads. Com poucas contas
+// quase toda transferência disputa o monitor de uma conta quente (e metade vai no
+// sentido contrário de outra, o caso que a ordem por número evita travar).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dxubank.log.overflow=DESCARTAR")
+public class TransferenciaBenchmark {
+    private static final int TAMANHO_LOTE = 64;
+    private static final int LOTES = 64;
+
+    @State(Scope.Benchmark)
+    public static class Banco {
+        @Param({"2", "16", "4096"})
+        public int contas;
+
+        OperacoesTransferencia transferencias;
+
+        @Setup
+        public void preparar() throws Exception {
+            transferencias = Alvos.transferencia();
+            transferencias.preparar(contas);
+        }
+    }
+
+    // Pares sorteados antes da medição; cada thread percorre os seus em ciclo
+    @State(Scope.Thread)
+    public static class Pares {
+        final int[][] origens = new int[LOTES][TAMANHO_LOTE];
+        final int[][] destinos = new int[LOTES][TAMANHO_LOTE];
+        int lote;
+        int posicao;
+
+        @Setup
+        public void sortear(Banco banco) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int l = 0; l < LOTES; l++) {
+                for (int i = 0; i < TAMANHO_LOTE; i++) {
+                    origens[l][i] = random.nextInt(banco.contas);
+                    destinos[l][i] = (origens[l][i] + 1 + random.nextInt(banco.contas - 1)) % banco.contas;
+                }
+            }
+        }
+
+        int proximoLote() {
+            lote = (lote + 1) % LOTES;
+            return lote;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean transferir(Banco banco, Pares pares) throws Exception {
+        int i = pares.posicao++ % TAMANHO_LOTE;
+        int l = i == 0 ? pares.proximoLote() : pares.lote;
+        return banco.transferencias.transferir(pares.origens[l][i], pares.destinos[l][i], 1_00);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int transferirLote(Banco banco, Pares pares) throws Exception {
+        int l = pares.proximoLote();
+        return banco.transferencias.transferirLote(pares.origens[l], pares.destinos[l], 1_00);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Validação de um registro de cadastro (CPF, nome, senha e sanitização do nome), o
+// trabalho por linha de uma importação em lote. Com -prof gc, gc.alloc.rate.norm
+// mostra a alocação por registro (zero no caminho de sucesso).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacaoBenchmark {
+    private static final int REGISTROS = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Registros {
+        OperacoesValidacao validacao;
+
+        @Setup
+        public void preparar() {
+            validacao = Alvos.validacao();
+            validacao.preparar(REGISTROS);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int proximo;
+
+        int proximo() {
+            proximo = (proximo + 1) & (REGISTROS - 1);
+            return proximo;
+        }
+    }
+
+    @Benchmark
+    public boolean validarCadastro(Registros registros, Cursor cursor) {
+        return registros.validacao.validarCadastro(cursor.proximo());
+    }
+
+    @Benchmark
+    public long normalizarCpf(Registros registros, Cursor cursor) {
+        return registros.validacao.normalizarCpf(cursor.proximo());
+    }
+}
@@ -0,0 +1,15 @@
+public interface AlocadorNumeroConta {
+    int NUMERO_MINIMO = 100000;
+    int NUMERO_MAXIMO = 999999;
+
+    int alocar() throws SecurityException;
+
+    boolean liberar(int numero);
+
+    // Marca um número específico como em uso (contas reconstruídas do journal)
+    boolean reservar(int numero);
+
+    int getCapacidade();
+
+    int getUsados();
+}
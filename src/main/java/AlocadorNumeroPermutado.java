@@ -0,0 +1,142 @@
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Percorre a faixa de números por uma permutação pseudoaleatória (rede de Feistel
+// com cycle-walking), de modo que cada posição do contador gera um número distinto
+// sem sorteio nem nova tentativa. Um bitmap atômico registra os números em uso.
+public class AlocadorNumeroPermutado implements AlocadorNumeroConta {
+    private static final int CAPACIDADE = NUMERO_MAXIMO - NUMERO_MINIMO + 1;
+    private static final int BITS_METADE = 10; // domínio de 2^20 >= 900000
+    private static final int MASCARA_METADE = (1 << BITS_METADE) - 1;
+    private static final int RODADAS = 4;
+
+    private final int[] chaves = new int[RODADAS];
+    private final AtomicLong contador = new AtomicLong();
+    private final AtomicLongArray emUso = new AtomicLongArray((CAPACIDADE + 63) / 64);
+    private final AtomicInteger usados = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Integer> liberados = new ConcurrentLinkedQueue<>();
+
+    public AlocadorNumeroPermutado() {
+        this(new SecureRandom().nextLong());
+    }
+
+    public AlocadorNumeroPermutado(long semente) {
+        long estado = semente;
+        for (int i = 0; i < RODADAS; i++) {
+            estado = misturar(estado + 0x9E3779B97F4A7C15L);
+            chaves[i] = (int) estado;
+        }
+    }
+
+    @Override
+    public int alocar() throws SecurityException {
+        Integer reaproveitado;
+        while ((reaproveitado = liberados.poll()) != null) {
+            if (marcar(reaproveitado - NUMERO_MINIMO)) {
+                return reaproveitado;
+            }
+        }
+
+        long posicao;
+        while ((posicao = contador.getAndIncrement()) < CAPACIDADE) {
+            int indice = permutar((int) posicao);
+            if (marcar(indice)) {
+                return NUMERO_MINIMO + indice;
+            }
+        }
+        contador.set(CAPACIDADE); // evita overflow do contador após esgotar a faixa
+
+        throw new SecurityException("Não foi possível gerar número único para conta");
+    }
+
+    @Override
+    public boolean liberar(int numero) {
+        if (numero < NUMERO_MINIMO || numero > NUMERO_MAXIMO) {
+            return false;
+        }
+
+        int indice = numero - NUMERO_MINIMO;
+        long bit = 1L << indice;
+        int palavra = indice >>> 6;
+        while (true) {
+            long atual = emUso.get(palavra);
+            if ((atual & bit) == 0) {
+                return false;
+            }
+            if (emUso.compareAndSet(palavra, atual, atual & ~bit)) {
+                usados.decrementAndGet();
+                liberados.offer(numero);
+                return true;
+            }
+        }
+    }
+
+    // O contador não é alterado: quando a permutação chegar a este número, a marcação
+    // falha e o alocador segue para a próxima posição
+    @Override
+    public boolean reservar(int numero) {
+        if (numero < NUMERO_MINIMO || numero > NUMERO_MAXIMO) {
+            return false;
+        }
+        return marcar(numero - NUMERO_MINIMO);
+    }
+
+    @Override
+    public int getCapacidade() {
+        return CAPACIDADE;
+    }
+
+    @Override
+    public int getUsados() {
+        return usados.get();
+    }
+
+    private boolean marcar(int indice) {
+        long bit = 1L << indice;
+        int palavra = indice >>> 6;
+        while (true) {
+            long atual = emUso.get(palavra);
+            if ((atual & bit) != 0) {
+                return false;
+            }
+            if (emUso.compareAndSet(palavra, atual, atual | bit)) {
+                usados.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    private int permutar(int valor) {
+        int resultado = valor;
+        do {
+            resultado = feistel(resultado);
+        } while (resultado >= CAPACIDADE);
+        return resultado;
+    }
+
+    private int feistel(int valor) {
+        int esquerda = (valor >>> BITS_METADE) & MASCARA_METADE;
+        int direita = valor & MASCARA_METADE;
+        for (int i = 0; i < RODADAS; i++) {
+            int nova = esquerda ^ (rodada(direita, chaves[i]) & MASCARA_METADE);
+            esquerda = direita;
+            direita = nova;
+        }
+        return (esquerda << BITS_METADE) | direita;
+    }
+
+    private static int rodada(int valor, int chave) {
+        int h = (valor ^ chave) * 0x45D9F3B;
+        h ^= h >>> 16;
+        return h * 0x45D9F3B;
+    }
+
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
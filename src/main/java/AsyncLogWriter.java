@@ -0,0 +1,442 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Grava o log de segurança numa thread própria, em lotes, no formato texto ou binário.
+// Com rotação, o arquivo corrente vira um segmento "<nome>-<aaaaMMdd-HHmmss-SSS>.<ext>" ao
+// passar do tamanho ou da idade configurados (verificados a cada lote gravado); o segmento
+// é comprimido com gzip numa thread à parte, sem segurar a escrita dos eventos seguintes.
+public class AsyncLogWriter {
+    private static final DateTimeFormatter FORMATO_SEGMENTO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final long ESPERA_OCIOSA_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long ESPERA_PRODUTOR_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final LogRingBuffer buffer;
+    private final LogOverflowPolicy politica;
+    private final int tamanhoLote;
+    private final Path caminho;
+    private final LogFormat formato;
+    private final LogRotation rotacao;
+    private final Thread escritor;
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder gravados = new LongAdder();
+    private final Object lockCanal = new Object();
+
+    // Estado usado apenas sob lockCanal
+    private FileChannel canal;
+    private long bytesSegmento;
+    private long aberturaSegmento;
+    private ExecutorService compressor; // criado na primeira rotação
+    private final StringBuilder texto = new StringBuilder(4096);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(64 * 1024);
+    private final LogTextFormat formatoTexto = new LogTextFormat();
+    private final LogBinaryFormat formatoBinario = new LogBinaryFormat();
+
+    private final AtomicBoolean ativo = new AtomicBoolean(true);
+    private volatile boolean ocioso = false;
+
+    public AsyncLogWriter(String arquivo, int capacidade, int tamanhoLote, LogOverflowPolicy politica) throws IOException {
+        this(arquivo, capacidade, tamanhoLote, politica, LogFormat.TEXTO, LogRotation.DESLIGADA);
+    }
+
+    public AsyncLogWriter(String arquivo, int capacidade, int tamanhoLote, LogOverflowPolicy politica,
+                          LogFormat formato, LogRotation rotacao) throws IOException {
+        this.caminho = Paths.get(arquivo).toAbsolutePath();
+        this.formato = formato;
+        this.rotacao = rotacao;
+        synchronized (lockCanal) {
+            abrirSegmento();
+            if (rotacao.isAtiva()) {
+                comprimirPendentes(); // segmentos que um processo anterior não chegou a comprimir
+            }
+        }
+        this.buffer = new LogRingBuffer(capacidade);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.politica = politica;
+        this.escritor = new Thread(this::executar, "xubank-security-log");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    public void publicar(LogRecord registro) {
+        if (!ativo.get()) {
+            gravarDireto(registro);
+            return;
+        }
+
+        if (!buffer.offer(registro)) {
+            switch (politica) {
+                case DESCARTAR:
+                    descartados.increment();
+                    return;
+                case EXECUTAR_NO_CHAMADOR:
+                    gravarDireto(registro);
+                    return;
+                case BLOQUEAR:
+                default:
+                    while (!buffer.offer(registro)) {
+                        if (!ativo.get()) {
+                            gravarDireto(registro);
+                            return;
+                        }
+                        LockSupport.unpark(escritor);
+                        LockSupport.parkNanos(ESPERA_PRODUTOR_NANOS);
+                    }
+            }
+        }
+
+        // Um encerramento entre a verificação do início e o offer pode já ter feito a drenagem
+        // final: nesse caso o próprio produtor esvazia o buffer, para o registro não ficar lá
+        if (!ativo.get()) {
+            drenarTudo();
+            return;
+        }
+        if (ocioso) {
+            LockSupport.unpark(escritor);
+        }
+    }
+
+    private void executar() {
+        while (ativo.get()) {
+            int drenados = drenarLote();
+            if (drenados == 0) {
+                ocioso = true;
+                if (buffer.isEmpty() && ativo.get()) {
+                    LockSupport.parkNanos(this, ESPERA_OCIOSA_NANOS);
+                }
+                ocioso = false;
+            }
+        }
+        // Esvazia o que restou após o pedido de encerramento
+        drenarTudo();
+    }
+
+    // Depois do encerramento, mais de uma thread pode drenar; o lockCanal as mantém uma por vez
+    private void drenarTudo() {
+        while (drenarLote() > 0) {
+            // continua até o buffer ficar vazio
+        }
+    }
+
+    private int drenarLote() {
+        synchronized (lockCanal) {
+            int quantidade = 0;
+            LogRecord registro;
+            while (quantidade < tamanhoLote && (registro = buffer.poll()) != null) {
+                formatar(registro);
+                quantidade++;
+            }
+            if (quantidade > 0) {
+                descarregar();
+                gravados.add(quantidade);
+            }
+            return quantidade;
+        }
+    }
+
+    private void gravarDireto(LogRecord registro) {
+        synchronized (lockCanal) {
+            formatar(registro);
+            descarregar();
+            gravados.increment();
+        }
+    }
+
+    private void formatar(LogRecord registro) {
+        if (formato == LogFormat.BINARIO) {
+            formatoBinario.codificar(registro);
+        } else {
+            formatoTexto.anexar(texto, registro);
+        }
+    }
+
+    // Uma única escrita no canal para todo o lote acumulado; depois, a rotação se for a hora
+    private void descarregar() {
+        boolean falhou = false;
+        try {
+            if (formato == LogFormat.BINARIO) {
+                descarregarBinario();
+            } else {
+                descarregarTexto();
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar log de segurança: " + e.getMessage());
+            bytes.clear();
+            falhou = true;
+        } finally {
+            texto.setLength(0);
+            formatoBinario.limpar();
+        }
+        if (falhou && formato == LogFormat.BINARIO) {
+            // O lote perdido pode ter levado o cabeçalho e eventos que o dicionário já conta
+            // como gravados: um novo cabeçalho recomeça o dicionário no próximo lote
+            formatoBinario.iniciarSegmento();
+        }
+        rotacionarSeNecessario();
+    }
+
+    private void descarregarTexto() throws IOException {
+        CharBuffer entrada = CharBuffer.wrap(texto);
+        encoder.reset();
+        while (true) {
+            CoderResult resultado = encoder.encode(entrada, bytes, true);
+            if (resultado.isOverflow()) {
+                escreverBytes();
+                continue;
+            }
+            encoder.flush(bytes);
+            break;
+        }
+        escreverBytes();
+    }
+
+    private void descarregarBinario() throws IOException {
+        byte[] dados = formatoBinario.getDados();
+        int tamanho = formatoBinario.getTamanho();
+        for (int de = 0; de < tamanho; ) {
+            int parte = Math.min(bytes.remaining(), tamanho - de);
+            bytes.put(dados, de, parte);
+            de += parte;
+            if (!bytes.hasRemaining()) {
+                escreverBytes();
+            }
+        }
+        escreverBytes();
+    }
+
+    private void escreverBytes() throws IOException {
+        bytes.flip();
+        bytesSegmento += bytes.remaining();
+        while (bytes.hasRemaining()) {
+            canal.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    // Abre (ou reabre, depois de uma rotação) o arquivo corrente. Um arquivo existente continua
+    // sendo anexado; no binário, um novo cabeçalho recomeça o dicionário de eventos.
+    private void abrirSegmento() throws IOException {
+        canal = FileChannel.open(caminho, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        bytesSegmento = canal.size();
+        aberturaSegmento = System.currentTimeMillis();
+        if (formato == LogFormat.BINARIO) {
+            formatoBinario.iniciarSegmento();
+        }
+    }
+
+    private void rotacionarSeNecessario() {
+        long agora = System.currentTimeMillis();
+        if (!rotacao.deveRotacionar(bytesSegmento, aberturaSegmento, agora)) {
+            return;
+        }
+        try {
+            canal.force(false);
+            canal.close();
+            Path segmento = nomeSegmento(agora);
+            Files.move(caminho, segmento);
+            abrirSegmento();
+            comprimir(segmento);
+        } catch (IOException e) {
+            System.err.println("Erro ao rotacionar log de segurança: " + e.getMessage());
+            aberturaSegmento = agora; // não tenta de novo a cada lote
+            if (!canal.isOpen()) {
+                try {
+                    abrirSegmento();
+                } catch (IOException erroAbertura) {
+                    System.err.println("Erro ao reabrir log de segurança: " + erroAbertura.getMessage());
+                }
+            }
+        }
+    }
+
+    // Dois segmentos no mesmo milissegundo avançam o nome em 1 ms, para que a ordem dos nomes
+    // continue sendo a ordem dos segmentos
+    private Path nomeSegmento(long agora) {
+        Path segmento;
+        long instante = agora;
+        do {
+            segmento = caminho.resolveSibling(prefixoSegmento()
+                    + LocalDateTime.ofInstant(Instant.ofEpochMilli(instante++), ZoneId.systemDefault())
+                    .format(FORMATO_SEGMENTO) + extensao());
+        } while (Files.exists(segmento) || Files.exists(comprimido(segmento)));
+        return segmento;
+    }
+
+    // "security.log" -> "security-"
+    private String prefixoSegmento() {
+        String nome = caminho.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        return (ponto > 0 ? nome.substring(0, ponto) : nome) + "-";
+    }
+
+    private String extensao() {
+        String nome = caminho.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        return ponto > 0 ? nome.substring(ponto) : "";
+    }
+
+    private static Path comprimido(Path segmento) {
+        return segmento.resolveSibling(segmento.getFileName() + ".gz");
+    }
+
+    private void comprimir(Path segmento) {
+        if (compressor != null && compressor.isShutdown()) {
+            return; // depois do encerramento: fica para o próximo processo, em comprimirPendentes
+        }
+        if (compressor == null) {
+            compressor = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "xubank-security-log-gzip");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        compressor.execute(() -> {
+            comprimirSegmento(segmento);
+            aplicarRetencao();
+        });
+    }
+
+    // Comprime num arquivo temporário e só então troca: um .gz existente está sempre completo
+    private static void comprimirSegmento(Path segmento) {
+        Path destino = comprimido(segmento);
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try {
+            // Nível mais rápido: o log é muito repetitivo e comprime bem mesmo assim, e a compressão
+            // divide a CPU com a aplicação
+            try (OutputStream saida = new GZIPOutputStream(Files.newOutputStream(temporario), 64 * 1024) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            }) {
+                Files.copy(segmento, saida);
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(segmento);
+        } catch (IOException e) {
+            System.err.println("Erro ao comprimir segmento do log de segurança " + segmento + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temporario);
+            } catch (IOException ignorado) {
+                // o segmento sem compressão continua no lugar
+            }
+        }
+    }
+
+    private void comprimirPendentes() {
+        for (Path segmento : segmentos(extensao())) {
+            comprimir(segmento);
+        }
+    }
+
+    // Mantém só os "retencao" segmentos comprimidos mais recentes (o nome ordena pela data)
+    private void aplicarRetencao() {
+        int retencao = rotacao.getRetencao();
+        if (retencao <= 0) {
+            return;
+        }
+        List<Path> comprimidos = segmentos(extensao() + ".gz");
+        for (int i = 0; i < comprimidos.size() - retencao; i++) {
+            try {
+                Files.deleteIfExists(comprimidos.get(i));
+            } catch (IOException e) {
+                System.err.println("Erro ao remover segmento antigo do log de segurança: " + e.getMessage());
+            }
+        }
+    }
+
+    private List<Path> segmentos(String sufixo) {
+        List<Path> encontrados = new ArrayList<>();
+        String prefixo = prefixoSegmento();
+        try (DirectoryStream<Path> diretorio = Files.newDirectoryStream(caminho.getParent(), prefixo + "*" + sufixo)) {
+            for (Path segmento : diretorio) {
+                String nome = segmento.getFileName().toString();
+                if (nome.length() > prefixo.length() && Character.isDigit(nome.charAt(prefixo.length()))) {
+                    encontrados.add(segmento);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao listar segmentos do log de segurança: " + e.getMessage());
+        }
+        Collections.sort(encontrados);
+        return encontrados;
+    }
+
+    public void encerrar(long timeoutMillis) {
+        if (!ativo.compareAndSet(true, false)) {
+            return;
+        }
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (lockCanal) {
+            drenarTudo();
+            try {
+                canal.force(false);
+            } catch (IOException e) {
+                System.err.println("Erro ao sincronizar log de segurança: " + e.getMessage());
+            }
+            if (compressor != null) {
+                compressor.shutdown();
+            }
+        }
+        if (compressor != null) {
+            try {
+                compressor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isAtivo() {
+        return ativo.get();
+    }
+
+    public int getTamanhoFila() {
+        return buffer.size();
+    }
+
+    public int getCapacidadeFila() {
+        return buffer.capacity();
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getGravados() {
+        return gravados.sum();
+    }
+}
@@ -1,15 +1,39 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class Cliente {
+    private static final VarHandle SALDO_INDEXADO;
+    private static final VarHandle PENDENTE_NO_INDICE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SALDO_INDEXADO = lookup.findVarHandle(Cliente.class, "saldoIndexado", long.class);
+            PENDENTE_NO_INDICE = lookup.findVarHandle(Cliente.class, "pendenteNoIndice", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String nome;
     private String cpf;
-    private String senhaHash;
-    private String salt;
+    private long cpfNumerico;
+    private volatile Credencial credencial;
     private double rendaMensal;
     private List<Conta> contas;
     private final ReentrantLock lock = new ReentrantLock();
+    private volatile XuBank banco;
+    // Mantidos pelo IndiceSaldos do banco: saldoIndexado e pendenteNoIndice mudam sem
+    // lock, por operações atômicas; saldoNoIndice e indexado, sob o lock do índice
+    private volatile long saldoIndexado;
+    private volatile boolean pendenteNoIndice;
+    private long saldoNoIndice;
+    private boolean indexado;
 
     public Cliente(String cpf, String senha, String nome, double rendaMensal) throws SecurityException {
         if (!ValidationUtils.validarCPF(cpf)) {
@@ -28,23 +52,52 @@ public class Cliente {
             throw new SecurityException("Renda mensal não pode ser negativa");
         }
 
-        this.cpf = ValidationUtils.sanitizarString(cpf.replaceAll("[^0-9]", ""));
+        this.cpfNumerico = ValidationUtils.normalizarCpf(cpf);
+        this.cpf = formatarCpf(cpfNumerico);
         this.nome = ValidationUtils.sanitizarString(nome);
-        this.salt = PasswordUtils.generateSalt();
-        this.senhaHash = PasswordUtils.hashPassword(senha, this.salt);
+        this.credencial = Credencial.gerar(senha);
         this.rendaMensal = rendaMensal;
         this.contas = new ArrayList<>();
 
         SecurityLogger.logSecurityEvent("CLIENTE_CRIADO", "Cliente criado: " + getCpfOfuscado());
     }
 
+    // Reconstrução a partir do journal: os dados já foram validados no cadastro original
+    private Cliente(long cpfNumerico, String nome, Credencial credencial, double rendaMensal) {
+        this.cpf = formatarCpf(cpfNumerico);
+        this.cpfNumerico = cpfNumerico;
+        this.nome = nome;
+        this.credencial = credencial;
+        this.rendaMensal = rendaMensal;
+        this.contas = new ArrayList<>();
+    }
+
+    private static String formatarCpf(long cpf) {
+        char[] digitos = new char[11];
+        for (int i = 10; i >= 0; i--, cpf /= 10) {
+            digitos[i] = (char) ('0' + cpf % 10);
+        }
+        return new String(digitos);
+    }
+
+    static Cliente restaurar(long cpf, String nome, byte[] salt, byte[] hash, double rendaMensal) {
+        return new Cliente(cpf, nome, new Credencial(salt, hash), rendaMensal);
+    }
+
+    // Importação em lote: os campos já passaram pelo ValidationUtils na leitura do
+    // arquivo; aqui só o hash da senha, sem uma linha de log por cliente
+    static Cliente importar(long cpf, String nome, String senha, double rendaMensal) throws SecurityException {
+        return new Cliente(cpf, ValidationUtils.sanitizarString(nome), Credencial.gerar(senha), rendaMensal);
+    }
+
     public boolean verificarSenha(String senha) throws SecurityException {
         if (senha == null) {
             return false;
         }
 
         try {
-            return PasswordUtils.verifyPassword(senha, this.senhaHash, this.salt);
+            Credencial atual = credencial;
+            return PasswordUtils.verifyPassword(senha, atual.hash, atual.salt);
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_VERIFICACAO_SENHA",
                     "Erro ao verificar senha para cliente: " + getCpfOfuscado(), e);
@@ -63,30 +116,63 @@ public class Cliente {
             throw new SecurityException("Nova senha não atende aos critérios de segurança");
         }
 
-        this.salt = PasswordUtils.generateSalt();
-        this.senhaHash = PasswordUtils.hashPassword(novaSenha, this.salt);
+        // A credencial nova e o registro dela entram na mesma seção do journal, para que
+        // duas trocas concorrentes cheguem ao journal na ordem em que ficaram valendo
+        Credencial nova = Credencial.gerar(novaSenha);
+        XuBank vinculado = banco;
+        JournalTransacoes journal = vinculado != null ? vinculado.getJournal() : null;
+        if (journal == null) {
+            this.credencial = nova;
+        } else {
+            long sequencia;
+            journal.travar();
+            try {
+                this.credencial = nova;
+                sequencia = registrarCredencial(journal);
+            } finally {
+                journal.destravar();
+            }
+            journal.confirmar(sequencia);
+        }
 
         SecurityLogger.logSecurityEvent("SENHA_ALTERADA",
                 "Senha alterada para cliente: " + getCpfOfuscado());
     }
 
+    // O registro da conta entra no journal sob o lock do cliente; o fsync é esperado depois
     public boolean AdicionarConta(Conta novaConta) throws SecurityException {
         if (novaConta == null) {
             throw new SecurityException("Conta não pode ser nula");
         }
 
-        lock.lock();
+        boolean adicionada;
+        long sequencia;
+        JournalTransacoes.iniciarLote();
+        try {
+            adicionada = adicionarConta(novaConta);
+        } finally {
+            sequencia = JournalTransacoes.encerrarLote();
+        }
+        confirmarJournal(sequencia);
+        return adicionada;
+    }
+
+    private boolean adicionarConta(Conta novaConta) throws SecurityException {
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
         try {
             for (Conta conta : contas) {
                 if (conta.getTipoConta() == novaConta.getTipoConta()) {
                     SecurityLogger.logSecurityEvent("CONTA_DUPLICADA",
                             "Tentativa de adicionar conta duplicada - Cliente: " + getCpfOfuscado() +
                                     " Tipo: " + novaConta.getTipoContaNome());
+                    if (conta != novaConta) {
+                        Conta.liberarNumero(novaConta); // número da conta recusada volta ao alocador
+                    }
                     return false;
                 }
             }
 
-            contas.add(novaConta);
+            anexarConta(novaConta);
             SecurityLogger.logSecurityEvent("CONTA_ADICIONADA",
                     "Conta adicionada - Cliente: " + getCpfOfuscado() +
                             " Tipo: " + novaConta.getTipoContaNome());
@@ -96,8 +182,34 @@ public class Cliente {
         }
     }
 
+    // Chamado sob o lock do cliente
+    private void anexarConta(Conta conta) throws SecurityException {
+        contas.add(conta);
+        XuBank vinculado = banco;
+        if (vinculado != null) {
+            vinculado.contaAdicionada(conta);
+        }
+    }
+
+    private void confirmarJournal(long sequencia) throws SecurityException {
+        XuBank vinculado = banco;
+        if (vinculado != null) {
+            vinculado.confirmarAte(sequencia);
+        }
+    }
+
+    // Reprodução do journal: a conta já passou pelas validações de AdicionarConta
+    void restaurarConta(Conta conta) throws SecurityException {
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
+        try {
+            anexarConta(conta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public void ListarContas() {
-        lock.lock();
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
         try {
             if (contas.isEmpty()) {
                 System.out.println("Nenhuma conta cadastrada.");
@@ -114,13 +226,15 @@ public class Cliente {
 
 
     public double getSaldoTotal() {
+        return Dinheiro.paraReais(getSaldoTotalCentavos());
+    }
 
-        lock.lock();
+    public long getSaldoTotalCentavos() {
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
         try {
-            double total = 0.0;
+            long total = 0;
             for (Conta conta : contas) {
-
-                total += conta.getSaldo();
+                total += conta.getSaldoCentavos();
             }
             return total;
         } finally {
@@ -132,12 +246,24 @@ public class Cliente {
         return rendaMensal;
     }
 
+    // A renda muda e vai para o journal sob o lock do cliente; o fsync é esperado depois
     public void setRendaMensal(double rendaMensal) throws SecurityException {
         if (rendaMensal < 0) {
             throw new SecurityException("Renda mensal não pode ser negativa");
         }
 
-        lock.lock();
+        long sequencia;
+        JournalTransacoes.iniciarLote();
+        try {
+            alterarRendaMensal(rendaMensal);
+        } finally {
+            sequencia = JournalTransacoes.encerrarLote();
+        }
+        confirmarJournal(sequencia);
+    }
+
+    private void alterarRendaMensal(double rendaMensal) throws SecurityException {
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
         try {
             this.rendaMensal = rendaMensal;
 
@@ -148,6 +274,11 @@ public class Cliente {
                 }
             }
 
+            XuBank vinculado = banco;
+            if (vinculado != null) {
+                vinculado.rendaAlterada(this);
+            }
+
             SecurityLogger.logSecurityEvent("RENDA_ATUALIZADA",
                     "Renda atualizada para cliente: " + getCpfOfuscado());
         } finally {
@@ -155,10 +286,87 @@ public class Cliente {
         }
     }
 
+    // Chamado pelo XuBank no cadastro; contas já existentes passam a ser contabilizadas
+    void vincularBanco(XuBank novoBanco) throws SecurityException {
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
+        try {
+            this.banco = novoBanco;
+            for (Conta conta : contas) {
+                novoBanco.contaAdicionada(conta);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getSaldoIndexado() {
+        return saldoIndexado;
+    }
+
+    void somarSaldoIndexado(long variacao) {
+        SALDO_INDEXADO.getAndAdd(this, variacao);
+    }
+
+    // true só para quem marcou: o cliente entra uma vez na fila de pendentes do índice
+    boolean marcarPendenteNoIndice() {
+        return !pendenteNoIndice && PENDENTE_NO_INDICE.compareAndSet(this, false, true);
+    }
+
+    void limparPendenteNoIndice() {
+        pendenteNoIndice = false;
+    }
+
+    long getSaldoNoIndice() {
+        return saldoNoIndice;
+    }
+
+    void setSaldoNoIndice(long saldoNoIndice) {
+        this.saldoNoIndice = saldoNoIndice;
+    }
+
+    boolean isIndexado() {
+        return indexado;
+    }
+
+    void setIndexado(boolean indexado) {
+        this.indexado = indexado;
+    }
+
+    XuBank getBanco() {
+        return banco;
+    }
+
+    // Salt e hash vêm da mesma Credencial, como na verificação de senha
+    long registrarCadastro(JournalTransacoes journal) throws SecurityException {
+        Credencial atual = credencial;
+        return journal.registrarCliente(cpfNumerico, nome, atual.salt, atual.hash, rendaMensal);
+    }
+
+    long registrarCredencial(JournalTransacoes journal) throws SecurityException {
+        Credencial atual = credencial;
+        return journal.registrarSenha(cpfNumerico, atual.salt, atual.hash);
+    }
+
+    void escreverCredencial(ByteBuffer destino) throws SecurityException {
+        Credencial atual = credencial;
+        if (atual.salt.length != PasswordUtils.TAMANHO_SALT || atual.hash.length != PasswordUtils.TAMANHO_HASH) {
+            throw new SecurityException("Credencial com tamanho inesperado: " + getCpfOfuscado());
+        }
+        destino.put(atual.salt).put(atual.hash);
+    }
+
+    void restaurarCredencial(byte[] salt, byte[] hash) {
+        this.credencial = new Credencial(salt, hash);
+    }
+
     public String getCpf() {
         return cpf;
     }
 
+    public long getCpfNumerico() {
+        return cpfNumerico;
+    }
+
     public String getCpfOfuscado() {
         if (cpf == null || cpf.length() < 4) {
             return "***";
@@ -171,7 +379,7 @@ public class Cliente {
     }
 
     public List<Conta> getContas() {
-        lock.lock();
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
         try {
             return new ArrayList<>(contas);
         } finally {
@@ -179,8 +387,20 @@ public class Cliente {
         }
     }
 
+    // Executa a ação em cada conta sem copiar a lista, segurando o lock do cliente
+    public void paraCadaConta(Consumer<Conta> acao) {
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
+        try {
+            for (Conta conta : contas) {
+                acao.accept(conta);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public Conta buscarContaPorNumero(int numero) {
-        lock.lock();
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
         try {
             for (Conta conta : contas) {
                 if (conta.getNumero() == numero) {
@@ -192,4 +412,36 @@ public class Cliente {
             lock.unlock();
         }
     }
-}
\ No newline at end of file
+
+    // Cada cliente tem no máximo uma conta de cada tipo (ver AdicionarConta)
+    public Conta buscarContaPorTipo(int tipoConta) {
+        Metrics.travar(lock, Metrics.ESPERA_CLIENTE);
+        try {
+            for (Conta conta : contas) {
+                if (conta.getTipoConta() == tipoConta) {
+                    return conta;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Salt e hash são trocados juntos, para que uma verificação concorrente
+    // com a troca de senha nunca combine o salt novo com o hash antigo
+    private static final class Credencial {
+        private final byte[] salt;
+        private final byte[] hash;
+
+        private Credencial(byte[] salt, byte[] hash) {
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        private static Credencial gerar(String senha) throws SecurityException {
+            byte[] salt = PasswordUtils.generateSalt();
+            return new Credencial(salt, PasswordUtils.hashPassword(senha, salt));
+        }
+    }
+}
@@ -0,0 +1,336 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Execução não interativa de comandos, um por linha, com campos separados por vírgula
+// (aspas como na importação de clientes):
+//   cadastrar,cpf,nome,senha,renda_mensal
+//   abrir,cpf,tipo                 (1 corrente, 2 poupança, 3 renda fixa, 4 investimento)
+//   depositar,cpf,tipo,valor
+//   sacar,cpf,tipo,valor
+//   relatorio,custodia|extremos|ranking|saldomedio|metricas[,quantidade]
+// Linhas vazias e iniciadas por '#' são ignoradas. É um canal de operador, como a
+// importação: as contas são localizadas por CPF e tipo, sem senha por comando.
+//
+// Os comandos são lidos em blocos e distribuídos em faixas pelo CPF: cada faixa roda em
+// sequência numa tarefa do executor, então os comandos de um mesmo cliente mantêm a ordem
+// do arquivo e clientes diferentes andam em paralelo. Um relatório é uma barreira: roda
+// depois de tudo o que veio antes e antes de tudo o que vem depois. A saída traz uma linha
+// "linha,comando,status,micros,detalhe" por comando, na ordem do arquivo.
+public class ComandosLote {
+    static final int COMANDOS_POR_BLOCO = 8192;
+    private static final String CABECALHO = "linha,comando,status,micros,detalhe\n";
+
+    private final XuBank banco;
+    private final ExecutorService executor;
+    private final int faixas;
+
+    public ComandosLote(XuBank banco, ExecutorService executor, int faixas) {
+        if (faixas < 1) {
+            throw new IllegalArgumentException("Número de faixas deve ser positivo");
+        }
+        if (executor == null && faixas > 1) {
+            throw new IllegalArgumentException("Executor não pode ser nulo");
+        }
+        this.banco = banco;
+        this.executor = executor;
+        this.faixas = faixas;
+    }
+
+    public ResultadoComandos executar(Reader origem, Appendable saida) throws IOException, SecurityException {
+        ResultadoComandos resultado = new ResultadoComandos();
+        long inicio = System.nanoTime();
+        BufferedReader leitor = origem instanceof BufferedReader
+                ? (BufferedReader) origem : new BufferedReader(origem, 1 << 16);
+        saida.append(CABECALHO);
+
+        StringBuilder linhaSaida = new StringBuilder(128);
+        List<Comando> bloco = new ArrayList<>(COMANDOS_POR_BLOCO);
+        long numero = 0;
+        String texto;
+        while ((texto = leitor.readLine()) != null) {
+            numero++;
+            if (texto.isEmpty() || texto.charAt(0) == '#') {
+                continue;
+            }
+            Comando comando = new Comando(numero, texto);
+            if (comando.barreira()) {
+                processarBloco(bloco, saida, linhaSaida, resultado);
+                comando.executar(banco);
+                emitir(comando, saida, linhaSaida, resultado);
+            } else {
+                bloco.add(comando);
+                if (bloco.size() == COMANDOS_POR_BLOCO) {
+                    processarBloco(bloco, saida, linhaSaida, resultado);
+                }
+            }
+        }
+        processarBloco(bloco, saida, linhaSaida, resultado);
+
+        resultado.concluir(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private void processarBloco(List<Comando> bloco, Appendable saida, StringBuilder linhaSaida,
+                                ResultadoComandos resultado) throws IOException, SecurityException {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        if (faixas == 1) {
+            executarFaixa(bloco);
+        } else {
+            List<List<Comando>> porFaixa = new ArrayList<>(faixas);
+            for (int i = 0; i < faixas; i++) {
+                porFaixa.add(new ArrayList<>());
+            }
+            for (Comando comando : bloco) {
+                porFaixa.get(Math.floorMod(Long.hashCode(comando.cpf), faixas)).add(comando);
+            }
+
+            List<Future<?>> tarefas = new ArrayList<>(faixas);
+            for (List<Comando> faixa : porFaixa) {
+                if (!faixa.isEmpty()) {
+                    tarefas.add(executor.submit(() -> executarFaixa(faixa)));
+                }
+            }
+            try {
+                for (Future<?> tarefa : tarefas) {
+                    tarefa.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SecurityException("Execução de comandos interrompida", e);
+            } catch (ExecutionException e) {
+                throw new SecurityException("Erro na execução de comandos", e.getCause());
+            }
+        }
+
+        for (Comando comando : bloco) {
+            emitir(comando, saida, linhaSaida, resultado);
+        }
+        bloco.clear();
+    }
+
+    private void executarFaixa(List<Comando> faixa) {
+        for (Comando comando : faixa) {
+            comando.executar(banco);
+        }
+    }
+
+    private static void emitir(Comando comando, Appendable saida, StringBuilder linhaSaida,
+                               ResultadoComandos resultado) throws IOException {
+        resultado.registrar(comando.nome, comando.motivo, comando.nanos);
+        linhaSaida.setLength(0);
+        linhaSaida.append(comando.numero).append(',').append(comando.nome).append(',')
+                .append(comando.motivo == null ? "OK" : "FALHA").append(',')
+                .append(comando.nanos / 1000).append(',');
+        anexarCsv(linhaSaida, comando.motivo == null ? comando.detalhe : comando.motivo).append('\n');
+        saida.append(linhaSaida);
+    }
+
+    // Campo entre aspas só quando precisa (vírgula, aspas ou quebra de linha)
+    private static StringBuilder anexarCsv(StringBuilder sb, String valor) {
+        if (valor == null) {
+            return sb;
+        }
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            return sb.append(valor);
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    private static final class Comando {
+        final long numero;
+        final String nome;
+        final List<String> campos;
+        final long cpf;
+        String detalhe;
+        String motivo;
+        long nanos;
+
+        Comando(long numero, String texto) {
+            this.numero = numero;
+            List<String> separados = ImportacaoClientes.separarCampos(texto);
+            if (separados == null) {
+                nome = "?";
+                campos = Collections.emptyList();
+                motivo = "LINHA_MALFORMADA";
+            } else {
+                nome = separados.get(0).trim().toLowerCase();
+                campos = separados;
+            }
+            cpf = campos.size() > 1 ? ValidationUtils.normalizarCpf(campos.get(1)) : -1;
+        }
+
+        boolean barreira() {
+            return "relatorio".equals(nome);
+        }
+
+        void executar(XuBank banco) {
+            if (motivo != null) {
+                return;
+            }
+            long inicio = System.nanoTime();
+            try {
+                switch (nome) {
+                    case "cadastrar": cadastrar(banco); break;
+                    case "abrir": abrir(banco); break;
+                    case "depositar": movimentar(banco, true); break;
+                    case "sacar": movimentar(banco, false); break;
+                    case "relatorio": relatorio(banco); break;
+                    default: motivo = "COMANDO_DESCONHECIDO";
+                }
+            } catch (SecurityException e) {
+                motivo = "DADOS_INVALIDOS";
+            } catch (RuntimeException e) {
+                SecurityLogger.logError("ERRO_COMANDO", "Erro ao executar comando da linha " + numero, e);
+                motivo = "ERRO_INTERNO";
+            } finally {
+                nanos = System.nanoTime() - inicio;
+            }
+        }
+
+        private boolean campos(int quantidade) {
+            if (campos.size() != quantidade) {
+                motivo = "LINHA_MALFORMADA";
+                return false;
+            }
+            return true;
+        }
+
+        private void cadastrar(XuBank banco) throws SecurityException {
+            if (!campos(5)) {
+                return;
+            }
+            double renda = numero(campos.get(4));
+            if (renda < 0 || !ValidationUtils.validarValor(renda)) {
+                motivo = "RENDA_INVALIDA";
+                return;
+            }
+            if (banco.cpfCadastrado(cpf)) {
+                motivo = "CPF_JA_CADASTRADO";
+                return;
+            }
+            Cliente cliente = new Cliente(campos.get(1), campos.get(3), campos.get(2), renda);
+            if (!banco.publicarImportados(Collections.singletonList(cliente))[0]) {
+                motivo = "CPF_JA_CADASTRADO";
+            }
+        }
+
+        private void abrir(XuBank banco) throws SecurityException {
+            if (!campos(3)) {
+                return;
+            }
+            Cliente cliente = cliente(banco);
+            if (cliente == null) {
+                return;
+            }
+            int tipo = tipo(campos.get(2));
+            if (tipo < 0) {
+                return;
+            }
+            Conta conta = Conta.nova(tipo, cliente);
+            if (cliente.AdicionarConta(conta)) {
+                detalhe = Integer.toString(conta.getNumero());
+            } else {
+                motivo = "CONTA_DUPLICADA";
+            }
+        }
+
+        private void movimentar(XuBank banco, boolean deposito) throws SecurityException {
+            if (!campos(4)) {
+                return;
+            }
+            Cliente cliente = cliente(banco);
+            if (cliente == null) {
+                return;
+            }
+            int tipo = tipo(campos.get(2));
+            if (tipo < 0) {
+                return;
+            }
+            Conta conta = cliente.buscarContaPorTipo(tipo);
+            if (conta == null) {
+                motivo = "CONTA_NAO_ENCONTRADA";
+                return;
+            }
+            double valor = numero(campos.get(3));
+            if (valor <= 0 || !ValidationUtils.validarValor(valor)) {
+                motivo = "VALOR_INVALIDO";
+                return;
+            }
+            long centavos = Dinheiro.paraCentavos(valor);
+            if (deposito ? conta.DepositarCentavos(centavos) : conta.SacarCentavos(centavos)) {
+                detalhe = Dinheiro.anexar(new StringBuilder(16), conta.getSaldoCentavos()).toString();
+            } else {
+                motivo = deposito ? "DEPOSITO_RECUSADO" : "SAQUE_NAO_AUTORIZADO";
+            }
+        }
+
+        private void relatorio(XuBank banco) {
+            if (campos.size() < 2 || campos.size() > 3) {
+                motivo = "LINHA_MALFORMADA";
+                return;
+            }
+            switch (campos.get(1).trim().toLowerCase()) {
+                case "custodia": detalhe = banco.RelatorioCustodia(); break;
+                case "extremos": detalhe = banco.ClientesExtremos(); break;
+                case "saldomedio": detalhe = banco.gerarRelatorioSaldoMedio(); break;
+                case "metricas": detalhe = Metrics.relatorio(); break;
+                case "ranking":
+                    int quantidade = campos.size() == 3 ? (int) numero(campos.get(2)) : 5;
+                    if (quantidade <= 0) {
+                        motivo = "QUANTIDADE_INVALIDA";
+                    } else {
+                        detalhe = banco.RankingSaldos(quantidade);
+                    }
+                    break;
+                default: motivo = "RELATORIO_DESCONHECIDO";
+            }
+        }
+
+        private Cliente cliente(XuBank banco) {
+            Cliente cliente = cpf < 0 ? null : banco.buscarClientePorCpf(campos.get(1));
+            if (cliente == null) {
+                motivo = "CLIENTE_NAO_ENCONTRADO";
+            }
+            return cliente;
+        }
+
+        private int tipo(String texto) {
+            double tipo = numero(texto);
+            if (tipo < 1 || tipo > TotaisCustodia.TIPOS || tipo != Math.rint(tipo)) {
+                motivo = "TIPO_INVALIDO";
+                return -1;
+            }
+            return (int) tipo;
+        }
+
+        private static double numero(String texto) {
+            try {
+                return Double.parseDouble(texto.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
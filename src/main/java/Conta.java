@@ -1,19 +1,44 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
-import java.util.Random;
-import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class Conta {
-    private static final Set<Integer> numerosUsados = new HashSet<>();
-    private static final ReentrantLock lock = new ReentrantLock();
+    private static volatile AlocadorNumeroConta alocador = new AlocadorNumeroPermutado();
+    private static volatile TaxasMercado taxasMercado =
+            new TaxasMercado(FonteRendimento.fromString(System.getProperty("xubank.rendimento.fonte")));
+
+    // Saques e depósitos não usam lock de conta: o saldo só muda por compare-and-set sobre
+    // este campo. Com journal, a troca e o registro dela acontecem na seção travada do journal.
+    private static final VarHandle SALDO;
+    // Devolvido por retirarTransferencia quando a regra da conta nega a retirada; nunca é um saldo válido
+    static final long NEGADA = Long.MIN_VALUE;
+    private static final VarHandle HISTORICO;
+    private static final DateTimeFormatter FORMATO_MOVIMENTO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SALDO = lookup.findVarHandle(Conta.class, "saldoCentavos", long.class);
+            HISTORICO = lookup.findVarHandle(Conta.class, "historico", HistoricoMovimentos.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     protected int numero;
-    protected double saldo;
+    protected volatile long saldoCentavos;
     protected Cliente cliente;
-    protected LocalDate dataUltimaAtualizacao;
+    private volatile XuBank banco;
+    protected volatile LocalDate dataUltimaAtualizacao;
     protected int tipoConta;
+    private long variacaoRendimento;
+    private volatile HistoricoMovimentos historico; // criado no primeiro movimento
 
     public Conta(Cliente cliente) throws SecurityException {
         if (cliente == null) {
@@ -21,7 +46,7 @@ public abstract class Conta {
         }
 
         this.numero = gerarNumeroUnico();
-        this.saldo = 0.0;
+        this.saldoCentavos = 0;
         this.cliente = cliente;
         this.dataUltimaAtualizacao = LocalDate.now();
 
@@ -29,27 +54,95 @@ public abstract class Conta {
                 "Conta criada para cliente: " + cliente.getCpfOfuscado());
     }
 
-    private int gerarNumeroUnico() throws SecurityException {
-        lock.lock();
+    // Reconstrói uma conta a partir do journal. O número original é reservado no alocador;
+    // se ele já estiver marcado (conta ainda viva neste processo), a reserva é ignorada.
+    protected Conta(Cliente cliente, int numero, long saldoCentavos, LocalDate dataUltimaAtualizacao) throws SecurityException {
+        if (cliente == null) {
+            throw new SecurityException("Cliente não pode ser nulo");
+        }
+
+        alocador.reservar(numero);
+        this.numero = numero;
+        this.saldoCentavos = saldoCentavos;
+        this.cliente = cliente;
+        this.dataUltimaAtualizacao = dataUltimaAtualizacao;
+    }
+
+    static Conta restaurar(int tipoConta, Cliente cliente, int numero, long saldoCentavos,
+                           LocalDate dataUltimaAtualizacao) throws SecurityException {
+        switch (tipoConta) {
+            case 1: return new ContaCorrente(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+            case 2: return new ContaPoupanca(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+            case 3: return new ContaRendaFixa(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+            case 4: return new ContaInvestimento(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+            default: throw new SecurityException("Tipo de conta inválido: " + tipoConta);
+        }
+    }
+
+    // Conta nova e vazia do tipo informado, como na abertura pelo menu
+    static Conta nova(int tipoConta, Cliente cliente) throws SecurityException {
+        switch (tipoConta) {
+            case 1: return new ContaCorrente(cliente);
+            case 2: return new ContaPoupanca(cliente);
+            case 3: return new ContaRendaFixa(cliente);
+            case 4: return new ContaInvestimento(cliente);
+            default: throw new SecurityException("Tipo de conta inválido: " + tipoConta);
+        }
+    }
+
+    // Conta nova com saldo de abertura (importação em lote): número do alocador, sem log por conta
+    static Conta abrir(int tipoConta, Cliente cliente, long saldoCentavos) throws SecurityException {
+        int numero = alocador.alocar();
         try {
-            Random random = new Random();
-            int tentativas = 0;
-            int num;
+            return restaurar(tipoConta, cliente, numero, saldoCentavos, LocalDate.now());
+        } catch (SecurityException e) {
+            alocador.liberar(numero);
+            throw e;
+        }
+    }
 
-            do {
-                num = 100000 + random.nextInt(900000);
-                tentativas++;
+    private int gerarNumeroUnico() throws SecurityException {
+        return alocador.alocar();
+    }
 
-                if (tentativas > 1000) {
-                    throw new SecurityException("Não foi possível gerar número único para conta");
-                }
-            } while (numerosUsados.contains(num));
+    public static void configurarAlocador(AlocadorNumeroConta novoAlocador) {
+        if (novoAlocador == null) {
+            throw new IllegalArgumentException("Alocador não pode ser nulo");
+        }
+        alocador = novoAlocador;
+    }
 
-            numerosUsados.add(num);
-            return num;
-        } finally {
-            lock.unlock();
+    public static AlocadorNumeroConta getAlocador() {
+        return alocador;
+    }
+
+    public static void configurarTaxasMercado(TaxasMercado novasTaxas) {
+        if (novasTaxas == null) {
+            throw new IllegalArgumentException("Taxas de mercado não podem ser nulas");
         }
+        taxasMercado = novasTaxas;
+    }
+
+    public static TaxasMercado getTaxasMercado() {
+        return taxasMercado;
+    }
+
+    // Taxa de mercado (% ao mês) do produto desta conta no mês informado
+    protected final double taxaMercado(YearMonth mes) {
+        return taxasMercado.taxa(tipoConta, mes);
+    }
+
+    protected final double taxaMercadoAtual() {
+        return taxasMercado.taxaAtual(tipoConta);
+    }
+
+    // Taxas dos meses seguintes à última atualização, na ordem em que são creditados
+    protected final double[] taxasPendentes(int meses) {
+        return taxasMercado.taxas(tipoConta, YearMonth.from(dataUltimaAtualizacao).plusMonths(1), meses);
+    }
+
+    public static boolean liberarNumero(Conta conta) {
+        return conta != null && alocador.liberar(conta.getNumero());
     }
 
     public abstract double CalcularRendimento() throws SecurityException;
@@ -66,57 +159,162 @@ public abstract class Conta {
                     "Tentativa de saque com valor inválido: " + valor);
             throw new SecurityException("Valor de saque inválido");
         }
+        return SacarCentavos(Dinheiro.paraCentavos(valor));
+    }
+
+    public boolean Depositar(double valor) throws SecurityException {
+        if (!ValidationUtils.validarValor(valor)) {
+            SecurityLogger.logSecurityEvent("DEPOSITO_INVALIDO",
+                    "Tentativa de depósito com valor inválido: " + valor);
+            throw new SecurityException("Valor de depósito inválido");
+        }
+        return DepositarCentavos(Dinheiro.paraCentavos(valor));
+    }
+
+    // Saque e depósito medidos por tipo de conta; as regras de cada tipo ficam em
+    // executarSaque e executarDeposito
+    public boolean SacarCentavos(long valor) throws SecurityException {
+        long inicio = Metrics.inicio();
+        try {
+            return executarSaque(valor);
+        } finally {
+            Metrics.registrar(Metrics.SACAR[tipoConta], inicio);
+        }
+    }
+
+    public boolean DepositarCentavos(long valor) throws SecurityException {
+        long inicio = Metrics.inicio();
+        try {
+            return executarDeposito(valor);
+        } finally {
+            Metrics.registrar(Metrics.DEPOSITAR[tipoConta], inicio);
+        }
+    }
+
+    protected boolean executarSaque(long valor) throws SecurityException {
+        if (valor < 0) {
+            SecurityLogger.logSecurityEvent("SAQUE_INVALIDO",
+                    "Tentativa de saque com valor inválido: " + Dinheiro.formatar(valor));
+            throw new SecurityException("Valor de saque inválido");
+        }
 
-        if (valor <= 0) {
+        if (valor == 0) {
             return false;
         }
 
-        if (valor > saldo) {
+        if (debitar(valor, TipoMovimento.SAQUE) < 0) {
             SecurityLogger.logSecurityEvent("SAQUE_NEGADO",
-                    "Saque negado por saldo insuficiente - Conta: " + numero);
+                    "Saque negado por saldo insuficiente", numero);
             return false;
         }
 
-        saldo -= valor;
         SecurityLogger.logSecurityEvent("SAQUE_REALIZADO",
-                "Saque realizado - Conta: " + numero + " Valor: " + String.format("%.2f", valor));
+                "Saque realizado", numero, valor);
         return true;
     }
 
-    public boolean Depositar(double valor) throws SecurityException {
-        if (!ValidationUtils.validarValor(valor)) {
+    protected boolean executarDeposito(long valor) throws SecurityException {
+        if (valor < 0) {
             SecurityLogger.logSecurityEvent("DEPOSITO_INVALIDO",
-                    "Tentativa de depósito com valor inválido: " + valor);
+                    "Tentativa de depósito com valor inválido: " + Dinheiro.formatar(valor));
             throw new SecurityException("Valor de depósito inválido");
         }
 
-        if (valor <= 0) {
+        if (valor == 0) {
             return false;
         }
 
-        saldo += valor;
+        creditar(valor, TipoMovimento.DEPOSITO);
         SecurityLogger.logSecurityEvent("DEPOSITO_REALIZADO",
-                "Depósito realizado - Conta: " + numero + " Valor: " + String.format("%.2f", valor));
+                "Depósito realizado", numero, valor);
         return true;
     }
 
+    // Retira valor do saldo se a regra da conta permitir (saque). Devolve o imposto
+    // cobrado junto com a retirada, ou -1 se ela foi negada.
+    protected long debitar(long valor, TipoMovimento tipo) throws SecurityException {
+        long imposto = impostoRetirada();
+        long valorTotal = valor + imposto;
+
+        long atual;
+        do {
+            atual = lerSaldo();
+            if (!permiteRetirada(atual, valorTotal)) {
+                return -1;
+            }
+        } while (!trocarSaldo(atual, atual - valorTotal, tipo, imposto, imposto > 0 ? TipoMovimento.IMPOSTO : null));
+        return imposto;
+    }
+
+    // Imposto que uma retirada (saque ou transferência) paga junto com o valor. Os tipos
+    // tributados creditam antes o rendimento do período, sobre o qual o imposto incide.
+    protected long impostoRetirada() throws SecurityException {
+        return 0;
+    }
+
+    // Regra de retirada do tipo de conta sobre o saldo informado
+    protected boolean permiteRetirada(long saldo, long valor) {
+        return valor <= saldo;
+    }
+
+    // Taxa descontada de um crédito que encontra a conta com o saldo informado
+    protected long taxaCredito(long saldo) {
+        return 0;
+    }
+
+    // Credita valor (depósito) e devolve a taxa descontada dele
+    protected long creditar(long valor, TipoMovimento tipo) throws SecurityException {
+        JournalTransacoes journal = journalDoMovimento();
+        if (journal == null) {
+            long atual;
+            do {
+                atual = lerSaldo();
+            } while (!SALDO.compareAndSet(this, atual, atual + valor));
+            notificarBanco(atual, atual + valor, tipo, 0, null);
+            return 0;
+        }
+
+        // Na seção do journal nenhum outro movimento muda o saldo, então a soma direta é segura
+        long anterior;
+        long sequencia;
+        journal.travar();
+        try {
+            anterior = (long) SALDO.getAndAdd(this, valor);
+            sequencia = journal.registrarMovimento(numero, tipo, valor, null, 0);
+        } finally {
+            journal.destravar();
+        }
+        notificarBanco(anterior, anterior + valor, tipo, 0, null);
+        journal.confirmar(sequencia);
+        return 0;
+    }
+
+    // Rendimentos são creditados sob o monitor da conta: isso impede que dois processos
+    // creditem o mesmo mês, sem bloquear os saques e depósitos que correm em paralelo.
+    // O fsync do journal é esperado depois de soltar o monitor.
     public void AtualizarRendimento() throws SecurityException {
+        long sequencia;
+        JournalTransacoes.iniciarLote();
+        try {
+            atualizarRendimento();
+        } finally {
+            sequencia = JournalTransacoes.encerrarLote();
+        }
+        aguardarJournal(sequencia);
+    }
+
+    private synchronized void atualizarRendimento() throws SecurityException {
         try {
             LocalDate hoje = LocalDate.now();
             long meses = ChronoUnit.MONTHS.between(dataUltimaAtualizacao, hoje);
-
-            if (meses > 120) { // Limite de 10 anos
-                throw new SecurityException("Período de atualização muito longo");
-            }
-
-            for (int i = 0; i < meses; i++) {
-                CalcularRendimento();
-            }
+            validarPeriodo(meses);
 
             if (meses > 0) {
-                dataUltimaAtualizacao = hoje;
+                long rendimento = aplicarRendimentoAcumulado((int) meses);
+                marcarAtualizacao(hoje);
                 SecurityLogger.logSecurityEvent("RENDIMENTO_ATUALIZADO",
-                        "Rendimento atualizado - Conta: " + numero);
+                        "Rendimento atualizado - Conta: " + numero + " Meses: " + meses +
+                                " Rendimento: " + Dinheiro.formatar(rendimento));
             }
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_RENDIMENTO",
@@ -125,30 +323,166 @@ public abstract class Conta {
         }
     }
 
+    private static void validarPeriodo(long meses) throws SecurityException {
+        if (meses > 120) { // Limite de 10 anos
+            throw new SecurityException("Período de atualização muito longo");
+        }
+    }
+
+    // Fechamento mensal: credita os meses de calendário desde a última atualização, até
+    // o corrente, e marca a data, para que AtualizarRendimento não credite os mesmos meses
+    // de novo. Uma conta já atualizada no mês corrente fica como está, então repetir o
+    // fechamento no mesmo mês não credita duas vezes. Retorna a variação líquida do saldo
+    // (rendimento menos taxas), sem contar depósitos e saques de outras threads no intervalo.
+    public long creditarRendimentoMensal() throws SecurityException {
+        long variacao;
+        long sequencia;
+        JournalTransacoes.iniciarLote();
+        try {
+            variacao = creditarRendimentoMensal(TaxasMercado.produtoDeMercado(tipoConta) ? taxaMercadoAtual() : 0);
+        } finally {
+            sequencia = JournalTransacoes.encerrarLote();
+        }
+        aguardarJournal(sequencia);
+        return variacao;
+    }
+
+    // Mesmo crédito, com a taxa do mês corrente já resolvida pelo processador para o tipo
+    // da conta; só uma conta parada há mais de um mês consulta a série de taxas. Quem
+    // chama está num lote do journal e espera o fsync depois de soltar os locks.
+    synchronized long creditarRendimentoMensal(double taxaMes) throws SecurityException {
+        LocalDate hoje = LocalDate.now();
+        long meses = YearMonth.from(dataUltimaAtualizacao).until(YearMonth.from(hoje), ChronoUnit.MONTHS);
+        if (meses <= 0) {
+            return 0;
+        }
+        validarPeriodo(meses);
+
+        variacaoRendimento = 0;
+        if (meses == 1) {
+            creditarMes(taxaMes);
+        } else {
+            aplicarRendimentoAcumulado((int) meses);
+        }
+        marcarAtualizacao(hoje);
+        return variacaoRendimento;
+    }
+
+    public boolean isAtualizadaNoMes(YearMonth mes) {
+        return !YearMonth.from(dataUltimaAtualizacao).isBefore(mes);
+    }
+
+    // Credita um mês de rendimento à taxa de mercado informada (% ao mês). Os tipos
+    // de taxa própria a ignoram e creditam pelo CalcularRendimento.
+    protected long creditarMes(double taxa) throws SecurityException {
+        return Dinheiro.paraCentavos(CalcularRendimento());
+    }
+
+    // Aplica vários meses de rendimento de uma vez. Subclasses com fórmula fechada
+    // sobrescrevem este método para evitar validação e log a cada mês.
+    protected long aplicarRendimentoAcumulado(int meses) throws SecurityException {
+        long total = 0;
+        for (int i = 0; i < meses; i++) {
+            total += Dinheiro.paraCentavos(CalcularRendimento());
+        }
+        return total;
+    }
+
     public String GerarExtrato() {
         return String.format("Conta nº %d - Saldo: R$ %.2f - Última atualização: %s",
-                numero, saldo, dataUltimaAtualizacao);
+                numero, getSaldo(), dataUltimaAtualizacao);
     }
 
 
     public String GerarExtratoUltimoMes() {
-        LocalDate umMesAtras = LocalDate.now().minusMonths(1);
+        long inicio = Metrics.inicio();
+        try {
+            return gerarExtratoUltimoMes();
+        } finally {
+            Metrics.registrar(Metrics.RELATORIO_EXTRATO, inicio);
+        }
+    }
+
+    private String gerarExtratoUltimoMes() {
+        LocalDate hoje = LocalDate.now();
+        LocalDate umMesAtras = hoje.minusMonths(1);
         StringBuilder extrato = new StringBuilder();
-        extrato.append(String.format("--- Extrato Simplificado Último Mês - Conta nº %d ---\n", numero));
-        extrato.append(String.format("Saldo Atual: R$ %.2f\n", saldo));
+        extrato.append(String.format("--- Extrato Último Mês - Conta nº %d ---\n", numero));
+        extrato.append(String.format("Saldo Atual: R$ %.2f\n", getSaldo()));
 
         if (dataUltimaAtualizacao.isAfter(umMesAtras) || dataUltimaAtualizacao.isEqual(umMesAtras)) {
             extrato.append(String.format("Última atualização de rendimento: %s (dentro do último mês)\n", dataUltimaAtualizacao.toString()));
         } else {
             extrato.append(String.format("Última atualização de rendimento: %s (há mais de um mês)\n", dataUltimaAtualizacao.toString()));
         }
+        anexarMovimentos(extrato, umMesAtras, hoje);
+        extrato.append("------------------------------------------");
+        return extrato.toString();
+    }
+
+    public String GerarExtratoPeriodo(LocalDate inicio, LocalDate fim) {
+        long inicioMedicao = Metrics.inicio();
+        try {
+            return gerarExtratoPeriodo(inicio, fim);
+        } finally {
+            Metrics.registrar(Metrics.RELATORIO_EXTRATO, inicioMedicao);
+        }
+    }
+
+    private String gerarExtratoPeriodo(LocalDate inicio, LocalDate fim) {
+        StringBuilder extrato = new StringBuilder();
+        extrato.append(String.format("--- Extrato de %s a %s - Conta nº %d ---\n", inicio, fim, numero));
+        extrato.append(String.format("Saldo Atual: R$ %.2f\n", getSaldo()));
+        anexarMovimentos(extrato, inicio, fim);
         extrato.append("------------------------------------------");
         return extrato.toString();
     }
 
+    private void anexarMovimentos(StringBuilder extrato, LocalDate inicio, LocalDate fim) {
+        List<Movimento> movimentos = getMovimentos(inicio, fim);
+        if (movimentos.isEmpty()) {
+            extrato.append("Nenhum movimento no período\n");
+            return;
+        }
+        for (Movimento movimento : movimentos) {
+            extrato.append(FORMATO_MOVIMENTO.format(movimento.getDataHora())).append("  ")
+                    .append(String.format("%-22s", movimento.getTipo()))
+                    .append(" R$ ").append(Dinheiro.formatar(movimento.getValorCentavos())).append('\n');
+        }
+    }
 
+    // Movimentos registrados do início de "inicio" ao fim de "fim" (datas inclusivas).
+    // O histórico vive em memória: só cobre movimentos feitos desde que o processo subiu.
+    public List<Movimento> getMovimentos(LocalDate inicio, LocalDate fim) {
+        HistoricoMovimentos atual = historico;
+        if (atual == null) {
+            return new ArrayList<>();
+        }
+        ZoneId fuso = ZoneId.systemDefault();
+        return atual.listar(inicio.atStartOfDay(fuso).toInstant().toEpochMilli(),
+                fim.plusDays(1).atStartOfDay(fuso).toInstant().toEpochMilli());
+    }
+
+    HistoricoMovimentos historico() {
+        HistoricoMovimentos atual = historico;
+        if (atual == null) {
+            HistoricoMovimentos novo = new HistoricoMovimentos();
+            atual = (HistoricoMovimentos) HISTORICO.compareAndExchange(this, null, novo);
+            if (atual == null) {
+                atual = novo;
+            }
+        }
+        return atual;
+    }
+
+
+    // Adaptador para quem ainda trabalha com reais em double
     public double getSaldo() {
-        return saldo;
+        return Dinheiro.paraReais(lerSaldo());
+    }
+
+    public long getSaldoCentavos() {
+        return lerSaldo();
     }
 
     public int getNumero() {
@@ -159,10 +493,191 @@ public abstract class Conta {
         return cliente;
     }
 
-    protected void setSaldo(double novoSaldo) throws SecurityException {
-        if (!ValidationUtils.validarValor(novoSaldo)) {
+    public LocalDate getDataUltimaAtualizacao() {
+        return dataUltimaAtualizacao;
+    }
+
+    protected void setSaldoCentavos(long novoSaldo, TipoMovimento tipo) throws SecurityException {
+        if (novoSaldo < 0) {
             throw new SecurityException("Valor de saldo inválido");
         }
-        this.saldo = novoSaldo;
+        alterarSaldo(novoSaldo, tipo);
+    }
+
+    protected void alterarSaldo(long novoSaldo, TipoMovimento tipo) throws SecurityException {
+        alterarSaldo(novoSaldo, tipo, 0, null);
+    }
+
+    // Substitui o saldo sem olhar o valor atual (ajustes e reprodução do journal)
+    protected void alterarSaldo(long novoSaldo, TipoMovimento tipo, long encargo,
+                                TipoMovimento tipoEncargo) throws SecurityException {
+        JournalTransacoes journal = journalDoMovimento();
+        if (journal == null) {
+            long anterior;
+            do {
+                anterior = lerSaldo();
+            } while (!SALDO.compareAndSet(this, anterior, novoSaldo));
+            notificarBanco(anterior, novoSaldo, tipo, encargo, tipoEncargo);
+            return;
+        }
+
+        long anterior;
+        long sequencia;
+        journal.travar();
+        try {
+            anterior = (long) SALDO.getAndSet(this, novoSaldo);
+            sequencia = journal.registrarMovimento(numero, tipo, novoSaldo - anterior + encargo, tipoEncargo, encargo);
+        } finally {
+            journal.destravar();
+        }
+        notificarBanco(anterior, novoSaldo, tipo, encargo, tipoEncargo);
+        journal.confirmar(sequencia);
+    }
+
+    protected boolean trocarSaldo(long esperado, long novoSaldo, TipoMovimento tipo) throws SecurityException {
+        return trocarSaldo(esperado, novoSaldo, tipo, 0, null);
+    }
+
+    // Troca o saldo só se ele ainda for o esperado. Quem chama calcula novoSaldo (e
+    // taxas) a partir do saldo lido e, se outra thread alterou o saldo no meio, lê
+    // de novo e recalcula. O encargo já está descontado de novoSaldo.
+    protected boolean trocarSaldo(long esperado, long novoSaldo, TipoMovimento tipo, long encargo,
+                                  TipoMovimento tipoEncargo) throws SecurityException {
+        JournalTransacoes journal = journalDoMovimento();
+        if (journal == null) {
+            if (!SALDO.compareAndSet(this, esperado, novoSaldo)) {
+                return false;
+            }
+            notificarBanco(esperado, novoSaldo, tipo, encargo, tipoEncargo);
+            return true;
+        }
+
+        long sequencia;
+        journal.travar();
+        try {
+            if (!SALDO.compareAndSet(this, esperado, novoSaldo)) {
+                return false;
+            }
+            sequencia = journal.registrarMovimento(numero, tipo, novoSaldo - esperado + encargo, tipoEncargo, encargo);
+        } finally {
+            journal.destravar();
+        }
+        notificarBanco(esperado, novoSaldo, tipo, encargo, tipoEncargo);
+        journal.confirmar(sequencia);
+        return true;
+    }
+
+    // Journal que recebe o movimento na mesma seção em que o saldo novo fica visível, ou null
+    private JournalTransacoes journalDoMovimento() {
+        XuBank vinculado = banco;
+        return vinculado != null ? vinculado.getJournal() : null;
+    }
+
+    // Último saldo confirmado; leituras nunca esperam
+    protected long lerSaldo() {
+        return saldoCentavos;
+    }
+
+    // Perna de saída de uma transferência: retira total se a regra da conta permitir e
+    // devolve o saldo anterior, ou NEGADA. Um saque ou depósito concorrente faz o CAS
+    // falhar e a regra é conferida de novo sobre o saldo novo.
+    long retirarTransferencia(long total) {
+        long atual;
+        do {
+            atual = saldoCentavos;
+            if (!permiteRetirada(atual, total)) {
+                return NEGADA;
+            }
+        } while (!SALDO.compareAndSet(this, atual, atual - total));
+        return atual;
+    }
+
+    // Perna de entrada: credita valor menos a taxa de crédito sobre o saldo encontrado e
+    // devolve o saldo anterior (a taxa é taxaCredito dele)
+    long receberTransferencia(long valor) {
+        long atual;
+        do {
+            atual = saldoCentavos;
+        } while (!SALDO.compareAndSet(this, atual, atual + valor - taxaCredito(atual)));
+        return atual;
+    }
+
+    // Desfaz uma perna que não chegou ao journal; só na seção travada dele, onde nenhum
+    // outro movimento muda o saldo
+    void estornarTransferencia(long variacao) {
+        SALDO.getAndAdd(this, -variacao);
+    }
+
+    // Perna de uma transferência que o XuBank já aplicou e registrou no journal
+    void pernaTransferida(long anterior, long novoSaldo, TipoMovimento tipo, long encargo,
+                          TipoMovimento tipoEncargo) throws SecurityException {
+        notificarBanco(anterior, novoSaldo, tipo, encargo, tipoEncargo);
+    }
+
+    // Espera o fsync dos registros de um lote já encerrado, fora de qualquer lock
+    protected void aguardarJournal(long sequencia) throws SecurityException {
+        XuBank vinculado = banco;
+        if (vinculado != null) {
+            vinculado.confirmarAte(sequencia);
+        }
+    }
+
+    // Mantém os totais do banco em dia depois da troca. Cada troca
+    // bem-sucedida informa o par (anterior, novo) que ela mesma aplicou, então as
+    // variações somadas pelo banco fecham mesmo com notificações fora de ordem.
+    private void notificarBanco(long anterior, long novoSaldo, TipoMovimento tipo, long encargo,
+                                TipoMovimento tipoEncargo) throws SecurityException {
+        long agora = System.currentTimeMillis();
+        HistoricoMovimentos movimentos = historico();
+        movimentos.registrar(agora, tipo, novoSaldo - anterior + encargo);
+        if (encargo != 0) {
+            movimentos.registrar(agora, tipoEncargo, -encargo);
+        }
+
+        if (tipo == TipoMovimento.RENDIMENTO) {
+            variacaoRendimento += novoSaldo - anterior; // só muda sob o monitor da conta
+        }
+
+        XuBank vinculado = banco;
+        if (vinculado != null) {
+            vinculado.saldoAlterado(this, anterior, novoSaldo);
+        }
+    }
+
+    private void marcarAtualizacao(LocalDate data) throws SecurityException {
+        XuBank vinculado = banco;
+        JournalTransacoes journal = vinculado != null ? vinculado.getJournal() : null;
+        if (journal == null) {
+            dataUltimaAtualizacao = data;
+            return;
+        }
+
+        long sequencia;
+        journal.travar();
+        try {
+            dataUltimaAtualizacao = data;
+            sequencia = journal.registrarAtualizacao(numero, data);
+        } finally {
+            journal.destravar();
+        }
+        journal.confirmar(sequencia);
+    }
+
+    // Reprodução do journal: o banco ainda não tem journal aberto, então o movimento não é gravado de novo,
+    // nem no histórico, que não tem os instantes originais.
+    void restaurarMovimento(TipoMovimento tipo, long valor, TipoMovimento tipoEncargo, long encargo) throws SecurityException {
+        long anterior = (long) SALDO.getAndAdd(this, valor - encargo);
+        XuBank vinculado = banco;
+        if (vinculado != null) {
+            vinculado.saldoAlterado(this, anterior, anterior + valor - encargo);
+        }
+    }
+
+    void restaurarAtualizacao(LocalDate data) {
+        dataUltimaAtualizacao = data;
+    }
+
+    void vincularBanco(XuBank novoBanco) {
+        this.banco = novoBanco;
     }
 }
\ No newline at end of file
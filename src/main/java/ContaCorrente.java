@@ -1,21 +1,36 @@
+import java.time.LocalDate;
+
 public class ContaCorrente extends Conta {
-    private double limite;
+    private static final long LIMITE_MINIMO_CENTAVOS = 100_00;
+    private static final long TAXA_FIXA_CHEQUE_ESPECIAL = 10_00;
+
+    private volatile long limiteCentavos;
 
     public ContaCorrente(Cliente cliente) throws SecurityException {
         super(cliente);
         this.tipoConta = 1;
-        this.limite = calcularLimite();
+        this.limiteCentavos = calcularLimiteCentavos();
+    }
+
+    ContaCorrente(Cliente cliente, int numero, long saldoCentavos, LocalDate dataUltimaAtualizacao) throws SecurityException {
+        super(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+        this.tipoConta = 1;
+        this.limiteCentavos = calcularLimiteCentavos();
     }
 
     public double calcularLimite() throws SecurityException {
+        return Dinheiro.paraReais(calcularLimiteCentavos());
+    }
+
+    private long calcularLimiteCentavos() throws SecurityException {
         try {
             double rendaMensal = cliente.getRendaMensal();
             if (!ValidationUtils.validarValor(rendaMensal)) {
                 throw new SecurityException("Renda mensal inválida para cálculo de limite");
             }
 
-            double limiteCalculado = rendaMensal * 0.4;
-            return Math.max(limiteCalculado, 100.0);
+            long limiteCalculado = Dinheiro.fracaoMeioParaCima(Dinheiro.paraCentavos(rendaMensal), 4, 10);
+            return Math.max(limiteCalculado, LIMITE_MINIMO_CENTAVOS);
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_CALCULO_LIMITE",
                     "Erro ao calcular limite - Conta: " + numero, e);
@@ -24,59 +39,49 @@ public class ContaCorrente extends Conta {
     }
 
     @Override
-    public boolean Sacar(double valor) throws SecurityException {
-        if (!ValidationUtils.validarValor(valor)) {
+    protected boolean executarSaque(long valor) throws SecurityException {
+        if (valor < 0) {
             SecurityLogger.logSecurityEvent("SAQUE_INVALIDO",
-                    "Tentativa de saque com valor inválido: " + valor);
+                    "Tentativa de saque com valor inválido: " + Dinheiro.formatar(valor));
             throw new SecurityException("Valor de saque inválido");
         }
 
-        if (valor <= 0) {
+        if (valor == 0) {
             return false;
         }
 
-        if (valor > (saldo + limite)) {
+        if (debitar(valor, TipoMovimento.SAQUE) < 0) {
             SecurityLogger.logSecurityEvent("SAQUE_NEGADO",
-                    "Saque negado por limite insuficiente - Conta: " + numero);
+                    "Saque negado por limite insuficiente", numero);
             return false;
         }
 
-        saldo -= valor;
         SecurityLogger.logSecurityEvent("SAQUE_REALIZADO",
-                "Saque realizado em conta corrente - Conta: " + numero + " Valor: " + String.format("%.2f", valor));
+                "Saque realizado em conta corrente", numero, valor);
         return true;
     }
 
     @Override
-    public boolean Depositar(double valor) throws SecurityException {
-        if (!ValidationUtils.validarValor(valor)) {
+    protected boolean executarDeposito(long valor) throws SecurityException {
+        if (valor < 0) {
             SecurityLogger.logSecurityEvent("DEPOSITO_INVALIDO",
-                    "Tentativa de depósito com valor inválido: " + valor);
+                    "Tentativa de depósito com valor inválido: " + Dinheiro.formatar(valor));
             throw new SecurityException("Valor de depósito inválido");
         }
 
-        if (valor <= 0) {
+        if (valor == 0) {
             return false;
         }
 
         try {
-            if (saldo < 0) {
-                double saldoNegativo = Math.abs(saldo);
-                double taxa = saldoNegativo * 0.03 + 10;
-
-                if (!ValidationUtils.validarValor(taxa)) {
-                    throw new SecurityException("Taxa calculada inválida");
-                }
-
-                saldo += valor - taxa;
+            long taxa = creditar(valor, TipoMovimento.DEPOSITO);
+            if (taxa > 0) {
                 SecurityLogger.logSecurityEvent("TAXA_APLICADA",
-                        "Taxa de " + String.format("%.2f", taxa) + " aplicada - Conta: " + numero);
-            } else {
-                saldo += valor;
+                        "Taxa de " + Dinheiro.formatar(taxa) + " aplicada - Conta: " + numero);
             }
 
             SecurityLogger.logSecurityEvent("DEPOSITO_REALIZADO",
-                    "Depósito realizado em conta corrente - Conta: " + numero + " Valor: " + String.format("%.2f", valor));
+                    "Depósito realizado em conta corrente", numero, valor);
             return true;
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_DEPOSITO",
@@ -85,6 +90,31 @@ public class ContaCorrente extends Conta {
         }
     }
 
+    // A checagem contra saldo + limite vale para o saldo que o CAS (ou a transferência) efetivamente troca
+    @Override
+    protected boolean permiteRetirada(long saldo, long valor) {
+        return valor <= saldo + limiteCentavos;
+    }
+
+    // 3% sobre o saldo negativo (meio para cima) + R$ 10,00
+    @Override
+    protected long taxaCredito(long saldo) {
+        return saldo < 0 ? Dinheiro.fracaoMeioParaCima(-saldo, 3, 100) + TAXA_FIXA_CHEQUE_ESPECIAL : 0;
+    }
+
+    // A taxa depende do saldo negativo no instante do crédito; se o CAS falhar,
+    // ela é recalculada sobre o saldo novo para não ser cobrada duas vezes
+    @Override
+    protected long creditar(long valor, TipoMovimento tipo) throws SecurityException {
+        long atual;
+        long taxa;
+        do {
+            atual = lerSaldo();
+            taxa = taxaCredito(atual);
+        } while (!trocarSaldo(atual, atual + valor - taxa, tipo, taxa, taxa > 0 ? TipoMovimento.TAXA : null));
+        return taxa;
+    }
+
     @Override
     public double CalcularRendimento() throws SecurityException {
         return 0; // Conta corrente não rende
@@ -96,14 +126,23 @@ public class ContaCorrente extends Conta {
     }
 
     public double getLimite() {
-        return limite;
+        return Dinheiro.paraReais(limiteCentavos);
+    }
+
+    public long getLimiteCentavos() {
+        return limiteCentavos;
+    }
+
+    // Carga de snapshot: o limite gravado é o que valia no momento do snapshot
+    void restaurarLimite(long limiteCentavos) {
+        this.limiteCentavos = limiteCentavos;
     }
 
     public void atualizarLimite() throws SecurityException {
         try {
-            this.limite = calcularLimite();
+            this.limiteCentavos = calcularLimiteCentavos();
             SecurityLogger.logSecurityEvent("LIMITE_ATUALIZADO",
-                    "Limite atualizado - Conta: " + numero + " Novo limite: " + String.format("%.2f", limite));
+                    "Limite atualizado - Conta: " + numero + " Novo limite: " + Dinheiro.formatar(limiteCentavos));
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_ATUALIZACAO_LIMITE",
                     "Erro ao atualizar limite - Conta: " + numero, e);
@@ -113,6 +152,6 @@ public class ContaCorrente extends Conta {
 
     @Override
     public String GerarExtrato() {
-        return super.GerarExtrato() + String.format(" - Limite especial: R$ %.2f", limite);
+        return super.GerarExtrato() + String.format(" - Limite especial: R$ %.2f", getLimite());
     }
-}
\ No newline at end of file
+}
@@ -1,46 +1,45 @@
-import java.security.SecureRandom;
+import java.time.LocalDate;
 
 public class ContaInvestimento extends Conta implements TaxaImposto,IRendimento {
-    private static final double VARIACAO_MIN = -0.6;
-    private static final double VARIACAO_MAX = 1.5;
-    private static final double TAXA_ADMINISTRACAO = 0.01;
-    private static final double TAXA_IMPOSTO = 0.225;
-    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long TAXA_ADMINISTRACAO_NUMERADOR = 1; // 1%
+    private static final long TAXA_ADMINISTRACAO_DENOMINADOR = 100;
+    private static final long TAXA_IMPOSTO_NUMERADOR = 225; // 22,5%
+    private static final long TAXA_IMPOSTO_DENOMINADOR = 1000;
 
     public ContaInvestimento(Cliente cliente) throws SecurityException {
         super(cliente);
         this.tipoConta = 4;
     }
 
+    ContaInvestimento(Cliente cliente, int numero, long saldoCentavos, LocalDate dataUltimaAtualizacao) throws SecurityException {
+        super(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+        this.tipoConta = 4;
+    }
+
     @Override
-    public boolean Sacar(double valor) throws SecurityException {
-        if (!ValidationUtils.validarValor(valor)) {
+    protected boolean executarSaque(long valor) throws SecurityException {
+        if (valor < 0) {
             SecurityLogger.logSecurityEvent("SAQUE_INVALIDO",
-                    "Tentativa de saque com valor inválido: " + valor);
+                    "Tentativa de saque com valor inválido: " + Dinheiro.formatar(valor));
             throw new SecurityException("Valor de saque inválido");
         }
 
-        if (valor <= 0) {
+        if (valor == 0) {
             return false;
         }
 
         try {
-            double rendimento = CalcularRendimento();
-            double imposto = aplicarImposto(rendimento);
-            double valorTotal = valor + imposto;
-
-            if (valorTotal > saldo) {
+            long imposto = debitar(valor, TipoMovimento.SAQUE);
+            if (imposto < 0) {
                 SecurityLogger.logSecurityEvent("SAQUE_NEGADO",
-                        "Saque negado por saldo insuficiente - Conta: " + numero);
+                        "Saque negado por saldo insuficiente", numero);
                 return false;
             }
 
-            setSaldo(saldo - valorTotal);
-
             SecurityLogger.logSecurityEvent("SAQUE_INVESTIMENTO",
                     "Saque realizado em investimento - Conta: " + numero +
-                            " Valor: " + String.format("%.2f", valor) +
-                            " Imposto: " + String.format("%.2f", imposto));
+                            " Valor: " + Dinheiro.formatar(valor) +
+                            " Imposto: " + Dinheiro.formatar(imposto));
             return true;
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_SAQUE_INVESTIMENTO",
@@ -49,36 +48,62 @@ public class ContaInvestimento extends Conta implements TaxaImposto,IRendimento
         }
     }
 
+    // O rendimento do período é creditado antes da retirada, que paga o imposto sobre ele
     @Override
-    public double CalcularRendimento() throws SecurityException {
-        try {
-            if (!ValidationUtils.validarValor(saldo)) {
-                throw new SecurityException("Saldo inválido para cálculo de rendimento");
-            }
+    protected long impostoRetirada() throws SecurityException {
+        return calcularImpostoCentavos(creditarRendimento(taxaMercadoAtual()));
+    }
 
-            double variacao = VARIACAO_MIN + (VARIACAO_MAX - VARIACAO_MIN) * RANDOM.nextDouble();
-            double rendimento = saldo * (variacao / 100.0);
+    @Override
+    public double CalcularRendimento() throws SecurityException {
+        return Dinheiro.paraReais(creditarMes(taxaMercadoAtual()));
+    }
 
-            if (!ValidationUtils.validarValor(rendimento)) {
-                throw new SecurityException("Rendimento calculado inválido");
-            }
+    @Override
+    protected long creditarMes(double taxa) throws SecurityException {
+        long inicio = Metrics.inicio();
+        try {
+            return creditarRendimento(taxa);
+        } finally {
+            Metrics.registrar(Metrics.RENDIMENTO[tipoConta], inicio);
+        }
+    }
 
-            double novoSaldo = saldo + rendimento;
+    // Credita sob o monitor da conta e espera o fsync do journal depois de soltá-lo
+    private long creditarRendimento(double taxa) throws SecurityException {
+        long rendimento;
+        long sequencia;
+        JournalTransacoes.iniciarLote();
+        try {
+            rendimento = creditarRendimentoNoMonitor(taxa);
+        } finally {
+            sequencia = JournalTransacoes.encerrarLote();
+        }
+        aguardarJournal(sequencia);
+        return rendimento;
+    }
 
-            // Aplicar taxa de administração apenas se houve rendimento positivo
-            if (rendimento > 0) {
-                double taxa = rendimento * TAXA_ADMINISTRACAO;
-                if (!ValidationUtils.validarValor(taxa)) {
-                    throw new SecurityException("Taxa de administração inválida");
+    private synchronized long creditarRendimentoNoMonitor(double taxa) throws SecurityException {
+        try {
+            long atual;
+            long rendimento;
+            long novoSaldo;
+            long taxaAdministracao;
+            do {
+                atual = lerSaldo();
+                if (atual < 0) {
+                    throw new SecurityException("Saldo inválido para cálculo de rendimento");
                 }
-                novoSaldo -= taxa;
-            }
 
-            setSaldo(Math.max(novoSaldo, 0)); // Não permite saldo negativo
+                // Rendimento pode ser negativo (variação de mercado)
+                rendimento = calcularRendimentoMensal(atual, taxa);
+                novoSaldo = aplicarVariacao(atual, rendimento);
+                taxaAdministracao = rendimento > 0 ? atual + rendimento - novoSaldo : 0;
+            } while (!trocarSaldo(atual, novoSaldo, TipoMovimento.RENDIMENTO, taxaAdministracao, TipoMovimento.TAXA));
 
             SecurityLogger.logSecurityEvent("RENDIMENTO_INVESTIMENTO",
                     "Rendimento calculado - Conta: " + numero +
-                            " Rendimento: " + String.format("%.2f", rendimento));
+                            " Rendimento: " + Dinheiro.formatar(rendimento));
 
             return rendimento;
         } catch (Exception e) {
@@ -88,8 +113,58 @@ public class ContaInvestimento extends Conta implements TaxaImposto,IRendimento
         }
     }
 
+    // Mesma sequência de operações de CalcularRendimento, mês a mês, mas sem
+    // validação e log por iteração; a taxa de administração incide só em meses positivos.
+    // O período entra como dois movimentos: a variação bruta e as taxas somadas.
+    @Override
+    protected long aplicarRendimentoAcumulado(int meses) throws SecurityException {
+        double[] taxas = taxasPendentes(meses);
+
+        long inicial;
+        long atual;
+        long rendimentoTotal;
+        long taxasCobradas;
+        do {
+            inicial = lerSaldo();
+            if (inicial < 0) {
+                throw new SecurityException("Saldo inválido para cálculo de rendimento");
+            }
+
+            atual = inicial;
+            rendimentoTotal = 0;
+            taxasCobradas = 0;
+            for (int i = 0; i < meses; i++) {
+                long rendimento = calcularRendimentoMensal(atual, taxas[i]);
+                long novoSaldo = aplicarVariacao(atual, rendimento);
+                rendimentoTotal += rendimento;
+                if (rendimento > 0) {
+                    taxasCobradas += atual + rendimento - novoSaldo;
+                }
+                atual = novoSaldo;
+            }
+        } while (!trocarSaldo(inicial, atual, TipoMovimento.RENDIMENTO, taxasCobradas, TipoMovimento.TAXA));
+
+        return rendimentoTotal;
+    }
+
+    private static long calcularRendimentoMensal(long saldo, double taxa) throws SecurityException {
+        return Dinheiro.aplicarTaxa(saldo, taxa / 100.0);
+    }
+
+    private static long aplicarVariacao(long saldo, long rendimento) {
+        long novoSaldo = saldo + rendimento;
+
+        // Aplicar taxa de administração apenas se houve rendimento positivo
+        if (rendimento > 0) {
+            novoSaldo -= Dinheiro.fracaoMeioParaCima(rendimento,
+                    TAXA_ADMINISTRACAO_NUMERADOR, TAXA_ADMINISTRACAO_DENOMINADOR);
+        }
+
+        return Math.max(novoSaldo, 0); // Não permite saldo negativo
+    }
+
     public boolean VerificarRendimento() {
-        return saldo > 0;
+        return lerSaldo() > 0;
     }
 
     @Override
@@ -100,21 +175,20 @@ public class ContaInvestimento extends Conta implements TaxaImposto,IRendimento
     @Override
     public double aplicarImposto(double rendimento) throws SecurityException {
         try {
-            if (!ValidationUtils.validarValor(rendimento)) {
+            if (!Double.isFinite(rendimento)) {
                 throw new SecurityException("Rendimento inválido para cálculo de imposto");
             }
-
-            double imposto = rendimento > 0 ? rendimento * TAXA_IMPOSTO : 0;
-
-            if (!ValidationUtils.validarValor(imposto)) {
-                throw new SecurityException("Imposto calculado inválido");
-            }
-
-            return imposto;
+            return Dinheiro.paraReais(calcularImpostoCentavos(Dinheiro.paraCentavos(rendimento)));
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_CALCULO_IMPOSTO_INVESTIMENTO",
                     "Erro ao calcular imposto - Conta: " + numero, e);
             throw new SecurityException("Erro ao calcular imposto", e);
         }
     }
-}
\ No newline at end of file
+
+    private long calcularImpostoCentavos(long rendimento) {
+        return rendimento > 0
+                ? Dinheiro.fracaoMeioParaCima(rendimento, TAXA_IMPOSTO_NUMERADOR, TAXA_IMPOSTO_DENOMINADOR)
+                : 0;
+    }
+}
@@ -1,39 +1,88 @@
+import java.time.LocalDate;
+
 public class ContaPoupanca extends Conta implements IRendimento {
-    private static final double TAXA_RENDIMENTO = 0.006;
+    // 0,6% ao mês
+    private static final long TAXA_RENDIMENTO_NUMERADOR = 6;
+    private static final long TAXA_RENDIMENTO_DENOMINADOR = 1000;
 
     public ContaPoupanca(Cliente cliente) throws SecurityException {
         super(cliente);
         this.tipoConta = 2;
     }
 
+    ContaPoupanca(Cliente cliente, int numero, long saldoCentavos, LocalDate dataUltimaAtualizacao) throws SecurityException {
+        super(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+        this.tipoConta = 2;
+    }
+
+    // Credita sob o monitor da conta e espera o fsync do journal depois de soltá-lo
     @Override
     public double CalcularRendimento() throws SecurityException {
+        double rendimento;
+        long sequencia;
+        JournalTransacoes.iniciarLote();
         try {
-            if (!ValidationUtils.validarValor(saldo)) {
-                throw new SecurityException("Saldo inválido para cálculo de rendimento");
-            }
-
-            double rendimento = saldo * TAXA_RENDIMENTO;
-
-            if (!ValidationUtils.validarValor(rendimento)) {
-                throw new SecurityException("Rendimento calculado inválido");
-            }
+            rendimento = calcularRendimento();
+        } finally {
+            sequencia = JournalTransacoes.encerrarLote();
+        }
+        aguardarJournal(sequencia);
+        return rendimento;
+    }
 
-            setSaldo(saldo + rendimento);
+    private synchronized double calcularRendimento() throws SecurityException {
+        long inicio = Metrics.inicio();
+        try {
+            long atual;
+            long rendimento;
+            do {
+                atual = lerSaldo();
+                if (atual < 0) {
+                    throw new SecurityException("Saldo inválido para cálculo de rendimento");
+                }
+                rendimento = calcularRendimentoMensal(atual);
+            } while (!trocarSaldo(atual, atual + rendimento, TipoMovimento.RENDIMENTO));
 
             SecurityLogger.logSecurityEvent("RENDIMENTO_CALCULADO",
-                    "Rendimento calculado em poupança - Conta: " + numero + " Valor: " + String.format("%.2f", rendimento));
+                    "Rendimento calculado em poupança", numero, rendimento);
 
-            return rendimento;
+            return Dinheiro.paraReais(rendimento);
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_RENDIMENTO_POUPANCA",
                     "Erro ao calcular rendimento - Conta: " + numero, e);
             throw new SecurityException("Erro ao calcular rendimento", e);
+        } finally {
+            Metrics.registrar(Metrics.RENDIMENTO[tipoConta], inicio);
         }
     }
 
+    // Fator composto (1 + 0,006)^n aplicado mês a mês em centavos, para que o
+    // arredondamento de cada crédito seja o mesmo do cálculo mensal
+    @Override
+    protected long aplicarRendimentoAcumulado(int meses) throws SecurityException {
+        long inicial;
+        long atual;
+        do {
+            inicial = lerSaldo();
+            if (inicial < 0) {
+                throw new SecurityException("Saldo inválido para cálculo de rendimento");
+            }
+
+            atual = inicial;
+            for (int i = 0; i < meses; i++) {
+                atual += calcularRendimentoMensal(atual);
+            }
+        } while (!trocarSaldo(inicial, atual, TipoMovimento.RENDIMENTO));
+
+        return atual - inicial;
+    }
+
+    private static long calcularRendimentoMensal(long saldo) {
+        return Dinheiro.fracaoMeioParaPar(saldo, TAXA_RENDIMENTO_NUMERADOR, TAXA_RENDIMENTO_DENOMINADOR);
+    }
+
     @Override
     public String getTipoContaNome() {
         return "ContaPoupanca";
     }
-}
\ No newline at end of file
+}
@@ -1,45 +1,44 @@
-import java.security.SecureRandom;
+import java.time.LocalDate;
 
 public class ContaRendaFixa extends Conta implements TaxaImposto,IRendimento {
-    private static final double TAXA_MIN = 0.5;
-    private static final double TAXA_MAX = 0.85;
-    private static final double TAXA_FIXA = 20.0;
-    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long TAXA_FIXA = 20_00; // R$ 20,00 em centavos
+    private static final long IMPOSTO_NUMERADOR = 15; // 15%
+    private static final long IMPOSTO_DENOMINADOR = 100;
 
     public ContaRendaFixa(Cliente cliente) throws SecurityException {
         super(cliente);
         this.tipoConta = 3;
     }
 
+    ContaRendaFixa(Cliente cliente, int numero, long saldoCentavos, LocalDate dataUltimaAtualizacao) throws SecurityException {
+        super(cliente, numero, saldoCentavos, dataUltimaAtualizacao);
+        this.tipoConta = 3;
+    }
+
     @Override
-    public boolean Sacar(double valor) throws SecurityException {
-        if (!ValidationUtils.validarValor(valor)) {
+    protected boolean executarSaque(long valor) throws SecurityException {
+        if (valor < 0) {
             SecurityLogger.logSecurityEvent("SAQUE_INVALIDO",
-                    "Tentativa de saque com valor inválido: " + valor);
+                    "Tentativa de saque com valor inválido: " + Dinheiro.formatar(valor));
             throw new SecurityException("Valor de saque inválido");
         }
 
-        if (valor <= 0) {
+        if (valor == 0) {
             return false;
         }
 
         try {
-            double rendimento = CalcularRendimento();
-            double imposto = aplicarImposto(rendimento);
-            double valorTotal = valor + imposto;
-
-            if (valorTotal > saldo) {
+            long imposto = debitar(valor, TipoMovimento.SAQUE);
+            if (imposto < 0) {
                 SecurityLogger.logSecurityEvent("SAQUE_NEGADO",
-                        "Saque negado por saldo insuficiente - Conta: " + numero);
+                        "Saque negado por saldo insuficiente", numero);
                 return false;
             }
 
-            setSaldo(saldo - valorTotal);
-
             SecurityLogger.logSecurityEvent("SAQUE_RENDA_FIXA",
                     "Saque realizado em renda fixa - Conta: " + numero +
-                            " Valor: " + String.format("%.2f", valor) +
-                            " Imposto: " + String.format("%.2f", imposto));
+                            " Valor: " + Dinheiro.formatar(valor) +
+                            " Imposto: " + Dinheiro.formatar(imposto));
             return true;
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_SAQUE_RENDA_FIXA",
@@ -48,27 +47,62 @@ public class ContaRendaFixa extends Conta implements TaxaImposto,IRendimento {
         }
     }
 
+    // O rendimento do período é creditado antes da retirada, que paga o imposto sobre ele
+    @Override
+    protected long impostoRetirada() throws SecurityException {
+        return calcularImpostoCentavos(creditarRendimento(taxaMercadoAtual()));
+    }
+
     @Override
     public double CalcularRendimento() throws SecurityException {
-        try {
-            if (!ValidationUtils.validarValor(saldo)) {
-                throw new SecurityException("Saldo inválido para cálculo de rendimento");
-            }
+        return Dinheiro.paraReais(creditarMes(taxaMercadoAtual()));
+    }
 
-            double variacao = TAXA_MIN + (TAXA_MAX - TAXA_MIN) * RANDOM.nextDouble();
-            double rendimento = saldo * (variacao / 100.0);
+    @Override
+    protected long creditarMes(double taxa) throws SecurityException {
+        long inicio = Metrics.inicio();
+        try {
+            return creditarRendimento(taxa);
+        } finally {
+            Metrics.registrar(Metrics.RENDIMENTO[tipoConta], inicio);
+        }
+    }
 
-            if (!ValidationUtils.validarValor(rendimento) || !ValidationUtils.validarValor(TAXA_FIXA)) {
-                throw new SecurityException("Valores calculados inválidos");
-            }
+    // Credita sob o monitor da conta e espera o fsync do journal depois de soltá-lo
+    private long creditarRendimento(double taxa) throws SecurityException {
+        long rendimento;
+        long sequencia;
+        JournalTransacoes.iniciarLote();
+        try {
+            rendimento = creditarRendimentoNoMonitor(taxa);
+        } finally {
+            sequencia = JournalTransacoes.encerrarLote();
+        }
+        aguardarJournal(sequencia);
+        return rendimento;
+    }
 
-            double novoSaldo = saldo + rendimento - TAXA_FIXA;
-            setSaldo(Math.max(novoSaldo, 0)); // Não permite saldo negativo
+    private synchronized long creditarRendimentoNoMonitor(double taxa) throws SecurityException {
+        try {
+            long atual;
+            long rendimento;
+            long novoSaldo;
+            long taxaCobrada;
+            do {
+                atual = lerSaldo();
+                if (atual < 0) {
+                    throw new SecurityException("Saldo inválido para cálculo de rendimento");
+                }
+
+                rendimento = calcularRendimentoMensal(atual, taxa);
+                novoSaldo = Math.max(atual + rendimento - TAXA_FIXA, 0); // Não permite saldo negativo
+                taxaCobrada = atual + rendimento - novoSaldo;
+            } while (!trocarSaldo(atual, novoSaldo, TipoMovimento.RENDIMENTO, taxaCobrada, TipoMovimento.TAXA));
 
             SecurityLogger.logSecurityEvent("RENDIMENTO_RENDA_FIXA",
                     "Rendimento calculado - Conta: " + numero +
-                            " Rendimento: " + String.format("%.2f", rendimento) +
-                            " Taxa: " + String.format("%.2f", TAXA_FIXA));
+                            " Rendimento: " + Dinheiro.formatar(rendimento) +
+                            " Taxa: " + Dinheiro.formatar(TAXA_FIXA));
 
             return rendimento;
         } catch (Exception e) {
@@ -78,6 +112,42 @@ public class ContaRendaFixa extends Conta implements TaxaImposto,IRendimento {
         }
     }
 
+    // Mesma sequência de operações de CalcularRendimento, mês a mês, mas sem
+    // validação e log por iteração; a taxa fixa é descontada exatamente a cada mês.
+    // O período entra como dois movimentos: o rendimento bruto e as taxas somadas.
+    @Override
+    protected long aplicarRendimentoAcumulado(int meses) throws SecurityException {
+        double[] taxas = taxasPendentes(meses);
+
+        long inicial;
+        long atual;
+        long rendimentoTotal;
+        long taxasCobradas;
+        do {
+            inicial = lerSaldo();
+            if (inicial < 0) {
+                throw new SecurityException("Saldo inválido para cálculo de rendimento");
+            }
+
+            atual = inicial;
+            rendimentoTotal = 0;
+            taxasCobradas = 0;
+            for (int i = 0; i < meses; i++) {
+                long rendimento = calcularRendimentoMensal(atual, taxas[i]);
+                long novoSaldo = Math.max(atual + rendimento - TAXA_FIXA, 0);
+                rendimentoTotal += rendimento;
+                taxasCobradas += atual + rendimento - novoSaldo;
+                atual = novoSaldo;
+            }
+        } while (!trocarSaldo(inicial, atual, TipoMovimento.RENDIMENTO, taxasCobradas, TipoMovimento.TAXA));
+
+        return rendimentoTotal;
+    }
+
+    private static long calcularRendimentoMensal(long saldo, double taxa) throws SecurityException {
+        return Dinheiro.aplicarTaxa(saldo, taxa / 100.0);
+    }
+
     @Override
     public String getTipoContaNome() {
         return "ContaRendaFixa";
@@ -89,18 +159,18 @@ public class ContaRendaFixa extends Conta implements TaxaImposto,IRendimento {
             if (!ValidationUtils.validarValor(rendimento)) {
                 throw new SecurityException("Rendimento inválido para cálculo de imposto");
             }
-
-            double imposto = rendimento * 0.15;
-
-            if (!ValidationUtils.validarValor(imposto)) {
-                throw new SecurityException("Imposto calculado inválido");
-            }
-
-            return imposto;
+            return Dinheiro.paraReais(calcularImpostoCentavos(Dinheiro.paraCentavos(rendimento)));
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_CALCULO_IMPOSTO",
                     "Erro ao calcular imposto - Conta: " + numero, e);
             throw new SecurityException("Erro ao calcular imposto", e);
         }
     }
-}
\ No newline at end of file
+
+    private long calcularImpostoCentavos(long rendimento) throws SecurityException {
+        if (rendimento < 0) {
+            throw new SecurityException("Rendimento inválido para cálculo de imposto");
+        }
+        return Dinheiro.fracaoMeioParaCima(rendimento, IMPOSTO_NUMERADOR, IMPOSTO_DENOMINADOR);
+    }
+}
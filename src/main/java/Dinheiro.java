@@ -0,0 +1,78 @@
+// Valores monetários em centavos (long) e a política de arredondamento do banco:
+// - rendimentos: meio para o par (HALF_EVEN), evitando viés em créditos recorrentes;
+// - impostos e taxas: meio para cima (HALF_UP), como na cobrança usual.
+public final class Dinheiro {
+    public static final long CENTAVOS_POR_REAL = 100;
+    private static final long LIMITE_CENTAVOS = Long.MAX_VALUE / 1000;
+
+    private Dinheiro() {
+    }
+
+    public static long paraCentavos(double reais) throws SecurityException {
+        if (!Double.isFinite(reais)) {
+            throw new SecurityException("Valor monetário inválido");
+        }
+        double centavos = reais * CENTAVOS_POR_REAL;
+        if (Math.abs(centavos) >= LIMITE_CENTAVOS) {
+            throw new SecurityException("Valor monetário fora do limite suportado");
+        }
+        // Meio para cima em valor absoluto
+        long arredondado = (long) (Math.abs(centavos) + 0.5);
+        return centavos < 0 ? -arredondado : arredondado;
+    }
+
+    public static double paraReais(long centavos) {
+        return centavos / (double) CENTAVOS_POR_REAL;
+    }
+
+    // valor * numerador / denominador com arredondamento meio para cima (impostos e taxas)
+    public static long fracaoMeioParaCima(long centavos, long numerador, long denominador) {
+        long produto = Math.multiplyExact(centavos, numerador);
+        long quociente = produto / denominador;
+        long resto = Math.abs(produto % denominador);
+        if (resto * 2 >= denominador) {
+            quociente += Long.signum(produto);
+        }
+        return quociente;
+    }
+
+    // valor * numerador / denominador com arredondamento meio para o par (rendimentos)
+    public static long fracaoMeioParaPar(long centavos, long numerador, long denominador) {
+        long produto = Math.multiplyExact(centavos, numerador);
+        long quociente = produto / denominador;
+        long resto = Math.abs(produto % denominador);
+        long dobro = resto * 2;
+        if (dobro > denominador || (dobro == denominador && (quociente & 1) != 0)) {
+            quociente += Long.signum(produto);
+        }
+        return quociente;
+    }
+
+    // valor * taxa (taxa real, ex.: variação sorteada) com arredondamento meio para o par
+    public static long aplicarTaxa(long centavos, double taxa) throws SecurityException {
+        double resultado = Math.rint(centavos * taxa);
+        if (!Double.isFinite(resultado) || Math.abs(resultado) >= LIMITE_CENTAVOS) {
+            throw new SecurityException("Valor calculado inválido");
+        }
+        return (long) resultado;
+    }
+
+    // Formata como "1234.56" sem passar por String.format
+    public static String formatar(long centavos) {
+        return anexar(new StringBuilder(24), centavos).toString();
+    }
+
+    // Mesmo formato, escrito direto no buffer de quem chama (exportações linha a linha)
+    public static StringBuilder anexar(StringBuilder sb, long centavos) {
+        long absoluto = Math.abs(centavos);
+        if (centavos < 0) {
+            sb.append('-');
+        }
+        long centavosResto = absoluto % CENTAVOS_POR_REAL;
+        sb.append(absoluto / CENTAVOS_POR_REAL).append('.');
+        if (centavosResto < 10) {
+            sb.append('0');
+        }
+        return sb.append(centavosResto);
+    }
+}
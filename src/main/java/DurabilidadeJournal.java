@@ -0,0 +1,16 @@
+public enum DurabilidadeJournal {
+    NENHUMA,   // Operação retorna antes da gravação; o journal é descarregado em segundo plano sem fsync
+    AGRUPADA,  // Operação espera o fsync, que é compartilhado pelas operações da janela de latência
+    IMEDIATA;  // Operação espera o fsync, disparado assim que o registro chega
+
+    public static DurabilidadeJournal fromString(String valor) {
+        if (valor == null) {
+            return AGRUPADA;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return AGRUPADA;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+// Exportação em streaming de clientes e contas, em CSV ou JSON por linha. Os clientes
+// saem do banco em lotes de referências, nunca a lista inteira; as linhas de cada
+// cliente são montadas num buffer reaproveitado e entregues ao destino de uma vez,
+// fora do lock do cliente. A memória usada não depende do tamanho da base.
+public class ExportacaoBanco {
+    static final int CLIENTES_POR_LOTE = 1024;
+    private static final String CABECALHO_CONTAS = "cpf,nome,conta,tipo,saldo,data_ultima_atualizacao\n";
+    private static final String CABECALHO_CLIENTES = "cpf,nome,contas,saldo_total\n";
+
+    private final XuBank banco;
+    private final FormatoExportacao formato;
+    private final Cliente[] lote = new Cliente[CLIENTES_POR_LOTE];
+    private final StringBuilder linhas = new StringBuilder(512);
+
+    // Estado do cliente em andamento, lido pelos consumidores abaixo (evita um lambda por cliente)
+    private Cliente clienteAtual;
+    private int contasCliente;
+    private long saldoCliente;
+    private final Consumer<Conta> anexarConta = this::anexarConta;
+    private final Consumer<Conta> somarConta = this::somarConta;
+
+    public ExportacaoBanco(XuBank banco, FormatoExportacao formato) {
+        this.banco = banco;
+        this.formato = formato;
+    }
+
+    // Escreve no canal em UTF-8; o canal continua aberto e pertence a quem chamou
+    public static Writer escritor(WritableByteChannel canal) {
+        return Channels.newWriter(canal, StandardCharsets.UTF_8);
+    }
+
+    // Uma linha por conta. Devolve o número de linhas de dados escritas.
+    public long exportarContas(Appendable destino) throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            destino.append(CABECALHO_CONTAS);
+        }
+
+        long total = 0;
+        int inicio = 0;
+        int lidos;
+        while ((lidos = banco.copiarClientes(inicio, lote)) > 0) {
+            for (int i = 0; i < lidos; i++) {
+                clienteAtual = lote[i];
+                lote[i] = null;
+                contasCliente = 0;
+                linhas.setLength(0);
+                clienteAtual.paraCadaConta(anexarConta);
+                destino.append(linhas);
+                total += contasCliente;
+            }
+            inicio += lidos;
+        }
+        clienteAtual = null;
+        return total;
+    }
+
+    // Uma linha por cliente, com a quantidade de contas e o saldo total
+    public long exportarClientes(Appendable destino) throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            destino.append(CABECALHO_CLIENTES);
+        }
+
+        long total = 0;
+        int inicio = 0;
+        int lidos;
+        while ((lidos = banco.copiarClientes(inicio, lote)) > 0) {
+            for (int i = 0; i < lidos; i++) {
+                clienteAtual = lote[i];
+                lote[i] = null;
+                contasCliente = 0;
+                saldoCliente = 0;
+                clienteAtual.paraCadaConta(somarConta);
+                linhas.setLength(0);
+                anexarCliente();
+                destino.append(linhas);
+                total++;
+            }
+            inicio += lidos;
+        }
+        clienteAtual = null;
+        return total;
+    }
+
+    private void anexarConta(Conta conta) {
+        contasCliente++;
+        if (formato == FormatoExportacao.CSV) {
+            anexarCsv(clienteAtual.getCpf()).append(',');
+            anexarCsv(clienteAtual.getNome()).append(',');
+            linhas.append(conta.getNumero()).append(',');
+            anexarCsv(conta.getTipoContaNome()).append(',');
+            Dinheiro.anexar(linhas, conta.getSaldoCentavos()).append(',');
+            anexarData(conta.getDataUltimaAtualizacao()).append('\n');
+        } else {
+            linhas.append("{\"cpf\":");
+            anexarJson(clienteAtual.getCpf()).append(",\"nome\":");
+            anexarJson(clienteAtual.getNome()).append(",\"conta\":").append(conta.getNumero()).append(",\"tipo\":");
+            anexarJson(conta.getTipoContaNome()).append(",\"saldo\":");
+            Dinheiro.anexar(linhas, conta.getSaldoCentavos()).append(",\"data_ultima_atualizacao\":");
+            LocalDate data = conta.getDataUltimaAtualizacao();
+            if (data == null) {
+                linhas.append("null");
+            } else {
+                linhas.append('"');
+                anexarData(data).append('"');
+            }
+            linhas.append("}\n");
+        }
+    }
+
+    private void somarConta(Conta conta) {
+        contasCliente++;
+        saldoCliente += conta.getSaldoCentavos();
+    }
+
+    private void anexarCliente() {
+        if (formato == FormatoExportacao.CSV) {
+            anexarCsv(clienteAtual.getCpf()).append(',');
+            anexarCsv(clienteAtual.getNome()).append(',');
+            linhas.append(contasCliente).append(',');
+            Dinheiro.anexar(linhas, saldoCliente).append('\n');
+        } else {
+            linhas.append("{\"cpf\":");
+            anexarJson(clienteAtual.getCpf()).append(",\"nome\":");
+            anexarJson(clienteAtual.getNome()).append(",\"contas\":").append(contasCliente).append(",\"saldo_total\":");
+            Dinheiro.anexar(linhas, saldoCliente).append("}\n");
+        }
+    }
+
+    // Campo entre aspas só quando precisa (vírgula, aspas ou quebra de linha)
+    private StringBuilder anexarCsv(String valor) {
+        if (valor == null) {
+            return linhas;
+        }
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            return linhas.append(valor);
+        }
+        linhas.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linhas.append('"');
+            }
+            linhas.append(c);
+        }
+        return linhas.append('"');
+    }
+
+    private StringBuilder anexarJson(String valor) {
+        if (valor == null) {
+            return linhas.append("null");
+        }
+        linhas.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                linhas.append('\\').append(c);
+            } else if (c < 0x20) {
+                linhas.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                linhas.append(c);
+            }
+        }
+        return linhas.append('"');
+    }
+
+    // AAAA-MM-DD sem passar por LocalDate.toString
+    private StringBuilder anexarData(LocalDate data) {
+        if (data == null) {
+            return linhas;
+        }
+        linhas.append(data.getYear()).append('-');
+        anexarDoisDigitos(data.getMonthValue()).append('-');
+        return anexarDoisDigitos(data.getDayOfMonth());
+    }
+
+    private StringBuilder anexarDoisDigitos(int valor) {
+        if (valor < 10) {
+            linhas.append('0');
+        }
+        return linhas.append(valor);
+    }
+}
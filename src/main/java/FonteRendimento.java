@@ -0,0 +1,55 @@
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Origem dos sorteios da série de taxas de mercado (ver TaxasMercado), escolhida por
+// implantação com -Dxubank.rendimento.fonte. Cada produto sorteia uma vez por mês:
+//   thread      gerador por thread (padrão)
+//   segura      um SecureRandom compartilhado
+//   semente:<n> sorteio em função de (semente, produto, mês): a mesma série em qualquer
+//               execução e qualquer que seja o número de threads
+public interface FonteRendimento {
+
+    // Valor uniforme em [0, 1) para o produto (tipo de conta) e o mês informados
+    double sortear(int produto, long mes);
+
+    static FonteRendimento porThread() {
+        return (produto, mes) -> ThreadLocalRandom.current().nextDouble();
+    }
+
+    static FonteRendimento segura() {
+        SecureRandom random = new SecureRandom();
+        return (produto, mes) -> random.nextDouble();
+    }
+
+    // SplitMix64 sobre a semente, o produto e o índice do mês
+    static FonteRendimento deterministica(long semente) {
+        return (produto, mes) -> {
+            long z = misturar(semente ^ misturar(produto)) + mes * 0x9E3779B97F4A7C15L;
+            return (misturar(z) >>> 11) * 0x1.0p-53;
+        };
+    }
+
+    static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static FonteRendimento fromString(String valor) {
+        if (valor == null) {
+            return porThread();
+        }
+        String fonte = valor.trim().toLowerCase();
+        if ("segura".equals(fonte)) {
+            return segura();
+        }
+        if (fonte.startsWith("semente:")) {
+            try {
+                return deterministica(Long.parseLong(fonte.substring("semente:".length()).trim()));
+            } catch (NumberFormatException e) {
+                return porThread();
+            }
+        }
+        return porThread();
+    }
+}
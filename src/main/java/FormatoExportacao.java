@@ -0,0 +1,15 @@
+public enum FormatoExportacao {
+    CSV,          // Cabeçalho na primeira linha, campos separados por vírgula (RFC 4180)
+    JSON_LINHAS;  // Um objeto JSON por linha, sem cabeçalho
+
+    public static FormatoExportacao fromString(String valor) {
+        if (valor == null) {
+            return CSV;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return CSV;
+        }
+    }
+}
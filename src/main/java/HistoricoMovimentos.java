@@ -0,0 +1,177 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Histórico de movimentos de uma conta, só de acréscimo, em colunas primitivas:
+// instante (ms), valor (centavos) e código do tipo, 17 bytes por movimento. Os
+// movimentos chegam em ordem de instante, então um período é uma busca binária
+// seguida de leitura sequencial. As colunas ficam em blocos de tamanho fixo (o
+// primeiro começa pequeno, porque a maioria das contas tem poucos movimentos) e,
+// passado o máximo por conta (xubank.historico.maximo), o bloco mais antigo é descartado.
+public class HistoricoMovimentos {
+    static final int TAMANHO_BLOCO = 1024;
+    private static final int CAPACIDADE_INICIAL = 2;
+    private static final int MAXIMO_MOVIMENTOS = Math.max(Integer.getInteger("xubank.historico.maximo", 64 * 1024), 1);
+
+    // Estimativa de ocupação numa JVM de 64 bits com oops comprimidos
+    private static final int BYTES_POR_MOVIMENTO = 8 + 8 + 1;
+    private static final int CABECALHO_ARRAY = 16;
+    private static final int CABECALHO_OBJETO = 12;
+    private static final int REFERENCIA = 4;
+
+    private final int maximoBlocos;
+    private Bloco[] blocos = new Bloco[1];
+    private int numeroBlocos;
+    private long ultimoInstante = Long.MIN_VALUE;
+    private long descartados;
+
+    public HistoricoMovimentos() {
+        this(MAXIMO_MOVIMENTOS);
+    }
+
+    HistoricoMovimentos(int maximoMovimentos) {
+        this.maximoBlocos = Math.max((maximoMovimentos + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO, 1);
+    }
+
+    public synchronized void registrar(long instante, TipoMovimento tipo, long valorCentavos) {
+        // Se o relógio voltar, o movimento fica com o instante do anterior: a ordem
+        // por instante é o que permite a busca binária
+        if (instante < ultimoInstante) {
+            instante = ultimoInstante;
+        }
+        ultimoInstante = instante;
+
+        Bloco ultimo = numeroBlocos > 0 ? blocos[numeroBlocos - 1] : null;
+        if (ultimo == null || ultimo.tamanho == TAMANHO_BLOCO) {
+            ultimo = novoBloco();
+        } else if (ultimo.tamanho == ultimo.instantes.length) {
+            ultimo.crescer(Math.min(ultimo.tamanho * 2, TAMANHO_BLOCO));
+        }
+
+        int i = ultimo.tamanho;
+        ultimo.instantes[i] = instante;
+        ultimo.valores[i] = valorCentavos;
+        ultimo.tipos[i] = (byte) tipo.getCodigo();
+        ultimo.tamanho = i + 1;
+    }
+
+    private Bloco novoBloco() {
+        if (numeroBlocos == maximoBlocos) {
+            descartados += blocos[0].tamanho;
+            System.arraycopy(blocos, 1, blocos, 0, numeroBlocos - 1);
+            blocos[--numeroBlocos] = null;
+        }
+        if (numeroBlocos == blocos.length) {
+            blocos = Arrays.copyOf(blocos, Math.min(blocos.length * 2, maximoBlocos));
+        }
+
+        Bloco bloco = new Bloco(numeroBlocos == 0 && descartados == 0 ? CAPACIDADE_INICIAL : TAMANHO_BLOCO);
+        blocos[numeroBlocos++] = bloco;
+        return bloco;
+    }
+
+    // Movimentos com instante em [de, ate), em ordem
+    public synchronized List<Movimento> listar(long de, long ate) {
+        List<Movimento> movimentos = new ArrayList<>();
+        int b = primeiroBloco(de);
+        if (b == numeroBlocos) {
+            return movimentos;
+        }
+
+        int i = primeiraPosicao(blocos[b], de);
+        for (; b < numeroBlocos; b++, i = 0) {
+            Bloco bloco = blocos[b];
+            for (; i < bloco.tamanho; i++) {
+                if (bloco.instantes[i] >= ate) {
+                    return movimentos;
+                }
+                movimentos.add(new Movimento(bloco.instantes[i],
+                        TipoMovimento.fromCodigo(bloco.tipos[i]), bloco.valores[i]));
+            }
+        }
+        return movimentos;
+    }
+
+    // Quantidade de movimentos em [de, ate), só com as duas buscas binárias
+    public synchronized long contar(long de, long ate) {
+        return ate <= de ? 0 : posicaoGlobal(ate) - posicaoGlobal(de);
+    }
+
+    // Só o último bloco fica incompleto, então a posição sai direto do índice do bloco
+    private long posicaoGlobal(long instante) {
+        int b = primeiroBloco(instante);
+        if (b == numeroBlocos) {
+            return getTamanho();
+        }
+        return (long) b * TAMANHO_BLOCO + primeiraPosicao(blocos[b], instante);
+    }
+
+    // Primeiro bloco cujo último movimento é >= instante (numeroBlocos se nenhum)
+    private int primeiroBloco(long instante) {
+        int baixo = 0;
+        int alto = numeroBlocos;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            Bloco bloco = blocos[meio];
+            if (bloco.instantes[bloco.tamanho - 1] < instante) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private static int primeiraPosicao(Bloco bloco, long instante) {
+        int baixo = 0;
+        int alto = bloco.tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (bloco.instantes[meio] < instante) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    public synchronized long getTamanho() {
+        return numeroBlocos == 0 ? 0 : (long) (numeroBlocos - 1) * TAMANHO_BLOCO + blocos[numeroBlocos - 1].tamanho;
+    }
+
+    // Movimentos que saíram do histórico pelo limite por conta
+    public synchronized long getDescartados() {
+        return descartados;
+    }
+
+    // Memória ocupada pelo histórico, incluindo capacidade ainda não usada e cabeçalhos
+    public synchronized long getBytesOcupados() {
+        long bytes = CABECALHO_OBJETO + 2 * REFERENCIA + 8 + 8 + 8
+                + CABECALHO_ARRAY + (long) blocos.length * REFERENCIA;
+        for (int i = 0; i < numeroBlocos; i++) {
+            bytes += CABECALHO_OBJETO + 3 * REFERENCIA + 4
+                    + 3 * CABECALHO_ARRAY + (long) blocos[i].instantes.length * BYTES_POR_MOVIMENTO;
+        }
+        return bytes;
+    }
+
+    private static final class Bloco {
+        long[] instantes;
+        long[] valores;
+        byte[] tipos;
+        int tamanho;
+
+        Bloco(int capacidade) {
+            instantes = new long[capacidade];
+            valores = new long[capacidade];
+            tipos = new byte[capacidade];
+        }
+
+        void crescer(int capacidade) {
+            instantes = Arrays.copyOf(instantes, capacidade);
+            valores = Arrays.copyOf(valores, capacidade);
+            tipos = Arrays.copyOf(tipos, capacidade);
+        }
+    }
+}
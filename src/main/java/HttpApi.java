@@ -0,0 +1,566 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// API HTTP/JSON embutida (com.sun.net.httpserver, sem dependências):
+//   POST /clientes                  {"cpf","nome","senha","renda_mensal"}
+//   GET  /contas                    contas do cliente autenticado
+//   POST /contas                    {"tipo": 1 a 4}
+//   POST /contas/{numero}/depositos {"valor"}
+//   POST /contas/{numero}/saques    {"valor"}
+//   GET  /contas/{numero}/extrato[?inicio=AAAA-MM-DD&fim=AAAA-MM-DD]
+//   GET  /relatorios/{custodia|extremos|ranking|saldomedio}[?quantidade=N], GET /metricas
+// As rotas de cliente exigem HTTP Basic com CPF e senha, verificados como no menu; as de
+// relatório e métricas, HTTP Basic com a credencial do operador (sem operador configurado
+// elas respondem 403). As requisições rodam no executor informado (fixo, sob demanda ou threads virtuais) e cada
+// rota tem seu histograma de latência em Metrics.
+public class HttpApi {
+    private static final int CORPO_MAXIMO = 64 * 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TEXTO = "text/plain; charset=utf-8";
+
+    static {
+        // O servidor do JDK escreve cabeçalhos e corpo em pacotes separados; com o algoritmo
+        // de Nagle ligado, cada resposta espera o ACK atrasado do cliente (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final XuBank banco;
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    // Operador dos relatórios: só o hash da senha fica em memória (null sem operador)
+    private final byte[] operadorUsuario;
+    private final byte[] operadorSalt;
+    private final byte[] operadorHash;
+
+    public HttpApi(XuBank banco, InetSocketAddress endereco, ExecutorService executor) throws IOException {
+        this(banco, endereco, executor, null);
+    }
+
+    // operador no formato "usuario:senha", ou null para deixar relatórios e métricas fechados
+    public HttpApi(XuBank banco, InetSocketAddress endereco, ExecutorService executor, String operador)
+            throws IOException {
+        if (banco == null || executor == null) {
+            throw new IllegalArgumentException("Banco e executor não podem ser nulos");
+        }
+        if (operador != null && !operador.isEmpty()) {
+            int separador = operador.indexOf(':');
+            if (separador <= 0 || separador == operador.length() - 1) {
+                throw new IllegalArgumentException("Operador deve ter o formato usuario:senha");
+            }
+            try {
+                operadorUsuario = operador.substring(0, separador).getBytes(StandardCharsets.UTF_8);
+                operadorSalt = PasswordUtils.generateSalt();
+                operadorHash = PasswordUtils.hashPassword(operador.substring(separador + 1), operadorSalt);
+            } catch (SecurityException e) {
+                throw new IllegalArgumentException("Credencial de operador inválida", e);
+            }
+        } else {
+            operadorUsuario = null;
+            operadorSalt = null;
+            operadorHash = null;
+        }
+        this.banco = banco;
+        this.executor = executor;
+        this.servidor = HttpServer.create(endereco, 1024);
+        servidor.createContext("/", this::atender);
+        servidor.setExecutor(executor);
+    }
+
+    // "fixo" (threads fixas), "cache" (threads sob demanda) ou "virtual" (uma thread virtual
+    // por requisição, quando a JVM oferece; senão recai no executor fixo)
+    public static ExecutorService criarExecutor(String tipo, int threads) {
+        String escolhido = tipo == null ? "fixo" : tipo.trim().toLowerCase();
+        if ("virtual".equals(escolhido)) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                SecurityLogger.logSecurityEvent("HTTP_EXECUTOR",
+                        "Threads virtuais indisponíveis nesta JVM; usando executor fixo");
+            }
+        }
+        AtomicInteger contador = new AtomicInteger();
+        if ("cache".equals(escolhido)) {
+            return Executors.newCachedThreadPool(r -> threadHttp(r, contador));
+        }
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> threadHttp(r, contador));
+    }
+
+    private static Thread threadHttp(Runnable tarefa, AtomicInteger contador) {
+        Thread thread = new Thread(tarefa, "xubank-http-" + contador.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public void iniciar() {
+        servidor.start();
+        SecurityLogger.logSecurityEvent("HTTP_INICIADO", "API HTTP ouvindo em " + servidor.getAddress());
+    }
+
+    public void parar(int esperaSegundos) {
+        servidor.stop(esperaSegundos);
+        executor.shutdown();
+        SecurityLogger.logSecurityEvent("HTTP_ENCERRADO", "API HTTP encerrada");
+    }
+
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    private void atender(HttpExchange troca) throws IOException {
+        long inicio = Metrics.inicio();
+        Resposta resposta;
+        try {
+            resposta = rotear(troca);
+        } catch (SecurityException e) {
+            resposta = erro(400, Metrics.HTTP_OUTROS, e.getMessage());
+        } catch (RuntimeException e) {
+            SecurityLogger.logError("ERRO_HTTP", "Erro ao atender " + troca.getRequestMethod() + " "
+                    + troca.getRequestURI().getPath(), e);
+            resposta = erro(500, Metrics.HTTP_OUTROS, "Erro interno");
+        }
+
+        try {
+            byte[] corpo = resposta.corpo.getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", resposta.tipo);
+            if (resposta.status == 401) {
+                troca.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"xubank\"");
+            }
+            troca.sendResponseHeaders(resposta.status, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        } finally {
+            troca.close();
+            Metrics.registrar(resposta.histograma, inicio);
+        }
+    }
+
+    private Resposta rotear(HttpExchange troca) throws IOException, SecurityException {
+        String metodo = troca.getRequestMethod();
+        String[] partes = troca.getRequestURI().getPath().split("/");
+        // partes[0] é vazio (caminho começa com '/')
+        if (partes.length == 2 && "clientes".equals(partes[1]) && "POST".equals(metodo)) {
+            return cadastrar(lerJson(troca));
+        }
+        if (partes.length == 2 && "metricas".equals(partes[1]) && "GET".equals(metodo)) {
+            Resposta negada = autorizarOperador(troca);
+            return negada != null ? negada : new Resposta(200, TEXTO, Metrics.relatorio(), Metrics.HTTP_RELATORIO);
+        }
+        if (partes.length == 3 && "relatorios".equals(partes[1]) && "GET".equals(metodo)) {
+            Resposta negada = autorizarOperador(troca);
+            return negada != null ? negada : relatorio(partes[2], parametros(troca));
+        }
+        if (partes.length >= 2 && "contas".equals(partes[1])) {
+            return rotearContas(troca, metodo, partes);
+        }
+        return erro(404, Metrics.HTTP_OUTROS, "Rota não encontrada");
+    }
+
+    private Resposta rotearContas(HttpExchange troca, String metodo, String[] partes)
+            throws IOException, SecurityException {
+        LatencyHistogram histograma = histogramaDeConta(metodo, partes);
+        if (histograma == null) {
+            return erro(404, Metrics.HTTP_OUTROS, "Rota não encontrada");
+        }
+        Cliente cliente = autenticar(troca);
+        if (cliente == null) {
+            return erro(401, histograma, "Credenciais inválidas");
+        }
+
+        if (partes.length == 2) {
+            return "GET".equals(metodo) ? listarContas(cliente) : abrirConta(cliente, lerJson(troca));
+        }
+        Conta conta = cliente.buscarContaPorNumero(inteiro(partes[2]));
+        if (conta == null) {
+            return erro(404, histograma, "Conta não encontrada");
+        }
+        switch (partes[3]) {
+            case "depositos": return movimentar(conta, lerJson(troca), true);
+            case "saques": return movimentar(conta, lerJson(troca), false);
+            default: return extrato(conta, parametros(troca));
+        }
+    }
+
+    private static LatencyHistogram histogramaDeConta(String metodo, String[] partes) {
+        if (partes.length == 2) {
+            return "GET".equals(metodo) ? Metrics.HTTP_CONTAS : "POST".equals(metodo) ? Metrics.HTTP_ABRIR_CONTA : null;
+        }
+        if (partes.length != 4) {
+            return null;
+        }
+        if ("POST".equals(metodo) && "depositos".equals(partes[3])) {
+            return Metrics.HTTP_DEPOSITO;
+        }
+        if ("POST".equals(metodo) && "saques".equals(partes[3])) {
+            return Metrics.HTTP_SAQUE;
+        }
+        if ("GET".equals(metodo) && "extrato".equals(partes[3])) {
+            return Metrics.HTTP_EXTRATO;
+        }
+        return null;
+    }
+
+    // Authorization: Basic base64(cpf:senha)
+    private Cliente autenticar(HttpExchange troca) {
+        String[] credenciais = credenciaisBasic(troca);
+        if (credenciais == null || !banco.autenticarCliente(credenciais[0], credenciais[1])) {
+            return null;
+        }
+        return banco.buscarClientePorCpf(credenciais[0]);
+    }
+
+    // Devolve null se o operador foi autenticado, ou a resposta de recusa
+    private Resposta autorizarOperador(HttpExchange troca) throws SecurityException {
+        if (operadorHash == null) {
+            return erro(403, Metrics.HTTP_RELATORIO, "Relatórios desabilitados: operador não configurado");
+        }
+        String[] credenciais = credenciaisBasic(troca);
+        String usuario = credenciais != null ? credenciais[0] : "";
+        String senha = credenciais != null ? credenciais[1] : "";
+        // Usuário e senha são sempre conferidos, para o tempo de resposta não revelar qual falhou
+        boolean usuarioConfere = MessageDigest.isEqual(operadorUsuario, usuario.getBytes(StandardCharsets.UTF_8));
+        boolean senhaConfere = PasswordUtils.verifyPassword(senha, operadorHash, operadorSalt);
+        if (credenciais == null || !usuarioConfere || !senhaConfere) {
+            SecurityLogger.logSecurityEvent("OPERADOR_NEGADO", "Credencial de operador inválida em "
+                    + troca.getRequestURI().getPath());
+            return erro(401, Metrics.HTTP_RELATORIO, "Credenciais inválidas");
+        }
+        return null;
+    }
+
+    // Usuário e senha de Authorization: Basic base64(usuario:senha), ou null
+    private static String[] credenciaisBasic(HttpExchange troca) {
+        String cabecalho = troca.getRequestHeaders().getFirst("Authorization");
+        if (cabecalho == null || !cabecalho.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        String credenciais;
+        try {
+            credenciais = new String(Base64.getDecoder().decode(cabecalho.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int separador = credenciais.indexOf(':');
+        if (separador < 0) {
+            return null;
+        }
+        return new String[] {credenciais.substring(0, separador), credenciais.substring(separador + 1)};
+    }
+
+    private Resposta cadastrar(Map<String, String> corpo) throws SecurityException {
+        if (corpo == null) {
+            return erro(400, Metrics.HTTP_CADASTRO, "JSON inválido");
+        }
+        double renda = numero(corpo.get("renda_mensal"));
+        if (renda < 0 || !ValidationUtils.validarValor(renda)) {
+            return erro(400, Metrics.HTTP_CADASTRO, "Renda mensal inválida");
+        }
+        Cliente cliente;
+        try {
+            cliente = new Cliente(corpo.get("cpf"), corpo.get("senha"), corpo.get("nome"), renda);
+        } catch (SecurityException e) {
+            return erro(400, Metrics.HTTP_CADASTRO, e.getMessage());
+        }
+        if (!banco.publicarImportados(Collections.singletonList(cliente))[0]) {
+            return erro(409, Metrics.HTTP_CADASTRO, "CPF já cadastrado");
+        }
+        SecurityLogger.logSecurityEvent("CLIENTE_CADASTRADO", "Cliente cadastrado via HTTP: " + cliente.getCpfOfuscado());
+
+        StringBuilder json = new StringBuilder(64).append("{\"cpf\":");
+        anexarJson(json, cliente.getCpfOfuscado()).append(",\"nome\":");
+        anexarJson(json, cliente.getNome()).append('}');
+        return new Resposta(201, JSON, json.toString(), Metrics.HTTP_CADASTRO);
+    }
+
+    private Resposta listarContas(Cliente cliente) {
+        List<Conta> contas = cliente.getContas();
+        StringBuilder json = new StringBuilder(32 + 64 * contas.size()).append('[');
+        for (int i = 0; i < contas.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            anexarConta(json, contas.get(i));
+        }
+        return new Resposta(200, JSON, json.append(']').toString(), Metrics.HTTP_CONTAS);
+    }
+
+    private Resposta abrirConta(Cliente cliente, Map<String, String> corpo) throws SecurityException {
+        double tipo = corpo == null ? -1 : numero(corpo.get("tipo"));
+        if (tipo < 1 || tipo > TotaisCustodia.TIPOS || tipo != Math.rint(tipo)) {
+            return erro(400, Metrics.HTTP_ABRIR_CONTA, "Tipo de conta inválido");
+        }
+        Conta conta = Conta.nova((int) tipo, cliente);
+        if (!cliente.AdicionarConta(conta)) {
+            return erro(409, Metrics.HTTP_ABRIR_CONTA, "Cliente já possui conta deste tipo");
+        }
+        return new Resposta(201, JSON, anexarConta(new StringBuilder(64), conta).toString(), Metrics.HTTP_ABRIR_CONTA);
+    }
+
+    private Resposta movimentar(Conta conta, Map<String, String> corpo, boolean deposito) throws SecurityException {
+        LatencyHistogram histograma = deposito ? Metrics.HTTP_DEPOSITO : Metrics.HTTP_SAQUE;
+        double valor = corpo == null ? -1 : numero(corpo.get("valor"));
+        if (valor <= 0 || !ValidationUtils.validarValor(valor)) {
+            return erro(400, histograma, "Valor inválido");
+        }
+        long centavos = Dinheiro.paraCentavos(valor);
+        if (!(deposito ? conta.DepositarCentavos(centavos) : conta.SacarCentavos(centavos))) {
+            return erro(422, histograma, deposito ? "Depósito recusado" : "Saque não autorizado");
+        }
+        return new Resposta(200, JSON, anexarConta(new StringBuilder(64), conta).toString(), histograma);
+    }
+
+    private Resposta extrato(Conta conta, Map<String, String> parametros) {
+        String inicio = parametros.get("inicio");
+        String fim = parametros.get("fim");
+        if (inicio == null && fim == null) {
+            return new Resposta(200, TEXTO, conta.GerarExtratoUltimoMes(), Metrics.HTTP_EXTRATO);
+        }
+        try {
+            LocalDate ate = fim == null ? LocalDate.now() : LocalDate.parse(fim);
+            LocalDate de = inicio == null ? ate.minusMonths(1) : LocalDate.parse(inicio);
+            if (de.isAfter(ate)) {
+                return erro(400, Metrics.HTTP_EXTRATO, "Período inválido");
+            }
+            return new Resposta(200, TEXTO, conta.GerarExtratoPeriodo(de, ate), Metrics.HTTP_EXTRATO);
+        } catch (DateTimeParseException e) {
+            return erro(400, Metrics.HTTP_EXTRATO, "Data inválida");
+        }
+    }
+
+    private Resposta relatorio(String nome, Map<String, String> parametros) {
+        String texto;
+        switch (nome) {
+            case "custodia": texto = banco.RelatorioCustodia(); break;
+            case "extremos": texto = banco.ClientesExtremos(); break;
+            case "saldomedio": texto = banco.gerarRelatorioSaldoMedio(); break;
+            case "ranking":
+                String quantidade = parametros.get("quantidade");
+                int n = quantidade == null ? 5 : inteiro(quantidade);
+                if (n <= 0) {
+                    return erro(400, Metrics.HTTP_RELATORIO, "Quantidade inválida");
+                }
+                texto = banco.RankingSaldos(n);
+                break;
+            default: return erro(404, Metrics.HTTP_RELATORIO, "Relatório não encontrado");
+        }
+        return new Resposta(200, TEXTO, texto, Metrics.HTTP_RELATORIO);
+    }
+
+    private static StringBuilder anexarConta(StringBuilder json, Conta conta) {
+        json.append("{\"numero\":").append(conta.getNumero()).append(",\"tipo\":");
+        anexarJson(json, conta.getTipoContaNome()).append(",\"saldo\":");
+        return Dinheiro.anexar(json, conta.getSaldoCentavos()).append('}');
+    }
+
+    private static Resposta erro(int status, LatencyHistogram histograma, String mensagem) {
+        StringBuilder json = new StringBuilder(48).append("{\"erro\":");
+        anexarJson(json, mensagem).append('}');
+        return new Resposta(status, JSON, json.toString(), histograma);
+    }
+
+    private static StringBuilder anexarJson(StringBuilder sb, String valor) {
+        if (valor == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+
+    private static Map<String, String> lerJson(HttpExchange troca) throws IOException, SecurityException {
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream(256);
+        byte[] buffer = new byte[4096];
+        try (InputStream entrada = troca.getRequestBody()) {
+            int lidos;
+            while ((lidos = entrada.read(buffer)) > 0) {
+                if (corpo.size() + lidos > CORPO_MAXIMO) {
+                    throw new SecurityException("Corpo da requisição excede o limite");
+                }
+                corpo.write(buffer, 0, lidos);
+            }
+        }
+        return objetoJson(new String(corpo.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    // Objeto JSON plano: chaves string e valores string, número, booleano ou null (como
+    // texto). Devolve null se o texto não for um objeto desse formato.
+    static Map<String, String> objetoJson(String texto) {
+        Map<String, String> campos = new HashMap<>();
+        int[] pos = {pularEspacos(texto, 0)};
+        if (pos[0] >= texto.length() || texto.charAt(pos[0]) != '{') {
+            return null;
+        }
+        pos[0] = pularEspacos(texto, pos[0] + 1);
+        if (pos[0] < texto.length() && texto.charAt(pos[0]) == '}') {
+            return pularEspacos(texto, pos[0] + 1) == texto.length() ? campos : null;
+        }
+        while (true) {
+            String chave = stringJson(texto, pos);
+            if (chave == null) {
+                return null;
+            }
+            pos[0] = pularEspacos(texto, pos[0]);
+            if (pos[0] >= texto.length() || texto.charAt(pos[0]) != ':') {
+                return null;
+            }
+            pos[0] = pularEspacos(texto, pos[0] + 1);
+            String valor;
+            if (pos[0] < texto.length() && texto.charAt(pos[0]) == '"') {
+                valor = stringJson(texto, pos);
+            } else {
+                int inicio = pos[0];
+                while (pos[0] < texto.length() && "-+.eE0123456789truefalsn".indexOf(texto.charAt(pos[0])) >= 0) {
+                    pos[0]++;
+                }
+                valor = pos[0] > inicio ? texto.substring(inicio, pos[0]) : null;
+            }
+            if (valor == null) {
+                return null;
+            }
+            campos.put(chave, valor);
+            pos[0] = pularEspacos(texto, pos[0]);
+            if (pos[0] >= texto.length()) {
+                return null;
+            }
+            char c = texto.charAt(pos[0]);
+            if (c == '}') {
+                return pularEspacos(texto, pos[0] + 1) == texto.length() ? campos : null;
+            }
+            if (c != ',') {
+                return null;
+            }
+            pos[0] = pularEspacos(texto, pos[0] + 1);
+        }
+    }
+
+    private static String stringJson(String texto, int[] pos) {
+        int i = pos[0];
+        if (i >= texto.length() || texto.charAt(i) != '"') {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        i++;
+        while (i < texto.length()) {
+            char c = texto.charAt(i++);
+            if (c == '"') {
+                pos[0] = i;
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (i >= texto.length()) {
+                return null;
+            }
+            char escape = texto.charAt(i++);
+            switch (escape) {
+                case '"': case '\\': case '/': sb.append(escape); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (i + 4 > texto.length()) {
+                        return null;
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(texto.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    i += 4;
+                    break;
+                default: return null;
+            }
+        }
+        return null;
+    }
+
+    private static int pularEspacos(String texto, int i) {
+        while (i < texto.length() && Character.isWhitespace(texto.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Map<String, String> parametros(HttpExchange troca) {
+        String consulta = troca.getRequestURI().getRawQuery();
+        if (consulta == null || consulta.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> parametros = new HashMap<>();
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private static double numero(String texto) {
+        if (texto == null) {
+            return -1;
+        }
+        try {
+            return Double.parseDouble(texto.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int inteiro(String texto) {
+        try {
+            return Integer.parseInt(texto.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Resposta {
+        final int status;
+        final String tipo;
+        final String corpo;
+        final LatencyHistogram histograma;
+
+        Resposta(int status, String tipo, String corpo, LatencyHistogram histograma) {
+            this.status = status;
+            this.tipo = tipo;
+            this.corpo = corpo;
+            this.histograma = histograma;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Importação em lote de clientes e contas a partir de um CSV
+//   cpf,nome,senha,renda_mensal,contas
+// em que contas é uma lista opcional "tipo:saldo" separada por ';' (ex.: 1:1500.00;2:300.50).
+// O arquivo é lido em blocos. Em cada bloco a validação e depois o hash das senhas rodam
+// em paralelo no executor; entre as duas, uma passada sequencial na ordem do arquivo
+// descarta CPFs repetidos no próprio arquivo ou já cadastrados. Os aceitos são publicados
+// no banco de uma vez, sob uma única aquisição do lock de escrita. Cada linha recusada
+// vai para o relatório de rejeições como "linha,motivo".
+public class ImportacaoClientes {
+    static final int LINHAS_POR_BLOCO = 8192;
+    private static final int LINHAS_POR_TAREFA = 256;
+    private static final String CABECALHO_REJEICOES = "linha,motivo\n";
+
+    private final XuBank banco;
+    private final ExecutorService executor;
+
+    public ImportacaoClientes(XuBank banco, ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor não pode ser nulo");
+        }
+        this.banco = banco;
+        this.executor = executor;
+    }
+
+    public ResultadoImportacao importar(Reader origem, Appendable rejeicoes) throws IOException, SecurityException {
+        ResultadoImportacao resultado = new ResultadoImportacao();
+        long inicio = System.nanoTime();
+        BufferedReader leitor = origem instanceof BufferedReader
+                ? (BufferedReader) origem : new BufferedReader(origem, 1 << 16);
+        rejeicoes.append(CABECALHO_REJEICOES);
+
+        Set<Long> vistos = new HashSet<>();
+        List<Linha> aceitas = new ArrayList<>();
+        List<Linha> bloco = new ArrayList<>(LINHAS_POR_BLOCO);
+        long numero = 0;
+        String texto;
+        while ((texto = leitor.readLine()) != null) {
+            numero++;
+            if (texto.isEmpty() || (numero == 1 && texto.startsWith("cpf,"))) {
+                continue;
+            }
+            bloco.add(new Linha(numero, texto));
+            if (bloco.size() == LINHAS_POR_BLOCO) {
+                processarBloco(bloco, vistos, aceitas, rejeicoes, resultado);
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            processarBloco(bloco, vistos, aceitas, rejeicoes, resultado);
+        }
+
+        List<Cliente> clientes = new ArrayList<>(aceitas.size());
+        for (Linha linha : aceitas) {
+            clientes.add(linha.cliente);
+        }
+        boolean[] publicados = banco.publicarImportados(clientes);
+        for (int i = 0; i < publicados.length; i++) {
+            Linha linha = aceitas.get(i);
+            if (publicados[i]) {
+                resultado.registrarAceito(linha.cliente.getContas().size());
+            } else {
+                // Cadastrado por outra via enquanto o arquivo era processado
+                rejeitar(rejeicoes, linha.numero, "CPF_JA_CADASTRADO", resultado);
+            }
+        }
+
+        resultado.concluir(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private void processarBloco(List<Linha> bloco, Set<Long> vistos, List<Linha> aceitas,
+                                Appendable rejeicoes, ResultadoImportacao resultado) throws IOException, SecurityException {
+        executarEmParalelo(bloco, Linha::validar);
+
+        for (Linha linha : bloco) {
+            if (linha.motivo != null) {
+                continue;
+            }
+            if (!vistos.add(linha.cpf)) {
+                linha.motivo = "CPF_DUPLICADO_NO_ARQUIVO";
+            } else if (banco.cpfCadastrado(linha.cpf)) {
+                linha.motivo = "CPF_JA_CADASTRADO";
+            }
+        }
+
+        executarEmParalelo(bloco, Linha::criarCliente);
+
+        for (Linha linha : bloco) {
+            resultado.registrarLinha();
+            if (linha.motivo != null) {
+                rejeitar(rejeicoes, linha.numero, linha.motivo, resultado);
+            } else {
+                aceitas.add(linha);
+            }
+        }
+    }
+
+    private void executarEmParalelo(List<Linha> bloco, Consumer<Linha> acao) throws SecurityException {
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int de = 0; de < bloco.size(); de += LINHAS_POR_TAREFA) {
+            List<Linha> parte = bloco.subList(de, Math.min(de + LINHAS_POR_TAREFA, bloco.size()));
+            tarefas.add(executor.submit(() -> parte.forEach(acao)));
+        }
+
+        try {
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SecurityException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new SecurityException("Erro na importação", e.getCause());
+        }
+    }
+
+    private static void rejeitar(Appendable rejeicoes, long numero, String motivo,
+                                 ResultadoImportacao resultado) throws IOException {
+        rejeicoes.append(Long.toString(numero)).append(',').append(motivo).append('\n');
+        resultado.registrarRejeicao(motivo);
+    }
+
+    // Campos separados por vírgula; entre aspas podem conter vírgulas e aspas duplicadas.
+    // Devolve null para uma linha mal formada (aspas sem fechamento ou texto após as aspas).
+    static List<String> separarCampos(String texto) {
+        List<String> campos = new ArrayList<>(5);
+        StringBuilder campo = new StringBuilder();
+        int i = 0;
+        while (true) {
+            campo.setLength(0);
+            if (i < texto.length() && texto.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= texto.length()) {
+                        return null;
+                    }
+                    char c = texto.charAt(i++);
+                    if (c != '"') {
+                        campo.append(c);
+                    } else if (i < texto.length() && texto.charAt(i) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < texto.length() && texto.charAt(i) != ',') {
+                    return null;
+                }
+            } else {
+                int fim = texto.indexOf(',', i);
+                fim = fim < 0 ? texto.length() : fim;
+                campo.append(texto, i, fim);
+                i = fim;
+            }
+            campos.add(campo.toString());
+            if (i >= texto.length()) {
+                return campos;
+            }
+            i++; // vírgula
+        }
+    }
+
+    private static final class Linha {
+        final long numero;
+        String texto;
+        long cpf;
+        String nome;
+        String senha;
+        double renda;
+        int[] tiposConta = new int[0];
+        long[] saldosConta = new long[0];
+        String motivo;
+        Cliente cliente;
+
+        Linha(long numero, String texto) {
+            this.numero = numero;
+            this.texto = texto;
+        }
+
+        void validar() {
+            List<String> campos = separarCampos(texto);
+            texto = null;
+            if (campos == null || campos.size() < 4 || campos.size() > 5) {
+                motivo = "LINHA_MALFORMADA";
+                return;
+            }
+
+            if (!ValidationUtils.validarCPF(campos.get(0))) {
+                motivo = "CPF_INVALIDO";
+                return;
+            }
+            cpf = ValidationUtils.normalizarCpf(campos.get(0));
+
+            nome = campos.get(1);
+            if (!ValidationUtils.validarNome(nome)) {
+                motivo = "NOME_INVALIDO";
+                return;
+            }
+
+            senha = campos.get(2);
+            if (!ValidationUtils.validarSenha(senha)) {
+                motivo = "SENHA_INVALIDA";
+                return;
+            }
+
+            try {
+                renda = Double.parseDouble(campos.get(3).trim());
+            } catch (NumberFormatException e) {
+                renda = -1;
+            }
+            if (renda < 0 || !ValidationUtils.validarValor(renda)) {
+                motivo = "RENDA_INVALIDA";
+                return;
+            }
+
+            if (campos.size() == 5 && !campos.get(4).trim().isEmpty() && !validarContas(campos.get(4))) {
+                motivo = "CONTAS_INVALIDAS";
+            }
+        }
+
+        // Um tipo de 1 a 4 por conta, sem repetir tipo (como em AdicionarConta), saldo >= 0
+        private boolean validarContas(String contas) {
+            String[] partes = contas.split(";");
+            if (partes.length > TotaisCustodia.TIPOS) {
+                return false;
+            }
+            tiposConta = new int[partes.length];
+            saldosConta = new long[partes.length];
+            int tiposVistos = 0;
+            for (int i = 0; i < partes.length; i++) {
+                int separador = partes[i].indexOf(':');
+                if (separador < 0) {
+                    return false;
+                }
+                try {
+                    int tipo = Integer.parseInt(partes[i].substring(0, separador).trim());
+                    long saldo = Dinheiro.paraCentavos(Double.parseDouble(partes[i].substring(separador + 1).trim()));
+                    if (tipo < 1 || tipo > TotaisCustodia.TIPOS || (tiposVistos & (1 << tipo)) != 0 || saldo < 0) {
+                        return false;
+                    }
+                    tiposVistos |= 1 << tipo;
+                    tiposConta[i] = tipo;
+                    saldosConta[i] = saldo;
+                } catch (NumberFormatException | SecurityException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void criarCliente() {
+            if (motivo != null) {
+                return;
+            }
+            try {
+                cliente = Cliente.importar(cpf, nome, senha, renda);
+                for (int i = 0; i < tiposConta.length; i++) {
+                    cliente.restaurarConta(Conta.abrir(tiposConta[i], cliente, saldosConta[i]));
+                }
+            } catch (SecurityException e) {
+                motivo = "ERRO_CRIACAO";
+                if (cliente != null) {
+                    for (Conta conta : cliente.getContas()) {
+                        Conta.liberarNumero(conta);
+                    }
+                    cliente = null;
+                }
+            } finally {
+                senha = null;
+                nome = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Clientes ordenados pelo saldo total. Maior e menor saldo saem das pontas do conjunto
+// ordenado e o top-N é um percurso de N entradas a partir delas, sem somar as contas
+// de ninguém. Saques e depósitos não tocam no conjunto: só somam a variação ao saldo
+// indexado do cliente e o marcam como pendente; as consultas reposicionam os
+// pendentes antes de ler. O conjunto e a posição de cada cliente nele só mudam sob o
+// lock do índice, o único lock desta classe.
+public class IndiceSaldos {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Entrada> entradas = new TreeSet<>();
+    private final ConcurrentLinkedQueue<Cliente> pendentes = new ConcurrentLinkedQueue<>();
+
+    // Carga de snapshot: os clientes entram já ordenados, de uma vez
+    void adicionarTodos(Cliente[][] blocos) {
+        List<Entrada> novas = new ArrayList<>();
+        Metrics.travar(lock, Metrics.ESPERA_INDICE_SALDOS);
+        try {
+            for (Cliente[] bloco : blocos) {
+                for (Cliente cliente : bloco) {
+                    if (!cliente.isIndexado()) {
+                        novas.add(posicionar(cliente));
+                    }
+                }
+            }
+            novas.sort(null);
+            entradas.addAll(novas);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Até ser adicionado, o cliente só acumula o saldo: na carga de um snapshot as contas
+    // são vinculadas antes e o cliente entra no índice uma vez, com o total já somado
+    void adicionar(Cliente cliente) {
+        Metrics.travar(lock, Metrics.ESPERA_INDICE_SALDOS);
+        try {
+            if (!cliente.isIndexado()) {
+                entradas.add(posicionar(cliente));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caminho do dinheiro: uma soma atômica e, se o cliente ainda não estava pendente,
+    // uma entrada na fila. Nenhum lock.
+    void variar(Cliente cliente, long variacao) {
+        if (variacao == 0) {
+            return;
+        }
+        cliente.somarSaldoIndexado(variacao);
+        if (cliente.marcarPendenteNoIndice()) {
+            pendentes.add(cliente);
+        }
+    }
+
+    // Chamado sob lock. A marca de pendente é limpa antes de ler o saldo: uma variação
+    // que chegar depois da leitura marca o cliente de novo e ele volta para a fila.
+    private void aplicarPendentes() {
+        Cliente cliente;
+        while ((cliente = pendentes.poll()) != null) {
+            cliente.limparPendenteNoIndice();
+            if (cliente.isIndexado()) {
+                entradas.remove(new Entrada(cliente.getSaldoNoIndice(), cliente));
+                entradas.add(posicionar(cliente));
+            }
+        }
+    }
+
+    // Chamado sob lock: fixa a posição do cliente no saldo indexado atual
+    private static Entrada posicionar(Cliente cliente) {
+        long saldo = cliente.getSaldoIndexado();
+        cliente.setSaldoNoIndice(saldo);
+        cliente.setIndexado(true);
+        return new Entrada(saldo, cliente);
+    }
+
+    public Cliente maior() {
+        List<Cliente> maiores = listar(true, 1);
+        return maiores.isEmpty() ? null : maiores.get(0);
+    }
+
+    public Cliente menor() {
+        List<Cliente> menores = listar(false, 1);
+        return menores.isEmpty() ? null : menores.get(0);
+    }
+
+    // Do maior para o menor saldo
+    public List<Cliente> maiores(int quantidade) {
+        return listar(true, quantidade);
+    }
+
+    // Do menor para o maior saldo
+    public List<Cliente> menores(int quantidade) {
+        return listar(false, quantidade);
+    }
+
+    private List<Cliente> listar(boolean decrescente, int quantidade) {
+        List<Cliente> clientes = new ArrayList<>(Math.min(Math.max(quantidade, 0), 1024));
+        Metrics.travar(lock, Metrics.ESPERA_INDICE_SALDOS);
+        try {
+            aplicarPendentes();
+            Iterator<Entrada> iterador = decrescente ? entradas.descendingIterator() : entradas.iterator();
+            while (clientes.size() < quantidade && iterador.hasNext()) {
+                clientes.add(iterador.next().cliente);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return clientes;
+    }
+
+    private static final class Entrada implements Comparable<Entrada> {
+        final long saldo;
+        final long cpf;
+        final Cliente cliente;
+
+        Entrada(long saldo, Cliente cliente) {
+            this.saldo = saldo;
+            this.cpf = cliente.getCpfNumerico();
+            this.cliente = cliente;
+        }
+
+        // Empate no saldo desfeito pelo CPF, para que cada cliente tenha uma posição única
+        @Override
+        public int compareTo(Entrada outra) {
+            int porSaldo = Long.compare(saldo, outra.saldo);
+            return porSaldo != 0 ? porSaldo : Long.compare(cpf, outra.cpf);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entrada && compareTo((Entrada) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(saldo) * 31 + Long.hashCode(cpf);
+        }
+    }
+}
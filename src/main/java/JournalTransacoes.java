@@ -0,0 +1,729 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// Journal de escrita antecipada com todas as alterações de estado do banco.
+// Cada registro é [tamanho][crc32][tipo][sequência][dados]. Quem altera estado visível
+// grava o registro na mesma seção travada (travar/destravar) em que a alteração fica
+// visível, então a ordem do journal é a ordem de publicação: qualquer prefixo dele,
+// inclusive o que sobra de uma queda no meio de um lote, reproduz um estado que existiu.
+// Os produtores só copiam o registro para o buffer pendente; a thread de commit grava
+// o lote acumulado com uma única escrita e um único fsync (group commit).
+// O journal é um diretório de segmentos journal-<primeira sequência>.log; rotacionar
+// fecha o segmento atual no fim de um lote, e os segmentos fechados podem ser
+// compactados num snapshot e removidos.
+public class JournalTransacoes {
+    static final byte REGISTRO_CLIENTE = 1;
+    static final byte REGISTRO_CONTA = 2;
+    static final byte REGISTRO_MOVIMENTO = 3;
+    static final byte REGISTRO_ATUALIZACAO = 4;
+    static final byte REGISTRO_SENHA = 5;
+    static final byte REGISTRO_RENDA = 6;
+    static final byte REGISTRO_TRANSFERENCIA = 7;
+
+    private static final int CABECALHO = 8; // tamanho + crc32
+    private static final int CORPO_MINIMO = 9; // tipo + sequência
+    private static final int TAMANHO_MAXIMO_REGISTRO = 64 * 1024;
+    private static final int LOTE_MAXIMO = 1024 * 1024;
+    private static final int PENDENTE_MAXIMO = 16 * 1024 * 1024;
+    private static final ThreadLocal<Lote> EM_LOTE = new ThreadLocal<>();
+    private static final String PREFIXO_SEGMENTO = "journal-";
+    private static final String SUFIXO_SEGMENTO = ".log";
+
+    private final Path diretorio;
+    private final DurabilidadeJournal durabilidade;
+    private final long latenciaNanos;
+    private final Thread committer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition haPendente = lock.newCondition();
+    private final Condition loteGravado = lock.newCondition();
+
+    // Estado protegido por lock
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pendente = ByteBuffer.allocate(256 * 1024);
+    private int inicioRegistro;
+    private long inicioPendenteNanos;
+    private long ultimaSequencia;
+    private long sequenciaGravada;
+    private long sequenciaSincronizada;
+    private long sincronizarAte;
+    private long lotesGravados;
+    private boolean rotacaoSolicitada;
+    private long rotacoes;
+    private long sequenciaRotacao;
+    private IOException falha;
+    private boolean encerrado;
+
+    // Usados apenas pela thread de commit
+    private ByteBuffer gravando = ByteBuffer.allocate(256 * 1024);
+    private FileChannel canal;
+
+    private JournalTransacoes(Path diretorio, FileChannel canal, long ultimaSequencia,
+                              DurabilidadeJournal durabilidade, long latenciaMicros) {
+        this.diretorio = diretorio;
+        this.canal = canal;
+        this.durabilidade = durabilidade;
+        this.latenciaNanos = durabilidade == DurabilidadeJournal.IMEDIATA
+                ? 0 : TimeUnit.MICROSECONDS.toNanos(Math.max(0, latenciaMicros));
+        this.ultimaSequencia = ultimaSequencia;
+        this.sequenciaGravada = ultimaSequencia;
+        this.sequenciaSincronizada = ultimaSequencia;
+        this.sincronizarAte = ultimaSequencia;
+        this.sequenciaRotacao = ultimaSequencia;
+        this.committer = new Thread(this::executar, "xubank-journal");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    // Abre o diretório para novas gravações, continuando no último segmento e na
+    // numeração da última sequência reproduzida
+    public static JournalTransacoes abrir(Path diretorio, long ultimaSequencia,
+                                          DurabilidadeJournal durabilidade, long latenciaMicros) throws SecurityException {
+        try {
+            Files.createDirectories(diretorio);
+            List<Path> existentes = segmentos(diretorio);
+            Path segmento = existentes.isEmpty()
+                    ? caminhoSegmento(diretorio, ultimaSequencia + 1)
+                    : existentes.get(existentes.size() - 1);
+            return new JournalTransacoes(diretorio, abrirSegmento(segmento), ultimaSequencia,
+                    durabilidade, latenciaMicros);
+        } catch (IOException e) {
+            throw new SecurityException("Não foi possível abrir o journal", e);
+        }
+    }
+
+    private static FileChannel abrirSegmento(Path segmento) throws IOException {
+        return FileChannel.open(segmento, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path caminhoSegmento(Path diretorio, long primeiraSequencia) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO_SEGMENTO, primeiraSequencia, SUFIXO_SEGMENTO));
+    }
+
+    private static long primeiraSequencia(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length()));
+    }
+
+    // Segmentos em ordem de sequência (o nome tem largura fixa, então a ordem alfabética basta)
+    static List<Path> segmentos(Path diretorio) throws IOException {
+        List<Path> encontrados = new ArrayList<>();
+        if (!Files.isDirectory(diretorio)) {
+            return encontrados;
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio,
+                PREFIXO_SEGMENTO + "*" + SUFIXO_SEGMENTO)) {
+            for (Path arquivo : arquivos) {
+                encontrados.add(arquivo);
+            }
+        }
+        Collections.sort(encontrados);
+        return encontrados;
+    }
+
+    // Remove os segmentos fechados cujos registros já estão todos num snapshot
+    static void removerSegmentosAte(Path diretorio, long sequencia) throws SecurityException {
+        try {
+            for (Path segmento : segmentos(diretorio)) {
+                if (primeiraSequencia(segmento) <= sequencia) {
+                    Files.delete(segmento);
+                }
+            }
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao remover segmentos do journal", e);
+        }
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    // Lote aberto pela thread: lotes podem se aninhar, e só o mais externo espera
+    private static final class Lote {
+        int profundidade;
+        long sequencia; // maior sequência confirmada dentro do lote
+    }
+
+    // Operações feitas pela thread entre iniciarLote e encerrarLote não esperam o fsync
+    // uma a uma; quem abriu o lote espera uma vez no final. Quem grava segurando um lock
+    // (monitor da conta, lock do cliente) abre um lote antes de travar e espera depois
+    // de soltar, para não segurar o lock durante o fsync.
+    static void iniciarLote() {
+        Lote lote = EM_LOTE.get();
+        if (lote == null) {
+            lote = new Lote();
+            EM_LOTE.set(lote);
+        }
+        lote.profundidade++;
+    }
+
+    // Devolve a maior sequência confirmada no lote, para quem fechou o mais externo
+    // esperar por ela com aguardarAte; num lote aninhado devolve 0 (o externo espera).
+    static long encerrarLote() {
+        Lote lote = EM_LOTE.get();
+        if (--lote.profundidade > 0) {
+            return 0;
+        }
+        EM_LOTE.remove();
+        return lote.sequencia;
+    }
+
+    // Seção de publicação: a alteração de estado e o registro dela acontecem entre
+    // travar e destravar. A espera por espaço no buffer e a checagem de falha ficam
+    // aqui, antes da alteração, para que o registro não falhe com ela já visível.
+    void travar() throws SecurityException {
+        lock.lock();
+        try {
+            aguardarEspaco();
+        } catch (SecurityException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    void destravar() {
+        lock.unlock();
+    }
+
+    public long registrarCliente(long cpf, String nome, byte[] salt, byte[] hash, double rendaMensal) throws SecurityException {
+        byte[] nomeUtf8 = nome.getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            ByteBuffer b = iniciar(REGISTRO_CLIENTE, 8 + 4 + nomeUtf8.length + 4 + salt.length + 4 + hash.length + 8);
+            b.putLong(cpf);
+            b.putInt(nomeUtf8.length).put(nomeUtf8);
+            b.putInt(salt.length).put(salt);
+            b.putInt(hash.length).put(hash);
+            b.putLong(Double.doubleToLongBits(rendaMensal));
+            return concluir();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long registrarConta(long cpf, int tipoConta, int numero, long saldoCentavos, LocalDate dataAtualizacao) throws SecurityException {
+        lock.lock();
+        try {
+            ByteBuffer b = iniciar(REGISTRO_CONTA, 8 + 1 + 4 + 8 + 8);
+            b.putLong(cpf).put((byte) tipoConta).putInt(numero).putLong(saldoCentavos)
+                    .putLong(dataAtualizacao.toEpochDay());
+            return concluir();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // valor é a variação da operação principal; encargo (taxa ou imposto) é descontado à parte
+    public long registrarMovimento(int numero, TipoMovimento tipo, long valor,
+                                   TipoMovimento tipoEncargo, long encargo) throws SecurityException {
+        lock.lock();
+        try {
+            ByteBuffer b = iniciar(REGISTRO_MOVIMENTO, 4 + 1 + 8 + 1 + 8);
+            b.putInt(numero).put((byte) tipo.getCodigo()).putLong(valor)
+                    .put((byte) (tipoEncargo != null ? tipoEncargo.getCodigo() : 0)).putLong(encargo);
+            return concluir();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // As duas pernas num único registro: a recuperação aplica as duas ou nenhuma
+    public long registrarTransferencia(int origem, int destino, long valor, long imposto, long taxa) throws SecurityException {
+        lock.lock();
+        try {
+            ByteBuffer b = iniciar(REGISTRO_TRANSFERENCIA, 4 + 4 + 8 + 8 + 8);
+            b.putInt(origem).putInt(destino).putLong(valor).putLong(imposto).putLong(taxa);
+            return concluir();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long registrarAtualizacao(int numero, LocalDate dataAtualizacao) throws SecurityException {
+        lock.lock();
+        try {
+            ByteBuffer b = iniciar(REGISTRO_ATUALIZACAO, 4 + 8);
+            b.putInt(numero).putLong(dataAtualizacao.toEpochDay());
+            return concluir();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long registrarSenha(long cpf, byte[] salt, byte[] hash) throws SecurityException {
+        lock.lock();
+        try {
+            ByteBuffer b = iniciar(REGISTRO_SENHA, 8 + 4 + salt.length + 4 + hash.length);
+            b.putLong(cpf);
+            b.putInt(salt.length).put(salt);
+            b.putInt(hash.length).put(hash);
+            return concluir();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long registrarRenda(long cpf, double rendaMensal) throws SecurityException {
+        lock.lock();
+        try {
+            ByteBuffer b = iniciar(REGISTRO_RENDA, 8 + 8);
+            b.putLong(cpf).putLong(Double.doubleToLongBits(rendaMensal));
+            return concluir();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reserva espaço no buffer pendente e escreve o cabeçalho; chamado sob lock
+    private ByteBuffer iniciar(byte tipo, int tamanhoDados) throws SecurityException {
+        int tamanhoCorpo = CORPO_MINIMO + tamanhoDados;
+        if (tamanhoCorpo > TAMANHO_MAXIMO_REGISTRO) {
+            throw new SecurityException("Registro de journal muito grande");
+        }
+
+        aguardarEspaco();
+
+        int necessario = CABECALHO + tamanhoCorpo;
+        if (pendente.remaining() < necessario) {
+            ByteBuffer maior = ByteBuffer.allocate(Math.max(pendente.capacity() * 2, pendente.position() + necessario));
+            pendente.flip();
+            maior.put(pendente);
+            pendente = maior;
+        }
+        if (pendente.position() == 0) {
+            inicioPendenteNanos = System.nanoTime();
+            haPendente.signal();
+        }
+
+        inicioRegistro = pendente.position();
+        pendente.putInt(tamanhoCorpo).putInt(0).put(tipo).putLong(++ultimaSequencia);
+        return pendente;
+    }
+
+    // Se a gravação não acompanha os produtores, eles esperam em vez de crescer o buffer
+    // sem limite; chamado sob lock. Dentro de uma seção travada a espera já aconteceu em
+    // travar, então o registro não solta o lock no meio da seção.
+    private void aguardarEspaco() throws SecurityException {
+        while (pendente.position() >= PENDENTE_MAXIMO && falha == null && !encerrado) {
+            loteGravado.awaitUninterruptibly();
+        }
+        if (falha != null) {
+            throw new SecurityException("Journal indisponível após falha de gravação", falha);
+        }
+        if (encerrado) {
+            throw new SecurityException("Journal encerrado");
+        }
+    }
+
+    // Calcula o CRC do corpo recém-escrito e devolve a sequência do registro; chamado sob lock
+    private long concluir() {
+        int fim = pendente.position();
+        crc.reset();
+        crc.update(pendente.array(), inicioRegistro + CABECALHO, fim - inicioRegistro - CABECALHO);
+        pendente.putInt(inicioRegistro + 4, (int) crc.getValue());
+        if (fim >= LOTE_MAXIMO) {
+            haPendente.signal();
+        }
+        return ultimaSequencia;
+    }
+
+    // Espera o fsync do registro, exceto sem durabilidade ou dentro de um lote
+    public void confirmar(long sequencia) throws SecurityException {
+        if (durabilidade == DurabilidadeJournal.NENHUMA) {
+            return;
+        }
+        Lote lote = EM_LOTE.get();
+        if (lote != null) {
+            lote.sequencia = Math.max(lote.sequencia, sequencia);
+            return;
+        }
+        aguardar(sequencia);
+    }
+
+    // Espera o fsync de todos os registros até a sequência (fim de um lote)
+    public void aguardarAte(long sequencia) throws SecurityException {
+        if (durabilidade == DurabilidadeJournal.NENHUMA) {
+            return;
+        }
+        aguardar(sequencia);
+    }
+
+    // Força a gravação e o fsync de tudo o que já foi registrado, qualquer que seja a durabilidade
+    public void sincronizar() throws SecurityException {
+        long alvo;
+        lock.lock();
+        try {
+            alvo = ultimaSequencia;
+            if (alvo > sincronizarAte) {
+                sincronizarAte = alvo;
+                haPendente.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        aguardar(alvo);
+    }
+
+    // Fecha o segmento atual no fim do próximo lote e devolve a última sequência dele.
+    // Todos os segmentos com primeira sequência até esse valor ficam imutáveis.
+    public long rotacionar() throws SecurityException {
+        lock.lock();
+        try {
+            long alvo = rotacoes + 1;
+            rotacaoSolicitada = true;
+            haPendente.signal();
+            while (rotacoes < alvo) {
+                if (falha != null) {
+                    throw new SecurityException("Falha ao gravar o journal", falha);
+                }
+                if (!committer.isAlive()) {
+                    throw new SecurityException("Journal encerrado antes da rotação");
+                }
+                loteGravado.await(100, TimeUnit.MILLISECONDS);
+            }
+            return sequenciaRotacao;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SecurityException("Espera pela rotação do journal interrompida", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void aguardar(long sequencia) throws SecurityException {
+        lock.lock();
+        try {
+            while (sequenciaSincronizada < sequencia) {
+                if (falha != null) {
+                    throw new SecurityException("Falha ao gravar o journal", falha);
+                }
+                if (!committer.isAlive()) {
+                    throw new SecurityException("Journal encerrado antes da gravação");
+                }
+                loteGravado.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SecurityException("Espera pelo journal interrompida", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void executar() {
+        while (true) {
+            long ateSequencia;
+            boolean forcar;
+            boolean rotacionar;
+            lock.lock();
+            try {
+                while (pendente.position() == 0 && sincronizarAte <= sequenciaSincronizada
+                        && !rotacaoSolicitada && !encerrado) {
+                    haPendente.awaitUninterruptibly();
+                }
+                if (pendente.position() == 0 && sincronizarAte <= sequenciaSincronizada && !rotacaoSolicitada) {
+                    return; // encerrado e sem nada a gravar
+                }
+
+                // Janela de agrupamento: espera outros registros até o limite de latência
+                // contado a partir do primeiro registro pendente, ou até o lote encher
+                long prazo = inicioPendenteNanos + latenciaNanos;
+                long restante;
+                while (!encerrado && !rotacaoSolicitada && pendente.position() < LOTE_MAXIMO
+                        && sincronizarAte <= sequenciaSincronizada
+                        && (restante = prazo - System.nanoTime()) > 0) {
+                    haPendente.awaitNanos(restante);
+                }
+
+                ByteBuffer lote = pendente;
+                pendente = gravando;
+                gravando = lote;
+                ateSequencia = ultimaSequencia;
+                rotacionar = rotacaoSolicitada;
+                rotacaoSolicitada = false;
+                forcar = durabilidade != DurabilidadeJournal.NENHUMA
+                        || sincronizarAte > sequenciaSincronizada || encerrado || rotacionar;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException erro = null;
+            try {
+                gravando.flip();
+                while (gravando.hasRemaining()) {
+                    canal.write(gravando);
+                }
+                if (forcar) {
+                    canal.force(false);
+                }
+                if (rotacionar) {
+                    canal.close();
+                    canal = abrirSegmento(caminhoSegmento(diretorio, ateSequencia + 1));
+                }
+            } catch (IOException e) {
+                erro = e;
+            }
+            gravando.clear();
+
+            lock.lock();
+            try {
+                if (erro != null) {
+                    falha = erro;
+                    loteGravado.signalAll();
+                    SecurityLogger.logError("ERRO_JOURNAL", "Falha ao gravar lote do journal", erro);
+                    return;
+                }
+                sequenciaGravada = ateSequencia;
+                if (forcar) {
+                    sequenciaSincronizada = ateSequencia;
+                }
+                if (rotacionar) {
+                    sequenciaRotacao = ateSequencia;
+                    rotacoes++;
+                }
+                lotesGravados++;
+                loteGravado.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Grava o que falta com fsync, encerra a thread de commit e fecha o arquivo
+    public void fechar() {
+        lock.lock();
+        try {
+            if (encerrado) {
+                return;
+            }
+            encerrado = true;
+            sincronizarAte = ultimaSequencia;
+            haPendente.signalAll();
+            loteGravado.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(5));
+            canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            SecurityLogger.logError("ERRO_JOURNAL", "Erro ao fechar o journal", e);
+        }
+    }
+
+    public DurabilidadeJournal getDurabilidade() {
+        return durabilidade;
+    }
+
+    public long getUltimaSequencia() {
+        lock.lock();
+        try {
+            return ultimaSequencia;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSequenciaSincronizada() {
+        lock.lock();
+        try {
+            return sequenciaSincronizada;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLotesGravados() {
+        lock.lock();
+        try {
+            return lotesGravados;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reproduz no banco os registros com sequência em (aPartirDe, ate] e retorna a última
+    // sequência aplicada. Um registro incompleto ou com CRC inválido no fim do último
+    // segmento (queda no meio de uma gravação) é descartado e o segmento truncado;
+    // em qualquer outro ponto o journal é considerado corrompido.
+    static long reproduzir(Path diretorio, long aPartirDe, long ate, XuBank banco) throws SecurityException {
+        try {
+            List<Path> existentes = segmentos(diretorio);
+            long ultima = aPartirDe;
+            for (int i = 0; i < existentes.size(); i++) {
+                Path segmento = existentes.get(i);
+                boolean ultimoSegmento = i == existentes.size() - 1;
+                if (primeiraSequencia(segmento) > ate) {
+                    break;
+                }
+                if (!ultimoSegmento && primeiraSequencia(existentes.get(i + 1)) - 1 <= aPartirDe) {
+                    continue; // segmento inteiro já coberto pelo snapshot
+                }
+                ultima = reproduzirSegmento(segmento, ultima, ate, ultimoSegmento && ate == Long.MAX_VALUE, banco);
+            }
+            return ultima;
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao ler o journal", e);
+        }
+    }
+
+    private static long reproduzirSegmento(Path segmento, long ultima, long ate, boolean podeTruncar,
+                                           XuBank banco) throws IOException, SecurityException {
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer leitura = ByteBuffer.allocate(1024 * 1024);
+            leitura.flip(); // começa vazio, em modo de leitura
+            CRC32 verificador = new CRC32();
+            long posicaoValida = 0;
+            boolean fimDoArquivo = false;
+
+            while (true) {
+                if (leitura.remaining() < CABECALHO + TAMANHO_MAXIMO_REGISTRO && !fimDoArquivo) {
+                    leitura.compact();
+                    fimDoArquivo = lerAteEncher(canal, leitura);
+                    leitura.flip();
+                }
+                if (leitura.remaining() < CABECALHO) {
+                    break;
+                }
+
+                int inicio = leitura.position();
+                int tamanho = leitura.getInt(inicio);
+                if (tamanho < CORPO_MINIMO || tamanho > TAMANHO_MAXIMO_REGISTRO
+                        || leitura.remaining() < CABECALHO + tamanho) {
+                    break;
+                }
+                verificador.reset();
+                verificador.update(leitura.array(), inicio + CABECALHO, tamanho);
+                if ((int) verificador.getValue() != leitura.getInt(inicio + 4)) {
+                    break;
+                }
+
+                leitura.position(inicio + CABECALHO);
+                byte tipo = leitura.get();
+                long sequencia = leitura.getLong();
+                if (sequencia > ate) {
+                    return ultima;
+                }
+                if (sequencia > ultima) {
+                    if (sequencia != ultima + 1) {
+                        throw new SecurityException("Lacuna no journal antes da sequência " + sequencia);
+                    }
+                    aplicar(tipo, leitura, banco);
+                    ultima = sequencia;
+                }
+                leitura.position(inicio + CABECALHO + tamanho);
+                posicaoValida += CABECALHO + tamanho;
+            }
+
+            if (posicaoValida < canal.size()) {
+                if (!podeTruncar) {
+                    throw new SecurityException("Registro corrompido no journal: " + segmento.getFileName());
+                }
+                SecurityLogger.logSecurityEvent("JOURNAL_TRUNCADO",
+                        "Registro final incompleto descartado - Bytes: " + (canal.size() - posicaoValida));
+                canal.truncate(posicaoValida);
+                canal.force(true);
+            }
+            return ultima;
+        }
+    }
+
+    private static boolean lerAteEncher(FileChannel canal, ByteBuffer destino) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void aplicar(byte tipo, ByteBuffer b, XuBank banco) throws SecurityException {
+        switch (tipo) {
+            case REGISTRO_CLIENTE: {
+                long cpf = b.getLong();
+                String nome = new String(lerBytes(b), StandardCharsets.UTF_8);
+                byte[] salt = lerBytes(b);
+                byte[] hash = lerBytes(b);
+                double renda = Double.longBitsToDouble(b.getLong());
+                banco.restaurarCliente(Cliente.restaurar(cpf, nome, salt, hash, renda));
+                break;
+            }
+            case REGISTRO_CONTA: {
+                long cpf = b.getLong();
+                int tipoConta = b.get();
+                int numero = b.getInt();
+                long saldo = b.getLong();
+                banco.restaurarConta(cpf, tipoConta, numero, saldo, LocalDate.ofEpochDay(b.getLong()));
+                break;
+            }
+            case REGISTRO_MOVIMENTO: {
+                int numero = b.getInt();
+                TipoMovimento movimento = TipoMovimento.fromCodigo(b.get());
+                long valor = b.getLong();
+                TipoMovimento tipoEncargo = TipoMovimento.fromCodigo(b.get());
+                long encargo = b.getLong();
+                if (movimento == null) {
+                    throw new SecurityException("Tipo de movimento inválido no journal - Conta: " + numero);
+                }
+                banco.restaurarMovimento(numero, movimento, valor, tipoEncargo, encargo);
+                break;
+            }
+            case REGISTRO_TRANSFERENCIA: {
+                int origem = b.getInt();
+                int destino = b.getInt();
+                long valor = b.getLong();
+                long imposto = b.getLong();
+                banco.restaurarTransferencia(origem, destino, valor, imposto, b.getLong());
+                break;
+            }
+            case REGISTRO_ATUALIZACAO: {
+                int numero = b.getInt();
+                banco.restaurarAtualizacao(numero, LocalDate.ofEpochDay(b.getLong()));
+                break;
+            }
+            case REGISTRO_SENHA: {
+                long cpf = b.getLong();
+                byte[] salt = lerBytes(b);
+                banco.restaurarSenha(cpf, salt, lerBytes(b));
+                break;
+            }
+            case REGISTRO_RENDA: {
+                long cpf = b.getLong();
+                banco.restaurarRenda(cpf, Double.longBitsToDouble(b.getLong()));
+                break;
+            }
+            default:
+                throw new SecurityException("Tipo de registro desconhecido no journal: " + tipo);
+        }
+    }
+
+    private static byte[] lerBytes(ByteBuffer b) throws SecurityException {
+        int tamanho = b.getInt();
+        if (tamanho < 0 || tamanho > b.remaining()) {
+            throw new SecurityException("Campo inválido no journal");
+        }
+        byte[] dados = new byte[tamanho];
+        b.get(dados);
+        return dados;
+    }
+}
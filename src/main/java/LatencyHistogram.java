@@ -0,0 +1,134 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latências em nanossegundos, log-linear: cada potência de dois é dividida
+// em 8 faixas, então o percentil informado fica no máximo 12,5% acima do valor real.
+// Um registro é um incremento de LongAdder na faixa, outro na soma e uma comparação com
+// o máximo; sob disputa os LongAdder espalham as escritas em células por thread.
+// Acima de 2^40 ns (~18 min) tudo cai na última faixa.
+public class LatencyHistogram implements LatencyHistogramMBean {
+    private static final int BITS_SUBFAIXA = 3;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int EXPOENTE_MAXIMO = 40;
+    private static final int FAIXAS = SUBFAIXAS + (EXPOENTE_MAXIMO - BITS_SUBFAIXA + 1) * SUBFAIXAS;
+
+    private final String nome;
+    private final LongAdder[] faixas = new LongAdder[FAIXAS];
+    private final LongAdder soma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram(String nome) {
+        this.nome = nome;
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new LongAdder();
+        }
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        faixas[faixa(nanos)].increment();
+        soma.add(nanos);
+        maximo.accumulate(nanos);
+    }
+
+    static int faixa(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        if (expoente > EXPOENTE_MAXIMO) {
+            return FAIXAS - 1;
+        }
+        int subfaixa = (int) (valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+        return SUBFAIXAS + (expoente - BITS_SUBFAIXA) * SUBFAIXAS + subfaixa;
+    }
+
+    // Maior valor que cai na faixa
+    static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) {
+            return faixa;
+        }
+        int expoente = (faixa - SUBFAIXAS) / SUBFAIXAS + BITS_SUBFAIXA;
+        long subfaixa = (faixa - SUBFAIXAS) % SUBFAIXAS;
+        long inicio = (1L << expoente) + (subfaixa << (expoente - BITS_SUBFAIXA));
+        return inicio + (1L << (expoente - BITS_SUBFAIXA)) - 1;
+    }
+
+    @Override
+    public long getContagem() {
+        long total = 0;
+        for (LongAdder faixa : faixas) {
+            total += faixa.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getMediaNanos() {
+        long contagem = getContagem();
+        return contagem > 0 ? soma.sum() / contagem : 0;
+    }
+
+    // Leitura sem parar os registros: os valores são consistentes só aproximadamente
+    public long percentil(double fracao) {
+        long[] contagens = new long[FAIXAS];
+        long total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens[i] = faixas[i].sum();
+            total += contagens[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long alvo = Math.max(1, (long) Math.ceil(total * fracao));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return percentil(0.50);
+    }
+
+    @Override
+    public long getP90Nanos() {
+        return percentil(0.90);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return percentil(0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return percentil(0.999);
+    }
+
+    @Override
+    public long getMaximoNanos() {
+        return maximo.get();
+    }
+
+    @Override
+    public void zerar() {
+        for (LongAdder faixa : faixas) {
+            faixa.reset();
+        }
+        soma.reset();
+        maximo.reset();
+    }
+}
@@ -0,0 +1,17 @@
+public interface LatencyHistogramMBean {
+    long getContagem();
+
+    long getMediaNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaximoNanos();
+
+    void zerar();
+}
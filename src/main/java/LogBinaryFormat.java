@@ -0,0 +1,273 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Formato binário compacto do log de segurança. Um segmento começa com o cabeçalho "XBLG" + versão
+// e segue com registros:
+//   1 EVENTO    id (varint), código (texto)      na primeira ocorrência do código no segmento
+//   2 REGISTRO  flags, instante (diferença em ms para o registro anterior), id do evento,
+//               detalhes (texto), [conta], [valor em centavos], [causa (texto)]
+// Números são varints (os com sinal em zigzag) e textos são tamanho + UTF-8. O dicionário de
+// eventos e a base dos instantes recomeçam a cada cabeçalho, então cada segmento, e cada trecho
+// anexado depois de um reinício, se decodifica sozinho.
+// Não é thread-safe: cada writer tem a sua instância.
+public class LogBinaryFormat {
+    static final byte[] CABECALHO = {'X', 'B', 'L', 'G', 1};
+
+    private static final int EVENTO = 1;
+    private static final int REGISTRO = 2;
+    private static final int ERRO = 1;
+    private static final int COM_CONTA = 2;
+    private static final int COM_VALOR = 4;
+    private static final int COM_CAUSA = 8;
+
+    private final Map<String, Integer> eventos = new HashMap<>();
+    private long ultimoTimestamp;
+    private byte[] dados = new byte[64 * 1024];
+    private int tamanho;
+
+    // Começa um segmento: cabeçalho e dicionário de eventos vazio
+    public void iniciarSegmento() {
+        eventos.clear();
+        ultimoTimestamp = 0;
+        garantir(CABECALHO.length);
+        System.arraycopy(CABECALHO, 0, dados, tamanho, CABECALHO.length);
+        tamanho += CABECALHO.length;
+    }
+
+    public void codificar(LogRecord registro) {
+        Integer id = eventos.get(registro.getEvento());
+        if (id == null) {
+            id = eventos.size();
+            eventos.put(registro.getEvento(), id);
+            escreverByte(EVENTO);
+            escreverVarint(id);
+            escreverTexto(registro.getEvento());
+        }
+
+        int flags = (registro.isErro() ? ERRO : 0)
+                | (registro.getConta() != LogRecord.SEM_CONTA ? COM_CONTA : 0)
+                | (registro.getValor() != LogRecord.SEM_VALOR ? COM_VALOR : 0)
+                | (registro.getCausa() != null ? COM_CAUSA : 0);
+        escreverByte(REGISTRO);
+        escreverByte(flags);
+        escreverVarint(zigzag(registro.getTimestamp() - ultimoTimestamp));
+        ultimoTimestamp = registro.getTimestamp();
+        escreverVarint(id);
+        escreverTexto(registro.getDetalhes());
+        if ((flags & COM_CONTA) != 0) {
+            escreverVarint(zigzag(registro.getConta()));
+        }
+        if ((flags & COM_VALOR) != 0) {
+            escreverVarint(zigzag(registro.getValor()));
+        }
+        if ((flags & COM_CAUSA) != 0) {
+            escreverTexto(registro.getCausa());
+        }
+    }
+
+    public byte[] getDados() {
+        return dados;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    // Lê os segmentos do fluxo e escreve os registros no formato texto; devolve quantos decodificou.
+    // Um registro cortado no fim (processo interrompido no meio da escrita) gera EOFException.
+    public static long decodificar(InputStream entrada, LogTextFormat formato, Appendable saida) throws IOException {
+        Leitor leitor = new Leitor(entrada);
+        List<String> eventos = new ArrayList<>();
+        StringBuilder texto = new StringBuilder(256);
+        long ultimoTimestamp = 0;
+        long registros = 0;
+
+        int tipo;
+        while ((tipo = entrada.read()) >= 0) {
+            if (tipo == CABECALHO[0]) {
+                for (int i = 1; i < CABECALHO.length - 1; i++) {
+                    if (leitor.lerByte() != CABECALHO[i]) {
+                        throw new IOException("Cabeçalho de log binário inválido");
+                    }
+                }
+                int versao = leitor.lerByte();
+                if (versao != CABECALHO[CABECALHO.length - 1]) {
+                    throw new IOException("Versão de log binário não suportada: " + versao);
+                }
+                eventos.clear();
+                ultimoTimestamp = 0;
+            } else if (tipo == EVENTO) {
+                if (leitor.lerVarint() != eventos.size()) {
+                    throw new IOException("Dicionário de eventos fora de ordem");
+                }
+                eventos.add(leitor.lerTexto());
+            } else if (tipo == REGISTRO) {
+                int flags = leitor.lerByte();
+                ultimoTimestamp += desfazerZigzag(leitor.lerVarint());
+                long id = leitor.lerVarint();
+                if (id >= eventos.size()) {
+                    throw new IOException("Evento não definido no segmento: " + id);
+                }
+                String detalhes = leitor.lerTexto();
+                int conta = (flags & COM_CONTA) != 0 ? (int) desfazerZigzag(leitor.lerVarint()) : LogRecord.SEM_CONTA;
+                long valor = (flags & COM_VALOR) != 0 ? desfazerZigzag(leitor.lerVarint()) : LogRecord.SEM_VALOR;
+                String causa = (flags & COM_CAUSA) != 0 ? leitor.lerTexto() : null;
+
+                texto.setLength(0);
+                formato.anexar(texto, new LogRecord(ultimoTimestamp, (flags & ERRO) != 0, eventos.get((int) id),
+                        detalhes, conta, valor, causa));
+                saida.append(texto);
+                registros++;
+            } else {
+                throw new IOException("Tipo de registro desconhecido: " + tipo);
+            }
+        }
+        return registros;
+    }
+
+    private static final class Leitor {
+        private final InputStream entrada;
+        private byte[] buffer = new byte[256];
+
+        Leitor(InputStream entrada) {
+            this.entrada = entrada;
+        }
+
+        int lerByte() throws IOException {
+            int b = entrada.read();
+            if (b < 0) {
+                throw new EOFException("Registro incompleto no fim do log");
+            }
+            return b;
+        }
+
+        long lerVarint() throws IOException {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                int b = lerByte();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("Varint inválido no log binário");
+        }
+
+        String lerTexto() throws IOException {
+            long tamanho = lerVarint();
+            if (tamanho > Integer.MAX_VALUE - 8) {
+                throw new IOException("Texto grande demais no log binário: " + tamanho);
+            }
+            if (buffer.length < tamanho) {
+                buffer = new byte[(int) tamanho];
+            }
+            int lidos = 0;
+            while (lidos < tamanho) {
+                int n = entrada.read(buffer, lidos, (int) tamanho - lidos);
+                if (n < 0) {
+                    throw new EOFException("Registro incompleto no fim do log");
+                }
+                lidos += n;
+            }
+            return new String(buffer, 0, lidos, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long desfazerZigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private void escreverByte(int b) {
+        garantir(1);
+        dados[tamanho++] = (byte) b;
+    }
+
+    private void escreverVarint(long valor) {
+        garantir(10);
+        while ((valor & ~0x7FL) != 0) {
+            dados[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        dados[tamanho++] = (byte) valor;
+    }
+
+    // UTF-8 escrito direto no buffer, sem criar o array de String.getBytes; surrogates
+    // sem par viram '?', como no getBytes
+    private void escreverTexto(String texto) {
+        if (texto == null) {
+            texto = "null";
+        }
+        int bytes = tamanhoUtf8(texto);
+        escreverVarint(bytes);
+        garantir(bytes);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                dados[tamanho++] = (byte) c;
+            } else if (c < 0x800) {
+                dados[tamanho++] = (byte) (0xC0 | (c >> 6));
+                dados[tamanho++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                    dados[tamanho++] = (byte) (0xF0 | (codigo >> 18));
+                    dados[tamanho++] = (byte) (0x80 | ((codigo >> 12) & 0x3F));
+                    dados[tamanho++] = (byte) (0x80 | ((codigo >> 6) & 0x3F));
+                    dados[tamanho++] = (byte) (0x80 | (codigo & 0x3F));
+                } else {
+                    dados[tamanho++] = '?';
+                }
+            } else {
+                dados[tamanho++] = (byte) (0xE0 | (c >> 12));
+                dados[tamanho++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dados[tamanho++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int tamanhoUtf8(String texto) {
+        int bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes += 1;
+                }
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private void garantir(int bytes) {
+        if (tamanho + bytes > dados.length) {
+            byte[] maior = new byte[Math.max(dados.length * 2, tamanho + bytes)];
+            System.arraycopy(dados, 0, maior, 0, tamanho);
+            dados = maior;
+        }
+    }
+}
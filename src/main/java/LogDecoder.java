@@ -0,0 +1,103 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+// Converte segmentos do log de segurança para o formato texto de security.log, na ordem dos argumentos:
+//   java -cp target/classes LogDecoder [--saida <arquivo>] security-*.bin.gz security.bin
+// Segmentos comprimidos são lidos direto; segmentos de texto (.log, .log.gz) saem como estão,
+// para que um período com os dois formatos possa ser lido de uma vez.
+public class LogDecoder {
+
+    public static void main(String[] args) {
+        System.exit(executar(args));
+    }
+
+    static int executar(String[] args) {
+        int primeiro = 0;
+        Path destino = null;
+        if (args.length >= 2 && "--saida".equals(args[0])) {
+            destino = Paths.get(args[1]);
+            primeiro = 2;
+        }
+        if (args.length <= primeiro) {
+            System.err.println("Uso: java LogDecoder [--saida <arquivo>] <segmento>...");
+            return 2;
+        }
+
+        int status = 0;
+        try (Writer saida = destino != null
+                ? Files.newBufferedWriter(destino, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)) {
+            for (int i = primeiro; i < args.length; i++) {
+                try {
+                    decodificar(Paths.get(args[i]), saida);
+                } catch (EOFException e) {
+                    System.err.println(args[i] + ": " + e.getMessage());
+                    status = 1;
+                } catch (IOException e) {
+                    System.err.println("Erro ao decodificar " + args[i] + ": " + e.getMessage());
+                    status = 1;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar a saída: " + e.getMessage());
+            return 1;
+        }
+        return status;
+    }
+
+    // Devolve quantos registros binários foram decodificados (zero para segmentos de texto)
+    public static long decodificar(Path arquivo, Appendable saida) throws IOException {
+        try (InputStream entrada = abrir(arquivo)) {
+            if (binario(entrada)) {
+                return LogBinaryFormat.decodificar(entrada, new LogTextFormat(), saida);
+            }
+            copiarTexto(entrada, saida);
+            return 0;
+        }
+    }
+
+    private static InputStream abrir(Path arquivo) throws IOException {
+        InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16);
+        entrada.mark(2);
+        boolean gzip = entrada.read() == 0x1F && entrada.read() == 0x8B;
+        entrada.reset();
+        return gzip ? new BufferedInputStream(new GZIPInputStream(entrada, 1 << 16), 1 << 16) : entrada;
+    }
+
+    private static boolean binario(InputStream entrada) throws IOException {
+        byte[] cabecalho = LogBinaryFormat.CABECALHO;
+        entrada.mark(cabecalho.length);
+        try {
+            for (int i = 0; i < cabecalho.length - 1; i++) {
+                if (entrada.read() != cabecalho[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            entrada.reset();
+        }
+    }
+
+    private static void copiarTexto(InputStream entrada, Appendable saida) throws IOException {
+        Reader leitor = new InputStreamReader(entrada, StandardCharsets.UTF_8);
+        char[] bloco = new char[8192];
+        int lidos;
+        while ((lidos = leitor.read(bloco)) > 0) {
+            saida.append(CharBuffer.wrap(bloco, 0, lidos));
+        }
+    }
+}
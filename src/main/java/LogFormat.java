@@ -0,0 +1,15 @@
+public enum LogFormat {
+    TEXTO,   // Uma linha legível por evento (security.log)
+    BINARIO; // Registros compactos (security.bin), lidos com o LogDecoder
+
+    public static LogFormat fromString(String valor) {
+        if (valor == null) {
+            return TEXTO;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return TEXTO;
+        }
+    }
+}
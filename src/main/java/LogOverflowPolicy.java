@@ -0,0 +1,16 @@
+public enum LogOverflowPolicy {
+    BLOQUEAR,           // Produtor espera até haver espaço no buffer
+    DESCARTAR,          // Evento é descartado e contabilizado
+    EXECUTAR_NO_CHAMADOR; // Produtor grava o evento diretamente no arquivo
+
+    public static LogOverflowPolicy fromString(String valor) {
+        if (valor == null) {
+            return BLOQUEAR;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return BLOQUEAR;
+        }
+    }
+}
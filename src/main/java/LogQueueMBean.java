@@ -0,0 +1,9 @@
+public interface LogQueueMBean {
+    int getProfundidadeFila();
+
+    int getCapacidadeFila();
+
+    long getDescartados();
+
+    long getGravados();
+}
@@ -0,0 +1,64 @@
+public final class LogRecord {
+    public static final int SEM_CONTA = Integer.MIN_VALUE;
+    public static final long SEM_VALOR = Long.MIN_VALUE;
+
+    private final long timestamp;
+    private final boolean erro;
+    private final String evento;
+    private final String detalhes;
+    private final String causa;
+    // Campos numéricos crus (número da conta e valor em centavos), anexados aos detalhes só na escrita
+    private final int conta;
+    private final long valor;
+
+    LogRecord(long timestamp, boolean erro, String evento, String detalhes, int conta, long valor, String causa) {
+        this.timestamp = timestamp;
+        this.erro = erro;
+        this.evento = evento;
+        this.detalhes = detalhes;
+        this.conta = conta;
+        this.valor = valor;
+        this.causa = causa;
+    }
+
+    public static LogRecord seguranca(String evento, String detalhes) {
+        return new LogRecord(System.currentTimeMillis(), false, evento, detalhes, SEM_CONTA, SEM_VALOR, null);
+    }
+
+    public static LogRecord seguranca(String evento, String detalhes, int conta, long valor) {
+        return new LogRecord(System.currentTimeMillis(), false, evento, detalhes, conta, valor, null);
+    }
+
+    public static LogRecord erro(String evento, String detalhes, Throwable throwable) {
+        return new LogRecord(System.currentTimeMillis(), true, evento, detalhes, SEM_CONTA, SEM_VALOR,
+                throwable != null ? String.valueOf(throwable.getMessage()) : null);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean isErro() {
+        return erro;
+    }
+
+    public String getEvento() {
+        return evento;
+    }
+
+    public String getDetalhes() {
+        return detalhes;
+    }
+
+    public String getCausa() {
+        return causa;
+    }
+
+    public int getConta() {
+        return conta;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Buffer circular limitado e sem locks: vários produtores, um único consumidor.
+public class LogRingBuffer {
+    private final int mascara;
+    private final AtomicReferenceArray<LogRecord> slots;
+    private final AtomicLongArray sequencias;
+    private final AtomicLong cauda = new AtomicLong();
+    private volatile long cabeca;
+
+    public LogRingBuffer(int capacidadeSolicitada) {
+        int capacidade = Integer.highestOneBit(Math.max(2, capacidadeSolicitada - 1)) << 1;
+        this.mascara = capacidade - 1;
+        this.slots = new AtomicReferenceArray<>(capacidade);
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    public boolean offer(LogRecord registro) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    slots.lazySet(indice, registro);
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                return false; // Buffer cheio
+            }
+        }
+    }
+
+    // Um consumidor por vez: a thread do writer ou, depois do encerramento, quem segurar o lock do canal
+    public LogRecord poll() {
+        long posicao = cabeca;
+        int indice = (int) (posicao & mascara);
+        if (sequencias.get(indice) != posicao + 1) {
+            return null;
+        }
+
+        LogRecord registro = slots.get(indice);
+        slots.lazySet(indice, null);
+        sequencias.set(indice, posicao + mascara + 1);
+        cabeca = posicao + 1;
+        return registro;
+    }
+
+    public int size() {
+        long tamanho = cauda.get() - cabeca;
+        return (int) Math.max(0, Math.min(tamanho, mascara + 1));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mascara + 1;
+    }
+}
@@ -0,0 +1,45 @@
+import java.util.concurrent.TimeUnit;
+
+// Quando o arquivo corrente do log de segurança vira um segmento: ao passar de bytesMaximos
+// ou de intervaloMillis desde que foi aberto (zero desliga cada critério). Os segmentos são
+// comprimidos com gzip e, com retencao > 0, só os mais recentes são mantidos.
+public final class LogRotation {
+    public static final LogRotation DESLIGADA = new LogRotation(0, 0, 0);
+
+    private static final long BYTES_PADRAO = 64L * 1024 * 1024;
+    private static final int RETENCAO_PADRAO = 10;
+
+    private final long bytesMaximos;
+    private final long intervaloMillis;
+    private final int retencao;
+
+    public LogRotation(long bytesMaximos, long intervaloMillis, int retencao) {
+        this.bytesMaximos = Math.max(0, bytesMaximos);
+        this.intervaloMillis = Math.max(0, intervaloMillis);
+        this.retencao = Math.max(0, retencao);
+    }
+
+    // xubank.log.rotacao.bytes (padrão 64 MiB), xubank.log.rotacao.horas (padrão desligado) e
+    // xubank.log.rotacao.retencao (padrão 10 segmentos), para o log não crescer sem limite
+    public static LogRotation fromProperties() {
+        return new LogRotation(Long.getLong("xubank.log.rotacao.bytes", BYTES_PADRAO),
+                TimeUnit.HOURS.toMillis(Long.getLong("xubank.log.rotacao.horas", 0)),
+                Integer.getInteger("xubank.log.rotacao.retencao", RETENCAO_PADRAO));
+    }
+
+    public boolean deveRotacionar(long bytesSegmento, long aberturaMillis, long agoraMillis) {
+        if (bytesSegmento == 0) {
+            return false;
+        }
+        return (bytesMaximos > 0 && bytesSegmento >= bytesMaximos)
+                || (intervaloMillis > 0 && agoraMillis - aberturaMillis >= intervaloMillis);
+    }
+
+    public boolean isAtiva() {
+        return bytesMaximos > 0 || intervaloMillis > 0;
+    }
+
+    public int getRetencao() {
+        return retencao;
+    }
+}
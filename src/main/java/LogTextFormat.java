@@ -0,0 +1,42 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Formato texto do log de segurança, uma linha por evento (mais a causa, nos erros):
+//   [2025-06-11 15:35:54] SECURITY: SAQUE_REALIZADO - Saque realizado - Conta: 123 Valor: 10.00
+// Usado pelo writer e pelo LogDecoder, para que o log binário decodificado saia igual.
+// Não é thread-safe: cada writer ou decodificador tem a sua instância.
+public class LogTextFormat {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private long segundoCache = Long.MIN_VALUE;
+    private String timestampCache = "";
+
+    public StringBuilder anexar(StringBuilder texto, LogRecord registro) {
+        texto.append('[').append(timestamp(registro.getTimestamp())).append("] ")
+                .append(registro.isErro() ? "ERROR: " : "SECURITY: ")
+                .append(registro.getEvento()).append(" - ").append(registro.getDetalhes());
+        if (registro.getConta() != LogRecord.SEM_CONTA) {
+            texto.append(" - Conta: ").append(registro.getConta());
+        }
+        if (registro.getValor() != LogRecord.SEM_VALOR) {
+            Dinheiro.anexar(texto.append(" Valor: "), registro.getValor());
+        }
+        texto.append(System.lineSeparator());
+        if (registro.getCausa() != null) {
+            texto.append("Stack trace: ").append(registro.getCausa()).append(System.lineSeparator());
+        }
+        return texto;
+    }
+
+    private String timestamp(long millis) {
+        long segundo = Math.floorDiv(millis, 1000);
+        if (segundo != segundoCache) {
+            segundoCache = segundo;
+            timestampCache = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault())
+                    .format(FORMATTER);
+        }
+        return timestampCache;
+    }
+}
@@ -1,13 +1,35 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Scanner;
 import java.util.InputMismatchException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Main {
-    private static XuBank banco = new XuBank();
+    private static XuBank banco = criarBanco();
     private static Scanner sc = new Scanner(System.in);
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit("--http".equals(args[0]) ? servirHttp(args) : executarComandos(args));
+        }
+
         System.out.println("Bem-vindo ao XuBank!");
         SecurityLogger.logSecurityEvent("APLICACAO_INICIADA", "Aplicação principal iniciada");
+        // Com -Dxubank.metricas.intervalo=<segundos> as métricas são acrescentadas a xubank.metricas.arquivo
+        Metrics.agendarRelatorio(Long.getLong("xubank.metricas.intervalo", 0),
+                Paths.get(System.getProperty("xubank.metricas.arquivo", "metrics.log")));
 
         boolean sair = false;
         while (!sair) {
@@ -23,10 +45,156 @@ public class Main {
         }
 
         sc.close();
+        Metrics.encerrarRelatorio();
+        banco.encerrar();
         SecurityLogger.logSecurityEvent("APLICACAO_ENCERRADA", "Aplicação encerrada");
+        SecurityLogger.shutdown();
         System.out.println("Sistema encerrado com segurança.");
     }
 
+    // API HTTP: java Main --http <porta>, no endereço xubank.http.endereco (padrão 127.0.0.1),
+    // com o executor xubank.http.executor (fixo, cache ou virtual) de xubank.http.threads threads.
+    // Atende até o processo ser encerrado (Ctrl+C ou SIGTERM).
+    private static int servirHttp(String[] args) {
+        int porta;
+        try {
+            porta = Integer.parseInt(args.length > 1 ? args[1] : "");
+        } catch (NumberFormatException e) {
+            System.err.println("Uso: java Main --http <porta>");
+            return 2;
+        }
+
+        HttpApi api;
+        try {
+            api = new HttpApi(banco, new InetSocketAddress(System.getProperty("xubank.http.endereco", "127.0.0.1"), porta),
+                    HttpApi.criarExecutor(System.getProperty("xubank.http.executor", "fixo"),
+                            Integer.getInteger("xubank.http.threads", 2 * Runtime.getRuntime().availableProcessors())),
+                    System.getProperty("xubank.http.operador"));
+        } catch (IOException e) {
+            SecurityLogger.logError("ERRO_HTTP", "Erro ao iniciar a API HTTP", e);
+            System.err.println("Não foi possível iniciar a API HTTP: " + e.getMessage());
+            return 2;
+        }
+        Metrics.agendarRelatorio(Long.getLong("xubank.metricas.intervalo", 0),
+                Paths.get(System.getProperty("xubank.metricas.arquivo", "metrics.log")));
+
+        CountDownLatch encerrado = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.parar(1);
+            Metrics.encerrarRelatorio();
+            banco.encerrar();
+            SecurityLogger.logSecurityEvent("APLICACAO_ENCERRADA", "API HTTP encerrada");
+            SecurityLogger.shutdown();
+            encerrado.countDown();
+        }, "xubank-http-encerramento"));
+
+        api.iniciar();
+        System.out.println("API HTTP do XuBank na porta " + api.getPorta());
+        try {
+            encerrado.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    // Modo não interativo: java Main --comandos <arquivo|-> [--saida <arquivo>] [--threads <n>]
+    // Os resultados vão para a saída (padrão: stdout) e o resumo com a vazão para stderr.
+    private static int executarComandos(String[] args) {
+        String arquivo = null;
+        String arquivoSaida = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String valor = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--comandos": arquivo = valor; i++; break;
+                    case "--saida": arquivoSaida = valor; i++; break;
+                    case "--threads": threads = Integer.parseInt(valor); i++; break;
+                    default: throw new IllegalArgumentException(args[i]);
+                }
+            }
+            if (arquivo == null || threads < 1) {
+                throw new IllegalArgumentException("--comandos");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Uso: java Main --comandos <arquivo|-> [--saida <arquivo>] [--threads <n>]");
+            return 2;
+        }
+
+        SecurityLogger.logSecurityEvent("APLICACAO_INICIADA", "Modo de comandos iniciado");
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        int status = 0;
+        try (BufferedReader origem = "-".equals(arquivo)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8);
+             Writer saida = arquivoSaida == null
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                     : Files.newBufferedWriter(Paths.get(arquivoSaida), StandardCharsets.UTF_8)) {
+            ResultadoComandos resultado = banco.executarComandos(origem, saida, executor, threads);
+            saida.flush();
+            System.err.println(resultado);
+            status = resultado.getFalhas() == 0 ? 0 : 1;
+        } catch (Exception e) {
+            SecurityLogger.logError("ERRO_MODO_COMANDOS", "Erro no modo de comandos", e);
+            System.err.println("Erro ao executar comandos: " + e.getMessage());
+            status = 2;
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            banco.encerrar();
+            SecurityLogger.logSecurityEvent("APLICACAO_ENCERRADA", "Modo de comandos encerrado");
+            SecurityLogger.shutdown();
+        }
+        return status;
+    }
+
+    // Com -Dxubank.journal=<diretório> o estado é recuperado do snapshot e do journal e as
+    // alterações passam a ser gravadas nele; sem a propriedade o banco vive apenas em memória
+    private static XuBank criarBanco() {
+        carregarTaxasMercado();
+        String diretorio = System.getProperty("xubank.journal");
+        if (diretorio == null || diretorio.trim().isEmpty()) {
+            return new XuBank();
+        }
+
+        try {
+            XuBank recuperado = XuBank.recuperar(Paths.get(diretorio.trim()),
+                    DurabilidadeJournal.fromString(System.getProperty("xubank.journal.durabilidade")),
+                    Long.getLong("xubank.journal.latencia", 2000));
+            long intervalo = Long.getLong("xubank.snapshot.intervalo", 0);
+            if (intervalo > 0) {
+                recuperado.agendarSnapshots(intervalo);
+            }
+            return recuperado;
+        } catch (SecurityException e) {
+            SecurityLogger.logError("ERRO_RECUPERACAO", "Erro ao recuperar o journal", e);
+            System.out.println("Não foi possível recuperar o journal: " + e.getMessage());
+            SecurityLogger.shutdown();
+            throw new IllegalStateException("Journal inválido", e);
+        }
+    }
+
+    // Com -Dxubank.taxas.arquivo=<arquivo> as taxas de mercado publicadas vêm do arquivo; os meses
+    // que faltarem são sorteados da fonte de xubank.rendimento.fonte
+    private static void carregarTaxasMercado() {
+        String arquivo = System.getProperty("xubank.taxas.arquivo");
+        if (arquivo == null || arquivo.trim().isEmpty()) {
+            return;
+        }
+
+        try {
+            Conta.configurarTaxasMercado(TaxasMercado.carregar(Paths.get(arquivo.trim()),
+                    Conta.getTaxasMercado().getFonte()));
+        } catch (IOException | SecurityException e) {
+            SecurityLogger.logError("ERRO_TAXAS_MERCADO", "Erro ao carregar as taxas de mercado", e);
+            System.out.println("Não foi possível carregar as taxas de mercado: " + e.getMessage());
+            SecurityLogger.shutdown();
+            throw new IllegalStateException("Taxas de mercado inválidas", e);
+        }
+    }
+
     private static void exibirMenu() {
         System.out.println("\n=== MENU XUBANK ===");
         System.out.println("1 - Cadastrar cliente");
@@ -39,6 +207,10 @@ public class Main {
         System.out.println("8 - Alterar senha");
         System.out.println("9 - Gerar Extrato do Último Mês");
         System.out.println("10 - Relatório de Saldo Médio por Conta");
+        System.out.println("11 - Ranking de clientes por saldo");
+        System.out.println("12 - Exportar contas (CSV ou JSON por linha)");
+        System.out.println("13 - Importar clientes de arquivo CSV");
+        System.out.println("14 - Métricas de operação");
         System.out.println("0 - Sair");
         System.out.print("Escolha uma opção: ");
     }
@@ -69,6 +241,10 @@ public class Main {
                 case 8: alterarSenha(); break;
                 case 9: gerarExtratoUltimoMes(); break;
                 case 10: System.out.println(banco.gerarRelatorioSaldoMedio()); break;
+                case 11: System.out.println(banco.RankingSaldos(5)); break;
+                case 12: exportarContas(); break;
+                case 13: importarClientes(); break;
+                case 14: System.out.println(Metrics.relatorio()); break;
                 default: System.out.println("Opção inválida.");
             }
         } catch (Exception e) {
@@ -331,4 +507,55 @@ public class Main {
             System.out.println("Erro ao gerar extrato do último mês.");
         }
     }
-}
\ No newline at end of file
+
+    // Grava direto no arquivo, linha a linha, sem montar a exportação em memória
+    private static void exportarContas() {
+        try {
+            System.out.print("Arquivo de destino: ");
+            String arquivo = sc.nextLine().trim();
+            if (arquivo.isEmpty()) {
+                System.out.println("Arquivo inválido.");
+                return;
+            }
+
+            System.out.print("Formato (1 - CSV, 2 - JSON por linha): ");
+            FormatoExportacao formato = "2".equals(sc.nextLine().trim())
+                    ? FormatoExportacao.JSON_LINHAS : FormatoExportacao.CSV;
+
+            try (FileChannel canal = FileChannel.open(Paths.get(arquivo), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long linhas = banco.exportarContas(canal, formato);
+                System.out.println(linhas + " conta(s) exportada(s) para " + arquivo);
+            }
+
+        } catch (Exception e) {
+            SecurityLogger.logError("ERRO_EXPORTACAO_INTERFACE",
+                    "Erro na interface de exportação", e);
+            System.out.println("Erro ao exportar contas.");
+        }
+    }
+
+    // Linhas recusadas vão para o arquivo de rejeições, com o número da linha e o motivo
+    private static void importarClientes() {
+        try {
+            System.out.print("Arquivo CSV (cpf,nome,senha,renda_mensal,contas): ");
+            String arquivo = sc.nextLine().trim();
+            System.out.print("Arquivo para o relatório de rejeições: ");
+            String arquivoRejeicoes = sc.nextLine().trim();
+            if (arquivo.isEmpty() || arquivoRejeicoes.isEmpty()) {
+                System.out.println("Arquivo inválido.");
+                return;
+            }
+
+            try (BufferedReader origem = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8);
+                 Writer rejeicoes = Files.newBufferedWriter(Paths.get(arquivoRejeicoes), StandardCharsets.UTF_8)) {
+                System.out.println(banco.importarClientes(origem, rejeicoes));
+            }
+
+        } catch (Exception e) {
+            SecurityLogger.logError("ERRO_IMPORTACAO_INTERFACE",
+                    "Erro na interface de importação", e);
+            System.out.println("Erro ao importar clientes.");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+// Métricas operacionais: um histograma de latência por operação (a contagem do histograma
+// é o contador da operação), exposto como MBean da plataforma no domínio "xubank" e,
+// opcionalmente, despejado em texto a intervalos fixos. Com -Dxubank.metricas=false os
+// pontos de medição viram um teste de constante que o JIT elimina.
+public final class Metrics {
+    static final boolean ATIVO = !"false".equalsIgnoreCase(System.getProperty("xubank.metricas"));
+    private static final String[] TIPOS_CONTA = {null, "corrente", "poupanca", "rendafixa", "investimento"};
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMAS = new ConcurrentSkipListMap<>();
+
+    // Indexados por tipoConta (1 a 4)
+    public static final LatencyHistogram[] DEPOSITAR = porTipoConta("conta.depositar");
+    public static final LatencyHistogram[] SACAR = porTipoConta("conta.sacar");
+    public static final LatencyHistogram[] RENDIMENTO = porTipoConta("conta.rendimento");
+
+    public static final LatencyHistogram AUTENTICACAO_SUCESSO = histograma("banco.autenticar.sucesso");
+    public static final LatencyHistogram AUTENTICACAO_FALHA = histograma("banco.autenticar.falha");
+    public static final LatencyHistogram CADASTRO = histograma("banco.cadastrar");
+
+    public static final LatencyHistogram RELATORIO_CUSTODIA = histograma("relatorio.custodia");
+    public static final LatencyHistogram RELATORIO_EXTREMOS = histograma("relatorio.extremos");
+    public static final LatencyHistogram RELATORIO_RANKING = histograma("relatorio.ranking");
+    public static final LatencyHistogram RELATORIO_SALDO_MEDIO = histograma("relatorio.saldomedio");
+    public static final LatencyHistogram RELATORIO_EXTRATO = histograma("relatorio.extrato");
+    public static final LatencyHistogram EXPORTACAO_CONTAS = histograma("relatorio.exportacao.contas");
+    public static final LatencyHistogram EXPORTACAO_CLIENTES = histograma("relatorio.exportacao.clientes");
+
+    // Requisições da API HTTP, do recebimento ao fim da resposta
+    public static final LatencyHistogram HTTP_CADASTRO = histograma("http.cadastrar");
+    public static final LatencyHistogram HTTP_ABRIR_CONTA = histograma("http.abrirconta");
+    public static final LatencyHistogram HTTP_CONTAS = histograma("http.contas");
+    public static final LatencyHistogram HTTP_DEPOSITO = histograma("http.depositar");
+    public static final LatencyHistogram HTTP_SAQUE = histograma("http.sacar");
+    public static final LatencyHistogram HTTP_EXTRATO = histograma("http.extrato");
+    public static final LatencyHistogram HTTP_RELATORIO = histograma("http.relatorio");
+    public static final LatencyHistogram HTTP_OUTROS = histograma("http.outros");
+
+    // Espera para adquirir os locks (zero quando o lock estava livre)
+    public static final LatencyHistogram ESPERA_LEITURA_BANCO = histograma("lock.banco.leitura");
+    public static final LatencyHistogram ESPERA_ESCRITA_BANCO = histograma("lock.banco.escrita");
+    public static final LatencyHistogram ESPERA_CLIENTE = histograma("lock.cliente");
+    public static final LatencyHistogram ESPERA_INDICE_SALDOS = histograma("lock.indice.saldos");
+
+    private static volatile ScheduledExecutorService despejo;
+
+    static {
+        if (ATIVO) {
+            registrarMBeans();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    private static LatencyHistogram histograma(String nome) {
+        LatencyHistogram histograma = new LatencyHistogram(nome);
+        HISTOGRAMAS.put(nome, histograma);
+        return histograma;
+    }
+
+    private static LatencyHistogram[] porTipoConta(String prefixo) {
+        LatencyHistogram[] histogramas = new LatencyHistogram[TIPOS_CONTA.length];
+        for (int tipo = 1; tipo < TIPOS_CONTA.length; tipo++) {
+            histogramas[tipo] = histograma(prefixo + "." + TIPOS_CONTA[tipo]);
+        }
+        return histogramas;
+    }
+
+    public static long inicio() {
+        return ATIVO ? System.nanoTime() : 0;
+    }
+
+    public static void registrar(LatencyHistogram histograma, long inicio) {
+        if (ATIVO) {
+            histograma.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    // Adquire o lock medindo a espera. Sem disputa custa só um tryLock e um registro
+    // de espera zero, sem leitura de relógio.
+    public static void travar(Lock lock, LatencyHistogram espera) {
+        if (!ATIVO) {
+            lock.lock();
+            return;
+        }
+        if (lock.tryLock()) {
+            espera.registrar(0);
+            return;
+        }
+        long inicio = System.nanoTime();
+        lock.lock();
+        espera.registrar(System.nanoTime() - inicio);
+    }
+
+    public static LatencyHistogram getHistograma(String nome) {
+        return HISTOGRAMAS.get(nome);
+    }
+
+    private static void registrarMBeans() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            for (LatencyHistogram histograma : HISTOGRAMAS.values()) {
+                ObjectName nome = new ObjectName("xubank:type=Latencia,name=" + histograma.getNome());
+                if (!servidor.isRegistered(nome)) {
+                    servidor.registerMBean(histograma, nome);
+                }
+            }
+
+            ObjectName nomeLog = new ObjectName("xubank:type=LogSeguranca");
+            if (!servidor.isRegistered(nomeLog)) {
+                servidor.registerMBean(new StandardMBean(new LogQueueMBean() {
+                    @Override
+                    public int getProfundidadeFila() {
+                        return SecurityLogger.getQueueDepth();
+                    }
+
+                    @Override
+                    public int getCapacidadeFila() {
+                        return SecurityLogger.getQueueCapacity();
+                    }
+
+                    @Override
+                    public long getDescartados() {
+                        return SecurityLogger.getDroppedCount();
+                    }
+
+                    @Override
+                    public long getGravados() {
+                        return SecurityLogger.getWrittenCount();
+                    }
+                }, LogQueueMBean.class), nomeLog);
+            }
+        } catch (JMException | RuntimeException e) {
+            SecurityLogger.logError("ERRO_METRICAS", "Erro ao registrar MBeans de métricas", e);
+        }
+    }
+
+    // Uma linha por operação já medida, em microssegundos, mais a fila do log de segurança
+    public static String relatorio() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Métricas ").append(LocalDateTime.now().withNano(0)).append(" ---\n");
+        for (LatencyHistogram h : HISTOGRAMAS.values()) {
+            long contagem = h.getContagem();
+            if (contagem == 0) {
+                continue;
+            }
+            sb.append(String.format("%-32s n=%d media=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus\n",
+                    h.getNome(), contagem, h.getMediaNanos() / 1000.0, h.getP50Nanos() / 1000.0,
+                    h.getP99Nanos() / 1000.0, h.getP999Nanos() / 1000.0, h.getMaximoNanos() / 1000.0));
+        }
+        sb.append(String.format("%-32s fila=%d/%d descartados=%d gravados=%d\n", "log.seguranca",
+                SecurityLogger.getQueueDepth(), SecurityLogger.getQueueCapacity(),
+                SecurityLogger.getDroppedCount(), SecurityLogger.getWrittenCount()));
+        return sb.toString();
+    }
+
+    // Acrescenta o relatório ao arquivo a cada intervalo, numa thread daemon
+    public static synchronized void agendarRelatorio(long intervaloSegundos, Path arquivo) {
+        if (despejo != null || intervaloSegundos <= 0) {
+            return;
+        }
+        despejo = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "xubank-metricas");
+            t.setDaemon(true);
+            return t;
+        });
+        despejo.scheduleAtFixedRate(() -> {
+            try {
+                Files.write(arquivo, relatorio().getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                SecurityLogger.logError("ERRO_METRICAS", "Erro ao gravar relatório de métricas", e);
+            }
+        }, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void encerrarRelatorio() {
+        if (despejo != null) {
+            despejo.shutdownNow();
+            despejo = null;
+        }
+    }
+}
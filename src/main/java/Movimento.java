@@ -0,0 +1,32 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Um movimento lido do histórico de uma conta; valor positivo entra, negativo sai
+public class Movimento {
+    private final long instante;
+    private final TipoMovimento tipo;
+    private final long valorCentavos;
+
+    public Movimento(long instante, TipoMovimento tipo, long valorCentavos) {
+        this.instante = instante;
+        this.tipo = tipo;
+        this.valorCentavos = valorCentavos;
+    }
+
+    public long getInstante() {
+        return instante;
+    }
+
+    public LocalDateTime getDataHora() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(instante), ZoneId.systemDefault());
+    }
+
+    public TipoMovimento getTipo() {
+        return tipo;
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+}
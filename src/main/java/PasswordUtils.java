@@ -1,46 +1,120 @@
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.Base64;
+import java.util.Arrays;
 
 public class PasswordUtils {
     private static final String ALGORITHM = "SHA-256";
+    public static final int TAMANHO_SALT = 16;
+    public static final int TAMANHO_HASH = 32;
     private static final SecureRandom RANDOM = new SecureRandom();
 
-    public static String hashPassword(String password, String salt) throws SecurityException {
-        try {
-            MessageDigest md = MessageDigest.getInstance(ALGORITHM);
-            String saltedPassword = password + salt;
-            byte[] hashedBytes = md.digest(saltedPassword.getBytes("UTF-8"));
-            return Base64.getEncoder().encodeToString(hashedBytes);
-        } catch (Exception e) {
-            throw new SecurityException("Erro ao gerar hash da senha", e);
+    // Digest e buffers reaproveitados por thread: o caminho de verificação não aloca
+    private static final ThreadLocal<EstadoHash> ESTADO = ThreadLocal.withInitial(EstadoHash::new);
+
+    private static final class EstadoHash {
+        private final MessageDigest digest;
+        private byte[] entrada = new byte[64];
+        private final byte[] saida = new byte[TAMANHO_HASH];
+
+        private EstadoHash() {
+            try {
+                digest = MessageDigest.getInstance(ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Algoritmo de hash indisponível: " + ALGORITHM, e);
+            }
         }
     }
 
-    public static String generateSalt() {
-        byte[] salt = new byte[16];
+    public static byte[] hashPassword(String password, byte[] salt) throws SecurityException {
+        byte[] hash = new byte[TAMANHO_HASH];
+        calcularHash(password, salt, hash);
+        return hash;
+    }
+
+    public static byte[] generateSalt() {
+        byte[] salt = new byte[TAMANHO_SALT];
         RANDOM.nextBytes(salt);
-        return Base64.getEncoder().encodeToString(salt);
+        return salt;
+    }
+
+    public static boolean verifyPassword(String password, byte[] hashedPassword, byte[] salt) throws SecurityException {
+        if (hashedPassword == null || hashedPassword.length != TAMANHO_HASH) {
+            return false;
+        }
+        byte[] calculado = calcularHash(password, salt, null);
+        return constantTimeEquals(hashedPassword, calculado);
     }
 
-    public static boolean verifyPassword(String password, String hashedPassword, String salt) throws SecurityException {
+    // Calcula SHA-256(senha em UTF-8 || salt) no destino informado ou no buffer da thread
+    private static byte[] calcularHash(String password, byte[] salt, byte[] destino) throws SecurityException {
+        if (password == null || salt == null) {
+            throw new SecurityException("Erro ao gerar hash da senha");
+        }
+
         try {
-            String hashedInput = hashPassword(password, salt);
-            return constantTimeEquals(hashedPassword, hashedInput);
+            EstadoHash estado = ESTADO.get();
+            int tamanho = codificarUtf8(password, estado);
+            MessageDigest md = estado.digest;
+            md.reset();
+            try {
+                md.update(estado.entrada, 0, tamanho);
+            } finally {
+                // O buffer vive com a thread: a senha em claro não fica nele depois do hash
+                Arrays.fill(estado.entrada, 0, tamanho, (byte) 0);
+            }
+            md.update(salt);
+
+            byte[] saida = destino != null ? destino : estado.saida;
+            md.digest(saida, 0, TAMANHO_HASH);
+            return saida;
         } catch (Exception e) {
-            throw new SecurityException("Erro ao verificar senha", e);
+            throw new SecurityException("Erro ao gerar hash da senha", e);
+        }
+    }
+
+    private static int codificarUtf8(String texto, EstadoHash estado) {
+        int maximo = texto.length() * 3;
+        if (estado.entrada.length < maximo) {
+            estado.entrada = new byte[Math.max(maximo, estado.entrada.length * 2)];
+        }
+
+        byte[] b = estado.entrada;
+        int p = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                b[p++] = (byte) c;
+            } else if (c < 0x800) {
+                b[p++] = (byte) (0xC0 | (c >> 6));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, texto.charAt(++i));
+                b[p++] = (byte) (0xF0 | (cp >> 18));
+                b[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                b[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                b[p++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                b[p++] = (byte) '?'; // surrogate isolado, como faz o String.getBytes
+            } else {
+                b[p++] = (byte) (0xE0 | (c >> 12));
+                b[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            }
         }
+        return p;
     }
 
-    private static boolean constantTimeEquals(String a, String b) {
-        if (a == null || b == null || a.length() != b.length()) {
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        if (a == null || b == null || a.length != b.length) {
             return false;
         }
 
         int result = 0;
-        for (int i = 0; i < a.length(); i++) {
-            result |= a.charAt(i) ^ b.charAt(i);
+        for (int i = 0; i < a.length; i++) {
+            result |= a[i] ^ b[i];
         }
         return result == 0;
     }
-}
\ No newline at end of file
+}
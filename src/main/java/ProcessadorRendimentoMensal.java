@@ -0,0 +1,92 @@
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Fechamento mensal: credita os meses pendentes em todas as contas que rendem; contas
+// já atualizadas no mês corrente são contadas e puladas. Os clientes são divididos em lotes executados em paralelo; cada cliente é
+// processado sob o próprio lock, então só as operações daquele cliente esperam.
+// A taxa de mercado do mês é resolvida uma vez por tipo de conta, antes dos lotes,
+// e aplicada igual a todas as contas daquele tipo.
+public class ProcessadorRendimentoMensal {
+    private static final int LOTE_PADRAO = 1024;
+
+    private final ExecutorService executor;
+    private final int tamanhoLote;
+
+    public ProcessadorRendimentoMensal(ExecutorService executor) {
+        this(executor, LOTE_PADRAO);
+    }
+
+    public ProcessadorRendimentoMensal(ExecutorService executor, int tamanhoLote) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor não pode ser nulo");
+        }
+        this.executor = executor;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+    }
+
+    public ResultadoRendimentoMensal executar(Cliente[] clientes) throws SecurityException {
+        ResultadoRendimentoMensal resultado = new ResultadoRendimentoMensal();
+        long inicio = System.nanoTime();
+        YearMonth mes = YearMonth.now();
+        double[] taxas = Conta.getTaxasMercado().taxasDoMes(mes);
+
+        List<Future<?>> lotes = new ArrayList<>();
+        for (int de = 0; de < clientes.length; de += tamanhoLote) {
+            int ate = Math.min(de + tamanhoLote, clientes.length);
+            int inicioLote = de;
+            lotes.add(executor.submit(() -> processarLote(clientes, inicioLote, ate, mes, taxas, resultado)));
+        }
+
+        try {
+            for (Future<?> lote : lotes) {
+                lote.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SecurityException("Fechamento mensal interrompido", e);
+        } catch (ExecutionException e) {
+            throw new SecurityException("Erro no fechamento mensal", e.getCause());
+        }
+
+        resultado.concluir(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    // Os créditos do lote não esperam o fsync do journal um a um; o XuBank
+    // confirma o journal uma única vez ao fim do fechamento
+    private void processarLote(Cliente[] clientes, int de, int ate, YearMonth mes, double[] taxas,
+                               ResultadoRendimentoMensal resultado) {
+        JournalTransacoes.iniciarLote();
+        try {
+            processarClientes(clientes, de, ate, mes, taxas, resultado);
+        } finally {
+            JournalTransacoes.encerrarLote();
+        }
+    }
+
+    private void processarClientes(Cliente[] clientes, int de, int ate, YearMonth mes, double[] taxas,
+                                   ResultadoRendimentoMensal resultado) {
+        for (int i = de; i < ate; i++) {
+            clientes[i].paraCadaConta(conta -> {
+                if (!(conta instanceof IRendimento)) {
+                    return;
+                }
+                if (conta.isAtualizadaNoMes(mes)) {
+                    resultado.registrarContaJaAtualizada();
+                    return;
+                }
+                try {
+                    long variacao = conta.creditarRendimentoMensal(taxas[conta.getTipoConta()]);
+                    resultado.registrarConta(conta.getTipoConta(), variacao);
+                } catch (Exception e) {
+                    resultado.registrarFalha(conta, e);
+                }
+            });
+            resultado.registrarCliente();
+        }
+    }
+}
@@ -1,52 +1,40 @@
 import java.util.List;
-import java.util.HashMap;
-import java.util.Map;
 
 public class RelatorioCustodia {
 
+    // Com -Dxubank.custodia.verificar=true os totais incrementais são conferidos a cada relatório
+    private static final boolean VERIFICAR = Boolean.getBoolean("xubank.custodia.verificar");
+
     private final List<Cliente> clientes;
+    private final TotaisCustodia totaisCustodia;
+    private final IndiceSaldos indiceSaldos;
 
     public RelatorioCustodia(List<Cliente> clientes) {
+        this(clientes, null);
+    }
+
+    public RelatorioCustodia(List<Cliente> clientes, TotaisCustodia totaisCustodia) {
         this.clientes = clientes;
+        this.totaisCustodia = totaisCustodia;
+        this.indiceSaldos = null;
+    }
+
+    public RelatorioCustodia(IndiceSaldos indiceSaldos) {
+        this.clientes = null;
+        this.totaisCustodia = null;
+        this.indiceSaldos = indiceSaldos;
     }
 
     public String gerarRelatorioCustodiaTotal() {
         try {
-            double totalCorrente = 0, totalPoupanca = 0, totalRendaFixa = 0, totalInvestimento = 0;
-
-            for (Cliente cliente : clientes) {
-                List<Conta> contas = cliente.getContas();
-                for (Conta conta : contas) {
-                    double saldo = conta.getSaldo();
-
-                    if (!ValidationUtils.validarValor(saldo)) {
-                        SecurityLogger.logError("SALDO_INVALIDO_RELATORIO",
-                                "Saldo inválido encontrado na conta: " + conta.getNumero(), null);
-                        continue;
-                    }
-
-                    switch (conta.getTipoConta()) {
-                        case 1:
-                            totalCorrente += saldo;
-                            break;
-                        case 2:
-                            totalPoupanca += saldo;
-                            break;
-                        case 3:
-                            totalRendaFixa += saldo;
-                            break;
-                        case 4:
-                            totalInvestimento += saldo;
-                            break;
-                    }
-                }
-            }
+            long[] totais = totaisCustodia != null ? totaisIncrementais().getSaldosPorTipo() : varrerSaldos();
 
             SecurityLogger.logSecurityEvent("RELATORIO_CUSTODIA", "Relatório de custódia gerado");
 
             return String.format(
                     "Saldo em custódia:\nCorrente: R$ %.2f\nPoupança: R$ %.2f\nRenda Fixa: R$ %.2f\nInvestimento: R$ %.2f",
-                    totalCorrente, totalPoupanca, totalRendaFixa, totalInvestimento);
+                    Dinheiro.paraReais(totais[1]), Dinheiro.paraReais(totais[2]),
+                    Dinheiro.paraReais(totais[3]), Dinheiro.paraReais(totais[4]));
 
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_RELATORIO_CUSTODIA",
@@ -55,7 +43,43 @@ public class RelatorioCustodia {
         }
     }
 
+    private TotaisCustodia totaisIncrementais() {
+        if (VERIFICAR) {
+            for (String divergencia : totaisCustodia.verificar(clientes)) {
+                SecurityLogger.logError("CUSTODIA_DIVERGENTE", divergencia, null);
+            }
+        }
+        return totaisCustodia;
+    }
+
+    private long[] varrerSaldos() {
+        long[] totais = new long[5]; // indexado por tipoConta (1 a 4)
+
+        for (Cliente cliente : clientes) {
+            List<Conta> contas = cliente.getContas();
+            for (Conta conta : contas) {
+                long saldo = conta.getSaldoCentavos();
+
+                if (saldo < 0) {
+                    SecurityLogger.logError("SALDO_INVALIDO_RELATORIO",
+                            "Saldo inválido encontrado na conta: " + conta.getNumero(), null);
+                    continue;
+                }
+
+                int tipo = conta.getTipoConta();
+                if (tipo >= 1 && tipo <= 4) {
+                    totais[tipo] += saldo;
+                }
+            }
+        }
+        return totais;
+    }
+
     public String gerarRelatorioClientesExtremos() {
+        if (indiceSaldos != null) {
+            return gerarRelatorioClientesExtremosIndexado();
+        }
+
         try {
             if (clientes.isEmpty()) {
                 return "Nenhum cliente cadastrado.";
@@ -63,11 +87,11 @@ public class RelatorioCustodia {
 
             Cliente maior = clientes.get(0);
             Cliente menor = clientes.get(0);
-            double saldoMaior = maior.getSaldoTotal();
-            double saldoMenor = menor.getSaldoTotal();
+            long saldoMaior = maior.getSaldoTotalCentavos();
+            long saldoMenor = saldoMaior;
 
             for (Cliente cliente : clientes) {
-                double saldoTotal = cliente.getSaldoTotal();
+                long saldoTotal = cliente.getSaldoTotalCentavos();
 
                 if (saldoTotal > saldoMaior) {
                     maior = cliente;
@@ -82,8 +106,8 @@ public class RelatorioCustodia {
             SecurityLogger.logSecurityEvent("RELATORIO_EXTREMOS", "Relatório de clientes extremos gerado");
 
             return String.format("Cliente com maior saldo: %s - R$ %.2f\nCliente com menor saldo: %s - R$ %.2f",
-                    ValidationUtils.sanitizarString(maior.getNome()), saldoMaior,
-                    ValidationUtils.sanitizarString(menor.getNome()), saldoMenor);
+                    ValidationUtils.sanitizarString(maior.getNome()), Dinheiro.paraReais(saldoMaior),
+                    ValidationUtils.sanitizarString(menor.getNome()), Dinheiro.paraReais(saldoMenor));
 
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_RELATORIO_EXTREMOS",
@@ -92,71 +116,80 @@ public class RelatorioCustodia {
         }
     }
 
-    
+    private String gerarRelatorioClientesExtremosIndexado() {
+        Cliente maior = indiceSaldos.maior();
+        Cliente menor = indiceSaldos.menor();
+        if (maior == null || menor == null) {
+            return "Nenhum cliente cadastrado.";
+        }
 
-    public String gerarRelatorioSaldoMedio() {
-        try {
+        SecurityLogger.logSecurityEvent("RELATORIO_EXTREMOS", "Relatório de clientes extremos gerado");
 
-            Map<Integer, Double> saldosTotaisPorTipo = new HashMap<>();
-            Map<Integer, Integer> contagemContasPorTipo = new HashMap<>();
+        return String.format("Cliente com maior saldo: %s - R$ %.2f\nCliente com menor saldo: %s - R$ %.2f",
+                ValidationUtils.sanitizarString(maior.getNome()), Dinheiro.paraReais(maior.getSaldoIndexado()),
+                ValidationUtils.sanitizarString(menor.getNome()), Dinheiro.paraReais(menor.getSaldoIndexado()));
+    }
 
+    // Só com o índice de saldos: os N maiores e os N menores saldos totais
+    public String gerarRankingSaldos(int quantidade) {
+        if (indiceSaldos == null) {
+            return "Ranking indisponível sem o índice de saldos.";
+        }
 
-            saldosTotaisPorTipo.put(1, 0.0);
-            saldosTotaisPorTipo.put(2, 0.0);
-            saldosTotaisPorTipo.put(3, 0.0);
-            saldosTotaisPorTipo.put(4, 0.0);
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append(String.format("--- %d Maiores Saldos ---\n", quantidade));
+        anexarRanking(relatorio, indiceSaldos.maiores(quantidade));
+        relatorio.append(String.format("--- %d Menores Saldos ---\n", quantidade));
+        anexarRanking(relatorio, indiceSaldos.menores(quantidade));
+        relatorio.append("--------------------------------------");
 
-            contagemContasPorTipo.put(1, 0);
-            contagemContasPorTipo.put(2, 0);
-            contagemContasPorTipo.put(3, 0);
-            contagemContasPorTipo.put(4, 0);
+        SecurityLogger.logSecurityEvent("RELATORIO_RANKING", "Ranking de saldos gerado");
+
+        return relatorio.toString();
+    }
+
+    private static void anexarRanking(StringBuilder relatorio, List<Cliente> clientes) {
+        int posicao = 1;
+        for (Cliente cliente : clientes) {
+            relatorio.append(String.format("%d. %s - R$ %.2f\n", posicao++,
+                    ValidationUtils.sanitizarString(cliente.getNome()), Dinheiro.paraReais(cliente.getSaldoIndexado())));
+        }
+    }
+
+    public String gerarRelatorioSaldoMedio() {
+        try {
+            if (totaisCustodia != null) {
+                TotaisCustodia totais = totaisIncrementais();
+                return formatarSaldoMedio(totais.getSaldosPorTipo(), totais.getContasPorTipo());
+            }
+
+            // Totais e contagens indexados por tipoConta (1 a 4), sem boxing
+            long[] saldosTotaisPorTipo = new long[5];
+            long[] contagemContasPorTipo = new long[5];
 
             for (Cliente cliente : clientes) {
                 List<Conta> contas = cliente.getContas();
                 for (Conta conta : contas) {
-                    double saldo = conta.getSaldo();
+                    long saldo = conta.getSaldoCentavos();
                     int tipoConta = conta.getTipoConta();
 
-                    if (!ValidationUtils.validarValor(saldo)) {
+                    if (saldo < 0) {
                         SecurityLogger.logError("SALDO_INVALIDO_RELATORIO_MEDIO",
                                 "Saldo inválido encontrado na conta (saldo médio): " + conta.getNumero(), null);
                         continue;
                     }
 
+                    if (tipoConta < 1 || tipoConta > 4) {
+                        continue;
+                    }
+
                     // Adiciona o saldo ao total do tipo e incrementa a contagem
-                    saldosTotaisPorTipo.put(tipoConta, saldosTotaisPorTipo.getOrDefault(tipoConta, 0.0) + saldo);
-                    contagemContasPorTipo.put(tipoConta, contagemContasPorTipo.getOrDefault(tipoConta, 0) + 1);
+                    saldosTotaisPorTipo[tipoConta] += saldo;
+                    contagemContasPorTipo[tipoConta]++;
                 }
             }
 
-            StringBuilder relatorio = new StringBuilder();
-            relatorio.append("--- Saldo Médio por Tipo de Conta ---\n");
-
-
-            double saldoMedioCorrente = contagemContasPorTipo.get(1) > 0 ?
-                    saldosTotaisPorTipo.get(1) / contagemContasPorTipo.get(1) : 0.0;
-            relatorio.append(String.format("Corrente: R$ %.2f (Baseado em %d conta(s))\n", saldoMedioCorrente, contagemContasPorTipo.get(1)));
-
-
-            double saldoMedioPoupanca = contagemContasPorTipo.get(2) > 0 ?
-                    saldosTotaisPorTipo.get(2) / contagemContasPorTipo.get(2) : 0.0;
-            relatorio.append(String.format("Poupança: R$ %.2f (Baseado em %d conta(s))\n", saldoMedioPoupanca, contagemContasPorTipo.get(2)));
-
-
-            double saldoMedioRendaFixa = contagemContasPorTipo.get(3) > 0 ?
-                    saldosTotaisPorTipo.get(3) / contagemContasPorTipo.get(3) : 0.0;
-            relatorio.append(String.format("Renda Fixa: R$ %.2f (Baseado em %d conta(s))\n", saldoMedioRendaFixa, contagemContasPorTipo.get(3)));
-
-
-            double saldoMedioInvestimento = contagemContasPorTipo.get(4) > 0 ?
-                    saldosTotaisPorTipo.get(4) / contagemContasPorTipo.get(4) : 0.0;
-            relatorio.append(String.format("Investimento: R$ %.2f (Baseado em %d conta(s))\n", saldoMedioInvestimento, contagemContasPorTipo.get(4)));
-
-            relatorio.append("--------------------------------------");
-
-            SecurityLogger.logSecurityEvent("RELATORIO_SALDO_MEDIO", "Relatório de saldo médio gerado");
-
-            return relatorio.toString();
+            return formatarSaldoMedio(saldosTotaisPorTipo, contagemContasPorTipo);
 
         } catch (Exception e) {
             SecurityLogger.logError("ERRO_RELATORIO_SALDO_MEDIO",
@@ -164,4 +197,22 @@ public class RelatorioCustodia {
             return "Erro ao gerar relatório de saldo médio.";
         }
     }
-}
\ No newline at end of file
+
+    private String formatarSaldoMedio(long[] saldosTotaisPorTipo, long[] contagemContasPorTipo) {
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append("--- Saldo Médio por Tipo de Conta ---\n");
+
+        String[] nomes = {null, "Corrente", "Poupança", "Renda Fixa", "Investimento"};
+        for (int tipo = 1; tipo <= 4; tipo++) {
+            long contagem = contagemContasPorTipo[tipo];
+            double saldoMedio = contagem > 0 ? Dinheiro.paraReais(saldosTotaisPorTipo[tipo]) / contagem : 0.0;
+            relatorio.append(String.format("%s: R$ %.2f (Baseado em %d conta(s))\n", nomes[tipo], saldoMedio, contagem));
+        }
+
+        relatorio.append("--------------------------------------");
+
+        SecurityLogger.logSecurityEvent("RELATORIO_SALDO_MEDIO", "Relatório de saldo médio gerado");
+
+        return relatorio.toString();
+    }
+}
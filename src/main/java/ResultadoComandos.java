@@ -0,0 +1,68 @@
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ResultadoComandos {
+    private long comandos;
+    private long sucessos;
+    private long falhas;
+    private final Map<String, Long> falhasPorMotivo = new TreeMap<>();
+    private final Map<String, LatencyHistogram> latenciaPorComando = new TreeMap<>();
+    private long duracaoNanos;
+
+    void registrar(String comando, String motivo, long nanos) {
+        comandos++;
+        if (motivo == null) {
+            sucessos++;
+        } else {
+            falhas++;
+            falhasPorMotivo.merge(motivo, 1L, Long::sum);
+        }
+        latenciaPorComando.computeIfAbsent(comando, LatencyHistogram::new).registrar(nanos);
+    }
+
+    void concluir(long duracaoNanos) {
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public long getComandos() {
+        return comandos;
+    }
+
+    public long getSucessos() {
+        return sucessos;
+    }
+
+    public long getFalhas() {
+        return falhas;
+    }
+
+    public long getFalhas(String motivo) {
+        return falhasPorMotivo.getOrDefault(motivo, 0L);
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    public double getComandosPorSegundo() {
+        return duracaoNanos > 0 ? comandos * 1_000_000_000.0 / duracaoNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Execução de Comandos ---\n");
+        sb.append(String.format("Comandos: %d - Sucesso: %d - Falha: %d\n", comandos, sucessos, falhas));
+        sb.append(String.format("Duração: %.3f s - Vazão: %.0f comandos/s\n",
+                duracaoNanos / 1_000_000_000.0, getComandosPorSegundo()));
+        for (LatencyHistogram h : latenciaPorComando.values()) {
+            sb.append(String.format("%s: n=%d p50=%.1fus p99=%.1fus max=%.1fus\n", h.getNome(), h.getContagem(),
+                    h.getP50Nanos() / 1000.0, h.getP99Nanos() / 1000.0, h.getMaximoNanos() / 1000.0));
+        }
+        for (Map.Entry<String, Long> falha : falhasPorMotivo.entrySet()) {
+            sb.append(String.format("%s: %d\n", falha.getKey(), falha.getValue()));
+        }
+        sb.append("----------------------------");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ResultadoImportacao {
+    private long linhas;
+    private long aceitos;
+    private long contas;
+    private long rejeitados;
+    private final Map<String, Long> rejeicoesPorMotivo = new TreeMap<>();
+    private long duracaoNanos;
+
+    void registrarLinha() {
+        linhas++;
+    }
+
+    void registrarAceito(int contasCliente) {
+        aceitos++;
+        contas += contasCliente;
+    }
+
+    void registrarRejeicao(String motivo) {
+        rejeitados++;
+        rejeicoesPorMotivo.merge(motivo, 1L, Long::sum);
+    }
+
+    void concluir(long duracaoNanos) {
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public long getAceitos() {
+        return aceitos;
+    }
+
+    public long getContas() {
+        return contas;
+    }
+
+    public long getRejeitados() {
+        return rejeitados;
+    }
+
+    public long getRejeicoes(String motivo) {
+        return rejeicoesPorMotivo.getOrDefault(motivo, 0L);
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    public double getLinhasPorSegundo() {
+        return duracaoNanos > 0 ? linhas * 1_000_000_000.0 / duracaoNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Importação de Clientes ---\n");
+        sb.append(String.format("Linhas: %d - Aceitos: %d (%d conta(s)) - Rejeitados: %d\n",
+                linhas, aceitos, contas, rejeitados));
+        sb.append(String.format("Duração: %.3f s - Vazão: %.0f linhas/s\n",
+                duracaoNanos / 1_000_000_000.0, getLinhasPorSegundo()));
+        for (Map.Entry<String, Long> rejeicao : rejeicoesPorMotivo.entrySet()) {
+            sb.append(String.format("%s: %d\n", rejeicao.getKey(), rejeicao.getValue()));
+        }
+        sb.append("------------------------------");
+        return sb.toString();
+    }
+}
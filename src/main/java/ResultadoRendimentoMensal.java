@@ -0,0 +1,107 @@
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResultadoRendimentoMensal {
+    private static final int MAX_FALHAS_REGISTRADAS = 100;
+    private static final String[] NOMES_TIPO = {null, "Corrente", "Poupança", "Renda Fixa", "Investimento"};
+
+    private final LongAdder clientesProcessados = new LongAdder();
+    private final LongAdder contasProcessadas = new LongAdder();
+    private final LongAdder contasJaAtualizadas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder[] variacaoPorTipo = new LongAdder[TotaisCustodia.TIPOS + 1];
+    private final LongAdder[] contasPorTipo = new LongAdder[TotaisCustodia.TIPOS + 1];
+    private final ConcurrentLinkedQueue<String> detalhesFalhas = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger falhasRegistradas = new AtomicInteger();
+    private volatile long duracaoNanos;
+
+    public ResultadoRendimentoMensal() {
+        for (int tipo = 1; tipo <= TotaisCustodia.TIPOS; tipo++) {
+            variacaoPorTipo[tipo] = new LongAdder();
+            contasPorTipo[tipo] = new LongAdder();
+        }
+    }
+
+    void registrarCliente() {
+        clientesProcessados.increment();
+    }
+
+    void registrarConta(int tipo, long variacaoCentavos) {
+        contasProcessadas.increment();
+        if (tipo >= 1 && tipo <= TotaisCustodia.TIPOS) {
+            variacaoPorTipo[tipo].add(variacaoCentavos);
+            contasPorTipo[tipo].increment();
+        }
+    }
+
+    void registrarContaJaAtualizada() {
+        contasJaAtualizadas.increment();
+    }
+
+    void registrarFalha(Conta conta, Exception e) {
+        falhas.increment();
+        if (falhasRegistradas.incrementAndGet() <= MAX_FALHAS_REGISTRADAS) {
+            detalhesFalhas.add("Conta " + conta.getNumero() + ": " + e.getMessage());
+        }
+    }
+
+    void concluir(long duracaoNanos) {
+        this.duracaoNanos = duracaoNanos;
+    }
+
+    public long getClientesProcessados() {
+        return clientesProcessados.sum();
+    }
+
+    public long getContasProcessadas() {
+        return contasProcessadas.sum();
+    }
+
+    // Contas que já tinham rendimento creditado no mês e foram puladas
+    public long getContasJaAtualizadas() {
+        return contasJaAtualizadas.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    // Somente as primeiras falhas são guardadas com detalhe
+    public List<String> getDetalhesFalhas() {
+        return List.copyOf(detalhesFalhas);
+    }
+
+    public long getVariacaoCentavos(int tipo) {
+        return variacaoPorTipo[tipo].sum();
+    }
+
+    public long getContas(int tipo) {
+        return contasPorTipo[tipo].sum();
+    }
+
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+
+    public double getContasPorSegundo() {
+        return duracaoNanos > 0 ? getContasProcessadas() * 1_000_000_000.0 / duracaoNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Rendimento Mensal ---\n");
+        sb.append(String.format("Clientes: %d - Contas: %d - Já atualizadas: %d - Falhas: %d\n",
+                getClientesProcessados(), getContasProcessadas(), getContasJaAtualizadas(), getFalhas()));
+        sb.append(String.format("Duração: %.3f s - Vazão: %.0f contas/s\n",
+                duracaoNanos / 1_000_000_000.0, getContasPorSegundo()));
+        for (int tipo = 2; tipo <= TotaisCustodia.TIPOS; tipo++) {
+            sb.append(String.format("%s: R$ %s em %d conta(s)\n",
+                    NOMES_TIPO[tipo], Dinheiro.formatar(getVariacaoCentavos(tipo)), getContas(tipo)));
+        }
+        sb.append("-------------------------");
+        return sb.toString();
+    }
+}
@@ -1,33 +1,99 @@
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
+// Log de segurança assíncrono. -Dxubank.log.formato=binario grava security.bin em vez de
+// security.log (ver LogBinaryFormat e LogDecoder); a rotação é configurada em LogRotation.
+// Se o arquivo não abrir na inicialização, cada evento é gravado direto, sem o writer.
 public class SecurityLogger {
     private static final String LOG_FILE = "security.log";
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String LOG_FILE_BINARIO = "security.bin";
+    private static final int CAPACIDADE_PADRAO = 8192;
+    private static final int LOTE_PADRAO = 512;
+    private static final long TIMEOUT_ENCERRAMENTO_MS = 5000;
 
-    public static void logSecurityEvent(String event, String details) {
-        try (FileWriter fw = new FileWriter(LOG_FILE, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            String timestamp = LocalDateTime.now().format(FORMATTER);
-            pw.println(String.format("[%s] SECURITY: %s - %s", timestamp, event, details));
+    private static final AsyncLogWriter WRITER = criarWriter();
+
+    private static AsyncLogWriter criarWriter() {
+        int capacidade = Integer.getInteger("xubank.log.capacidade", CAPACIDADE_PADRAO);
+        int lote = Integer.getInteger("xubank.log.lote", LOTE_PADRAO);
+        LogOverflowPolicy politica = LogOverflowPolicy.fromString(System.getProperty("xubank.log.overflow"));
+        LogFormat formato = LogFormat.fromString(System.getProperty("xubank.log.formato"));
+
+        try {
+            AsyncLogWriter writer = new AsyncLogWriter(formato == LogFormat.BINARIO ? LOG_FILE_BINARIO : LOG_FILE,
+                    capacidade, lote, politica, formato, LogRotation.fromProperties());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writer.encerrar(TIMEOUT_ENCERRAMENTO_MS),
+                    "xubank-security-log-shutdown"));
+            return writer;
         } catch (IOException e) {
-            System.err.println("Erro ao gravar log de segurança: " + e.getMessage());
+            System.err.println("Erro ao abrir log de segurança: " + e.getMessage());
+            return null;
         }
     }
 
+    public static void logSecurityEvent(String event, String details) {
+        publicar(LogRecord.seguranca(event, details));
+    }
+
+    // Eventos frequentes de conta: número e valor seguem crus até o writer, que os anexa como
+    // "<details> - Conta: <conta> Valor: <valor>" no texto ou os grava como números no binário
+    public static void logSecurityEvent(String event, String details, int conta, long valorCentavos) {
+        publicar(LogRecord.seguranca(event, details, conta, valorCentavos));
+    }
+
+    public static void logSecurityEvent(String event, String details, int conta) {
+        logSecurityEvent(event, details, conta, LogRecord.SEM_VALOR);
+    }
+
     public static void logError(String event, String details, Throwable throwable) {
-        try (FileWriter fw = new FileWriter(LOG_FILE, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            String timestamp = LocalDateTime.now().format(FORMATTER);
-            pw.println(String.format("[%s] ERROR: %s - %s", timestamp, event, details));
-            if (throwable != null) {
-                pw.println("Stack trace: " + throwable.getMessage());
-            }
+        publicar(LogRecord.erro(event, details, throwable));
+    }
+
+    private static void publicar(LogRecord registro) {
+        if (WRITER != null) {
+            WRITER.publicar(registro);
+        } else {
+            gravarSemWriter(registro);
+        }
+    }
+
+    // Sem writer, cada evento é anexado em texto a security.log, abrindo o arquivo a cada vez
+    // (ele pode voltar a ficar gravável); se ainda falhar, a linha vai para a saída de erro
+    // em vez de ser descartada
+    private static synchronized void gravarSemWriter(LogRecord registro) {
+        String linha = new LogTextFormat().anexar(new StringBuilder(128), registro).toString();
+        try {
+            Files.write(Paths.get(LOG_FILE), linha.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
         } catch (IOException e) {
-            System.err.println("Erro ao gravar log de erro: " + e.getMessage());
+            System.err.println("Erro ao gravar log de segurança: " + e.getMessage());
+            System.err.print(linha);
         }
     }
-}
\ No newline at end of file
+
+    // Grava tudo o que ainda está na fila; chamado no encerramento da aplicação
+    public static void shutdown() {
+        if (WRITER != null) {
+            WRITER.encerrar(TIMEOUT_ENCERRAMENTO_MS);
+        }
+    }
+
+    public static int getQueueDepth() {
+        return WRITER != null ? WRITER.getTamanhoFila() : 0;
+    }
+
+    public static int getQueueCapacity() {
+        return WRITER != null ? WRITER.getCapacidadeFila() : 0;
+    }
+
+    public static long getDroppedCount() {
+        return WRITER != null ? WRITER.getDescartados() : 0;
+    }
+
+    public static long getWrittenCount() {
+        return WRITER != null ? WRITER.getGravados() : 0;
+    }
+}
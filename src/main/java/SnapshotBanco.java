@@ -0,0 +1,386 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+// Snapshot binário do estado completo do banco no ponto de uma sequência do journal (LSN).
+//   cabeçalho: magic, versão, LSN, clientes, contas, blocos, posição do índice, CRC
+//   blocos:    [clientes][contas][nomes][CRC32C], até 65536 clientes por bloco
+//   índice:    posição de cada bloco no arquivo
+// Clientes e contas têm tamanho fixo e cada bloco é independente: na carga, cada
+// bloco é mapeado em memória, conferido e reconstruído em paralelo com os demais.
+public class SnapshotBanco {
+    private static final int MAGIC = 0x58554253; // "XUBS"
+    private static final int VERSAO = 1;
+    private static final int CABECALHO = 48;
+    private static final int CABECALHO_BLOCO = 16;
+    private static final int TAMANHO_CLIENTE = 8 + 8 + PasswordUtils.TAMANHO_SALT + PasswordUtils.TAMANHO_HASH + 4 + 2 + 2;
+    private static final int TAMANHO_CONTA = 4 + 1 + 8 + 8 + 8;
+    private static final int CLIENTES_POR_BLOCO = 65536;
+    private static final int MAXIMO_CAMPO_CURTO = 0xFFFF; // tamanho do nome e número de contas, sem sinal
+    private static final String PREFIXO = "snapshot-";
+    private static final String SUFIXO = ".snap";
+
+    private SnapshotBanco() {
+    }
+
+    // Grava o estado do banco no diretório como snapshot-<lsn>.snap. O arquivo é escrito
+    // com outro nome e renomeado no fim, então um snapshot visível está sempre completo.
+    static Path gravar(XuBank banco, long lsn, Path diretorio) throws SecurityException {
+        Path destino = diretorio.resolve(String.format("%s%020d%s", PREFIXO, lsn, SUFIXO));
+        Path temporario = diretorio.resolve(destino.getFileName() + ".tmp");
+        Cliente[] clientes = banco.copiarClientes();
+
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.position(CABECALHO);
+            EscritorBloco escritor = new EscritorBloco();
+            List<Long> posicoes = new ArrayList<>();
+            long totalContas = 0;
+
+            for (int de = 0; de < clientes.length; de += CLIENTES_POR_BLOCO) {
+                int ate = Math.min(de + CLIENTES_POR_BLOCO, clientes.length);
+                posicoes.add(canal.position());
+                totalContas += escritor.escrever(clientes, de, ate, canal);
+            }
+
+            long posicaoIndice = canal.position();
+            ByteBuffer indice = ByteBuffer.allocate(posicoes.size() * 8);
+            for (long posicao : posicoes) {
+                indice.putLong(posicao);
+            }
+            indice.flip();
+            escreverTudo(canal, indice);
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+            cabecalho.putInt(MAGIC).putInt(VERSAO).putLong(lsn).putLong(clientes.length)
+                    .putLong(totalContas).putInt(posicoes.size()).putLong(posicaoIndice);
+            cabecalho.putInt(crc(cabecalho.array(), 0, cabecalho.position()));
+            cabecalho.flip();
+            canal.position(0);
+            escreverTudo(canal, cabecalho);
+            canal.force(true);
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao gravar snapshot", e);
+        }
+
+        try {
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            sincronizarDiretorio(diretorio);
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao publicar snapshot", e);
+        }
+        return destino;
+    }
+
+    // Monta um bloco em buffers reaproveitados e grava com uma única escrita
+    private static final class EscritorBloco {
+        private ByteBuffer dadosClientes = ByteBuffer.allocate(CLIENTES_POR_BLOCO * TAMANHO_CLIENTE);
+        private ByteBuffer dadosContas = ByteBuffer.allocate(CLIENTES_POR_BLOCO * TAMANHO_CONTA);
+        private ByteBuffer nomes = ByteBuffer.allocate(CLIENTES_POR_BLOCO * 32);
+        private final ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_BLOCO);
+        private final CRC32C crc = new CRC32C();
+        private final List<Conta> contas = new ArrayList<>();
+
+        long escrever(Cliente[] clientes, int de, int ate, FileChannel canal) throws IOException, SecurityException {
+            dadosClientes.clear();
+            dadosContas.clear();
+            nomes.clear();
+            int totalContas = 0;
+
+            for (int i = de; i < ate; i++) {
+                Cliente cliente = clientes[i];
+                byte[] nome = cliente.getNome().getBytes(StandardCharsets.UTF_8);
+                contas.clear();
+                cliente.paraCadaConta(contas::add);
+
+                if (nome.length > MAXIMO_CAMPO_CURTO || contas.size() > MAXIMO_CAMPO_CURTO) {
+                    throw new SecurityException("Cliente " + cliente.getCpfOfuscado()
+                            + " excede o limite do snapshot (nome ou número de contas)");
+                }
+                nomes = garantir(nomes, nome.length);
+                dadosContas = garantir(dadosContas, contas.size() * TAMANHO_CONTA);
+
+                dadosClientes.putLong(cliente.getCpfNumerico())
+                        .putLong(Double.doubleToLongBits(cliente.getRendaMensal()));
+                cliente.escreverCredencial(dadosClientes);
+                dadosClientes.putInt(nomes.position()).putShort((short) nome.length).putShort((short) contas.size());
+                nomes.put(nome);
+
+                for (Conta conta : contas) {
+                    long limite = conta instanceof ContaCorrente ? ((ContaCorrente) conta).getLimiteCentavos() : 0;
+                    dadosContas.putInt(conta.getNumero()).put((byte) conta.getTipoConta())
+                            .putLong(conta.getSaldoCentavos()).putLong(limite)
+                            .putLong(conta.getDataUltimaAtualizacao().toEpochDay());
+                }
+                totalContas += contas.size();
+            }
+
+            dadosClientes.flip();
+            dadosContas.flip();
+            nomes.flip();
+            crc.reset();
+            crc.update(dadosClientes.duplicate());
+            crc.update(dadosContas.duplicate());
+            crc.update(nomes.duplicate());
+
+            cabecalho.clear();
+            cabecalho.putInt(ate - de).putInt(totalContas).putInt(nomes.remaining()).putInt((int) crc.getValue());
+            cabecalho.flip();
+
+            ByteBuffer[] partes = {cabecalho, dadosClientes, dadosContas, nomes};
+            long restante = CABECALHO_BLOCO + dadosClientes.remaining() + dadosContas.remaining() + nomes.remaining();
+            while (restante > 0) {
+                restante -= canal.write(partes);
+            }
+            return totalContas;
+        }
+
+        private static ByteBuffer garantir(ByteBuffer buffer, int necessario) {
+            if (buffer.remaining() >= necessario) {
+                return buffer;
+            }
+            ByteBuffer maior = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + necessario));
+            buffer.flip();
+            maior.put(buffer);
+            return maior;
+        }
+    }
+
+    // Carrega o snapshot no banco (que deve estar vazio) reconstruindo os blocos em
+    // paralelo e devolve o LSN a partir do qual o journal deve ser reproduzido
+    static long carregar(Path arquivo, XuBank banco, int threads) throws SecurityException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = lerCabecalho(canal);
+            long lsn = cabecalho.getLong(8);
+            long totalClientes = cabecalho.getLong(16);
+            long totalContas = cabecalho.getLong(24);
+            int blocos = cabecalho.getInt(32);
+            long posicaoIndice = cabecalho.getLong(36);
+
+            ByteBuffer indice = ByteBuffer.allocate(blocos * 8);
+            while (indice.hasRemaining()) {
+                if (canal.read(indice, posicaoIndice + indice.position()) < 0) {
+                    throw new SecurityException("Índice do snapshot incompleto");
+                }
+            }
+            long[] posicoes = new long[blocos + 1];
+            for (int i = 0; i < blocos; i++) {
+                posicoes[i] = indice.getLong(i * 8);
+            }
+            posicoes[blocos] = posicaoIndice;
+
+            banco.prepararCarga(totalClientes, totalContas);
+            Cliente[][] porBloco = new Cliente[blocos][];
+            AtomicLong contasLidas = new AtomicLong();
+            AtomicInteger contador = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, blocos)), tarefa -> {
+                Thread thread = new Thread(tarefa, "xubank-snapshot-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<?>> tarefas = new ArrayList<>();
+                for (int i = 0; i < blocos; i++) {
+                    int bloco = i;
+                    tarefas.add(executor.submit(() -> {
+                        MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY,
+                                posicoes[bloco], posicoes[bloco + 1] - posicoes[bloco]);
+                        porBloco[bloco] = reconstruirBloco(dados, banco, contasLidas);
+                        return null;
+                    }));
+                }
+                for (Future<?> tarefa : tarefas) {
+                    tarefa.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SecurityException("Carga do snapshot interrompida", e);
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof SecurityException) {
+                    throw (SecurityException) causa;
+                }
+                throw new SecurityException("Erro ao carregar snapshot", causa);
+            } finally {
+                executor.shutdown();
+            }
+
+            long clientesLidos = 0;
+            for (Cliente[] bloco : porBloco) {
+                clientesLidos += bloco.length;
+            }
+            if (clientesLidos != totalClientes || contasLidas.get() != totalContas) {
+                throw new SecurityException("Snapshot inconsistente: " + arquivo.getFileName());
+            }
+            banco.anexarClientesRestaurados(porBloco);
+            return lsn;
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao ler snapshot", e);
+        }
+    }
+
+    private static Cliente[] reconstruirBloco(ByteBuffer bloco, XuBank banco, AtomicLong contasLidas) throws SecurityException {
+        int numeroClientes = bloco.getInt(0);
+        int numeroContas = bloco.getInt(4);
+        int tamanhoNomes = bloco.getInt(8);
+        int inicioClientes = CABECALHO_BLOCO;
+        int inicioContas = inicioClientes + numeroClientes * TAMANHO_CLIENTE;
+        int inicioNomes = inicioContas + numeroContas * TAMANHO_CONTA;
+        if (numeroClientes < 0 || numeroContas < 0 || inicioNomes + tamanhoNomes != bloco.capacity()) {
+            throw new SecurityException("Bloco de snapshot com tamanho inválido");
+        }
+
+        CRC32C crc = new CRC32C();
+        ByteBuffer corpo = bloco.duplicate();
+        corpo.position(CABECALHO_BLOCO);
+        crc.update(corpo);
+        if ((int) crc.getValue() != bloco.getInt(12)) {
+            throw new SecurityException("Bloco de snapshot corrompido");
+        }
+
+        ByteBuffer nomes = bloco.duplicate();
+        byte[] nome = new byte[256];
+        Cliente[] clientes = new Cliente[numeroClientes];
+        int conta = inicioContas;
+        long diaCache = Long.MIN_VALUE;
+        LocalDate dataCache = null; // as contas costumam compartilhar poucas datas
+
+        for (int i = 0; i < numeroClientes; i++) {
+            int p = inicioClientes + i * TAMANHO_CLIENTE;
+            long cpf = bloco.getLong(p);
+            double renda = Double.longBitsToDouble(bloco.getLong(p + 8));
+            byte[] salt = new byte[PasswordUtils.TAMANHO_SALT];
+            byte[] hash = new byte[PasswordUtils.TAMANHO_HASH];
+            ByteBuffer credencial = bloco.duplicate();
+            credencial.position(p + 16);
+            credencial.get(salt).get(hash);
+            int q = p + 16 + salt.length + hash.length;
+            int posicaoNome = bloco.getInt(q);
+            int tamanhoNome = Short.toUnsignedInt(bloco.getShort(q + 4));
+            int contasCliente = Short.toUnsignedInt(bloco.getShort(q + 6));
+
+            if (tamanhoNome > nome.length) {
+                nome = new byte[tamanhoNome];
+            }
+            nomes.position(inicioNomes + posicaoNome);
+            nomes.get(nome, 0, tamanhoNome);
+            Cliente cliente = Cliente.restaurar(cpf, new String(nome, 0, tamanhoNome, StandardCharsets.UTF_8),
+                    salt, hash, renda);
+
+            for (int j = 0; j < contasCliente; j++, conta += TAMANHO_CONTA) {
+                long dia = bloco.getLong(conta + 21);
+                if (dia != diaCache) {
+                    diaCache = dia;
+                    dataCache = LocalDate.ofEpochDay(dia);
+                }
+                Conta restaurada = Conta.restaurar(bloco.get(conta + 4), cliente, bloco.getInt(conta),
+                        bloco.getLong(conta + 5), dataCache);
+                if (restaurada instanceof ContaCorrente) {
+                    ((ContaCorrente) restaurada).restaurarLimite(bloco.getLong(conta + 13));
+                }
+                cliente.restaurarConta(restaurada);
+            }
+
+            banco.indexarClienteRestaurado(cliente);
+            clientes[i] = cliente;
+        }
+
+        contasLidas.addAndGet(numeroContas);
+        return clientes;
+    }
+
+    private static ByteBuffer lerCabecalho(FileChannel canal) throws IOException, SecurityException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+        canal.read(cabecalho, 0);
+        if (cabecalho.position() < CABECALHO || cabecalho.getInt(0) != MAGIC) {
+            throw new SecurityException("Arquivo não é um snapshot do XuBank");
+        }
+        if (cabecalho.getInt(4) != VERSAO) {
+            throw new SecurityException("Versão de snapshot não suportada: " + cabecalho.getInt(4));
+        }
+        if (crc(cabecalho.array(), 0, CABECALHO - 4) != cabecalho.getInt(CABECALHO - 4)) {
+            throw new SecurityException("Cabeçalho de snapshot corrompido");
+        }
+        return cabecalho;
+    }
+
+    static long lerLsn(Path arquivo) throws SecurityException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return lerCabecalho(canal).getLong(8);
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao ler snapshot", e);
+        }
+    }
+
+    // Snapshot mais recente do diretório, ou null se não houver
+    static Path ultimo(Path diretorio) throws SecurityException {
+        List<Path> existentes = listar(diretorio);
+        return existentes.isEmpty() ? null : existentes.get(existentes.size() - 1);
+    }
+
+    static void removerAnteriores(Path diretorio, Path atual) throws SecurityException {
+        try {
+            for (Path snapshot : listar(diretorio)) {
+                if (!snapshot.equals(atual)) {
+                    Files.delete(snapshot);
+                }
+            }
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao remover snapshots antigos", e);
+        }
+    }
+
+    private static List<Path> listar(Path diretorio) throws SecurityException {
+        List<Path> encontrados = new ArrayList<>();
+        if (!Files.isDirectory(diretorio)) {
+            return encontrados;
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            for (Path arquivo : arquivos) {
+                encontrados.add(arquivo);
+            }
+        } catch (IOException e) {
+            throw new SecurityException("Erro ao listar snapshots", e);
+        }
+        Collections.sort(encontrados);
+        return encontrados;
+    }
+
+    private static void escreverTudo(FileChannel canal, ByteBuffer dados) throws IOException {
+        while (dados.hasRemaining()) {
+            canal.write(dados);
+        }
+    }
+
+    private static void sincronizarDiretorio(Path diretorio) {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Nem todo sistema de arquivos permite fsync de diretório
+        }
+    }
+
+    private static int crc(byte[] dados, int inicio, int tamanho) {
+        CRC32C crc = new CRC32C();
+        crc.update(dados, inicio, tamanho);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,192 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Série mensal de taxas de mercado, uma por produto e mês (em % ao mês): renda fixa (tipo 3)
+// e investimento (tipo 4). Todas as contas de um produto rendem a mesma taxa no mesmo mês.
+// Cada mês é publicado uma única vez, sorteado da FonteRendimento na faixa do produto ou lido
+// de um arquivo, e fica guardado: atualizar uma conta parada há anos é só uma consulta.
+//
+// Arquivo (-Dxubank.taxas.arquivo), uma taxa por linha; meses ausentes são sorteados:
+//   mes,tipo,taxa        por exemplo 2026-09,4,-0.35
+public class TaxasMercado {
+    private static final double[] TAXA_MIN = {0, 0, 0, 0.5, -0.6};
+    private static final double[] TAXA_MAX = {0, 0, 0, 0.85, 1.5};
+    private static final long NAO_PUBLICADA = Double.doubleToRawLongBits(Double.NaN);
+
+    private static volatile MesCorrente mesCorrente = new MesCorrente(0, 0, 0);
+
+    private final FonteRendimento fonte;
+    // Um bloco de doze meses por produto e ano, com os bits de cada taxa; o primeiro a publicar um mês vence
+    private final ConcurrentHashMap<Integer, AtomicLongArray> serie = new ConcurrentHashMap<>();
+
+    public TaxasMercado(FonteRendimento fonte) {
+        if (fonte == null) {
+            throw new IllegalArgumentException("Fonte de rendimento não pode ser nula");
+        }
+        this.fonte = fonte;
+    }
+
+    public static TaxasMercado carregar(Path arquivo, FonteRendimento fonte) throws IOException, SecurityException {
+        TaxasMercado taxas = new TaxasMercado(fonte);
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.trim().isEmpty() || linha.charAt(0) == '#' || linha.startsWith("mes,")) {
+                    continue;
+                }
+                List<String> campos = ImportacaoClientes.separarCampos(linha);
+                try {
+                    if (campos == null || campos.size() != 3) {
+                        throw new SecurityException("Linha malformada");
+                    }
+                    taxas.publicar(Integer.parseInt(campos.get(1).trim()),
+                            YearMonth.parse(campos.get(0).trim()), Double.parseDouble(campos.get(2).trim()));
+                } catch (SecurityException | NumberFormatException | DateTimeParseException e) {
+                    throw new SecurityException("Taxa de mercado inválida na linha " + numero + ": " + linha, e);
+                }
+            }
+        }
+        return taxas;
+    }
+
+    public static boolean produtoDeMercado(int tipoConta) {
+        return tipoConta == 3 || tipoConta == 4;
+    }
+
+    // Fixa a taxa de um mês que ainda não foi publicado
+    void publicar(int tipoConta, YearMonth mes, double taxa) throws SecurityException {
+        if (!produtoDeMercado(tipoConta)) {
+            throw new SecurityException("Tipo de conta sem taxa de mercado: " + tipoConta);
+        }
+        if (!Double.isFinite(taxa) || taxa <= -100) {
+            throw new SecurityException("Taxa de mercado inválida: " + taxa);
+        }
+        // O imposto da renda fixa incide sobre o rendimento, que não pode ser negativo
+        if (tipoConta == 3 && taxa < 0) {
+            throw new SecurityException("Taxa de renda fixa negativa: " + taxa);
+        }
+        long indice = indiceMes(mes);
+        if (!bloco(tipoConta, indice).compareAndSet((int) Math.floorMod(indice, 12L), NAO_PUBLICADA,
+                Double.doubleToRawLongBits(taxa))) {
+            throw new SecurityException("Taxa já publicada para " + mes + " tipo " + tipoConta);
+        }
+    }
+
+    public double taxa(int tipoConta, YearMonth mes) {
+        validarProduto(tipoConta);
+        long indice = indiceMes(mes);
+        return taxa(tipoConta, bloco(tipoConta, indice), indice);
+    }
+
+    // Taxa do mês corrente, sem consultar o calendário a cada chamada
+    public double taxaAtual(int tipoConta) {
+        validarProduto(tipoConta);
+        long indice = indiceMesCorrente();
+        return taxa(tipoConta, bloco(tipoConta, indice), indice);
+    }
+
+    // Taxas de "meses" meses consecutivos a partir de "primeiro", na ordem
+    public double[] taxas(int tipoConta, YearMonth primeiro, int meses) {
+        validarProduto(tipoConta);
+        double[] taxas = new double[meses];
+        long indice = indiceMes(primeiro);
+        AtomicLongArray bloco = null;
+        for (int i = 0; i < meses; i++, indice++) {
+            if (bloco == null || Math.floorMod(indice, 12L) == 0) {
+                bloco = bloco(tipoConta, indice);
+            }
+            taxas[i] = taxa(tipoConta, bloco, indice);
+        }
+        return taxas;
+    }
+
+    // Taxa do mês por tipo de conta (0 para os tipos de taxa própria), resolvida uma vez no fechamento
+    public double[] taxasDoMes(YearMonth mes) {
+        double[] taxas = new double[TotaisCustodia.TIPOS + 1];
+        for (int tipo = 1; tipo <= TotaisCustodia.TIPOS; tipo++) {
+            if (produtoDeMercado(tipo)) {
+                taxas[tipo] = taxa(tipo, mes);
+            }
+        }
+        return taxas;
+    }
+
+    public FonteRendimento getFonte() {
+        return fonte;
+    }
+
+    private double taxa(int tipoConta, AtomicLongArray bloco, long indice) {
+        int mes = (int) Math.floorMod(indice, 12L);
+        long bits = bloco.get(mes);
+        if (bits == NAO_PUBLICADA) {
+            double sorteada = TAXA_MIN[tipoConta]
+                    + (TAXA_MAX[tipoConta] - TAXA_MIN[tipoConta]) * fonte.sortear(tipoConta, indice);
+            bloco.compareAndSet(mes, NAO_PUBLICADA, Double.doubleToRawLongBits(sorteada));
+            bits = bloco.get(mes);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    private AtomicLongArray bloco(int tipoConta, long indice) {
+        Integer chave = (int) Math.floorDiv(indice, 12L) * 8 + tipoConta;
+        AtomicLongArray bloco = serie.get(chave);
+        if (bloco == null) {
+            bloco = serie.computeIfAbsent(chave, c -> {
+                AtomicLongArray novo = new AtomicLongArray(12);
+                for (int i = 0; i < 12; i++) {
+                    novo.set(i, NAO_PUBLICADA);
+                }
+                return novo;
+            });
+        }
+        return bloco;
+    }
+
+    private static void validarProduto(int tipoConta) {
+        if (!produtoDeMercado(tipoConta)) {
+            throw new IllegalArgumentException("Tipo de conta sem taxa de mercado: " + tipoConta);
+        }
+    }
+
+    private static long indiceMes(YearMonth mes) {
+        return mes.getYear() * 12L + mes.getMonthValue() - 1;
+    }
+
+    // Mês corrente no fuso padrão, recalculado só quando o relógio sai do intervalo guardado
+    static long indiceMesCorrente() {
+        MesCorrente atual = mesCorrente;
+        long agora = System.currentTimeMillis();
+        if (agora < atual.inicio || agora >= atual.fim) {
+            ZoneId zona = ZoneId.systemDefault();
+            YearMonth mes = YearMonth.now(zona);
+            atual = new MesCorrente(indiceMes(mes),
+                    mes.atDay(1).atStartOfDay(zona).toInstant().toEpochMilli(),
+                    mes.plusMonths(1).atDay(1).atStartOfDay(zona).toInstant().toEpochMilli());
+            mesCorrente = atual;
+        }
+        return atual.indice;
+    }
+
+    private static final class MesCorrente {
+        final long indice;
+        final long inicio;
+        final long fim;
+
+        MesCorrente(long indice, long inicio, long fim) {
+            this.indice = indice;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+    }
+}
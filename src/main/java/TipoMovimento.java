@@ -0,0 +1,32 @@
+public enum TipoMovimento {
+    DEPOSITO(1),
+    SAQUE(2),
+    TAXA(3),
+    RENDIMENTO(4),
+    IMPOSTO(5),
+    AJUSTE(6), // Alteração direta do saldo, fora das operações de conta
+    TRANSFERENCIA_ENVIADA(7),
+    TRANSFERENCIA_RECEBIDA(8);
+
+    private static final TipoMovimento[] POR_CODIGO = new TipoMovimento[9];
+
+    static {
+        for (TipoMovimento tipo : values()) {
+            POR_CODIGO[tipo.codigo] = tipo;
+        }
+    }
+
+    private final int codigo;
+
+    TipoMovimento(int codigo) {
+        this.codigo = codigo;
+    }
+
+    public int getCodigo() {
+        return codigo;
+    }
+
+    public static TipoMovimento fromCodigo(int codigo) {
+        return codigo > 0 && codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : null;
+    }
+}
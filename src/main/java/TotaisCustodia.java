@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Somas e contagens por tipoConta mantidas a cada alteração de saldo, para que os
+// relatórios de custódia não precisem percorrer todos os clientes. Seguem a mesma
+// regra dos relatórios: contas com saldo negativo ficam fora do total e da contagem.
+public class TotaisCustodia {
+    public static final int TIPOS = 4;
+
+    private final LongAdder[] saldos = new LongAdder[TIPOS + 1];
+    private final LongAdder[] contas = new LongAdder[TIPOS + 1];
+
+    public TotaisCustodia() {
+        for (int tipo = 1; tipo <= TIPOS; tipo++) {
+            saldos[tipo] = new LongAdder();
+            contas[tipo] = new LongAdder();
+        }
+    }
+
+    public void registrarConta(Conta conta) {
+        registrarVariacao(conta.getTipoConta(), -1, conta.getSaldoCentavos());
+    }
+
+    // saldoAnterior negativo equivale a "fora da custódia" (inclusive conta nova)
+    public void registrarVariacao(int tipo, long saldoAnterior, long saldoNovo) {
+        if (tipo < 1 || tipo > TIPOS) {
+            return;
+        }
+
+        long variacaoSaldo = contribuicao(saldoNovo) - contribuicao(saldoAnterior);
+        if (variacaoSaldo != 0) {
+            saldos[tipo].add(variacaoSaldo);
+        }
+
+        int variacaoContas = (saldoNovo >= 0 ? 1 : 0) - (saldoAnterior >= 0 ? 1 : 0);
+        if (variacaoContas != 0) {
+            contas[tipo].add(variacaoContas);
+        }
+    }
+
+    private static long contribuicao(long saldo) {
+        return saldo >= 0 ? saldo : 0;
+    }
+
+    public long getSaldoCentavos(int tipo) {
+        return saldos[tipo].sum();
+    }
+
+    public long getNumeroContas(int tipo) {
+        return contas[tipo].sum();
+    }
+
+    public long[] getSaldosPorTipo() {
+        long[] resultado = new long[TIPOS + 1];
+        for (int tipo = 1; tipo <= TIPOS; tipo++) {
+            resultado[tipo] = saldos[tipo].sum();
+        }
+        return resultado;
+    }
+
+    public long[] getContasPorTipo() {
+        long[] resultado = new long[TIPOS + 1];
+        for (int tipo = 1; tipo <= TIPOS; tipo++) {
+            resultado[tipo] = contas[tipo].sum();
+        }
+        return resultado;
+    }
+
+    // Compara os totais incrementais com uma varredura completa. Só é conclusivo
+    // sem operações em andamento; devolve a lista de divergências encontradas.
+    public List<String> verificar(List<Cliente> clientes) {
+        long[] saldosVarridos = new long[TIPOS + 1];
+        long[] contasVarridas = new long[TIPOS + 1];
+
+        for (Cliente cliente : clientes) {
+            for (Conta conta : cliente.getContas()) {
+                int tipo = conta.getTipoConta();
+                long saldo = conta.getSaldoCentavos();
+                if (tipo < 1 || tipo > TIPOS || saldo < 0) {
+                    continue;
+                }
+                saldosVarridos[tipo] += saldo;
+                contasVarridas[tipo]++;
+            }
+        }
+
+        List<String> divergencias = new ArrayList<>();
+        for (int tipo = 1; tipo <= TIPOS; tipo++) {
+            long saldo = saldos[tipo].sum();
+            long quantidade = contas[tipo].sum();
+            if (saldo != saldosVarridos[tipo] || quantidade != contasVarridas[tipo]) {
+                divergencias.add("Tipo " + tipo + ": incremental " + Dinheiro.formatar(saldo) + " em " + quantidade +
+                        " conta(s), varredura " + Dinheiro.formatar(saldosVarridos[tipo]) + " em " +
+                        contasVarridas[tipo] + " conta(s)");
+            }
+        }
+        return divergencias;
+    }
+}
@@ -0,0 +1,24 @@
+// Uma transferência de um lote (XuBank.transferirLote)
+public class Transferencia {
+    private final int numeroOrigem;
+    private final int numeroDestino;
+    private final long valorCentavos;
+
+    public Transferencia(int numeroOrigem, int numeroDestino, long valorCentavos) {
+        this.numeroOrigem = numeroOrigem;
+        this.numeroDestino = numeroDestino;
+        this.valorCentavos = valorCentavos;
+    }
+
+    public int getNumeroOrigem() {
+        return numeroOrigem;
+    }
+
+    public int getNumeroDestino() {
+        return numeroDestino;
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+}
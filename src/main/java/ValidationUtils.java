@@ -1,64 +1,87 @@
-import java.util.regex.Pattern;
-
+// Validações e normalizações percorrendo os caracteres diretamente, sem regex, sem
+// substring e sem cópias: no caminho de sucesso nada é alocado. As decisões são as
+// mesmas das versões anteriores baseadas em regex (ver ValidationUtilsEquivalenciaTest).
 public class ValidationUtils {
-    private static final Pattern CPF_PATTERN = Pattern.compile("\\d{11}");
-    private static final Pattern NOME_PATTERN = Pattern.compile("^[a-zA-ZÀ-ÿ\\s]{2,50}$");
+    private static final int NOME_MINIMO = 2;
+    private static final int NOME_MAXIMO = 50;
+    private static final String ESPECIAIS_SENHA = "!@#$%^&*()_+-=[]{}|;:,.<>?";
 
+    // Caracteres que não são dígitos ASCII são ignorados; sobram exatamente 11 dígitos,
+    // não todos iguais, com os dois verificadores corretos. Os verificadores são
+    // acumulados na mesma passada, sem guardar os dígitos.
     public static boolean validarCPF(String cpf) {
-        if (cpf == null || cpf.trim().isEmpty()) {
+        if (cpf == null) {
             return false;
         }
 
-        String cpfLimpo = cpf.replaceAll("[^0-9]", "");
+        int digitos = 0;
+        int primeiro = -1;
+        boolean todosIguais = true;
+        int soma1 = 0;
+        int soma2 = 0;
+        int dv1 = 0;
+        int dv2 = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            int d = c - '0';
+            if (digitos == 11) {
+                return false;
+            }
+            if (digitos == 0) {
+                primeiro = d;
+            } else if (d != primeiro) {
+                todosIguais = false;
+            }
 
-        if (!CPF_PATTERN.matcher(cpfLimpo).matches()) {
-            return false;
+            if (digitos < 9) {
+                soma1 += d * (10 - digitos);
+            } else if (digitos == 9) {
+                dv1 = d;
+            } else {
+                dv2 = d;
+            }
+            if (digitos < 10) {
+                soma2 += d * (11 - digitos);
+            }
+            digitos++;
         }
 
-        
-        if (cpfLimpo.matches("(\\d)\\1{10}")) {
+        if (digitos != 11 || todosIguais) {
             return false;
         }
-
-       
-        return validarDigitosCPF(cpfLimpo);
+        return dv1 == digitoVerificador(soma1) && dv2 == digitoVerificador(soma2);
     }
 
-    private static boolean validarDigitosCPF(String cpf) {
-        try {
-            int[] digitos = new int[11];
-            for (int i = 0; i < 11; i++) {
-                digitos[i] = Integer.parseInt(cpf.substring(i, i + 1));
-            }
-
-            
-            int soma = 0;
-            for (int i = 0; i < 9; i++) {
-                soma += digitos[i] * (10 - i);
-            }
-            int resto = soma % 11;
-            int dv1 = (resto < 2) ? 0 : 11 - resto;
+    private static int digitoVerificador(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
 
-            if (dv1 != digitos[9]) {
+    // Após o trim: de 2 a 50 caracteres, só letras ASCII, À-ÿ (U+00C0 a U+00FF) e espaços
+    public static boolean validarNome(String nome) {
+        if (nome == null) {
+            return false;
+        }
+        int inicio = inicioSemEspacos(nome);
+        int fim = fimSemEspacos(nome, inicio);
+        int tamanho = fim - inicio;
+        if (tamanho < NOME_MINIMO || tamanho > NOME_MAXIMO) {
+            return false;
+        }
+        for (int i = inicio; i < fim; i++) {
+            if (!caractereDeNome(nome.charAt(i))) {
                 return false;
             }
-
-            
-            soma = 0;
-            for (int i = 0; i < 10; i++) {
-                soma += digitos[i] * (11 - i);
-            }
-            resto = soma % 11;
-            int dv2 = (resto < 2) ? 0 : 11 - resto;
-
-            return dv2 == digitos[10];
-        } catch (Exception e) {
-            return false;
         }
+        return true;
     }
 
-    public static boolean validarNome(String nome) {
-        return nome != null && NOME_PATTERN.matcher(nome.trim()).matches();
+    private static boolean caractereDeNome(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= 'À' && c <= 'ÿ')
+                || c == ' ' || (c >= '\t' && c <= '\r'); // \s: espaço, \t, \n, \u000B, \f, \r
     }
 
     public static boolean validarSenha(String senha) {
@@ -71,11 +94,12 @@ public class ValidationUtils {
         boolean temDigito = false;
         boolean temEspecial = false;
 
-        for (char c : senha.toCharArray()) {
+        for (int i = 0; i < senha.length(); i++) {
+            char c = senha.charAt(i);
             if (Character.isUpperCase(c)) temMaiuscula = true;
             else if (Character.isLowerCase(c)) temMinuscula = true;
             else if (Character.isDigit(c)) temDigito = true;
-            else if ("!@#$%^&*()_+-=[]{}|;:,.<>?".indexOf(c) >= 0) temEspecial = true;
+            else if (ESPECIAIS_SENHA.indexOf(c) >= 0) temEspecial = true;
         }
 
         return temMaiuscula && temMinuscula && temDigito && temEspecial;
@@ -85,8 +109,70 @@ public class ValidationUtils {
         return valor >= 0 && Double.isFinite(valor) && valor <= Double.MAX_VALUE / 2;
     }
 
+    // Converte o CPF (com ou sem pontuação) para um long; retorna -1 se não tiver 11 dígitos
+    public static long normalizarCpf(String cpf) {
+        if (cpf == null) {
+            return -1;
+        }
+
+        long valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > 11) {
+                    return -1;
+                }
+                valor = valor * 10 + (c - '0');
+            }
+        }
+        return digitos == 11 ? valor : -1;
+    }
+
+    // trim e remoção de < > " ' &. Sem nada a remover, devolve a própria string (ou o
+    // substring do trim); só monta uma cópia quando há caractere proibido.
     public static String sanitizarString(String input) {
         if (input == null) return "";
-        return input.trim().replaceAll("[<>\"'&]", "");
+        int inicio = inicioSemEspacos(input);
+        int fim = fimSemEspacos(input, inicio);
+
+        int proibido = inicio;
+        while (proibido < fim && !caractereProibido(input.charAt(proibido))) {
+            proibido++;
+        }
+        if (proibido == fim) {
+            return inicio == 0 && fim == input.length() ? input : input.substring(inicio, fim);
+        }
+
+        StringBuilder sb = new StringBuilder(fim - inicio);
+        sb.append(input, inicio, proibido);
+        for (int i = proibido + 1; i < fim; i++) {
+            char c = input.charAt(i);
+            if (!caractereProibido(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean caractereProibido(char c) {
+        return c == '<' || c == '>' || c == '"' || c == '\'' || c == '&';
+    }
+
+    // Mesmos limites de String.trim: caracteres <= U+0020 nas pontas
+    private static int inicioSemEspacos(String s) {
+        int inicio = 0;
+        while (inicio < s.length() && s.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    private static int fimSemEspacos(String s, int inicio) {
+        int fim = s.length();
+        while (fim > inicio && s.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        return fim;
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,185 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class XuBank {
-    private final List<Cliente> clientes;
+    private final ArrayList<Cliente> clientes;
+    // Não são final para que a carga de snapshot possa trocá-los por mapas já dimensionados
+    private volatile Map<Long, Cliente> indiceCpf = new ConcurrentHashMap<>();
+    private volatile Map<Integer, Conta> indiceContas = new ConcurrentHashMap<>();
+    private final TotaisCustodia custodia = new TotaisCustodia();
+    private final IndiceSaldos indiceSaldos = new IndiceSaldos();
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadPoolExecutor executorAutenticacao = criarExecutorAutenticacao();
+    private volatile JournalTransacoes journal;
+    private volatile ScheduledExecutorService executorSnapshot;
 
     public XuBank() {
         clientes = new ArrayList<>();
         SecurityLogger.logSecurityEvent("SISTEMA_INICIADO", "Sistema XuBank iniciado");
     }
 
-    public boolean CadastrarCliente(String nome, String cpf, String senha, double rendaMensal) {
-        lock.writeLock().lock();
+    // Reconstrói o banco a partir do diretório do journal: carrega o snapshot mais recente,
+    // reproduz os segmentos posteriores a ele e continua gravando no último segmento.
+    // Se o diretório não existir, começa um banco vazio.
+    public static XuBank recuperar(Path diretorioJournal, DurabilidadeJournal durabilidade,
+                                   long latenciaMicros) throws SecurityException {
+        XuBank banco = new XuBank();
+        long inicio = System.nanoTime();
+
+        Path snapshot = SnapshotBanco.ultimo(diretorioJournal);
+        long lsn = snapshot != null ? SnapshotBanco.carregar(snapshot, banco, threadsSnapshot()) : 0;
+        long fimSnapshot = System.nanoTime();
+        long ultimaSequencia = JournalTransacoes.reproduzir(diretorioJournal, lsn, Long.MAX_VALUE, banco);
+        banco.journal = JournalTransacoes.abrir(diretorioJournal, ultimaSequencia, durabilidade, latenciaMicros);
+
+        SecurityLogger.logSecurityEvent("JOURNAL_RECUPERADO",
+                "Estado recuperado - Snapshot: " + lsn + " (" +
+                        TimeUnit.NANOSECONDS.toMillis(fimSnapshot - inicio) + " ms)" +
+                        " Registros reproduzidos: " + (ultimaSequencia - lsn) + " (" +
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fimSnapshot) + " ms)" +
+                        " Clientes: " + banco.getNumeroClientes());
+        return banco;
+    }
+
+    private static int threadsSnapshot() {
+        return Integer.getInteger("xubank.snapshot.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    // Gera um snapshot em segundo plano sem parar as operações. O journal é rotacionado,
+    // e um banco à parte é reconstruído com o snapshot anterior e os segmentos fechados:
+    // o estado gravado é exatamente o da última sequência antes da rotação. Em seguida
+    // os segmentos e o snapshot anteriores são removidos. O futuro devolve o LSN.
+    public CompletableFuture<Long> gerarSnapshot() {
+        JournalTransacoes atual = journal;
+        if (atual == null) {
+            CompletableFuture<Long> recusado = new CompletableFuture<>();
+            recusado.completeExceptionally(new SecurityException("Snapshot exige o journal habilitado"));
+            return recusado;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return compactar(atual);
+            } catch (SecurityException e) {
+                SecurityLogger.logError("ERRO_SNAPSHOT", "Erro ao gerar snapshot", e);
+                throw new CompletionException(e);
+            }
+        }, executorSnapshot());
+    }
+
+    public void agendarSnapshots(long intervaloSegundos) {
+        if (intervaloSegundos <= 0) {
+            throw new IllegalArgumentException("Intervalo deve ser positivo");
+        }
+        executorSnapshot().scheduleWithFixedDelay(() -> gerarSnapshot().join(),
+                intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    private synchronized ScheduledExecutorService executorSnapshot() {
+        if (executorSnapshot == null) {
+            executorSnapshot = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "xubank-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executorSnapshot;
+    }
+
+    private static long compactar(JournalTransacoes atual) throws SecurityException {
+        long inicio = System.nanoTime();
+        Path diretorio = atual.getDiretorio();
+        long lsn = atual.rotacionar();
+
+        Path anterior = SnapshotBanco.ultimo(diretorio);
+        long lsnAnterior = anterior != null ? SnapshotBanco.lerLsn(anterior) : 0;
+        if (lsn <= lsnAnterior) {
+            return lsnAnterior;
+        }
+
+        XuBank compactado = new XuBank();
         try {
-            if (buscarClientePorCpf(cpf) != null) {
-                SecurityLogger.logSecurityEvent("CADASTRO_DUPLICADO",
-                        "Tentativa de cadastro com CPF já existente: " + ValidationUtils.sanitizarString(cpf));
-                System.out.println("CPF já cadastrado no sistema.");
-                return false;
+            if (anterior != null) {
+                SnapshotBanco.carregar(anterior, compactado, threadsSnapshot());
             }
+            JournalTransacoes.reproduzir(diretorio, lsnAnterior, lsn, compactado);
+            Path novo = SnapshotBanco.gravar(compactado, lsn, diretorio);
+            JournalTransacoes.removerSegmentosAte(diretorio, lsn);
+            SnapshotBanco.removerAnteriores(diretorio, novo);
 
-            Cliente novoCliente = new Cliente(cpf, senha, nome, rendaMensal);
-            clientes.add(novoCliente);
+            SecurityLogger.logSecurityEvent("SNAPSHOT_GERADO",
+                    "Snapshot gerado - LSN: " + lsn + " Clientes: " + compactado.getNumeroClientes() +
+                            " Tempo: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) + " ms");
+            return lsn;
+        } finally {
+            compactado.encerrar();
+        }
+    }
+
+    public boolean CadastrarCliente(String nome, String cpf, String senha, double rendaMensal) {
+        long inicio = Metrics.inicio();
+        try {
+            return cadastrarCliente(nome, cpf, senha, rendaMensal);
+        } finally {
+            Metrics.registrar(Metrics.CADASTRO, inicio);
+        }
+    }
+
+    private boolean cadastrarCliente(String nome, String cpf, String senha, double rendaMensal) {
+        try {
+            Cliente novoCliente;
+            long sequencia = 0;
+            Metrics.travar(lock.writeLock(), Metrics.ESPERA_ESCRITA_BANCO);
+            try {
+                if (buscarClientePorCpf(cpf) != null) {
+                    SecurityLogger.logSecurityEvent("CADASTRO_DUPLICADO",
+                            "Tentativa de cadastro com CPF já existente: " + ValidationUtils.sanitizarString(cpf));
+                    System.out.println("CPF já cadastrado no sistema.");
+                    return false;
+                }
+
+                novoCliente = new Cliente(cpf, senha, nome, rendaMensal);
+
+                // Cadastro e contas já existentes entram no journal sob o lock de escrita,
+                // antes de o cliente ficar visível pelo CPF; a espera pelo fsync fica para
+                // depois de liberar o lock
+                JournalTransacoes atual = journal;
+                JournalTransacoes.iniciarLote();
+                try {
+                    if (atual != null) {
+                        atual.confirmar(novoCliente.registrarCadastro(atual));
+                    }
+                    indiceSaldos.adicionar(novoCliente);
+                    novoCliente.vincularBanco(this);
+                } finally {
+                    sequencia = JournalTransacoes.encerrarLote();
+                }
+                clientes.add(novoCliente);
+                indiceCpf.put(novoCliente.getCpfNumerico(), novoCliente);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            confirmarAte(sequencia);
 
             SecurityLogger.logSecurityEvent("CLIENTE_CADASTRADO",
                     "Cliente cadastrado: " + novoCliente.getCpfOfuscado());
@@ -38,41 +195,125 @@ public class XuBank {
             SecurityLogger.logError("ERRO_INESPERADO_CADASTRO", "Erro inesperado ao cadastrar cliente", e);
             System.out.println("Erro interno do sistema.");
             return false;
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
-    public Cliente buscarClientePorCpf(String cpf) {
-        if (cpf == null || cpf.trim().isEmpty()) {
-            return null;
+    public ResultadoImportacao importarClientes(Reader origem, Appendable rejeicoes) throws SecurityException {
+        return importarClientes(origem, rejeicoes, ForkJoinPool.commonPool());
+    }
+
+    // Importação em lote (ver ImportacaoClientes): um evento de log para o lote inteiro,
+    // em vez das linhas de cada cadastro
+    public ResultadoImportacao importarClientes(Reader origem, Appendable rejeicoes,
+                                                ExecutorService executor) throws SecurityException {
+        try {
+            ResultadoImportacao resultado = new ImportacaoClientes(this, executor).importar(origem, rejeicoes);
+            SecurityLogger.logSecurityEvent("IMPORTACAO_CLIENTES", resultado.getAceitos() + " cliente(s) importado(s), "
+                    + resultado.getRejeitados() + " linha(s) rejeitada(s)");
+            return resultado;
+        } catch (IOException e) {
+            SecurityLogger.logError("ERRO_IMPORTACAO", "Erro ao importar clientes", e);
+            throw new SecurityException("Erro ao importar clientes", e);
         }
-        lock.readLock().lock();
+    }
+
+    // Modo não interativo (ver ComandosLote): comandos em faixas paralelas por CPF, com um
+    // evento de log para a execução inteira
+    public ResultadoComandos executarComandos(Reader origem, Appendable saida, ExecutorService executor,
+                                              int paralelismo) throws SecurityException {
+        try {
+            ResultadoComandos resultado = new ComandosLote(this, executor, paralelismo).executar(origem, saida);
+            SecurityLogger.logSecurityEvent("COMANDOS_EXECUTADOS", resultado.getComandos() + " comando(s), "
+                    + resultado.getFalhas() + " falha(s)");
+            return resultado;
+        } catch (IOException e) {
+            SecurityLogger.logError("ERRO_COMANDOS", "Erro ao executar comandos", e);
+            throw new SecurityException("Erro ao executar comandos", e);
+        }
+    }
+
+    boolean cpfCadastrado(long cpf) {
+        return indiceCpf.containsKey(cpf);
+    }
+
+    // Publica os clientes importados sob uma única aquisição do lock de escrita; o journal
+    // recebe tudo como um lote e a espera pelo fsync fica para depois de liberar o lock.
+    // Devolve, por cliente, se foi publicado (false se o CPF foi cadastrado nesse meio tempo).
+    boolean[] publicarImportados(List<Cliente> importados) throws SecurityException {
+        boolean[] publicados = new boolean[importados.size()];
+        List<Cliente> novos = new ArrayList<>(importados.size());
+        long sequencia = 0;
+        Metrics.travar(lock.writeLock(), Metrics.ESPERA_ESCRITA_BANCO);
         try {
-            String cpfLimpo = cpf.replaceAll("[^0-9]", "");
-            for (Cliente cliente : clientes) {
-                if (constantTimeEquals(cliente.getCpf(), cpfLimpo)) {
-                    return cliente;
+            clientes.ensureCapacity(clientes.size() + importados.size());
+            JournalTransacoes atual = journal;
+            JournalTransacoes.iniciarLote();
+            try {
+                for (int i = 0; i < publicados.length; i++) {
+                    Cliente cliente = importados.get(i);
+                    // Cadastros concorrentes também passam pelo lock de escrita
+                    if (indiceCpf.containsKey(cliente.getCpfNumerico())) {
+                        for (Conta conta : cliente.getContas()) {
+                            Conta.liberarNumero(conta);
+                        }
+                        continue;
+                    }
+                    if (atual != null) {
+                        atual.confirmar(cliente.registrarCadastro(atual));
+                    }
+                    cliente.vincularBanco(this);
+                    clientes.add(cliente);
+                    indiceCpf.put(cliente.getCpfNumerico(), cliente);
+                    novos.add(cliente);
+                    publicados[i] = true;
                 }
+            } finally {
+                sequencia = JournalTransacoes.encerrarLote();
             }
-            return null;
+            indiceSaldos.adicionarTodos(new Cliente[][] {novos.toArray(new Cliente[0])});
         } finally {
-            lock.readLock().unlock();
+            lock.writeLock().unlock();
+        }
+        confirmarAte(sequencia);
+        return publicados;
+    }
+
+    public Cliente buscarClientePorCpf(String cpf) {
+        // O índice é concorrente, então a busca não precisa do lock de leitura.
+        // CPF nulo, vazio ou sem 11 dígitos normaliza para -1.
+        long chave = ValidationUtils.normalizarCpf(cpf);
+        if (chave < 0) {
+            return null;
+        }
+
+        Cliente cliente = indiceCpf.get(chave);
+        if (cliente != null && constantTimeEquals(cliente.getCpf(), chave)) {
+            return cliente;
         }
+        return null;
     }
 
-    private boolean constantTimeEquals(String a, String b) {
-        if (a == null || b == null || a.length() != b.length()) {
+    private boolean constantTimeEquals(String cpf, long chave) {
+        if (cpf == null || cpf.length() != 11) {
             return false;
         }
         int result = 0;
-        for (int i = 0; i < a.length(); i++) {
-            result |= a.charAt(i) ^ b.charAt(i);
+        long restante = chave;
+        for (int i = cpf.length() - 1; i >= 0; i--) {
+            result |= cpf.charAt(i) ^ ('0' + (int) (restante % 10));
+            restante /= 10;
         }
-        return result == 0;
+        return result == 0 && restante == 0;
     }
 
     public boolean autenticarCliente(String cpf, String senha) {
+        long inicio = Metrics.inicio();
+        boolean autenticado = autenticar(cpf, senha);
+        Metrics.registrar(autenticado ? Metrics.AUTENTICACAO_SUCESSO : Metrics.AUTENTICACAO_FALHA, inicio);
+        return autenticado;
+    }
+
+    private boolean autenticar(String cpf, String senha) {
         if (cpf == null || senha == null) {
             return false;
         }
@@ -95,30 +336,143 @@ public class XuBank {
         }
     }
 
-    
+    // Autenticação fora da thread chamadora, num pool limitado: uma rajada de logins
+    // ocupa no máximo xubank.auth.threads threads e xubank.auth.fila posições de fila.
+    // Quando a fila está cheia o futuro falha com SecurityException.
+    public CompletableFuture<Boolean> autenticarClienteAsync(String cpf, String senha) {
+        try {
+            return CompletableFuture.supplyAsync(() -> autenticarCliente(cpf, senha), executorAutenticacao);
+        } catch (RejectedExecutionException e) {
+            SecurityLogger.logSecurityEvent("LOGIN_REJEITADO", "Autenticação recusada por sobrecarga");
+            CompletableFuture<Boolean> recusado = new CompletableFuture<>();
+            recusado.completeExceptionally(new SecurityException("Sistema de autenticação sobrecarregado", e));
+            return recusado;
+        }
+    }
+
+    private static ThreadPoolExecutor criarExecutorAutenticacao() {
+        int threads = Integer.getInteger("xubank.auth.threads",
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+        int fila = Integer.getInteger("xubank.auth.fila", 1024);
+        AtomicInteger contador = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fila), tarefa -> {
+                    Thread thread = new Thread(tarefa, "xubank-auth-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public void encerrar() {
+        executorAutenticacao.shutdown();
+        ScheduledExecutorService snapshots = executorSnapshot;
+        if (snapshots != null) {
+            snapshots.shutdownNow();
+        }
+        JournalTransacoes atual = journal;
+        if (atual != null) {
+            atual.fechar();
+        }
+    }
+
     public String RelatorioCustodia() {
-        lock.readLock().lock(); 
+        long inicio = Metrics.inicio();
+        Metrics.travar(lock.readLock(), Metrics.ESPERA_LEITURA_BANCO);
         try {
-            RelatorioCustodia relatorios = new RelatorioCustodia(this.clientes);
+            RelatorioCustodia relatorios = new RelatorioCustodia(this.clientes, custodia);
             return relatorios.gerarRelatorioCustodiaTotal();
         } finally {
             lock.readLock().unlock();
+            Metrics.registrar(Metrics.RELATORIO_CUSTODIA, inicio);
         }
     }
 
     
+    // Extremos e ranking vêm do índice ordenado por saldo, sem varrer os clientes
     public String ClientesExtremos() {
-        lock.readLock().lock(); 
+        long inicio = Metrics.inicio();
         try {
-            RelatorioCustodia relatorios = new RelatorioCustodia(this.clientes);
-            return relatorios.gerarRelatorioClientesExtremos();
+            return new RelatorioCustodia(indiceSaldos).gerarRelatorioClientesExtremos();
         } finally {
-            lock.readLock().unlock();
+            Metrics.registrar(Metrics.RELATORIO_EXTREMOS, inicio);
+        }
+    }
+
+    public String RankingSaldos(int quantidade) {
+        long inicio = Metrics.inicio();
+        try {
+            return new RelatorioCustodia(indiceSaldos).gerarRankingSaldos(quantidade);
+        } finally {
+            Metrics.registrar(Metrics.RELATORIO_RANKING, inicio);
+        }
+    }
+
+    public List<Cliente> maioresSaldos(int quantidade) {
+        return indiceSaldos.maiores(quantidade);
+    }
+
+    public List<Cliente> menoresSaldos(int quantidade) {
+        return indiceSaldos.menores(quantidade);
+    }
+
+    // Exportações em streaming: as linhas vão direto para o destino, sem montar o
+    // relatório em memória. Devolvem o número de linhas de dados escritas.
+    public long exportarContas(Appendable destino, FormatoExportacao formato) throws SecurityException {
+        long inicio = Metrics.inicio();
+        try {
+            long linhas = new ExportacaoBanco(this, formato).exportarContas(destino);
+            SecurityLogger.logSecurityEvent("EXPORTACAO_CONTAS", linhas + " conta(s) exportada(s) em " + formato);
+            return linhas;
+        } catch (IOException e) {
+            SecurityLogger.logError("ERRO_EXPORTACAO", "Erro ao exportar contas", e);
+            throw new SecurityException("Erro ao exportar contas", e);
+        } finally {
+            Metrics.registrar(Metrics.EXPORTACAO_CONTAS, inicio);
+        }
+    }
+
+    public long exportarClientes(Appendable destino, FormatoExportacao formato) throws SecurityException {
+        long inicio = Metrics.inicio();
+        try {
+            long linhas = new ExportacaoBanco(this, formato).exportarClientes(destino);
+            SecurityLogger.logSecurityEvent("EXPORTACAO_CLIENTES", linhas + " cliente(s) exportado(s) em " + formato);
+            return linhas;
+        } catch (IOException e) {
+            SecurityLogger.logError("ERRO_EXPORTACAO", "Erro ao exportar clientes", e);
+            throw new SecurityException("Erro ao exportar clientes", e);
+        } finally {
+            Metrics.registrar(Metrics.EXPORTACAO_CLIENTES, inicio);
+        }
+    }
+
+    public long exportarContas(WritableByteChannel canal, FormatoExportacao formato) throws SecurityException {
+        Writer escritor = ExportacaoBanco.escritor(canal);
+        long linhas = exportarContas(escritor, formato);
+        descarregar(escritor);
+        return linhas;
+    }
+
+    public long exportarClientes(WritableByteChannel canal, FormatoExportacao formato) throws SecurityException {
+        Writer escritor = ExportacaoBanco.escritor(canal);
+        long linhas = exportarClientes(escritor, formato);
+        descarregar(escritor);
+        return linhas;
+    }
+
+    private static void descarregar(Writer escritor) throws SecurityException {
+        try {
+            escritor.flush();
+        } catch (IOException e) {
+            SecurityLogger.logError("ERRO_EXPORTACAO", "Erro ao concluir exportação", e);
+            throw new SecurityException("Erro ao concluir exportação", e);
         }
     }
 
     public int getNumeroClientes() {
-        lock.readLock().lock();
+        Metrics.travar(lock.readLock(), Metrics.ESPERA_LEITURA_BANCO);
         try {
             return clientes.size();
         } finally {
@@ -128,7 +482,362 @@ public class XuBank {
 
 
     public String gerarRelatorioSaldoMedio() {
-        RelatorioCustodia relatorio = new RelatorioCustodia(this.clientes); // Assumindo que XuBank tem uma lista de clientes
-        return relatorio.gerarRelatorioSaldoMedio();
+        long inicio = Metrics.inicio();
+        Metrics.travar(lock.readLock(), Metrics.ESPERA_LEITURA_BANCO);
+        try {
+            RelatorioCustodia relatorio = new RelatorioCustodia(this.clientes, custodia);
+            return relatorio.gerarRelatorioSaldoMedio();
+        } finally {
+            lock.readLock().unlock();
+            Metrics.registrar(Metrics.RELATORIO_SALDO_MEDIO, inicio);
+        }
+    }
+
+    public ResultadoRendimentoMensal processarRendimentoMensal() throws SecurityException {
+        return processarRendimentoMensal(ForkJoinPool.commonPool());
+    }
+
+    // Fechamento mensal em paralelo no executor informado. A lista de clientes é
+    // copiada sob o lock de leitura, que é liberado antes do processamento.
+    public ResultadoRendimentoMensal processarRendimentoMensal(ExecutorService executor) throws SecurityException {
+        Cliente[] participantes;
+        Metrics.travar(lock.readLock(), Metrics.ESPERA_LEITURA_BANCO);
+        try {
+            participantes = clientes.toArray(new Cliente[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ResultadoRendimentoMensal resultado = new ProcessadorRendimentoMensal(executor).executar(participantes);
+        JournalTransacoes atual = journal;
+        if (atual != null) {
+            atual.aguardarAte(atual.getUltimaSequencia()); // um fsync para o fechamento inteiro
+        }
+
+        SecurityLogger.logSecurityEvent("RENDIMENTO_MENSAL_PROCESSADO",
+                "Rendimento mensal processado - Contas: " + resultado.getContasProcessadas() +
+                        " Falhas: " + resultado.getFalhas());
+        return resultado;
+    }
+
+    // Transfere entre duas contas quaisquer, inclusive de clientes diferentes. Valem o
+    // limite do cheque especial na origem e a taxa do cheque especial no destino, e a
+    // origem segue a regra do seu saque: numa renda fixa ou num investimento o rendimento
+    // do período é creditado e o imposto sobre ele sai junto com o valor transferido.
+    public boolean transferir(int numeroOrigem, int numeroDestino, long valorCentavos) throws SecurityException {
+        return aplicarTransferencia(numeroOrigem, numeroDestino, valorCentavos);
+    }
+
+    // Aplica as transferências na ordem da lista, cada uma atômica por si: uma negada ou
+    // inválida não desfaz as demais. O journal espera um único fsync no fim do lote.
+    public boolean[] transferirLote(List<Transferencia> transferencias) throws SecurityException {
+        boolean[] realizadas = new boolean[transferencias.size()];
+        long ultimaSequencia;
+
+        JournalTransacoes.iniciarLote();
+        try {
+            for (int i = 0; i < realizadas.length; i++) {
+                Transferencia transferencia = transferencias.get(i);
+                try {
+                    realizadas[i] = aplicarTransferencia(transferencia.getNumeroOrigem(),
+                            transferencia.getNumeroDestino(), transferencia.getValorCentavos());
+                } catch (SecurityException e) {
+                    realizadas[i] = false; // motivo já registrado no log de segurança
+                }
+            }
+        } finally {
+            ultimaSequencia = JournalTransacoes.encerrarLote();
+        }
+
+        confirmarAte(ultimaSequencia);
+        return realizadas;
+    }
+
+    // Os monitores das duas contas (os mesmos do crédito de rendimento) são tomados em
+    // ordem crescente de número, então transferências cruzadas (A→B e B→A) não entram em
+    // deadlock e nenhum rendimento é creditado entre o imposto e o débito. Saques,
+    // depósitos e leituras não esperam: sem journal, um saque concorrente só faz o CAS da
+    // perna ser refeito. Com journal, as duas pernas e o registro único da transferência
+    // acontecem na seção travada dele, onde nenhum outro movimento muda os saldos; o fsync
+    // é esperado depois de soltar os monitores. Devolve false se a transferência foi negada.
+    private boolean aplicarTransferencia(int numeroOrigem, int numeroDestino, long valorCentavos) throws SecurityException {
+        if (valorCentavos <= 0) {
+            SecurityLogger.logSecurityEvent("TRANSFERENCIA_INVALIDA",
+                    "Tentativa de transferência com valor inválido: " + Dinheiro.formatar(valorCentavos));
+            throw new SecurityException("Valor de transferência inválido");
+        }
+        if (numeroOrigem == numeroDestino) {
+            SecurityLogger.logSecurityEvent("TRANSFERENCIA_INVALIDA",
+                    "Tentativa de transferência para a própria conta: " + numeroOrigem);
+            throw new SecurityException("Origem e destino da transferência são a mesma conta");
+        }
+
+        Conta origem = indiceContas.get(numeroOrigem);
+        Conta destino = indiceContas.get(numeroDestino);
+        if (origem == null || destino == null) {
+            SecurityLogger.logSecurityEvent("TRANSFERENCIA_INVALIDA",
+                    "Transferência com conta inexistente - Origem: " + numeroOrigem + " Destino: " + numeroDestino);
+            throw new SecurityException("Conta não encontrada");
+        }
+
+        Conta primeira = numeroOrigem < numeroDestino ? origem : destino;
+        Conta segunda = primeira == origem ? destino : origem;
+        long imposto;
+        long saldoOrigem;
+        long saldoDestino = 0;
+        long taxa = 0;
+        long ultimaSequencia;
+        JournalTransacoes atual = journal;
+
+        JournalTransacoes.iniciarLote();
+        try {
+            synchronized (primeira) {
+                synchronized (segunda) {
+                    imposto = origem.impostoRetirada();
+                    long valorTotal = valorCentavos + imposto;
+                    if (atual == null) {
+                        saldoOrigem = origem.retirarTransferencia(valorTotal);
+                        if (saldoOrigem != Conta.NEGADA) {
+                            saldoDestino = destino.receberTransferencia(valorCentavos);
+                            taxa = destino.taxaCredito(saldoDestino);
+                        }
+                    } else {
+                        long sequencia = 0;
+                        atual.travar();
+                        try {
+                            saldoOrigem = origem.retirarTransferencia(valorTotal);
+                            if (saldoOrigem != Conta.NEGADA) {
+                                boolean registrada = false;
+                                saldoDestino = destino.receberTransferencia(valorCentavos);
+                                taxa = destino.taxaCredito(saldoDestino);
+                                try {
+                                    // As duas pernas vão num único registro: uma queda nunca recupera só metade
+                                    sequencia = atual.registrarTransferencia(numeroOrigem, numeroDestino,
+                                            valorCentavos, imposto, taxa);
+                                    registrada = true;
+                                } finally {
+                                    if (!registrada) {
+                                        origem.estornarTransferencia(-valorTotal);
+                                        destino.estornarTransferencia(valorCentavos - taxa);
+                                    }
+                                }
+                            }
+                        } finally {
+                            atual.destravar();
+                        }
+                        if (sequencia > 0) {
+                            atual.confirmar(sequencia); // no lote: o fsync fica para o fim
+                        }
+                    }
+                }
+            }
+        } finally {
+            ultimaSequencia = JournalTransacoes.encerrarLote();
+        }
+
+        if (saldoOrigem == Conta.NEGADA) {
+            confirmarAte(ultimaSequencia); // rendimento creditado pela origem antes da negativa
+            SecurityLogger.logSecurityEvent("TRANSFERENCIA_NEGADA",
+                    "Transferência negada por saldo insuficiente", numeroOrigem);
+            return false;
+        }
+        origem.pernaTransferida(saldoOrigem, saldoOrigem - valorCentavos - imposto,
+                TipoMovimento.TRANSFERENCIA_ENVIADA, imposto, imposto > 0 ? TipoMovimento.IMPOSTO : null);
+        destino.pernaTransferida(saldoDestino, saldoDestino + valorCentavos - taxa,
+                TipoMovimento.TRANSFERENCIA_RECEBIDA, taxa, taxa > 0 ? TipoMovimento.TAXA : null);
+        confirmarAte(ultimaSequencia);
+
+        SecurityLogger.logSecurityEvent("TRANSFERENCIA_REALIZADA",
+                "Transferência realizada - Origem: " + numeroOrigem + " Destino: " + numeroDestino +
+                        " Valor: " + Dinheiro.formatar(valorCentavos) + " Imposto: " + Dinheiro.formatar(imposto));
+        return true;
+    }
+
+    // Confere os totais incrementais contra uma varredura completa dos clientes
+    public List<String> verificarCustodia() {
+        Metrics.travar(lock.readLock(), Metrics.ESPERA_LEITURA_BANCO);
+        try {
+            return custodia.verificar(clientes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TotaisCustodia getTotaisCustodia() {
+        return custodia;
+    }
+
+    public JournalTransacoes getJournal() {
+        return journal;
+    }
+
+    void confirmarAte(long sequencia) throws SecurityException {
+        JournalTransacoes atual = journal;
+        if (atual != null && sequencia > 0) {
+            atual.aguardarAte(sequencia);
+        }
+    }
+
+    // Chamado pelo cliente sob o lock dele. A conta é vinculada ao banco e registrada no
+    // journal na mesma seção travada, então nenhum movimento dela chega ao journal antes
+    // do registro da conta; só depois ela fica visível pelo número.
+    void contaAdicionada(Conta conta) throws SecurityException {
+        JournalTransacoes atual = journal;
+        long sequencia = 0;
+        if (atual == null) {
+            conta.vincularBanco(this);
+        } else {
+            atual.travar();
+            try {
+                conta.vincularBanco(this);
+                sequencia = atual.registrarConta(conta.getCliente().getCpfNumerico(), conta.getTipoConta(),
+                        conta.getNumero(), conta.getSaldoCentavos(), conta.getDataUltimaAtualizacao());
+            } finally {
+                atual.destravar();
+            }
+        }
+
+        custodia.registrarConta(conta);
+        indiceSaldos.variar(conta.getCliente(), conta.getSaldoCentavos());
+        indiceContas.put(conta.getNumero(), conta);
+        if (atual != null) {
+            atual.confirmar(sequencia);
+        }
+    }
+
+    // O movimento já foi para o journal junto com a troca do saldo (ver Conta.trocarSaldo)
+    void saldoAlterado(Conta conta, long saldoAnterior, long saldoNovo) {
+        custodia.registrarVariacao(conta.getTipoConta(), saldoAnterior, saldoNovo);
+        indiceSaldos.variar(conta.getCliente(), saldoNovo - saldoAnterior);
+    }
+
+    void rendaAlterada(Cliente cliente) throws SecurityException {
+        JournalTransacoes atual = journal;
+        if (atual != null) {
+            atual.confirmar(atual.registrarRenda(cliente.getCpfNumerico(), cliente.getRendaMensal()));
+        }
+    }
+
+    // Reprodução do journal: chamados antes de o journal ser aberto para gravação
+
+    void restaurarCliente(Cliente cliente) throws SecurityException {
+        indexarClienteRestaurado(cliente);
+        indiceSaldos.adicionar(cliente);
+        Metrics.travar(lock.writeLock(), Metrics.ESPERA_ESCRITA_BANCO);
+        try {
+            clientes.add(cliente);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Dimensiona as estruturas para a carga de um snapshot, evitando o redimensionamento
+    // concorrente dos índices durante a reconstrução. Só tem efeito com o banco vazio.
+    void prepararCarga(long totalClientes, long totalContas) {
+        Metrics.travar(lock.writeLock(), Metrics.ESPERA_ESCRITA_BANCO);
+        try {
+            if (clientes.isEmpty() && indiceCpf.isEmpty() && indiceContas.isEmpty()) {
+                int capacidadeClientes = (int) Math.min(totalClientes, Integer.MAX_VALUE - 8);
+                clientes.ensureCapacity(capacidadeClientes);
+                indiceCpf = new ConcurrentHashMap<>(capacidadeClientes);
+                indiceContas = new ConcurrentHashMap<>((int) Math.min(totalContas, Integer.MAX_VALUE - 8));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Carga de snapshot: chamado em paralelo pelas threads de reconstrução
+    void indexarClienteRestaurado(Cliente cliente) throws SecurityException {
+        if (indiceCpf.putIfAbsent(cliente.getCpfNumerico(), cliente) != null) {
+            throw new SecurityException("Cliente duplicado na recuperação: " + cliente.getCpfOfuscado());
+        }
+        cliente.vincularBanco(this);
+    }
+
+    // Publica os clientes reconstruídos na ordem do snapshot
+    void anexarClientesRestaurados(Cliente[][] blocos) {
+        indiceSaldos.adicionarTodos(blocos);
+        Metrics.travar(lock.writeLock(), Metrics.ESPERA_ESCRITA_BANCO);
+        try {
+            for (Cliente[] bloco : blocos) {
+                clientes.addAll(Arrays.asList(bloco));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Copia até lote.length clientes a partir da posição inicio. A lista só cresce, então
+    // percorrê-la em lotes visita uma vez cada cliente cadastrado antes do início.
+    int copiarClientes(int inicio, Cliente[] lote) {
+        Metrics.travar(lock.readLock(), Metrics.ESPERA_LEITURA_BANCO);
+        try {
+            int quantidade = Math.max(Math.min(lote.length, clientes.size() - inicio), 0);
+            for (int i = 0; i < quantidade; i++) {
+                lote[i] = clientes.get(inicio + i);
+            }
+            return quantidade;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Cliente[] copiarClientes() {
+        Metrics.travar(lock.readLock(), Metrics.ESPERA_LEITURA_BANCO);
+        try {
+            return clientes.toArray(new Cliente[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void restaurarConta(long cpf, int tipoConta, int numero, long saldoCentavos,
+                        LocalDate dataUltimaAtualizacao) throws SecurityException {
+        Cliente cliente = clienteRestaurado(cpf);
+        if (indiceContas.containsKey(numero)) {
+            throw new SecurityException("Conta duplicada no journal: " + numero);
+        }
+        cliente.restaurarConta(Conta.restaurar(tipoConta, cliente, numero, saldoCentavos, dataUltimaAtualizacao));
+    }
+
+    void restaurarMovimento(int numero, TipoMovimento tipo, long valor,
+                            TipoMovimento tipoEncargo, long encargo) throws SecurityException {
+        contaRestaurada(numero).restaurarMovimento(tipo, valor, tipoEncargo, encargo);
+    }
+
+    void restaurarTransferencia(int origem, int destino, long valor, long imposto, long taxa) throws SecurityException {
+        contaRestaurada(origem).restaurarMovimento(TipoMovimento.TRANSFERENCIA_ENVIADA, -valor,
+                imposto > 0 ? TipoMovimento.IMPOSTO : null, imposto);
+        contaRestaurada(destino).restaurarMovimento(TipoMovimento.TRANSFERENCIA_RECEBIDA, valor,
+                taxa > 0 ? TipoMovimento.TAXA : null, taxa);
+    }
+
+    void restaurarAtualizacao(int numero, LocalDate data) throws SecurityException {
+        contaRestaurada(numero).restaurarAtualizacao(data);
+    }
+
+    void restaurarSenha(long cpf, byte[] salt, byte[] hash) throws SecurityException {
+        clienteRestaurado(cpf).restaurarCredencial(salt, hash);
+    }
+
+    void restaurarRenda(long cpf, double rendaMensal) throws SecurityException {
+        clienteRestaurado(cpf).setRendaMensal(rendaMensal);
+    }
+
+    private Cliente clienteRestaurado(long cpf) throws SecurityException {
+        Cliente cliente = indiceCpf.get(cpf);
+        if (cliente == null) {
+            throw new SecurityException("Journal referencia cliente inexistente");
+        }
+        return cliente;
+    }
+
+    private Conta contaRestaurada(int numero) throws SecurityException {
+        Conta conta = indiceContas.get(numero);
+        if (conta == null) {
+            throw new SecurityException("Journal referencia conta inexistente: " + numero);
+        }
+        return conta;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class AlocadorNumeroPermutadoTest {
+
+    @Test
+    public void testEsgotaFaixaSemRepetirNumeros() throws SecurityException {
+        AlocadorNumeroPermutado alocador = new AlocadorNumeroPermutado(42L);
+        Set<Integer> numeros = new HashSet<>();
+
+        for (int i = 0; i < alocador.getCapacidade(); i++) {
+            int numero = alocador.alocar();
+            assertTrue(numero >= AlocadorNumeroConta.NUMERO_MINIMO && numero <= AlocadorNumeroConta.NUMERO_MAXIMO);
+            assertTrue(numeros.add(numero));
+        }
+
+        assertEquals(alocador.getCapacidade(), alocador.getUsados());
+        try {
+            alocador.alocar();
+            fail("Faixa esgotada deveria lançar SecurityException");
+        } catch (SecurityException e) {
+            // esperado
+        }
+    }
+
+    @Test
+    public void testLiberarPermiteReutilizarNumero() throws SecurityException {
+        AlocadorNumeroPermutado alocador = new AlocadorNumeroPermutado(7L);
+        int numero = alocador.alocar();
+
+        assertTrue(alocador.liberar(numero));
+        assertFalse(alocador.liberar(numero));
+        assertEquals(0, alocador.getUsados());
+        assertEquals(numero, alocador.alocar());
+    }
+
+    @Test
+    public void testNumerosNaoSaoSequenciais() throws SecurityException {
+        AlocadorNumeroPermutado alocador = new AlocadorNumeroPermutado(1L);
+        int anterior = alocador.alocar();
+        int sequenciais = 0;
+        for (int i = 0; i < 100; i++) {
+            int atual = alocador.alocar();
+            if (atual == anterior + 1) {
+                sequenciais++;
+            }
+            anterior = atual;
+        }
+        assertTrue(sequenciais < 5);
+    }
+}
@@ -0,0 +1,220 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class AsyncLogWriterTest {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private static LogRecord[] registros() {
+        long agora = System.currentTimeMillis();
+        return new LogRecord[]{
+                LogRecord.seguranca("SISTEMA_INICIADO", "Sistema XuBank iniciado"),
+                new LogRecord(agora, false, "SAQUE_REALIZADO", "Saque realizado", 123456, 10_50, null),
+                new LogRecord(agora + 1500, false, "SAQUE_NEGADO", "Saque negado por saldo insuficiente", 42,
+                        LogRecord.SEM_VALOR, null),
+                new LogRecord(agora - 20, false, "RENDIMENTO_CALCULADO", "Rendimento calculado em poupança", 7, -3_07, null),
+                LogRecord.erro("ERRO_SAQUE", "Erro ao processar saque - Conta: 9 ção 💰",
+                        new IllegalStateException("saldo \"inválido\"")),
+        };
+    }
+
+    @Test
+    public void testBinarioDecodificadoIgualAoTexto() throws Exception {
+        Path texto = pasta.getRoot().toPath().resolve("security.log");
+        Path binario = pasta.getRoot().toPath().resolve("security.bin");
+        AsyncLogWriter escritorTexto = new AsyncLogWriter(texto.toString(), 64, 8, LogOverflowPolicy.BLOQUEAR);
+        AsyncLogWriter escritorBinario = new AsyncLogWriter(binario.toString(), 64, 8, LogOverflowPolicy.BLOQUEAR,
+                LogFormat.BINARIO, LogRotation.DESLIGADA);
+        for (LogRecord registro : registros()) {
+            escritorTexto.publicar(registro);
+            escritorBinario.publicar(registro);
+        }
+        escritorTexto.encerrar(5000);
+        escritorBinario.encerrar(5000);
+
+        StringBuilder decodificado = new StringBuilder();
+        assertEquals(5, LogDecoder.decodificar(binario, decodificado));
+        String esperado = new String(Files.readAllBytes(texto), StandardCharsets.UTF_8);
+        assertEquals(esperado, decodificado.toString());
+        assertTrue(esperado.contains("SAQUE_REALIZADO - Saque realizado - Conta: 123456 Valor: 10.50"));
+        assertTrue(Files.size(binario) < Files.size(texto));
+    }
+
+    @Test
+    public void testRotacaoPorTamanhoComprimeSegmentos() throws Exception {
+        Path arquivo = pasta.getRoot().toPath().resolve("security.bin");
+        AsyncLogWriter escritor = new AsyncLogWriter(arquivo.toString(), 64, 1, LogOverflowPolicy.BLOQUEAR,
+                LogFormat.BINARIO, new LogRotation(300, 0, 0));
+        int total = 200;
+        for (int i = 0; i < total; i++) {
+            escritor.publicar(new LogRecord(1_700_000_000_000L + i, false, "DEPOSITO_REALIZADO",
+                    "Depósito realizado", i, i * 100L, null));
+        }
+        escritor.encerrar(5000);
+
+        List<Path> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> diretorio = Files.newDirectoryStream(pasta.getRoot().toPath(), "security-*")) {
+            diretorio.forEach(segmentos::add);
+        }
+        Collections.sort(segmentos);
+        assertTrue(segmentos.size() > 1);
+        for (Path segmento : segmentos) {
+            assertTrue(segmento.toString(), segmento.toString().endsWith(".bin.gz"));
+        }
+
+        // Segmentos em ordem e depois o arquivo corrente: todos os eventos, na ordem em que foram gravados
+        segmentos.add(arquivo);
+        StringBuilder texto = new StringBuilder();
+        long decodificados = 0;
+        for (Path segmento : segmentos) {
+            decodificados += LogDecoder.decodificar(segmento, texto);
+        }
+        assertEquals(total, decodificados);
+        String[] linhas = texto.toString().split(System.lineSeparator());
+        assertTrue(linhas[0].endsWith("Depósito realizado - Conta: 0 Valor: 0.00"));
+        assertTrue(linhas[total - 1].endsWith("Depósito realizado - Conta: 199 Valor: 199.00"));
+    }
+
+    private static LogRecord numerado(int i) {
+        return LogRecord.seguranca("TESTE", "evento " + i);
+    }
+
+    private static List<String> linhas(Path arquivo) throws Exception {
+        return Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testOrdemPreservadaEPendentesGravadosNoEncerramento() throws Exception {
+        Path arquivo = pasta.getRoot().toPath().resolve("security.log");
+        AsyncLogWriter escritor = new AsyncLogWriter(arquivo.toString(), 8, 4, LogOverflowPolicy.BLOQUEAR);
+        int total = 5000;
+        for (int i = 0; i < total; i++) {
+            escritor.publicar(numerado(i));
+        }
+        escritor.encerrar(5000);
+
+        List<String> linhas = linhas(arquivo);
+        assertEquals(total, linhas.size());
+        for (int i = 0; i < total; i++) {
+            assertTrue(linhas.get(i), linhas.get(i).endsWith("TESTE - evento " + i));
+        }
+        assertEquals(total, escritor.getGravados());
+        assertEquals(0, escritor.getTamanhoFila());
+    }
+
+    @Test
+    public void testDescartarContabilizaCadaEventoPerdido() throws Exception {
+        Path arquivo = pasta.getRoot().toPath().resolve("security.log");
+        AsyncLogWriter escritor = new AsyncLogWriter(arquivo.toString(), 2, 1, LogOverflowPolicy.DESCARTAR);
+        int total = 5000;
+        for (int i = 0; i < total; i++) {
+            escritor.publicar(numerado(i));
+        }
+        escritor.encerrar(5000);
+
+        assertEquals(total, escritor.getGravados() + escritor.getDescartados());
+        assertEquals(escritor.getGravados(), linhas(arquivo).size());
+    }
+
+    @Test
+    public void testExecutarNoChamadorNaoPerdeEventos() throws Exception {
+        Path arquivo = pasta.getRoot().toPath().resolve("security.log");
+        AsyncLogWriter escritor = new AsyncLogWriter(arquivo.toString(), 2, 1, LogOverflowPolicy.EXECUTAR_NO_CHAMADOR);
+        int total = 5000;
+        for (int i = 0; i < total; i++) {
+            escritor.publicar(numerado(i));
+        }
+        escritor.encerrar(5000);
+
+        assertEquals(0, escritor.getDescartados());
+        boolean[] vistos = new boolean[total];
+        for (String linha : linhas(arquivo)) {
+            vistos[Integer.parseInt(linha.substring(linha.lastIndexOf(' ') + 1))] = true;
+        }
+        for (int i = 0; i < total; i++) {
+            assertTrue("evento " + i, vistos[i]);
+        }
+    }
+
+    @Test
+    public void testPublicarDuranteEncerramentoNaoPerdeEventos() throws Exception {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            Path arquivo = pasta.getRoot().toPath().resolve("security-" + rodada + ".log");
+            AsyncLogWriter escritor = new AsyncLogWriter(arquivo.toString(), 64, 8, LogOverflowPolicy.BLOQUEAR);
+            int produtores = 4;
+            int porProdutor = 500;
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < produtores; p++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < porProdutor; i++) {
+                        escritor.publicar(numerado(i));
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            largada.countDown();
+            escritor.encerrar(5000);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(produtores * porProdutor, linhas(arquivo).size());
+            assertEquals(0, escritor.getTamanhoFila());
+        }
+    }
+
+    @Test
+    public void testRotacaoPadraoLimitaTamanhoERetencao() {
+        String[] propriedades = {"xubank.log.rotacao.bytes", "xubank.log.rotacao.horas", "xubank.log.rotacao.retencao"};
+        String[] originais = new String[propriedades.length];
+        for (int i = 0; i < propriedades.length; i++) {
+            originais[i] = System.clearProperty(propriedades[i]);
+        }
+        try {
+            // Sem propriedades: 64 MiB por segmento, sem limite de idade, 10 segmentos mantidos
+            LogRotation padrao = LogRotation.fromProperties();
+            assertTrue(padrao.isAtiva());
+            assertEquals(10, padrao.getRetencao());
+            assertTrue(padrao.deveRotacionar(64L * 1024 * 1024, 0, 1));
+            assertFalse(padrao.deveRotacionar(10, 0, 365L * 24 * 3_600_000));
+
+            System.setProperty("xubank.log.rotacao.bytes", "0");
+            System.setProperty("xubank.log.rotacao.retencao", "3");
+            assertFalse(LogRotation.fromProperties().isAtiva());
+
+            System.setProperty("xubank.log.rotacao.horas", "1");
+            LogRotation porIdade = LogRotation.fromProperties();
+            assertEquals(3, porIdade.getRetencao());
+            assertTrue(porIdade.deveRotacionar(10, 0, 3_600_000));
+            assertFalse(porIdade.deveRotacionar(Long.MAX_VALUE, 0, 1));
+        } finally {
+            for (int i = 0; i < propriedades.length; i++) {
+                if (originais[i] == null) {
+                    System.clearProperty(propriedades[i]);
+                } else {
+                    System.setProperty(propriedades[i], originais[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class AtualizarRendimentoTest {
+    private static final long SEMENTE = 20240601L;
+    private static final int MESES = 120;
+
+    private final TaxasMercado taxasOriginais = Conta.getTaxasMercado();
+
+    @After
+    public void restaurarTaxas() {
+        Conta.configurarTaxasMercado(taxasOriginais);
+    }
+
+    private static void fixarTaxas() {
+        Conta.configurarTaxasMercado(new TaxasMercado(FonteRendimento.deterministica(SEMENTE)));
+    }
+
+    // Credita os mesmos meses que AtualizarRendimento creditaria a partir de "desde", um a um
+    private static void creditarMesAMes(Conta conta, LocalDate desde) throws SecurityException {
+        for (int i = 1; i <= MESES; i++) {
+            conta.creditarMes(conta.taxaMercado(YearMonth.from(desde).plusMonths(i)));
+        }
+    }
+
+    private Cliente novoCliente() throws SecurityException {
+        return new Cliente("123.456.789-09", "Senha@123", "João Silva", 5000.0);
+    }
+
+    @Test
+    public void testRendaFixaIgualAoLoopIterativo() throws SecurityException {
+        Cliente cliente = novoCliente();
+        ContaRendaFixa iterativa = new ContaRendaFixa(cliente);
+        ContaRendaFixa acumulada = new ContaRendaFixa(cliente);
+        iterativa.Depositar(15000.0);
+        acumulada.Depositar(15000.0);
+
+        fixarTaxas();
+        LocalDate desde = LocalDate.now().minusMonths(MESES);
+        creditarMesAMes(iterativa, desde);
+
+        acumulada.dataUltimaAtualizacao = desde;
+        acumulada.AtualizarRendimento();
+
+        assertEquals(iterativa.getSaldoCentavos(), acumulada.getSaldoCentavos());
+        assertEquals(LocalDate.now(), acumulada.dataUltimaAtualizacao);
+    }
+
+    @Test
+    public void testInvestimentoIgualAoLoopIterativo() throws SecurityException {
+        Cliente cliente = novoCliente();
+        ContaInvestimento iterativa = new ContaInvestimento(cliente);
+        ContaInvestimento acumulada = new ContaInvestimento(cliente);
+        iterativa.Depositar(8000.0);
+        acumulada.Depositar(8000.0);
+
+        fixarTaxas();
+        LocalDate desde = LocalDate.now().minusMonths(MESES);
+        creditarMesAMes(iterativa, desde);
+
+        acumulada.dataUltimaAtualizacao = desde;
+        acumulada.AtualizarRendimento();
+
+        assertEquals(iterativa.getSaldoCentavos(), acumulada.getSaldoCentavos());
+    }
+
+    @Test
+    public void testPoupancaIgualAoLoopIterativo() throws SecurityException {
+        Cliente cliente = novoCliente();
+        ContaPoupanca iterativa = new ContaPoupanca(cliente);
+        ContaPoupanca acumulada = new ContaPoupanca(cliente);
+        iterativa.Depositar(1000.0);
+        acumulada.Depositar(1000.0);
+
+        for (int i = 0; i < MESES; i++) {
+            iterativa.CalcularRendimento();
+        }
+
+        acumulada.dataUltimaAtualizacao = LocalDate.now().minusMonths(MESES);
+        acumulada.AtualizarRendimento();
+
+        assertEquals(iterativa.getSaldoCentavos(), acumulada.getSaldoCentavos());
+    }
+
+    // O atraso vira dois movimentos, como no crédito mensal: rendimento bruto e taxas
+    @Test
+    public void testAtrasoRegistraRendimentoBrutoETaxasSeparados() throws SecurityException {
+        Cliente cliente = novoCliente();
+        ContaRendaFixa iterativa = new ContaRendaFixa(cliente);
+        ContaRendaFixa acumulada = new ContaRendaFixa(cliente);
+        iterativa.Depositar(15000.0);
+        acumulada.Depositar(15000.0);
+
+        fixarTaxas();
+        LocalDate desde = LocalDate.now().minusMonths(12);
+        for (int i = 1; i <= 12; i++) {
+            iterativa.creditarMes(iterativa.taxaMercado(YearMonth.from(desde).plusMonths(i)));
+        }
+        acumulada.dataUltimaAtualizacao = desde;
+        acumulada.AtualizarRendimento();
+
+        List<Movimento> movimentos = acumulada.getMovimentos(LocalDate.now(), LocalDate.now());
+        assertEquals(3, movimentos.size());
+        assertEquals(TipoMovimento.RENDIMENTO, movimentos.get(1).getTipo());
+        assertEquals(TipoMovimento.TAXA, movimentos.get(2).getTipo());
+        assertEquals(somar(iterativa, TipoMovimento.RENDIMENTO), movimentos.get(1).getValorCentavos());
+        assertEquals(-12 * 20_00L, movimentos.get(2).getValorCentavos());
+        assertEquals(acumulada.getSaldoCentavos() - 15000_00L,
+                movimentos.get(1).getValorCentavos() + movimentos.get(2).getValorCentavos());
+    }
+
+    private static long somar(Conta conta, TipoMovimento tipo) {
+        long total = 0;
+        for (Movimento movimento : conta.getMovimentos(LocalDate.now(), LocalDate.now())) {
+            if (movimento.getTipo() == tipo) {
+                total += movimento.getValorCentavos();
+            }
+        }
+        return total;
+    }
+
+    @Test
+    public void testSemMesesDecorridosNaoAltera() throws SecurityException {
+        ContaPoupanca conta = new ContaPoupanca(novoCliente());
+        conta.Depositar(500.0);
+
+        conta.AtualizarRendimento();
+
+        assertEquals(500.0, conta.getSaldo(), 0.0);
+    }
+
+    @Test
+    public void testContasDoMesmoTipoRendemATaxaDoMes() throws SecurityException {
+        fixarTaxas();
+        Cliente cliente = novoCliente();
+        ContaInvestimento pequena = new ContaInvestimento(cliente);
+        ContaInvestimento grande = new ContaInvestimento(cliente);
+        pequena.Depositar(1000.0);
+        grande.Depositar(250000.0);
+
+        double taxa = Conta.getTaxasMercado().taxa(4, YearMonth.now());
+        pequena.CalcularRendimento();
+        grande.CalcularRendimento();
+
+        assertEquals(taxa, Conta.getTaxasMercado().taxa(4, YearMonth.now()), 0.0);
+        assertEquals(1000_00L + Dinheiro.aplicarTaxa(1000_00L, taxa / 100.0) - taxaAdministracao(1000_00L, taxa),
+                pequena.getSaldoCentavos());
+        assertEquals(250000_00L + Dinheiro.aplicarTaxa(250000_00L, taxa / 100.0) - taxaAdministracao(250000_00L, taxa),
+                grande.getSaldoCentavos());
+    }
+
+    private static long taxaAdministracao(long saldo, double taxa) throws SecurityException {
+        long rendimento = Dinheiro.aplicarTaxa(saldo, taxa / 100.0);
+        return rendimento > 0 ? Dinheiro.fracaoMeioParaCima(rendimento, 1, 100) : 0;
+    }
+
+    // Mesmas contas (mesmos números) em dois bancos, paradas há três meses: o fechamento
+    // mensal com uma e com quatro threads chega aos mesmos saldos
+    @Test
+    public void testTaxasDeterministicasIndependemDoNumeroDeThreads() throws Exception {
+        fixarTaxas();
+        XuBank sequencial = bancoComContasFixas();
+        XuBank paralelo = bancoComContasFixas();
+
+        ExecutorService umaThread = Executors.newSingleThreadExecutor();
+        ExecutorService quatroThreads = Executors.newFixedThreadPool(4);
+        try {
+            new ProcessadorRendimentoMensal(umaThread).executar(clientes(sequencial));
+            new ProcessadorRendimentoMensal(quatroThreads, 1).executar(clientes(paralelo)); // um cliente por tarefa
+        } finally {
+            umaThread.shutdown();
+            quatroThreads.shutdown();
+        }
+
+        long totalInicial = 0;
+        for (int i = 0; i < 40; i++) {
+            Cliente a = sequencial.buscarClientePorCpf(CpfsSinteticos.gerar(i));
+            Cliente b = paralelo.buscarClientePorCpf(CpfsSinteticos.gerar(i));
+            assertEquals(a.getSaldoTotalCentavos(), b.getSaldoTotalCentavos());
+            totalInicial += 20_000_00L;
+        }
+        assertNotEquals(totalInicial, sequencial.getTotaisCustodia().getSaldoCentavos(3)
+                + sequencial.getTotaisCustodia().getSaldoCentavos(4));
+    }
+
+    private static Cliente[] clientes(XuBank banco) {
+        Cliente[] clientes = new Cliente[40];
+        for (int i = 0; i < clientes.length; i++) {
+            clientes[i] = banco.buscarClientePorCpf(CpfsSinteticos.gerar(i));
+        }
+        return clientes;
+    }
+
+    private static XuBank bancoComContasFixas() throws SecurityException {
+        XuBank banco = new XuBank();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Cliente cliente = Cliente.importar(ValidationUtils.normalizarCpf(CpfsSinteticos.gerar(i)), "Cliente Teste", "Senha@123", 3000);
+            cliente.restaurarConta(Conta.restaurar(3 + (i % 2), cliente, 900_000 + i, 20_000_00L,
+                    LocalDate.now().minusMonths(3)));
+            clientes.add(cliente);
+        }
+        banco.publicarImportados(clientes);
+        return banco;
+    }
+}
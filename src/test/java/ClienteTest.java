@@ -26,4 +26,14 @@ public class ClienteTest {
     public void testCriarClienteComSenhaFraca() throws SecurityException {
         new Cliente("123.456.789-09", "senha", "João Silva", 5000.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAlterarSenha() throws SecurityException {
+        Cliente cliente = new Cliente("123.456.789-09", "Senha@123", "João Silva", 5000.0);
+
+        cliente.alterarSenha("Senha@123", "Nova#Senha9");
+
+        assertFalse(cliente.verificarSenha("Senha@123"));
+        assertTrue(cliente.verificarSenha("Nova#Senha9"));
+    }
+}
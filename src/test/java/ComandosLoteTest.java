@@ -0,0 +1,63 @@
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ComandosLoteTest {
+
+    @Test
+    public void testComandosEmFaixasComSaidaNaOrdemDoArquivo() throws SecurityException {
+        XuBank banco = new XuBank();
+        String comandos = "# carga inicial\n"
+                + "cadastrar,529.982.247-25,Carla Dias,Senha@123,2500\n"
+                + "cadastrar,935.411.347-80,\"Maria Souza\",Senha@123,3000\n"
+                + "abrir,52998224725,1\n"
+                + "abrir,93541134780,2\n"
+                + "depositar,52998224725,1,100.50\n"
+                + "depositar,93541134780,2,300\n"
+                + "sacar,93541134780,2,1000\n"
+                + "relatorio,custodia\n"
+                + "\n"
+                + "sacar,52998224725,1,0.50\n"
+                + "abrir,52998224725,1\n"
+                + "depositar,11111111111,1,10\n"
+                + "cadastrar,529.982.247-25,Outra Pessoa,Senha@123,100\n"
+                + "transferir,52998224725,1,2\n"
+                + "depositar,\"935\n";
+        StringBuilder saida = new StringBuilder();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ResultadoComandos resultado;
+        try {
+            resultado = banco.executarComandos(new StringReader(comandos), saida, executor, 4);
+        } finally {
+            executor.shutdown();
+        }
+
+        String[] linhas = saida.toString().split("\n");
+        assertEquals("linha,comando,status,micros,detalhe", linhas[0]);
+        assertTrue(linhas[1].startsWith("2,cadastrar,OK,"));
+        assertTrue(linhas[5].startsWith("6,depositar,OK,") && linhas[5].endsWith(",100.50"));
+        assertTrue(linhas[7].startsWith("8,sacar,FALHA,") && linhas[7].endsWith(",SAQUE_NAO_AUTORIZADO"));
+        assertTrue(linhas[8].startsWith("9,relatorio,OK,") && linhas[8].contains("\""));
+
+        assertEquals(14, resultado.getComandos());
+        assertEquals(8, resultado.getSucessos());
+        assertEquals(1, resultado.getFalhas("CONTA_DUPLICADA"));
+        assertEquals(1, resultado.getFalhas("CLIENTE_NAO_ENCONTRADO"));
+        assertEquals(1, resultado.getFalhas("CPF_JA_CADASTRADO"));
+        assertEquals(1, resultado.getFalhas("COMANDO_DESCONHECIDO"));
+        assertEquals(1, resultado.getFalhas("LINHA_MALFORMADA"));
+
+        assertEquals(2, banco.getNumeroClientes());
+        assertEquals(100_00, banco.buscarClientePorCpf("52998224725").getSaldoTotalCentavos());
+        assertEquals(300_00, banco.buscarClientePorCpf("93541134780").getSaldoTotalCentavos());
+        assertTrue(banco.verificarCustodia().isEmpty());
+        assertEquals(Arrays.asList(true, true), Arrays.asList(
+                banco.autenticarCliente("52998224725", "Senha@123"),
+                banco.autenticarCliente("93541134780", "Senha@123")));
+    }
+}
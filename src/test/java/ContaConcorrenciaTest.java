@@ -0,0 +1,91 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ContaConcorrenciaTest {
+    private static final int THREADS = 8;
+
+    // Dispara as tarefas juntas e devolve a soma dos resultados
+    private static long executarJuntas(Callable<Long> tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Long>> resultados = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return tarefa.call();
+                }));
+            }
+            largada.countDown();
+
+            long total = 0;
+            for (Future<Long> resultado : resultados) {
+                total += resultado.get();
+            }
+            return total;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDepositosESaquesConcorrentesNaoPerdemAtualizacoes() throws Exception {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        Cliente cliente = banco.buscarClientePorCpf("12345678909");
+        ContaPoupanca poupanca = new ContaPoupanca(cliente);
+        cliente.AdicionarConta(poupanca);
+
+        executarJuntas(() -> {
+            for (int i = 0; i < 2000; i++) {
+                poupanca.DepositarCentavos(3_00);
+                assertTrue(poupanca.SacarCentavos(1_00));
+            }
+            return 0L;
+        });
+
+        assertEquals(THREADS * 2000 * 2_00L, poupanca.getSaldoCentavos());
+        assertTrue(banco.verificarCustodia().isEmpty());
+    }
+
+    @Test
+    public void testSaquesConcorrentesNaoUltrapassamOLimite() throws Exception {
+        Cliente cliente = new Cliente("123.456.789-09", "Senha@123", "João Silva", 5000.0);
+        ContaCorrente corrente = new ContaCorrente(cliente); // limite de R$ 2.000,00
+
+        long sacado = executarJuntas(() -> {
+            long total = 0;
+            while (corrente.SacarCentavos(1_00)) {
+                total += 1_00;
+            }
+            return total;
+        });
+
+        assertEquals(2000_00, sacado);
+        assertEquals(-2000_00, corrente.getSaldoCentavos());
+    }
+
+    @Test
+    public void testTaxaChequeEspecialRecalculadaEmDepositosConcorrentes() throws Exception {
+        Cliente cliente = new Cliente("123.456.789-09", "Senha@123", "João Silva", 5000.0);
+        ContaCorrente corrente = new ContaCorrente(cliente);
+        corrente.SacarCentavos(1000_00);
+
+        executarJuntas(() -> {
+            corrente.DepositarCentavos(1000_00);
+            return 0L;
+        });
+
+        // Só os dois primeiros depósitos encontram saldo negativo: -1000,00 paga 40,00 e -40,00 paga 11,20
+        assertEquals(-1000_00 + THREADS * 1000_00L - 40_00 - 11_20, corrente.getSaldoCentavos());
+    }
+}
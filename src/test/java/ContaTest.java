@@ -1,4 +1,8 @@
 import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class ContaTest {
@@ -34,4 +38,23 @@ public class ContaTest {
 
         conta.Sacar(-100.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testExtratoListaMovimentosDoPeriodo() throws SecurityException {
+        Cliente cliente = new Cliente("123.456.789-09", "Senha@123", "João Silva", 5000.0);
+        ContaCorrente conta = new ContaCorrente(cliente);
+
+        conta.Depositar(100.0);
+        conta.Sacar(300.0);
+        conta.Depositar(500.0); // cobra a taxa do cheque especial
+
+        List<Movimento> movimentos = conta.getMovimentos(LocalDate.now(), LocalDate.now());
+        assertEquals(4, movimentos.size());
+        assertEquals(TipoMovimento.SAQUE, movimentos.get(1).getTipo());
+        assertEquals(-300_00, movimentos.get(1).getValorCentavos());
+        assertEquals(TipoMovimento.TAXA, movimentos.get(3).getTipo());
+        assertEquals(-16_00, movimentos.get(3).getValorCentavos());
+        assertTrue(conta.getMovimentos(LocalDate.now().minusYears(1), LocalDate.now().minusDays(1)).isEmpty());
+        assertTrue(conta.GerarExtratoUltimoMes().contains("R$ -300.00"));
+    }
+}
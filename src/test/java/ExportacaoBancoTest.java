@@ -0,0 +1,58 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class ExportacaoBancoTest {
+
+    private static XuBank criarBanco(int clientes) throws SecurityException {
+        XuBank banco = new XuBank();
+        String[] cpfs = {"123.456.789-09", "935.411.347-80", "529.982.247-25"};
+        String[] nomes = {"João Silva", "Maria Souza", "Carla Dias"};
+        for (int i = 0; i < clientes; i++) {
+            banco.CadastrarCliente(nomes[i], cpfs[i], "Senha@123", 3000.0);
+            Cliente cliente = banco.buscarClientePorCpf(cpfs[i]);
+            ContaPoupanca poupanca = new ContaPoupanca(cliente);
+            cliente.AdicionarConta(poupanca);
+            poupanca.DepositarCentavos(1000_05 * (i + 1));
+            ContaCorrente corrente = new ContaCorrente(cliente);
+            cliente.AdicionarConta(corrente);
+            corrente.SacarCentavos(10_00);
+        }
+        return banco;
+    }
+
+    @Test
+    public void testExportacaoCsvDeContas() throws SecurityException {
+        XuBank banco = criarBanco(3);
+        StringBuilder destino = new StringBuilder();
+
+        assertEquals(6, banco.exportarContas(destino, FormatoExportacao.CSV));
+
+        String[] linhas = destino.toString().split("\n");
+        assertEquals(7, linhas.length);
+        assertEquals("cpf,nome,conta,tipo,saldo,data_ultima_atualizacao", linhas[0]);
+
+        Conta poupanca = banco.buscarClientePorCpf("12345678909").getContas().get(0);
+        assertEquals("12345678909,João Silva," + poupanca.getNumero() + ",ContaPoupanca,1000.05," + LocalDate.now(), linhas[1]);
+        assertTrue(linhas[2].contains(",ContaCorrente,-10.00,"));
+        assertTrue(linhas[3].startsWith("93541134780,Maria Souza,"));
+    }
+
+    @Test
+    public void testExportacaoJsonDeClientesNoCanal() throws SecurityException {
+        XuBank banco = criarBanco(2);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        assertEquals(2, banco.exportarClientes(Channels.newChannel(saida), FormatoExportacao.JSON_LINHAS));
+
+        String[] linhas = new String(saida.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("{\"cpf\":\"12345678909\",\"nome\":\"João Silva\",\"contas\":2,\"saldo_total\":990.05}", linhas[0]);
+        assertEquals("{\"cpf\":\"93541134780\",\"nome\":\"Maria Souza\",\"contas\":2,\"saldo_total\":1990.10}", linhas[1]);
+    }
+}
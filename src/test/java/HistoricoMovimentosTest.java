@@ -0,0 +1,55 @@
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoricoMovimentosTest {
+
+    @Test
+    public void testPeriodoPorBuscaBinariaIgualAVarredura() {
+        HistoricoMovimentos historico = new HistoricoMovimentos();
+        int total = 5 * HistoricoMovimentos.TAMANHO_BLOCO + 17;
+        for (int i = 0; i < total; i++) {
+            historico.registrar(1_000L * (i / 3), TipoMovimento.DEPOSITO, i); // instantes repetidos de 3 em 3
+        }
+
+        long[][] periodos = {{0, 1}, {5_000, 5_001}, {1_000_000, 1_500_000}, {-10, 10_000_000}, {7_000, 7_000}};
+        for (long[] periodo : periodos) {
+            long esperados = 0;
+            for (int i = 0; i < total; i++) {
+                long instante = 1_000L * (i / 3);
+                if (instante >= periodo[0] && instante < periodo[1]) {
+                    esperados++;
+                }
+            }
+
+            List<Movimento> movimentos = historico.listar(periodo[0], periodo[1]);
+            assertEquals(esperados, movimentos.size());
+            assertEquals(esperados, historico.contar(periodo[0], periodo[1]));
+            for (int i = 1; i < movimentos.size(); i++) {
+                assertEquals(movimentos.get(i - 1).getValorCentavos() + 1, movimentos.get(i).getValorCentavos());
+            }
+        }
+    }
+
+    @Test
+    public void testMemoriaPorMovimentoLimitada() {
+        HistoricoMovimentos historico = new HistoricoMovimentos(8 * HistoricoMovimentos.TAMANHO_BLOCO);
+        for (int i = 0; i < 100_000; i++) {
+            historico.registrar(i, TipoMovimento.SAQUE, -i);
+        }
+
+        // O descarte é por bloco: fica entre o máximo menos um bloco e o máximo
+        assertTrue(historico.getTamanho() <= 8 * HistoricoMovimentos.TAMANHO_BLOCO);
+        assertTrue(historico.getTamanho() > 7 * HistoricoMovimentos.TAMANHO_BLOCO);
+        assertEquals(100_000 - historico.getTamanho(), historico.getDescartados());
+        assertTrue(historico.getBytesOcupados() <= 8 * HistoricoMovimentos.TAMANHO_BLOCO * 18);
+        assertEquals(99_999 - historico.getTamanho() + 1, historico.listar(0, Long.MAX_VALUE).get(0).getInstante());
+
+        // Conta com poucos movimentos não reserva um bloco inteiro
+        HistoricoMovimentos pequeno = new HistoricoMovimentos();
+        pequeno.registrar(1, TipoMovimento.DEPOSITO, 100);
+        assertTrue(pequeno.getBytesOcupados() < 200);
+    }
+}
@@ -0,0 +1,121 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class HttpApiTest {
+    private XuBank banco;
+    private HttpApi api;
+    private HttpClient cliente;
+
+    @Before
+    public void iniciar() throws Exception {
+        banco = new XuBank();
+        api = new HttpApi(banco, new InetSocketAddress("127.0.0.1", 0), HttpApi.criarExecutor("fixo", 4),
+                "operador:Operador@123");
+        api.iniciar();
+        cliente = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void parar() {
+        api.parar(0);
+        banco.encerrar();
+    }
+
+    private HttpResponse<String> enviar(String metodo, String caminho, String corpo, String senha) throws Exception {
+        return enviar(api, metodo, caminho, corpo, "52998224725", senha);
+    }
+
+    private HttpResponse<String> enviar(HttpApi alvo, String metodo, String caminho, String corpo, String usuario,
+            String senha) throws Exception {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + alvo.getPorta() + caminho))
+                .method(metodo, corpo == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(corpo));
+        if (senha != null) {
+            requisicao.header("Authorization", "Basic " + Base64.getEncoder()
+                    .encodeToString((usuario + ":" + senha).getBytes(StandardCharsets.UTF_8)));
+        }
+        return cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testFluxoDeCadastroContaEMovimentos() throws Exception {
+        String cadastro = "{\"cpf\": \"529.982.247-25\", \"nome\": \"Carla Dias\", \"senha\": \"Senha@123\", \"renda_mensal\": 2500}";
+        assertEquals(201, enviar("POST", "/clientes", cadastro, null).statusCode());
+        assertEquals(409, enviar("POST", "/clientes", cadastro, null).statusCode());
+        assertEquals(400, enviar("POST", "/clientes", "{\"cpf\": \"111\"", null).statusCode());
+
+        assertEquals(401, enviar("POST", "/contas", "{\"tipo\": 1}", "Errada@123").statusCode());
+        HttpResponse<String> aberta = enviar("POST", "/contas", "{\"tipo\": 1}", "Senha@123");
+        assertEquals(201, aberta.statusCode());
+        String numero = HttpApi.objetoJson(aberta.body()).get("numero");
+        assertEquals(409, enviar("POST", "/contas", "{\"tipo\": 1}", "Senha@123").statusCode());
+
+        HttpResponse<String> deposito = enviar("POST", "/contas/" + numero + "/depositos", "{\"valor\": 150.25}", "Senha@123");
+        assertEquals(200, deposito.statusCode());
+        assertEquals("150.25", HttpApi.objetoJson(deposito.body()).get("saldo"));
+        assertEquals(200, enviar("POST", "/contas/" + numero + "/saques", "{\"valor\": \"50\"}", "Senha@123").statusCode());
+        assertEquals(400, enviar("POST", "/contas/" + numero + "/saques", "{\"valor\": -5}", "Senha@123").statusCode());
+        assertEquals(404, enviar("POST", "/contas/1/saques", "{\"valor\": 5}", "Senha@123").statusCode());
+        assertEquals(100_25, banco.buscarClientePorCpf("52998224725").getSaldoTotalCentavos());
+
+        HttpResponse<String> extrato = enviar("GET", "/contas/" + numero + "/extrato", null, "Senha@123");
+        assertEquals(200, extrato.statusCode());
+        assertTrue(extrato.body().contains("Conta nº " + numero));
+        assertTrue(enviar("GET", "/contas", null, "Senha@123").body().contains("\"saldo\":100.25"));
+
+        HttpResponse<String> custodia = enviar(api, "GET", "/relatorios/custodia", null, "operador", "Operador@123");
+        assertEquals(200, custodia.statusCode());
+        assertEquals(404, enviar(api, "GET", "/relatorios/inexistente", null, "operador", "Operador@123").statusCode());
+        assertTrue(Metrics.HTTP_DEPOSITO.getContagem() > 0);
+    }
+
+    @Test
+    public void testRelatoriosEMetricasExigemOperador() throws Exception {
+        for (String rota : new String[] {"/relatorios/custodia", "/relatorios/extremos", "/relatorios/ranking", "/metricas"}) {
+            assertEquals(401, enviar(api, "GET", rota, null, "operador", null).statusCode());
+            assertEquals(401, enviar(api, "GET", rota, null, "operador", "Errada@123").statusCode());
+            assertEquals(401, enviar(api, "GET", rota, null, "outro", "Operador@123").statusCode());
+            assertEquals(200, enviar(api, "GET", rota, null, "operador", "Operador@123").statusCode());
+        }
+        // Credencial de cliente não abre relatórios
+        enviar("POST", "/clientes", "{\"cpf\": \"52998224725\", \"nome\": \"Carla Dias\", \"senha\": \"Senha@123\", "
+                + "\"renda_mensal\": 2500}", null);
+        assertEquals(401, enviar("GET", "/relatorios/custodia", null, "Senha@123").statusCode());
+        assertEquals(401, enviar("GET", "/relatorios/inexistente", null, null).statusCode());
+    }
+
+    @Test
+    public void testSemOperadorRelatoriosFicamFechados() throws Exception {
+        HttpApi semOperador = new HttpApi(banco, new InetSocketAddress("127.0.0.1", 0), HttpApi.criarExecutor("fixo", 1));
+        semOperador.iniciar();
+        try {
+            assertEquals(403, enviar(semOperador, "GET", "/relatorios/custodia", null, "operador", "Operador@123").statusCode());
+            assertEquals(403, enviar(semOperador, "GET", "/metricas", null, null, null).statusCode());
+        } finally {
+            semOperador.parar(0);
+        }
+    }
+
+    @Test
+    public void testObjetoJsonPlano() {
+        Map<String, String> campos = HttpApi.objetoJson(" {\"a\":\"x\\\"y\\u00e9\",\"b\":-1.5e2,\"c\":true} ");
+        assertEquals("x\"yé", campos.get("a"));
+        assertEquals("-1.5e2", campos.get("b"));
+        assertEquals("true", campos.get("c"));
+        assertTrue(HttpApi.objetoJson("{}").isEmpty());
+        assertNull(HttpApi.objetoJson("{\"a\":1,}"));
+        assertNull(HttpApi.objetoJson("[1]"));
+        assertNull(HttpApi.objetoJson("{\"a\":1} x"));
+    }
+}
@@ -0,0 +1,62 @@
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ImportacaoClientesTest {
+
+    @Test
+    public void testImportacaoComRejeicoesPorLinha() throws SecurityException {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+
+        String csv = "cpf,nome,senha,renda_mensal,contas\n"
+                + "935.411.347-80,Maria Souza,\"Se,nha@123\",3000.00,1:1500.00;2:300.50\n"
+                + "529.982.247-25,Carla Dias,Senha@123,2500\n"
+                + "123.456.789-09,Outro Nome,Senha@123,1000\n"   // já cadastrado
+                + "935.411.347-80,Maria Copia,Senha@123,1000\n"  // repetido no arquivo
+                + "111.111.111-11,Nome Valido,Senha@123,1000\n"
+                + "168.995.350-09,Nome Valido,fraca,1000\n"
+                + "168.995.350-09,Nome Valido,Senha@123,1000,1:10;1:20\n"
+                + "168.995.350-09,\"Nome Valido,Senha@123,1000\n";
+        StringBuilder rejeicoes = new StringBuilder();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ResultadoImportacao resultado;
+        try {
+            resultado = banco.importarClientes(new StringReader(csv), rejeicoes, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(8, resultado.getLinhas());
+        assertEquals(2, resultado.getAceitos());
+        assertEquals(2, resultado.getContas());
+        assertEquals(6, resultado.getRejeitados());
+        assertEquals(Arrays.asList("linha,motivo", "4,CPF_JA_CADASTRADO", "5,CPF_DUPLICADO_NO_ARQUIVO",
+                "6,CPF_INVALIDO", "7,SENHA_INVALIDA", "8,CONTAS_INVALIDAS", "9,LINHA_MALFORMADA"),
+                Arrays.asList(rejeicoes.toString().split("\\n")));
+
+        assertEquals(3, banco.getNumeroClientes());
+        Cliente maria = banco.buscarClientePorCpf("93541134780");
+        assertEquals("Maria Souza", maria.getNome());
+        assertTrue(banco.autenticarCliente("93541134780", "Se,nha@123"));
+        assertEquals(1800_50, maria.getSaldoTotalCentavos());
+        assertNotNull(banco.buscarClientePorCpf("52998224725"));
+
+        // Contas importadas entram na custódia e no índice de saldos
+        assertTrue(banco.verificarCustodia().isEmpty());
+        assertSame(maria, banco.maioresSaldos(1).get(0));
+    }
+
+    @Test
+    public void testSeparacaoDeCamposComAspas() {
+        assertEquals(Arrays.asList("a", "b,c", "d\"e", ""),
+                ImportacaoClientes.separarCampos("a,\"b,c\",\"d\"\"e\","));
+        assertNull(ImportacaoClientes.separarCampos("a,\"b"));
+        assertNull(ImportacaoClientes.separarCampos("a,\"b\"c"));
+    }
+}
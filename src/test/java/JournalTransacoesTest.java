@@ -0,0 +1,269 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JournalTransacoesTest {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void testRecuperarReproduzEstadoCompleto() throws Exception {
+        Path diretorio = pasta.getRoot().toPath().resolve("journal");
+
+        XuBank banco = XuBank.recuperar(diretorio, DurabilidadeJournal.AGRUPADA, 500);
+        assertTrue(banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0));
+        Cliente cliente = banco.buscarClientePorCpf("12345678909");
+        ContaCorrente corrente = new ContaCorrente(cliente);
+        ContaPoupanca poupanca = new ContaPoupanca(cliente);
+        assertTrue(cliente.AdicionarConta(corrente));
+        assertTrue(cliente.AdicionarConta(poupanca));
+        ContaInvestimento investimento = new ContaInvestimento(cliente);
+        assertTrue(cliente.AdicionarConta(investimento));
+
+        corrente.Depositar(100.0);
+        corrente.Sacar(300.0);
+        corrente.Depositar(500.0); // cobra a taxa do cheque especial
+        poupanca.Depositar(1000.0);
+        assertTrue(banco.transferir(poupanca.getNumero(), corrente.getNumero(), 50_00));
+        assertTrue(banco.transferir(corrente.getNumero(), poupanca.getNumero(), 50_00));
+        investimento.Depositar(1000.0);
+        assertTrue(banco.transferir(investimento.getNumero(), corrente.getNumero(), 200_00)); // imposto, se rendeu
+        poupanca.dataUltimaAtualizacao = LocalDate.now().minusMonths(1);
+        poupanca.creditarRendimentoMensal();
+        cliente.alterarSenha("Senha@123", "NovaSenha@456");
+        cliente.setRendaMensal(8000.0);
+        banco.encerrar();
+
+        XuBank recuperado = XuBank.recuperar(diretorio, DurabilidadeJournal.AGRUPADA, 500);
+        try {
+            Cliente restaurado = recuperado.buscarClientePorCpf("12345678909");
+            assertNotNull(restaurado);
+            assertEquals("João Silva", restaurado.getNome());
+            assertEquals(8000.0, restaurado.getRendaMensal(), 0.0);
+            assertTrue(recuperado.autenticarCliente("12345678909", "NovaSenha@456"));
+            assertFalse(recuperado.autenticarCliente("12345678909", "Senha@123"));
+
+            Conta correnteRestaurada = restaurado.buscarContaPorNumero(corrente.getNumero());
+            Conta poupancaRestaurada = restaurado.buscarContaPorNumero(poupanca.getNumero());
+            assertEquals(corrente.getSaldoCentavos(), correnteRestaurada.getSaldoCentavos());
+            assertEquals(1006_00, poupancaRestaurada.getSaldoCentavos());
+            assertEquals(investimento.getSaldoCentavos(),
+                    restaurado.buscarContaPorNumero(investimento.getNumero()).getSaldoCentavos());
+            assertEquals(LocalDate.now(), poupancaRestaurada.getDataUltimaAtualizacao());
+            assertEquals(3200_00, ((ContaCorrente) correnteRestaurada).getLimiteCentavos());
+            assertTrue(recuperado.verificarCustodia().isEmpty());
+        } finally {
+            recuperado.encerrar();
+        }
+    }
+
+    @Test
+    public void testRegistroFinalIncompletoEDescartado() throws Exception {
+        Path diretorio = pasta.getRoot().toPath().resolve("journal");
+
+        XuBank banco = XuBank.recuperar(diretorio, DurabilidadeJournal.IMEDIATA, 0);
+        banco.CadastrarCliente("Maria Souza", "529.982.247-25", "Senha@123", 3000.0);
+        Cliente cliente = banco.buscarClientePorCpf("52998224725");
+        ContaPoupanca poupanca = new ContaPoupanca(cliente);
+        cliente.AdicionarConta(poupanca);
+        poupanca.Depositar(250.0);
+        banco.encerrar();
+        Path arquivo = JournalTransacoes.segmentos(diretorio).get(0);
+        long tamanhoValido = Files.size(arquivo);
+
+        // Simula uma queda no meio da gravação de um registro
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        XuBank recuperado = XuBank.recuperar(diretorio, DurabilidadeJournal.NENHUMA, 0);
+        try {
+            assertEquals(tamanhoValido, Files.size(arquivo));
+            Conta conta = recuperado.buscarClientePorCpf("52998224725").buscarContaPorNumero(poupanca.getNumero());
+            assertEquals(250_00, conta.getSaldoCentavos());
+        } finally {
+            recuperado.encerrar();
+        }
+    }
+
+    // Saques e depósitos concorrentes com o saldo rente a zero: como cada registro entra
+    // no journal junto com a troca do saldo, nenhum prefixo do journal passa por um
+    // saldo negativo, nem as sequências saem de ordem
+    @Test
+    public void testJournalSegueAOrdemEmQueOsSaldosFicamVisiveis() throws Exception {
+        Path diretorio = pasta.getRoot().toPath().resolve("journal");
+
+        XuBank banco = XuBank.recuperar(diretorio, DurabilidadeJournal.NENHUMA, 0);
+        banco.CadastrarCliente("Maria Souza", "529.982.247-25", "Senha@123", 3000.0);
+        Cliente cliente = banco.buscarClientePorCpf("52998224725");
+        ContaPoupanca poupanca = new ContaPoupanca(cliente);
+        cliente.AdicionarConta(poupanca);
+
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> erros = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean deposita = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 2000; i++) {
+                        if (deposita) {
+                            poupanca.DepositarCentavos(1);
+                        } else {
+                            poupanca.SacarCentavos(1);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (erros) {
+                        erros.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(erros.isEmpty());
+        long saldoFinal = poupanca.getSaldoCentavos();
+        banco.encerrar();
+
+        long[] saldos = reproduzirVerificandoPrefixos(diretorio, poupanca.getNumero());
+        assertEquals(saldoFinal, saldos[0]);
+    }
+
+    // Transferências para uma conta enquanto outra thread saca dela o que acabou de chegar:
+    // o registro da transferência entra no journal antes de qualquer saque que dependa dela
+    @Test
+    public void testTransferenciaEntraNoJournalAntesDoSaqueQueDependeDela() throws Exception {
+        Path diretorio = pasta.getRoot().toPath().resolve("journal");
+
+        XuBank banco = XuBank.recuperar(diretorio, DurabilidadeJournal.NENHUMA, 0);
+        banco.CadastrarCliente("Maria Souza", "529.982.247-25", "Senha@123", 3000.0);
+        Cliente cliente = banco.buscarClientePorCpf("52998224725");
+        ContaPoupanca origem = new ContaPoupanca(cliente);
+        ContaRendaFixa destino = new ContaRendaFixa(cliente);
+        cliente.AdicionarConta(origem);
+        cliente.AdicionarConta(destino);
+        origem.DepositarCentavos(2000);
+
+        List<Throwable> erros = new ArrayList<>();
+        Thread transferencias = new Thread(() -> {
+            try {
+                for (int i = 0; i < 2000; i++) {
+                    banco.transferir(origem.getNumero(), destino.getNumero(), 1);
+                }
+            } catch (Throwable e) {
+                synchronized (erros) {
+                    erros.add(e);
+                }
+            }
+        });
+        Thread saques = new Thread(() -> {
+            try {
+                for (int i = 0; i < 4000; i++) {
+                    if (!destino.SacarCentavos(1)) {
+                        Thread.yield();
+                    }
+                }
+            } catch (Throwable e) {
+                synchronized (erros) {
+                    erros.add(e);
+                }
+            }
+        });
+        transferencias.start();
+        saques.start();
+        transferencias.join();
+        saques.join();
+        assertTrue(erros.isEmpty());
+        long saldoOrigem = origem.getSaldoCentavos();
+        long saldoDestino = destino.getSaldoCentavos();
+        banco.encerrar();
+
+        long[] saldos = reproduzirVerificandoPrefixos(diretorio, origem.getNumero(), destino.getNumero());
+        assertEquals(saldoOrigem, saldos[0]);
+        assertEquals(saldoDestino, saldos[1]);
+    }
+
+    // Percorre os registros em ordem de sequência aplicando movimentos e transferências às
+    // contas informadas; falha se algum prefixo deixar uma delas com saldo negativo
+    private static long[] reproduzirVerificandoPrefixos(Path diretorio, int... numeros) throws Exception {
+        long[] saldos = new long[numeros.length];
+        long sequenciaAnterior = 0;
+        for (Path segmento : JournalTransacoes.segmentos(diretorio)) {
+            ByteBuffer registros = ByteBuffer.wrap(Files.readAllBytes(segmento));
+            while (registros.hasRemaining()) {
+                int tamanho = registros.getInt();
+                registros.getInt(); // crc
+                int fim = registros.position() + tamanho;
+                byte tipo = registros.get();
+                long sequencia = registros.getLong();
+                assertTrue(sequencia > sequenciaAnterior);
+                sequenciaAnterior = sequencia;
+                if (tipo == JournalTransacoes.REGISTRO_MOVIMENTO) {
+                    int numero = registros.getInt();
+                    registros.get();
+                    long valor = registros.getLong();
+                    registros.get();
+                    aplicar(saldos, numeros, numero, valor - registros.getLong(), sequencia);
+                } else if (tipo == JournalTransacoes.REGISTRO_TRANSFERENCIA) {
+                    int origem = registros.getInt();
+                    int destino = registros.getInt();
+                    long valor = registros.getLong();
+                    long imposto = registros.getLong();
+                    long taxa = registros.getLong();
+                    aplicar(saldos, numeros, origem, -valor - imposto, sequencia);
+                    aplicar(saldos, numeros, destino, valor - taxa, sequencia);
+                }
+                registros.position(fim);
+            }
+        }
+        return saldos;
+    }
+
+    private static void aplicar(long[] saldos, int[] numeros, int numero, long variacao, long sequencia) {
+        for (int i = 0; i < numeros.length; i++) {
+            if (numeros[i] == numero) {
+                saldos[i] += variacao;
+                assertTrue("Saldo negativo após a sequência " + sequencia, saldos[i] >= 0);
+            }
+        }
+    }
+
+    @Test
+    public void testLoteAninhadoDeixaAEsperaParaOMaisExterno() throws Exception {
+        Path diretorio = pasta.getRoot().toPath().resolve("journal");
+        JournalTransacoes journal = JournalTransacoes.abrir(diretorio, 0, DurabilidadeJournal.AGRUPADA, 500);
+        try {
+            JournalTransacoes.iniciarLote();
+            long interno;
+            JournalTransacoes.iniciarLote();
+            try {
+                journal.confirmar(journal.registrarRenda(12345678909L, 1000.0));
+            } finally {
+                interno = JournalTransacoes.encerrarLote();
+            }
+            journal.confirmar(journal.registrarRenda(12345678909L, 2000.0));
+            long externo = JournalTransacoes.encerrarLote();
+
+            assertEquals(0, interno);
+            assertEquals(2, externo);
+            journal.aguardarAte(externo);
+        } finally {
+            journal.fechar();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    @Test
+    public void testPercentisDentroDaPrecisaoDasFaixas() {
+        LatencyHistogram histograma = new LatencyHistogram("teste");
+        for (long i = 1; i <= 100_000; i++) {
+            histograma.registrar(i * 10);
+        }
+
+        assertEquals(100_000, histograma.getContagem());
+        assertEquals(500_005, histograma.getMediaNanos());
+        assertEquals(1_000_000, histograma.getMaximoNanos());
+        // Cada faixa cobre 1/8 da sua potência de dois: erro de no máximo 12,5% para cima
+        assertBetween(500_000, 562_500, histograma.getP50Nanos());
+        assertBetween(990_000, 1_000_000, histograma.getP99Nanos());
+
+        for (long valor : new long[] {0, 7, 8, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int faixa = LatencyHistogram.faixa(valor);
+            assertTrue(valor <= LatencyHistogram.limiteSuperior(faixa) || faixa == LatencyHistogram.faixa(Long.MAX_VALUE));
+            assertTrue(faixa == 0 || valor > LatencyHistogram.limiteSuperior(faixa - 1));
+        }
+
+        histograma.zerar();
+        assertEquals(0, histograma.getContagem());
+        assertEquals(0, histograma.getP99Nanos());
+    }
+
+    private static void assertBetween(long minimo, long maximo, long valor) {
+        assertTrue(valor + " fora de [" + minimo + ", " + maximo + "]", valor >= minimo && valor <= maximo);
+    }
+
+    @Test
+    public void testOperacoesMedidasEExpostasViaJmx() throws Exception {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        Cliente cliente = banco.buscarClientePorCpf("12345678909");
+        ContaPoupanca poupanca = new ContaPoupanca(cliente);
+        cliente.AdicionarConta(poupanca);
+
+        long depositos = Metrics.DEPOSITAR[2].getContagem();
+        long saques = Metrics.SACAR[2].getContagem();
+        long falhas = Metrics.AUTENTICACAO_FALHA.getContagem();
+        poupanca.DepositarCentavos(100_00);
+        poupanca.SacarCentavos(10_00);
+        banco.autenticarCliente("12345678909", "Errada@123");
+
+        assertEquals(depositos + 1, Metrics.DEPOSITAR[2].getContagem());
+        assertEquals(saques + 1, Metrics.SACAR[2].getContagem());
+        assertEquals(falhas + 1, Metrics.AUTENTICACAO_FALHA.getContagem());
+        assertTrue(Metrics.ESPERA_CLIENTE.getContagem() > 0);
+
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nome = new ObjectName("xubank:type=Latencia,name=conta.depositar.poupanca");
+        assertEquals(Metrics.DEPOSITAR[2].getContagem(), servidor.getAttribute(nome, "Contagem"));
+        assertNotNull(servidor.getAttribute(new ObjectName("xubank:type=LogSeguranca"), "ProfundidadeFila"));
+
+        assertTrue(Metrics.relatorio().contains("conta.depositar.poupanca"));
+    }
+}
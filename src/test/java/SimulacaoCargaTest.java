@@ -0,0 +1,35 @@
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SimulacaoCargaTest {
+    private static final long SEMENTE = 42;
+
+    private final AlocadorNumeroConta alocadorOriginal = Conta.getAlocador();
+    private final TaxasMercado taxasOriginais = Conta.getTaxasMercado();
+
+    @After
+    public void restaurar() {
+        Conta.configurarAlocador(alocadorOriginal);
+        Conta.configurarTaxasMercado(taxasOriginais);
+    }
+
+    private static String simular() throws Exception {
+        SimulacaoCarga simulacao = SimulacaoCarga.simular(200, 2, 5_000, SEMENTE, null);
+        try {
+            return simulacao.estadoFinal();
+        } finally {
+            simulacao.encerrar();
+        }
+    }
+
+    @Test
+    public void testMesmaSementeProduzMesmoResultado() throws Exception {
+        String primeira = simular();
+        String segunda = simular();
+        assertEquals(primeira, segunda);
+        assertTrue(primeira.contains("deposito "));
+        assertTrue(primeira.split("\n").length > 200);
+    }
+}
@@ -0,0 +1,122 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SnapshotBancoTest {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void testSnapshotMaisJournalPosterior() throws Exception {
+        Path diretorio = pasta.getRoot().toPath().resolve("journal");
+
+        XuBank banco = XuBank.recuperar(diretorio, DurabilidadeJournal.NENHUMA, 0);
+        String[] cpfs = {"123.456.789-09", "529.982.247-25", "111.444.777-35"};
+        for (String cpf : cpfs) {
+            banco.CadastrarCliente("Cliente Teste", cpf, "Senha@123", 4000.0);
+            Cliente cliente = banco.buscarClientePorCpf(cpf);
+            cliente.AdicionarConta(new ContaCorrente(cliente));
+            cliente.AdicionarConta(new ContaPoupanca(cliente));
+            for (Conta conta : cliente.getContas()) {
+                conta.Depositar(500.0);
+            }
+        }
+        Cliente primeiro = banco.buscarClientePorCpf(cpfs[0]);
+        primeiro.getContas().get(0).Sacar(800.0); // corrente no cheque especial
+
+        long lsn = banco.gerarSnapshot().get();
+        assertTrue(lsn > 0);
+        assertEquals(1, JournalTransacoes.segmentos(diretorio).size()); // só o segmento aberto após a rotação
+
+        // Alterações depois do snapshot ficam apenas no journal
+        primeiro.getContas().get(1).Depositar(250.0);
+        primeiro.alterarSenha("Senha@123", "NovaSenha@456");
+        banco.CadastrarCliente("Cliente Novo", "935.411.347-80", "Senha@123", 2000.0);
+        banco.encerrar();
+
+        XuBank recuperado = XuBank.recuperar(diretorio, DurabilidadeJournal.NENHUMA, 0);
+        try {
+            assertEquals(4, recuperado.getNumeroClientes());
+            assertTrue(recuperado.autenticarCliente("12345678909", "NovaSenha@456"));
+            assertNotNull(recuperado.buscarClientePorCpf("93541134780"));
+
+            for (String cpf : cpfs) {
+                Cliente original = banco.buscarClientePorCpf(cpf);
+                Cliente restaurado = recuperado.buscarClientePorCpf(cpf);
+                assertEquals(original.getRendaMensal(), restaurado.getRendaMensal(), 0.0);
+                for (Conta conta : original.getContas()) {
+                    Conta copia = restaurado.buscarContaPorNumero(conta.getNumero());
+                    assertEquals(conta.getTipoConta(), copia.getTipoConta());
+                    assertEquals(conta.getSaldoCentavos(), copia.getSaldoCentavos());
+                    assertEquals(conta.getDataUltimaAtualizacao(), copia.getDataUltimaAtualizacao());
+                }
+            }
+            assertEquals(160000, ((ContaCorrente) recuperado.buscarClientePorCpf(cpfs[0]).getContas().get(0)).getLimiteCentavos());
+            assertTrue(recuperado.verificarCustodia().isEmpty());
+
+            // Índice de saldos reconstruído com snapshot e journal
+            assertEquals(4, recuperado.maioresSaldos(10).size());
+            for (Cliente cliente : recuperado.maioresSaldos(10)) {
+                assertEquals(cliente.getSaldoTotalCentavos(), cliente.getSaldoIndexado());
+            }
+        } finally {
+            recuperado.encerrar();
+        }
+    }
+
+    @Test
+    public void testSnapshotSemJournalFalha() {
+        XuBank banco = new XuBank();
+        try {
+            banco.gerarSnapshot().join();
+            fail("Snapshot sem journal deveria falhar");
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof SecurityException);
+        }
+    }
+
+    // Tamanho do nome e número de contas vão em 16 bits sem sinal: até 65535 voltam iguais
+    @Test
+    public void testNomeLongoVoltaDoSnapshot() throws Exception {
+        Path diretorio = pasta.getRoot().toPath().resolve("journal");
+        char[] letras = new char[40_000];
+        Arrays.fill(letras, 'a');
+        String nome = new String(letras);
+        byte[] salt = PasswordUtils.generateSalt();
+
+        XuBank banco = XuBank.recuperar(diretorio, DurabilidadeJournal.NENHUMA, 0);
+        banco.publicarImportados(Collections.singletonList(Cliente.restaurar(12345678909L, nome, salt,
+                PasswordUtils.hashPassword("Senha@123", salt), 3000.0)));
+        banco.gerarSnapshot().get();
+        banco.encerrar();
+
+        XuBank recuperado = XuBank.recuperar(diretorio, DurabilidadeJournal.NENHUMA, 0);
+        try {
+            assertEquals(nome, recuperado.buscarClientePorCpf("12345678909").getNome());
+        } finally {
+            recuperado.encerrar();
+        }
+
+        // Acima do limite o snapshot é recusado, em vez de gravar um tamanho truncado
+        XuBank excedido = new XuBank();
+        try {
+            char[] maisLetras = new char[70_000];
+            Arrays.fill(maisLetras, 'b');
+            excedido.publicarImportados(Collections.singletonList(Cliente.restaurar(52998224725L,
+                    new String(maisLetras), salt, PasswordUtils.hashPassword("Senha@123", salt), 3000.0)));
+            SnapshotBanco.gravar(excedido, 1, pasta.newFolder("excedido").toPath());
+            fail("Nome acima de 65535 bytes deveria falhar o snapshot");
+        } catch (SecurityException e) {
+            // esperado
+        } finally {
+            excedido.encerrar();
+        }
+    }
+}
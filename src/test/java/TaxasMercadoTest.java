@@ -0,0 +1,76 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TaxasMercadoTest {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void testSorteioUmaVezPorProdutoEMes() {
+        TaxasMercado taxas = new TaxasMercado(FonteRendimento.porThread());
+        YearMonth mes = YearMonth.of(2025, 3);
+
+        double rendaFixa = taxas.taxa(3, mes);
+        double investimento = taxas.taxa(4, mes);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(rendaFixa, taxas.taxa(3, mes), 0.0);
+            assertEquals(investimento, taxas.taxa(4, mes), 0.0);
+        }
+        assertTrue(rendaFixa >= 0.5 && rendaFixa < 0.85);
+        assertTrue(investimento >= -0.6 && investimento < 1.5);
+        assertArrayEquals(new double[]{taxas.taxa(4, mes), taxas.taxa(4, mes.plusMonths(1))},
+                taxas.taxas(4, mes, 2), 0.0);
+        assertEquals(0.0, taxas.taxasDoMes(mes)[2], 0.0);
+    }
+
+    @Test
+    public void testCarregarArquivoComMesesFaltantesSorteados() throws Exception {
+        Path arquivo = pasta.newFile("taxas.csv").toPath();
+        Files.write(arquivo, Arrays.asList("mes,tipo,taxa", "# dezembro negativo", "2024-11,3,0.72",
+                "2024-12,4,-0.35"), StandardCharsets.UTF_8);
+
+        FonteRendimento fonte = FonteRendimento.deterministica(7);
+        TaxasMercado carregadas = TaxasMercado.carregar(arquivo, fonte);
+        TaxasMercado sorteadas = new TaxasMercado(fonte);
+
+        assertEquals(0.72, carregadas.taxa(3, YearMonth.of(2024, 11)), 0.0);
+        assertEquals(-0.35, carregadas.taxa(4, YearMonth.of(2024, 12)), 0.0);
+        assertEquals(sorteadas.taxa(4, YearMonth.of(2024, 11)), carregadas.taxa(4, YearMonth.of(2024, 11)), 0.0);
+    }
+
+    @Test
+    public void testArquivoComRendaFixaNegativaFalha() throws Exception {
+        Path arquivo = pasta.newFile("negativa.csv").toPath();
+        Files.write(arquivo, Arrays.asList("2024-11,4,-0.35", "2024-11,3,-0.10"), StandardCharsets.UTF_8);
+
+        try {
+            TaxasMercado.carregar(arquivo, FonteRendimento.porThread());
+            fail("Taxa negativa de renda fixa deveria lançar SecurityException");
+        } catch (SecurityException e) {
+            assertTrue(e.getMessage().contains("linha 2"));
+        }
+    }
+
+    @Test
+    public void testArquivoComTaxaRepetidaFalha() throws Exception {
+        Path arquivo = pasta.newFile("repetida.csv").toPath();
+        Files.write(arquivo, Arrays.asList("2024-11,3,0.72", "2024-11,3,0.80"), StandardCharsets.UTF_8);
+
+        try {
+            TaxasMercado.carregar(arquivo, FonteRendimento.porThread());
+            fail("Taxa repetida deveria lançar SecurityException");
+        } catch (SecurityException e) {
+            assertTrue(e.getMessage().contains("linha 2"));
+        }
+    }
+}
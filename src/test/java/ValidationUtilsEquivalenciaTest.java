@@ -0,0 +1,180 @@
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+// Confronta as validações sem regex com as implementações anteriores, mantidas aqui como
+// referência: cada caractere UTF-16 em várias posições, todos os verificadores de uma
+// amostra de CPFs e entradas aleatórias sobre um alfabeto de casos de borda.
+public class ValidationUtilsEquivalenciaTest {
+    private static final Pattern CPF_PATTERN = Pattern.compile("\\d{11}");
+    private static final Pattern NOME_PATTERN = Pattern.compile("^[a-zA-ZÀ-ÿ\\s]{2,50}$");
+    private static final String ALFABETO = "0123456789 .-/\t\n\u000B\r\u0000aZÀÿ×Ā٣１<>\"'&!@Éé_";
+
+    private static boolean validarCpfReferencia(String cpf) {
+        if (cpf == null || cpf.trim().isEmpty()) {
+            return false;
+        }
+        String cpfLimpo = cpf.replaceAll("[^0-9]", "");
+        if (!CPF_PATTERN.matcher(cpfLimpo).matches()) {
+            return false;
+        }
+        if (cpfLimpo.matches("(\\d)\\1{10}")) {
+            return false;
+        }
+        int[] digitos = new int[11];
+        for (int i = 0; i < 11; i++) {
+            digitos[i] = Integer.parseInt(cpfLimpo.substring(i, i + 1));
+        }
+        int soma = 0;
+        for (int i = 0; i < 9; i++) {
+            soma += digitos[i] * (10 - i);
+        }
+        int resto = soma % 11;
+        if (((resto < 2) ? 0 : 11 - resto) != digitos[9]) {
+            return false;
+        }
+        soma = 0;
+        for (int i = 0; i < 10; i++) {
+            soma += digitos[i] * (11 - i);
+        }
+        resto = soma % 11;
+        return ((resto < 2) ? 0 : 11 - resto) == digitos[10];
+    }
+
+    private static boolean validarNomeReferencia(String nome) {
+        return nome != null && NOME_PATTERN.matcher(nome.trim()).matches();
+    }
+
+    private static boolean validarSenhaReferencia(String senha) {
+        if (senha == null || senha.length() < 8) {
+            return false;
+        }
+        boolean temMaiuscula = false;
+        boolean temMinuscula = false;
+        boolean temDigito = false;
+        boolean temEspecial = false;
+        for (char c : senha.toCharArray()) {
+            if (Character.isUpperCase(c)) temMaiuscula = true;
+            else if (Character.isLowerCase(c)) temMinuscula = true;
+            else if (Character.isDigit(c)) temDigito = true;
+            else if ("!@#$%^&*()_+-=[]{}|;:,.<>?".indexOf(c) >= 0) temEspecial = true;
+        }
+        return temMaiuscula && temMinuscula && temDigito && temEspecial;
+    }
+
+    private static String sanitizarReferencia(String input) {
+        if (input == null) return "";
+        return input.trim().replaceAll("[<>\"'&]", "");
+    }
+
+    private static void conferirCpf(String cpf) {
+        assertEquals(cpf, validarCpfReferencia(cpf), ValidationUtils.validarCPF(cpf));
+    }
+
+    private static void conferirNome(String nome) {
+        assertEquals(nome, validarNomeReferencia(nome), ValidationUtils.validarNome(nome));
+    }
+
+    private static void conferirSenha(String senha) {
+        assertEquals(senha, validarSenhaReferencia(senha), ValidationUtils.validarSenha(senha));
+    }
+
+    private static void conferirSanitizacao(String texto) {
+        assertEquals(sanitizarReferencia(texto), ValidationUtils.sanitizarString(texto));
+    }
+
+    @Test
+    public void testCadaCaractereUtf16() {
+        for (int i = 0; i <= Character.MAX_VALUE; i++) {
+            String c = String.valueOf((char) i);
+
+            conferirCpf("529.982" + c + ".247-25");
+            conferirCpf(c + "52998224725");
+            conferirCpf("5299822472" + c + "5");
+
+            conferirNome(c + "Ana");
+            conferirNome("Jo" + c + "ão");
+            conferirNome("Maria Souza" + c);
+            conferirNome(c + "a");
+            conferirNome(c + c);
+
+            conferirSenha("Abcdef1" + c);
+            conferirSenha("abcdef1!" + c);
+            conferirSenha("ABCDEF1!" + c);
+            conferirSenha("Abcdefg!" + c);
+            conferirSenha("Abcdef!" + c + c);
+
+            conferirSanitizacao(c);
+            conferirSanitizacao(" a" + c + "b ");
+            conferirSanitizacao(c + "xyz" + c);
+        }
+    }
+
+    @Test
+    public void testVerificadoresDeCpf() {
+        SplittableRandom random = new SplittableRandom(18);
+        for (int amostra = 0; amostra < 2000; amostra++) {
+            String prefixo = String.format("%09d", random.nextInt(1_000_000_000));
+            for (int dv = 0; dv < 100; dv++) {
+                String cpf = prefixo + String.format("%02d", dv);
+                conferirCpf(cpf);
+                if (dv % 10 == 0) {
+                    conferirCpf(cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9));
+                }
+            }
+        }
+        for (char d = '0'; d <= '9'; d++) {
+            String repetido = String.valueOf(d).repeat(11);
+            conferirCpf(repetido);
+            conferirCpf(repetido.substring(1));
+            conferirCpf(repetido + d);
+        }
+        conferirCpf(null);
+        conferirCpf("");
+        conferirCpf("   ");
+        conferirCpf("529982247250");
+        conferirCpf("5299822472");
+    }
+
+    @Test
+    public void testNomesPorTamanho() {
+        for (int tamanho = 0; tamanho <= 60; tamanho++) {
+            String nome = "a".repeat(tamanho);
+            conferirNome(nome);
+            conferirNome("  " + nome + "\t");
+            conferirNome(nome.replace('a', ' '));
+            conferirNome("Ñ" + nome + "é");
+        }
+        conferirNome(null);
+        conferirNome("😀😀");
+        conferirSenha(null);
+        conferirSanitizacao(null);
+    }
+
+    @Test
+    public void testEntradasAleatorias() {
+        SplittableRandom random = new SplittableRandom(2024);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            sb.setLength(0);
+            int tamanho = random.nextInt(20);
+            for (int j = 0; j < tamanho; j++) {
+                sb.append(ALFABETO.charAt(random.nextInt(ALFABETO.length())));
+            }
+            String texto = sb.toString();
+            conferirCpf(texto);
+            conferirNome(texto);
+            conferirSenha(texto);
+            conferirSanitizacao(texto);
+        }
+    }
+
+    @Test
+    public void testCaminhoDeSucessoNaoCopia() {
+        String limpo = "Maria Souza";
+        assertSame(limpo, ValidationUtils.sanitizarString(limpo));
+    }
+}
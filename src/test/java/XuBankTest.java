@@ -0,0 +1,319 @@
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class XuBankTest {
+
+    @Test
+    public void testBuscarClientePorCpfFormatadoOuNao() {
+        XuBank banco = new XuBank();
+        assertTrue(banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0));
+
+        Cliente cliente = banco.buscarClientePorCpf("12345678909");
+        assertNotNull(cliente);
+        assertSame(cliente, banco.buscarClientePorCpf("123.456.789-09"));
+        assertNull(banco.buscarClientePorCpf("529.982.247-25"));
+        assertNull(banco.buscarClientePorCpf("1234567890"));
+    }
+
+    @Test
+    public void testCadastroDuplicadoRejeitado() {
+        XuBank banco = new XuBank();
+        assertTrue(banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0));
+        assertFalse(banco.CadastrarCliente("Maria Souza", "12345678909", "Senha@123", 3000.0));
+        assertEquals(1, banco.getNumeroClientes());
+    }
+
+    @Test
+    public void testCustodiaIncrementalConfereComVarredura() throws SecurityException {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        Cliente cliente = banco.buscarClientePorCpf("12345678909");
+
+        ContaCorrente corrente = new ContaCorrente(cliente);
+        ContaPoupanca poupanca = new ContaPoupanca(cliente);
+        assertTrue(cliente.AdicionarConta(corrente));
+        assertTrue(cliente.AdicionarConta(poupanca));
+
+        corrente.Depositar(100.0);
+        poupanca.Depositar(1000.0);
+        poupanca.CalcularRendimento();
+        corrente.Sacar(300.0);   // fica negativa: sai da custódia
+        assertEquals(0, banco.getTotaisCustodia().getNumeroContas(1));
+        corrente.Depositar(500.0); // paga a taxa do cheque especial e volta
+
+        assertTrue(banco.verificarCustodia().isEmpty());
+        assertEquals(1006_00, banco.getTotaisCustodia().getSaldoCentavos(2));
+        assertEquals(corrente.getSaldoCentavos(), banco.getTotaisCustodia().getSaldoCentavos(1));
+        assertEquals(1, banco.getTotaisCustodia().getNumeroContas(1));
+    }
+
+    @Test
+    public void testRendimentoMensalEmTodosOsClientes() throws SecurityException {
+        XuBank banco = new XuBank();
+        String[] cpfs = {"123.456.789-09", "529.982.247-25", "111.444.777-35"};
+        for (String cpf : cpfs) {
+            assertTrue(banco.CadastrarCliente("Cliente Teste", cpf, "Senha@123", 3000.0));
+            Cliente cliente = banco.buscarClientePorCpf(cpf);
+            ContaPoupanca poupanca = new ContaPoupanca(cliente);
+            ContaCorrente corrente = new ContaCorrente(cliente);
+            cliente.AdicionarConta(poupanca);
+            cliente.AdicionarConta(corrente);
+            poupanca.Depositar(1000.0);
+            corrente.Depositar(1000.0);
+            poupanca.dataUltimaAtualizacao = LocalDate.now().minusMonths(1);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ResultadoRendimentoMensal resultado = banco.processarRendimentoMensal(executor);
+
+            assertEquals(3, resultado.getClientesProcessados());
+            assertEquals(3, resultado.getContasProcessadas());
+            assertEquals(0, resultado.getFalhas());
+            assertEquals(3 * 6_00, resultado.getVariacaoCentavos(2));
+            assertEquals(3 * 1006_00, banco.getTotaisCustodia().getSaldoCentavos(2));
+            assertEquals(3 * 1000_00, banco.getTotaisCustodia().getSaldoCentavos(1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Um segundo fechamento no mesmo mês não credita de novo
+    @Test
+    public void testRendimentoMensalRepetidoNoMesNaoCreditaDeNovo() throws SecurityException {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        Cliente cliente = banco.buscarClientePorCpf("12345678909");
+        ContaPoupanca poupanca = new ContaPoupanca(cliente);
+        cliente.AdicionarConta(poupanca);
+        poupanca.Depositar(1000.0);
+        poupanca.dataUltimaAtualizacao = LocalDate.now().minusMonths(1);
+
+        banco.processarRendimentoMensal();
+        ResultadoRendimentoMensal repetido = banco.processarRendimentoMensal();
+
+        assertEquals(1006_00, poupanca.getSaldoCentavos());
+        assertEquals(0, repetido.getContasProcessadas());
+        assertEquals(1, repetido.getContasJaAtualizadas());
+        assertEquals(0, repetido.getVariacaoCentavos(2));
+    }
+
+    // Uma conta parada há meses recebe todos os meses pendentes no fechamento, e
+    // AtualizarRendimento depois dele não credita nada
+    @Test
+    public void testRendimentoMensalCreditaMesesPendentesDeContaParada() throws SecurityException {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        Cliente cliente = banco.buscarClientePorCpf("12345678909");
+        ContaPoupanca parada = new ContaPoupanca(cliente);
+        ContaPoupanca referencia = new ContaPoupanca(cliente);
+        cliente.AdicionarConta(parada);
+        parada.Depositar(1000.0);
+        referencia.Depositar(1000.0);
+        parada.dataUltimaAtualizacao = LocalDate.now().minusMonths(5);
+        for (int i = 0; i < 5; i++) {
+            referencia.CalcularRendimento();
+        }
+
+        ResultadoRendimentoMensal resultado = banco.processarRendimentoMensal();
+        parada.AtualizarRendimento();
+
+        assertEquals(referencia.getSaldoCentavos(), parada.getSaldoCentavos());
+        assertEquals(referencia.getSaldoCentavos() - 1000_00, resultado.getVariacaoCentavos(2));
+        assertEquals(LocalDate.now(), parada.getDataUltimaAtualizacao());
+        assertTrue(banco.verificarCustodia().isEmpty());
+    }
+
+    @Test
+    public void testAutenticarClienteAsync() throws Exception {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+
+        try {
+            assertTrue(banco.autenticarClienteAsync("12345678909", "Senha@123").get());
+            assertFalse(banco.autenticarClienteAsync("12345678909", "Errada@123").get());
+            assertFalse(banco.autenticarClienteAsync("52998224725", "Senha@123").get());
+        } finally {
+            banco.encerrar();
+        }
+    }
+
+    @Test
+    public void testTransferenciaEntreClientesAplicaRegrasDasContas() throws SecurityException {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        banco.CadastrarCliente("Maria Souza", "529.982.247-25", "Senha@123", 3000.0);
+        Cliente joao = banco.buscarClientePorCpf("12345678909");
+        Cliente maria = banco.buscarClientePorCpf("52998224725");
+        ContaCorrente origem = new ContaCorrente(joao); // limite de R$ 2.000,00
+        ContaCorrente destino = new ContaCorrente(maria);
+        joao.AdicionarConta(origem);
+        maria.AdicionarConta(destino);
+        destino.SacarCentavos(100_00);
+
+        assertTrue(banco.transferir(origem.getNumero(), destino.getNumero(), 1500_00));
+        assertFalse(banco.transferir(origem.getNumero(), destino.getNumero(), 600_00));
+
+        assertEquals(-1500_00, origem.getSaldoCentavos());
+        assertEquals(-100_00 + 1500_00 - 13_00, destino.getSaldoCentavos()); // taxa do cheque especial no destino
+        assertTrue(banco.verificarCustodia().isEmpty());
+    }
+
+    // Política: transferência só move saldo. A renda fixa de origem não recebe o rendimento
+    // do período nem paga imposto, como pagaria num saque.
+    // Transferir de uma renda fixa cobra o mesmo imposto que sacar o mesmo valor dela
+    @Test
+    public void testTransferenciaDeRendaFixaPagaImpostoComoSaque() throws SecurityException {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        Cliente joao = banco.buscarClientePorCpf("12345678909");
+        ContaRendaFixa transferida = new ContaRendaFixa(joao);
+        ContaRendaFixa sacada = new ContaRendaFixa(joao);
+        ContaCorrente corrente = new ContaCorrente(joao);
+        joao.AdicionarConta(transferida);
+        joao.AdicionarConta(sacada);
+        joao.AdicionarConta(corrente);
+        transferida.DepositarCentavos(1000_00);
+        sacada.DepositarCentavos(1000_00);
+
+        assertTrue(banco.transferir(transferida.getNumero(), corrente.getNumero(), 300_00));
+        assertTrue(sacada.SacarCentavos(300_00));
+
+        assertEquals(sacada.getSaldoCentavos(), transferida.getSaldoCentavos());
+        assertEquals(300_00, corrente.getSaldoCentavos());
+        long imposto = 0;
+        for (Movimento movimento : transferida.getMovimentos(LocalDate.now(), LocalDate.now())) {
+            if (movimento.getTipo() == TipoMovimento.IMPOSTO) {
+                imposto -= movimento.getValorCentavos();
+            }
+        }
+        assertTrue(imposto > 0);
+        assertFalse(banco.transferir(transferida.getNumero(), corrente.getNumero(), transferida.getSaldoCentavos()));
+        assertTrue(banco.verificarCustodia().isEmpty());
+    }
+
+    // Uma transferência segura os monitores das contas, mas saques e leituras não esperam por eles
+    @Test
+    public void testSaqueNaoEsperaTransferenciaEmAndamento() throws Exception {
+        XuBank banco = new XuBank();
+        banco.CadastrarCliente("João Silva", "123.456.789-09", "Senha@123", 5000.0);
+        Cliente joao = banco.buscarClientePorCpf("12345678909");
+        ContaPoupanca poupanca = new ContaPoupanca(joao);
+        joao.AdicionarConta(poupanca);
+        poupanca.DepositarCentavos(100_00);
+
+        long[] saldoLido = new long[1];
+        Thread saque = new Thread(() -> {
+            try {
+                poupanca.SacarCentavos(40_00);
+                saldoLido[0] = poupanca.getSaldoCentavos();
+            } catch (SecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        synchronized (poupanca) {
+            saque.start();
+            saque.join(5000);
+            assertFalse(saque.isAlive());
+        }
+        assertEquals(60_00, saldoLido[0]);
+    }
+
+    @Test
+    public void testTransferenciasCruzadasConcorrentesConservamSaldo() throws Exception {
+        XuBank banco = new XuBank();
+        String[] cpfs = {"123.456.789-09", "529.982.247-25", "111.444.777-35"};
+        int[] numeros = new int[cpfs.length];
+        for (int i = 0; i < cpfs.length; i++) {
+            banco.CadastrarCliente("Cliente Teste", cpfs[i], "Senha@123", 3000.0);
+            Cliente cliente = banco.buscarClientePorCpf(cpfs[i]);
+            ContaPoupanca poupanca = new ContaPoupanca(cliente);
+            cliente.AdicionarConta(poupanca);
+            poupanca.DepositarCentavos(1000_00);
+            numeros[i] = poupanca.getNumero();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                int de = numeros[t % 3];
+                int para = numeros[(t + 1 + t / 3) % 3]; // metade num sentido, metade no outro
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        banco.transferirLote(Arrays.asList(new Transferencia(de, para, 1_00),
+                                new Transferencia(para, de, 2_00)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(3 * 1000_00, banco.getTotaisCustodia().getSaldoCentavos(2));
+        assertTrue(banco.verificarCustodia().isEmpty());
+    }
+
+    @Test
+    public void testIndiceDeSaldosAcompanhaAsContas() throws Exception {
+        XuBank banco = new XuBank();
+        String[] cpfs = {"123.456.789-09", "529.982.247-25", "111.444.777-35", "935.411.347-80"};
+        String[] nomes = {"Ana Lima", "Bruno Reis", "Carla Dias", "Davi Rocha"};
+        int[] numeros = new int[cpfs.length];
+        for (int i = 0; i < cpfs.length; i++) {
+            banco.CadastrarCliente(nomes[i], cpfs[i], "Senha@123", 3000.0);
+            Cliente cliente = banco.buscarClientePorCpf(cpfs[i]);
+            ContaCorrente corrente = new ContaCorrente(cliente);
+            cliente.AdicionarConta(corrente);
+            corrente.DepositarCentavos((i + 1) * 1000_00L);
+            numeros[i] = corrente.getNumero();
+        }
+
+        assertEquals("Davi Rocha", banco.maioresSaldos(1).get(0).getNome());
+        assertEquals("Ana Lima", banco.menoresSaldos(1).get(0).getNome());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int de = numeros[t];
+                int para = numeros[(t + 1) % numeros.length];
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 300; i++) {
+                        banco.transferir(de, para, (i % 7 + 1) * 1_00L);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Cliente> ranking = banco.maioresSaldos(10);
+        assertEquals(cpfs.length, ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            assertEquals(ranking.get(i).getSaldoTotalCentavos(), ranking.get(i).getSaldoIndexado());
+            if (i > 0) {
+                assertTrue(ranking.get(i - 1).getSaldoTotalCentavos() >= ranking.get(i).getSaldoTotalCentavos());
+            }
+        }
+        assertSame(ranking.get(0), banco.menoresSaldos(10).get(cpfs.length - 1));
+        assertTrue(banco.ClientesExtremos().startsWith("Cliente com maior saldo: " + ranking.get(0).getNome()));
+    }
+}